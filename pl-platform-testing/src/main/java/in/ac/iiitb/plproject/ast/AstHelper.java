@@ -23,6 +23,105 @@ public class AstHelper {
         return null;
     }
     
+    /**
+     * Check whether an expression is a binary operator expression.
+     */
+    public static boolean isBinaryExpr(Expr expr) {
+        return expr instanceof BinaryExpr;
+    }
+    
+    /**
+     * Operator name of a binary expression (as passed to createBinaryExpr), or null
+     * if the expression is not binary.
+     */
+    public static String getBinaryOperator(Expr expr) {
+        return expr instanceof BinaryExpr ? ((BinaryExpr) expr).op.name() : null;
+    }
+    
+    public static Expr getLeftOperand(Expr expr) {
+        return expr instanceof BinaryExpr ? ((BinaryExpr) expr).left : null;
+    }
+    
+    public static Expr getRightOperand(Expr expr) {
+        return expr instanceof BinaryExpr ? ((BinaryExpr) expr).right : null;
+    }
+    
+    /**
+     * Check whether an expression is the boolean literal with the given value.
+     */
+    public static boolean isBooleanLiteral(Expr expr, boolean value) {
+        return expr instanceof BooleanLiteralExpr && ((BooleanLiteralExpr) expr).value == value;
+    }
+    
+    /**
+     * The operands of a chain of the given operator, left to right: "a && (b && c)"
+     * split on AND gives [a, b, c]. Any other expression is a chain of one.
+     */
+    public static List<Expr> splitChain(Expr expr, String operatorName) {
+        List<Expr> operands = new ArrayList<>();
+        Deque<Expr> pending = new ArrayDeque<>();
+        pending.push(expr);
+        while (!pending.isEmpty()) {
+            Expr e = pending.pop();
+            if (operatorName.equals(getBinaryOperator(e))) {
+                pending.push(((BinaryExpr) e).right);
+                pending.push(((BinaryExpr) e).left);
+            } else {
+                operands.add(e);
+            }
+        }
+        return operands;
+    }
+    
+    /**
+     * Add the variable names an expression reads to names. Array element names
+     * such as "x[0]" contribute their array, x.
+     */
+    public static void addVariableNames(Expr expr, final Set<String> names) {
+        ExprTraversal.walk(expr, new ExprVisitor() {
+            @Override
+            public boolean enter(Expr e) {
+                String name = getNameFromExpr(e);
+                if (name != null) {
+                    int bracket = name.indexOf('[');
+                    names.add(bracket > 0 ? name.substring(0, bracket) : name);
+                }
+                return true;
+            }
+        });
+    }
+    
+    /**
+     * Library methods known not to modify their receiver or arguments.
+     */
+    public static boolean isPureMethod(String methodName) {
+        return PURE_METHODS.contains(methodName);
+    }
+    
+    private static final Set<String> PURE_METHODS = new HashSet<>(Arrays.asList(
+        "equals", "contains", "containsKey", "containsValue", "isEmpty", "startsWith", "endsWith",
+        "size", "length", "hashCode", "indexOf", "toString", "get", "asList"));
+    
+    /**
+     * Whether evaluating an expression may have side effects: it contains an
+     * assignment or a call to a method not known to be pure. Object creation
+     * (collection and array construction in generated code) counts as pure.
+     */
+    public static boolean hasSideEffects(Expr expr) {
+        final boolean[] found = new boolean[1];
+        ExprTraversal.walk(expr, new ExprVisitor() {
+            @Override
+            public boolean enter(Expr e) {
+                if (e instanceof AssignExpr
+                    || (e instanceof MethodCallExpr && !isPureMethod(((MethodCallExpr) e).name.identifier))) {
+                    found[0] = true;
+                }
+                return !found[0];
+            }
+        });
+        return found[0];
+    }
+    
     /**
      * Create a NameExpr from a string name.
      */
@@ -42,130 +141,83 @@ public class AstHelper {
         if (!(expr instanceof Expr)) {
             return expr; // Return as is if not an AST expression
         }
-        return transformPostConditionRecursive((Expr) expr, resultVarName, oldStateMap, params, false);
+        return ExprTraversal.rewrite((Expr) expr, new PostConditionRewriter(resultVarName, oldStateMap));
     }
 
-    private static Expr transformPostConditionRecursive(Expr expr, String resultVarName, Map<String, String> oldStateMap, List<Variable> params, boolean insidePrime) {
-        if (expr == null) {
-            return null;
+    /**
+     * Rewriter behind transformPostCondition.
+     */
+    private static final class PostConditionRewriter implements ExprRewriter {
+        private final String resultVarName;
+        private final Map<String, String> oldStateMap;
+
+        PostConditionRewriter(String resultVarName, Map<String, String> oldStateMap) {
+            this.resultVarName = resultVarName;
+            this.oldStateMap = oldStateMap;
         }
 
-        if (expr instanceof NameExpr) {
-            NameExpr nameExpr = (NameExpr) expr;
-            String name = ((SimpleName) nameExpr.name).identifier;
+        @Override
+        public boolean descend(Expr expr) {
+            // The argument of a prime operator is rewritten as post-state in rewrite()
+            return !isPrimeCall(expr);
+        }
 
-            // Case 1: We're inside a prime operator (insidePrime = true)
-            // The variable represents post-state
-            if (insidePrime) {
-                // If there's a return value, post-state variables map to resultVarName
-                // Otherwise, they represent in-place modification (keep the name as-is)
-                if (resultVarName != null) {
-                    // Check if this variable is a parameter (might be modified in-place or returned)
-                    // For simplicity, if resultVarName exists, map to result
-                    // This matches the behavior for _post suffix
-                    return createNameExpr(resultVarName);
-                } else {
-                    // Void function: variable represents in-place modification, keep name as-is
-                    return nameExpr;
-                }
-            }
-            
-            // Case 2: Variable needs to be replaced with its old state (e.g., x -> old_x)
-            // Only if we're NOT inside a prime operator
-            if (oldStateMap.containsKey(name)) {
-                return createNameExpr(oldStateMap.get(name));
-            }
-            
-            // Case 3: Post-state variable (e.g., x_post)
-            if (name.endsWith("_post")) {
-                String baseName = name.substring(0, name.length() - "_post".length());
-                // If there's a return value, x_post maps to resultVarName
-                if (resultVarName != null) {
-                    // Simplified: assume if resultVarName exists, post-state vars map to it
-                    return createNameExpr(resultVarName);
+        @Override
+        public Expr rewrite(Expr original, Expr rebuilt) {
+            if (rebuilt instanceof NameExpr) {
+                NameExpr nameExpr = (NameExpr) rebuilt;
+                String name = ((SimpleName) nameExpr.name).identifier;
+
+                // Variable needs to be replaced with its old state (e.g., x -> old_x)
+                if (oldStateMap.containsKey(name)) {
+                    return createNameExpr(oldStateMap.get(name));
                 }
-                // If void function, x_post maps to x (in-place modification)
-                else {
-                    return createNameExpr(baseName);
+                
+                // Post-state variable (e.g., x_post)
+                if (name.endsWith("_post")) {
+                    String baseName = name.substring(0, name.length() - "_post".length());
+                    // If there's a return value, x_post maps to resultVarName
+                    if (resultVarName != null) {
+                        // Simplified: assume if resultVarName exists, post-state vars map to it
+                        return createNameExpr(resultVarName);
+                    }
+                    // If void function, x_post maps to x (in-place modification)
+                    else {
+                        return createNameExpr(baseName);
+                    }
                 }
-            }
-            
-            // Case 4: Other NameExpr - return as is
-            return nameExpr;
-        } else if (expr instanceof MethodCallExpr) {
-            MethodCallExpr methodCallExpr = (MethodCallExpr) expr;
-            
-            // Handle prime operator: '(x) -> extract x and transform it
-            if (methodCallExpr.name.identifier.equals("'")) {
-                // Remove the prime operator wrapper and transform the inner expression
-                // The inner expression represents post-state, so we pass insidePrime=true
-                if (!methodCallExpr.args.isEmpty()) {
-                    return transformPostConditionRecursive(methodCallExpr.args.get(0), resultVarName, oldStateMap, params, true);
-                } else {
+                
+                // Other NameExpr - return as is
+                return nameExpr;
+            } else if (isPrimeCall(original)) {
+                // Handle prime operator: '(x) -> extract x and transform it
+                MethodCallExpr methodCallExpr = (MethodCallExpr) original;
+                if (methodCallExpr.args.isEmpty()) {
                     return null; // Invalid prime operator call with no arguments
                 }
-            } else {
-                // Regular method call - transform scope and arguments
-                Expr scope = transformPostConditionRecursive(methodCallExpr.scope, resultVarName, oldStateMap, params, false);
-                List<Expr> args = new ArrayList<>();
-                for (Expr arg : methodCallExpr.args) {
-                    args.add(transformPostConditionRecursive(arg, resultVarName, oldStateMap, params, false));
+                Expr arg = methodCallExpr.args.get(0);
+                if (arg instanceof NameExpr) {
+                    // The variable represents post-state.
+                    // If there's a return value, post-state variables map to resultVarName
+                    // (this matches the behavior for _post suffix).
+                    // Otherwise, they represent in-place modification (keep the name as-is)
+                    return resultVarName != null ? createNameExpr(resultVarName) : arg;
                 }
-                
+                return ExprTraversal.rewrite(arg, this);
+            } else if (rebuilt instanceof MethodCallExpr) {
+                MethodCallExpr methodCallExpr = (MethodCallExpr) rebuilt;
                 // If scope is null and method name is a known helper function (like "update"), prefix with Helper.
-                if (scope == null && isKnownHelperFunction(methodCallExpr.name.identifier)) {
-                    scope = createNameExpr("Helper");
+                if (methodCallExpr.scope == null && isKnownHelperFunction(methodCallExpr.name.identifier)) {
+                    return createMethodCallExpr(createNameExpr("Helper"), methodCallExpr.name.identifier, methodCallExpr.args);
                 }
-                
-                return createMethodCallExpr(scope, methodCallExpr.name.identifier, args);
-            }
-        } else if (expr instanceof BinaryExpr) {
-            BinaryExpr binExpr = (BinaryExpr) expr;
-            Expr left = transformPostConditionRecursive(binExpr.left, resultVarName, oldStateMap, params, false);
-            Expr right = transformPostConditionRecursive(binExpr.right, resultVarName, oldStateMap, params, false);
-            return createBinaryExpr(left, right, binExpr.op.toString());
-        } else if (expr instanceof UnaryExpr) {
-            UnaryExpr unaryExpr = (UnaryExpr) expr;
-            Expr innerExpr = transformPostConditionRecursive(unaryExpr.expr, resultVarName, oldStateMap, params, false);
-            return createUnaryExpr(innerExpr, unaryExpr.op.toString());
-        } else if (expr instanceof FieldAccessExpr) {
-            FieldAccessExpr fieldAccessExpr = (FieldAccessExpr) expr;
-            Expr scope = transformPostConditionRecursive(fieldAccessExpr.scope, resultVarName, oldStateMap, params, false);
-            return new FieldAccessExpr(scope, fieldAccessExpr.field);
-        } else if (expr instanceof SetExpr) {
-            SetExpr setExpr = (SetExpr) expr;
-            List<Expr> elements = new ArrayList<>();
-            for (Expr element : setExpr.elements) {
-                elements.add(transformPostConditionRecursive(element, resultVarName, oldStateMap, params, false));
             }
-            return new SetExpr(elements);
-        } else if (expr instanceof MapExpr) {
-            MapExpr mapExpr = (MapExpr) expr;
-            List<Pair<NameExpr, Expr>> entries = new ArrayList<>();
-            for (Pair<NameExpr, Expr> entry : mapExpr.entries) {
-                // Key is NameExpr, Value is Expr
-                NameExpr key = (NameExpr) transformPostConditionRecursive(entry.key, resultVarName, oldStateMap, params, false);
-                Expr value = transformPostConditionRecursive(entry.value, resultVarName, oldStateMap, params, false);
-                entries.add(new Pair<>(key, value));
-            }
-            return new MapExpr(entries);
-        } else if (expr instanceof TupleExpr) {
-            TupleExpr tupleExpr = (TupleExpr) expr;
-            List<Expr> elements = new ArrayList<>();
-            for (Expr element : tupleExpr.elements) {
-                elements.add(transformPostConditionRecursive(element, resultVarName, oldStateMap, params, false));
-            }
-            return new TupleExpr(elements);
-        } else if (expr instanceof ObjectCreationExpr) {
-            ObjectCreationExpr objCreationExpr = (ObjectCreationExpr) expr;
-            List<Expr> args = new ArrayList<>();
-            for (Expr arg : objCreationExpr.args) {
-                args.add(transformPostConditionRecursive(arg, resultVarName, oldStateMap, params, false));
-            }
-            return createObjectCreationExpr(((ClassOrInterfaceType) objCreationExpr.type).name.identifier, args);
+            // Literals and ThisExpr come back as is; other nodes are rebuilt from their transformed children
+            return rebuilt;
         }
-        // For literals (IntegerLiteralExpr, DoubleLiteralExpr, StringLiteralExpr, BooleanLiteralExpr) and ThisExpr, return as is.
-        return expr;
+    }
+
+    private static boolean isPrimeCall(Expr expr) {
+        return expr instanceof MethodCallExpr && ((MethodCallExpr) expr).name.identifier.equals("'");
     }
     
     /**
@@ -184,11 +236,36 @@ public class AstHelper {
      * For post-condition "x_post > x" or "'(x) > x", this returns {"x"}.
      */
     public static Set<String> collectVarsToSnapshot(Object expr) {
-        Set<String> result = new HashSet<>();
+        final Set<String> result = new HashSet<>();
         if (!(expr instanceof Expr)) {
             return result;
         }
-        collectVarsToSnapshotRecursive((Expr) expr, result);
+        ExprTraversal.walk((Expr) expr, new ExprVisitor() {
+            @Override
+            public boolean enter(Expr e) {
+                if (e instanceof NameExpr) {
+                    String name = ((SimpleName) ((NameExpr) e).name).identifier;
+                    if (!name.endsWith("_post")) {
+                        result.add(name);
+                    }
+                } else if (isPrimeCall(e)) {
+                    // Collect the variable name from the first argument of the prime operator
+                    MethodCallExpr methodCallExpr = (MethodCallExpr) e;
+                    if (!methodCallExpr.args.isEmpty()) {
+                        String varName = getNameFromExpr(methodCallExpr.args.get(0));
+                        if (varName != null) {
+                            result.add(varName);
+                        }
+                    }
+                    // Don't descend into prime operator arguments - we've already handled it
+                    return false;
+                } else if (e instanceof ObjectCreationExpr) {
+                    // Constructor arguments do not contain variables to snapshot directly
+                    return false;
+                }
+                return true;
+            }
+        });
         return result;
     }
     
@@ -205,136 +282,65 @@ public class AstHelper {
         if (post == null || !(post instanceof Expr)) {
             return null;
         }
-        return findPostStateParameterRecursive((Expr) post, paramNames);
+        return ExprTraversal.fold((Expr) post, new PostStateParameterFinder(paramNames));
     }
     
     /**
-     * Recursive helper to find parameter referenced in post-state.
-     * Has direct access to AST classes since it's in the same package.
+     * Folder behind findPostStateParameter. Only descends through method calls,
+     * binary and unary expressions; within a method call, the prime operator itself
+     * is checked first, then the arguments, then the scope.
      */
-    private static String findPostStateParameterRecursive(Expr expr, List<String> paramNames) {
-        if (expr == null) {
-            return null;
-        }
-        
-        if (expr instanceof MethodCallExpr) {
-            MethodCallExpr methodCallExpr = (MethodCallExpr) expr;
-            
-            // Check for prime operator: '(x)
-            if (methodCallExpr.name.identifier.equals("'") && !methodCallExpr.args.isEmpty()) {
-                // Prime operator found - extract variable name from first argument
-                Expr arg = methodCallExpr.args.get(0);
-                String varName = getNameFromExpr(arg);
-                if (varName != null && paramNames.contains(varName)) {
-                    return varName;
-                }
-            }
-            
-            // Recursively check arguments
-            for (Expr arg : methodCallExpr.args) {
-                String result = findPostStateParameterRecursive(arg, paramNames);
-                if (result != null) {
-                    return result;
-                }
-            }
-            
-            // Check scope if present
-            if (methodCallExpr.scope != null) {
-                return findPostStateParameterRecursive(methodCallExpr.scope, paramNames);
-            }
-        } else if (expr instanceof BinaryExpr) {
-            BinaryExpr binExpr = (BinaryExpr) expr;
-            String result = findPostStateParameterRecursive(binExpr.left, paramNames);
-            if (result != null) {
-                return result;
-            }
-            return findPostStateParameterRecursive(binExpr.right, paramNames);
-        } else if (expr instanceof NameExpr) {
-            NameExpr nameExpr = (NameExpr) expr;
-            String name = ((SimpleName) nameExpr.name).identifier;
-            
-            // Check for _post suffix
-            if (name.endsWith("_post")) {
-                String baseName = name.substring(0, name.length() - "_post".length());
-                if (paramNames.contains(baseName)) {
-                    return baseName;
-                }
-            }
-        } else if (expr instanceof UnaryExpr) {
-            UnaryExpr unaryExpr = (UnaryExpr) expr;
-            return findPostStateParameterRecursive(unaryExpr.expr, paramNames);
+    static final class PostStateParameterFinder implements ExprFolder<String> {
+        private final List<String> paramNames;
+
+        PostStateParameterFinder(List<String> paramNames) {
+            this.paramNames = paramNames;
         }
-        
-        return null;
-    }
 
-    private static void collectVarsToSnapshotRecursive(Expr expr, Set<String> result) {
-        if (expr == null) {
-            return;
+        @Override
+        public boolean descend(Expr expr) {
+            return expr instanceof MethodCallExpr || expr instanceof BinaryExpr || expr instanceof UnaryExpr;
         }
 
-        if (expr instanceof NameExpr) {
-            String name = ((SimpleName) ((NameExpr) expr).name).identifier;
-            if (!name.endsWith("_post")) {
-                result.add(name);
-            }
-        } else if (expr instanceof MethodCallExpr) {
-            MethodCallExpr methodCallExpr = (MethodCallExpr) expr;
-            
-            // Handle prime operator: '(x) -> extract variable name from argument
-            if (methodCallExpr.name.identifier.equals("'")) {
-                // Collect the variable name from the first argument of the prime operator
-                if (!methodCallExpr.args.isEmpty()) {
-                    Expr arg0 = methodCallExpr.args.get(0);
-                    String varName = getNameFromExpr(arg0);
-                    if (varName != null) {
-                        result.add(varName);
+        @Override
+        public String fold(Expr expr, List<String> childResults) {
+            if (expr instanceof MethodCallExpr) {
+                MethodCallExpr methodCallExpr = (MethodCallExpr) expr;
+                // Check for prime operator: '(x)
+                if (isPrimeCall(expr) && !methodCallExpr.args.isEmpty()) {
+                    String varName = getNameFromExpr(methodCallExpr.args.get(0));
+                    if (varName != null && paramNames.contains(varName)) {
+                        return varName;
                     }
                 }
-                // Don't recurse into prime operator arguments - we've already handled it
-                return;
-            } else {
-                // Regular method call - recurse into scope and arguments
-                if (methodCallExpr.scope != null) {
-                    collectVarsToSnapshotRecursive(methodCallExpr.scope, result);
+                // Arguments, then scope (children order is scope first)
+                for (int i = 1; i < childResults.size(); i++) {
+                    if (childResults.get(i) != null) {
+                        return childResults.get(i);
+                    }
                 }
-                for (Expr arg : methodCallExpr.args) {
-                    collectVarsToSnapshotRecursive(arg, result);
+                return childResults.get(0);
+            } else if (expr instanceof BinaryExpr) {
+                return childResults.get(0) != null ? childResults.get(0) : childResults.get(1);
+            } else if (expr instanceof UnaryExpr) {
+                return childResults.get(0);
+            } else if (expr instanceof NameExpr) {
+                String name = ((SimpleName) ((NameExpr) expr).name).identifier;
+                // Check for _post suffix
+                if (name.endsWith("_post")) {
+                    String baseName = name.substring(0, name.length() - "_post".length());
+                    if (paramNames.contains(baseName)) {
+                        return baseName;
+                    }
                 }
             }
-        } else if (expr instanceof BinaryExpr) {
-            BinaryExpr binExpr = (BinaryExpr) expr;
-            collectVarsToSnapshotRecursive(binExpr.left, result);
-            collectVarsToSnapshotRecursive(binExpr.right, result);
-        } else if (expr instanceof UnaryExpr) {
-            UnaryExpr unaryExpr = (UnaryExpr) expr;
-            collectVarsToSnapshotRecursive(unaryExpr.expr, result);
-        } else if (expr instanceof FieldAccessExpr) {
-            FieldAccessExpr fieldAccessExpr = (FieldAccessExpr) expr;
-            collectVarsToSnapshotRecursive(fieldAccessExpr.scope, result);
-            // The field itself is a SimpleName, not an Expr, so no recursion on it directly.
-        } else if (expr instanceof SetExpr) {
-            SetExpr setExpr = (SetExpr) expr;
-            for (Expr element : setExpr.elements) {
-                collectVarsToSnapshotRecursive(element, result);
-            }
-        } else if (expr instanceof MapExpr) {
-            MapExpr mapExpr = (MapExpr) expr;
-            for (Pair<NameExpr, Expr> entry : mapExpr.entries) {
-                collectVarsToSnapshotRecursive(entry.key, result);
-                collectVarsToSnapshotRecursive(entry.value, result);
-            }
-        } else if (expr instanceof TupleExpr) {
-            TupleExpr tupleExpr = (TupleExpr) expr;
-            for (Expr element : tupleExpr.elements) {
-                collectVarsToSnapshotRecursive(element, result);
-            }
+            return null;
         }
-        // Literals, ThisExpr, ObjectCreationExpr do not contain variables to snapshot directly
     }
     
     /**
      * Convert an AST expression to Java code string.
+     * Only the parentheses required by Java operator precedence are emitted.
      */
     public static String exprToJavaCode(Object expr) {
         if (expr == null) {
@@ -343,233 +349,48 @@ public class AstHelper {
         if (!(expr instanceof Expr)) {
             return expr.toString(); // Fallback for non-Expr objects (e.g., JmlFunctionSpec itself)
         }
-
-        Expr e = (Expr) expr;
-
-        if (e instanceof BinaryExpr) {
-            BinaryExpr binExpr = (BinaryExpr) e;
-            String left = exprToJavaCode(binExpr.left);
-            String right = exprToJavaCode(binExpr.right);
-            String operator = "";
-            BinaryExpr.Operator op = binExpr.op;
-            if (op == BinaryExpr.Operator.AND) {
-                operator = " && ";
-                // Strip outer parentheses from left and right if they exist, then combine
-                String leftClean = stripOuterParens(left);
-                String rightClean = stripOuterParens(right);
-                return leftClean + operator + rightClean;
-            } else if (op == BinaryExpr.Operator.OR) {
-                operator = " || ";
-                // Strip outer parentheses from left and right if they exist, then combine
-                String leftClean = stripOuterParens(left);
-                String rightClean = stripOuterParens(right);
-                return leftClean + operator + rightClean;
-            } else if (op == BinaryExpr.Operator.EQUALS) {
-                // For EQUALS, use .equals() for object comparisons, == for primitives
-                // Special case: if comparing with null, use simple == null
-                if (left.equals("null") || right.equals("null")) {
-                    String varName = left.equals("null") ? right : left;
-                    return "(" + varName + " == null)";
-                } else if (isObjectExpression(binExpr.left) || isObjectExpression(binExpr.right)) {
-                    // Check if one side is a method call (which returns a new object)
-                    // For Map comparisons, we need to use .equals() directly, not Objects.equals()
-                    boolean leftIsMethodCall = binExpr.left instanceof MethodCallExpr;
-                    boolean rightIsMethodCall = binExpr.right instanceof MethodCallExpr;
-                    boolean mightBeMapComparison = isLikelyMapExpression(binExpr.left) || isLikelyMapExpression(binExpr.right);
-                    
-                    // If one side is a method call or this looks like a Map comparison,
-                    // generate code that uses .equals() with explicit null checks
-                    // This ensures Map.equals() is used for content comparison, not reference equality
-                    if (leftIsMethodCall || rightIsMethodCall || mightBeMapComparison) {
-                        // Generate: (left != null && right != null && left.equals(right))
-                        // Note: This assumes the method call is on the right side
-                        // For method calls on left, we'd need to handle it differently
-                        if (rightIsMethodCall) {
-                            // Method call on right: store result and compare
-                            // We can't easily store it here, so generate direct comparison with null checks
-                            return "(" + left + " != null && " + right + " != null && " + left + ".equals(" + right + "))";
-                        } else if (leftIsMethodCall) {
-                            // Method call on left: compare with right
-                            return "(" + left + " != null && " + right + " != null && " + left + ".equals(" + right + "))";
-                        } else {
-                            // Map comparison: use .equals() with null checks
-                            return "(" + left + " != null && " + right + " != null && " + left + ".equals(" + right + "))";
-                        }
-                    } else {
-                        // Use .equals() for object comparisons with null safety
-                        // Generate: (left != null && left.equals(right)) || (left == null && right == null)
-                        // Or simpler: java.util.Objects.equals(left, right)
-                        return "(java.util.Objects.equals(" + left + ", " + right + "))";
-                    }
-                } else {
-                    operator = " == ";
-                }
-            } else if (op == BinaryExpr.Operator.NOT_EQUALS) {
-                // For NOT_EQUALS, use !.equals() for object comparisons, != for primitives
-                // Special case: if comparing with null, use simple != null
-                if (left.equals("null") || right.equals("null")) {
-                    String varName = left.equals("null") ? right : left;
-                    return "(" + varName + " != null)";
-                } else if (isObjectExpression(binExpr.left) || isObjectExpression(binExpr.right)) {
-                    return "(!java.util.Objects.equals(" + left + ", " + right + "))";
-                } else {
-                    operator = " != ";
-                }
-            } else if (op == BinaryExpr.Operator.LESS_THAN) {
-                operator = " < ";
-            } else if (op == BinaryExpr.Operator.LESS_THAN_OR_EQUAL) {
-                operator = " <= ";
-            } else if (op == BinaryExpr.Operator.GREATER_THAN) {
-                operator = " > ";
-            } else if (op == BinaryExpr.Operator.GREATER_THAN_OR_EQUAL) {
-                operator = " >= ";
-            } else if (op == BinaryExpr.Operator.PLUS) {
-                operator = " + ";
-                // Keep parentheses for string concatenation (used in println)
-                // This matches the correct version which has parentheses
-            } else if (op == BinaryExpr.Operator.MINUS) {
-                operator = " - ";
-            } else if (op == BinaryExpr.Operator.MULTIPLY) {
-                operator = " * ";
-            } else if (op == BinaryExpr.Operator.DIVIDE) {
-                operator = " / ";
-            } else {
-                operator = " " + binExpr.op.toString() + " "; // Fallback
-            }
-            return "(" + left + operator + right + ")";
-        } else if (e instanceof NameExpr) {
-            NameExpr nameExpr = (NameExpr) e;
-            return ((SimpleName) nameExpr.name).identifier;
-        } else if (e instanceof MethodCallExpr) {
-            MethodCallExpr methodCallExpr = (MethodCallExpr) e;
-            StringBuilder sb = new StringBuilder();
-            if (methodCallExpr.scope != null) {
-                sb.append(exprToJavaCode(methodCallExpr.scope)).append(".");
-            }
-            sb.append(methodCallExpr.name.identifier).append("(");
-            for (int i = 0; i < methodCallExpr.args.size(); i++) {
-                sb.append(exprToJavaCode(methodCallExpr.args.get(i)));
-                if (i < methodCallExpr.args.size() - 1) {
-                    sb.append(", ");
-                }
-            }
-            sb.append(")");
-            return sb.toString();
-        } else if (e instanceof IntegerLiteralExpr) {
-            return String.valueOf(((IntegerLiteralExpr) e).value);
-        } else if (e instanceof DoubleLiteralExpr) {
-            return String.valueOf(((DoubleLiteralExpr) e).value);
-        } else if (e instanceof StringLiteralExpr) {
-            return "\"" + ((StringLiteralExpr) e).value + "\"";
-        } else if (e instanceof BooleanLiteralExpr) { // Handle BooleanLiteralExpr
-            return String.valueOf(((BooleanLiteralExpr) e).value);
-        } else if (e instanceof UnaryExpr) {
-            UnaryExpr unaryExpr = (UnaryExpr) e;
-            String expression = exprToJavaCode(unaryExpr.expr);
-            String operator = "";
-            UnaryExpr.Operator op = unaryExpr.op;
-            if (op == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
-                operator = "!";
-            } else if (op == UnaryExpr.Operator.MINUS) {
-                operator = "-";
-            } else if (op == UnaryExpr.Operator.PLUS) {
-                operator = "+";
-            } else {
-                operator = unaryExpr.op.toString(); // Fallback
-            }
-            return operator + expression;
-        } else if (e instanceof ObjectCreationExpr) {
-            ObjectCreationExpr objCreationExpr = (ObjectCreationExpr) e;
-            String typeName = ((ClassOrInterfaceType) objCreationExpr.type).name.identifier;
-            
-            // Special handling for array types: "int[]" -> "new int[]{x}"
-            if (typeName.endsWith("[]")) {
-                String baseType = typeName.substring(0, typeName.length() - 2);
-                StringBuilder sb = new StringBuilder("new ");
-                sb.append(baseType).append("[]{");
-                for (int i = 0; i < objCreationExpr.args.size(); i++) {
-                    sb.append(exprToJavaCode(objCreationExpr.args.get(i)));
-                    if (i < objCreationExpr.args.size() - 1) {
-                        sb.append(", ");
-                    }
-                }
-                sb.append("}");
-                return sb.toString();
-            }
-            
-            // Special handling for Set - cannot instantiate interface directly
-            if (typeName.equals("Set")) {
-                // Generate: new HashSet<>(Arrays.asList(...))
-                StringBuilder sb = new StringBuilder("new HashSet<>(Arrays.asList(");
-                for (int i = 0; i < objCreationExpr.args.size(); i++) {
-                    sb.append(exprToJavaCode(objCreationExpr.args.get(i)));
-                    if (i < objCreationExpr.args.size() - 1) {
-                        sb.append(", ");
-                    }
-                }
-                sb.append("))");
-                return sb.toString();
-            }
-            
-            // For other types, generate normally
-            StringBuilder sb = new StringBuilder("new ");
-            sb.append(typeName).append("(");
-            for (int i = 0; i < objCreationExpr.args.size(); i++) {
-                sb.append(exprToJavaCode(objCreationExpr.args.get(i)));
-                if (i < objCreationExpr.args.size() - 1) {
-                    sb.append(", ");
-                }
-            }
-            sb.append(")");
-            return sb.toString();
-        } else if (e instanceof ThisExpr) {
-            return "this";
-        } else if (e instanceof FieldAccessExpr) {
-            FieldAccessExpr fieldAccessExpr = (FieldAccessExpr) e;
-            return exprToJavaCode(fieldAccessExpr.scope) + "." + fieldAccessExpr.field.identifier;
-        } else if (e instanceof SetExpr) {
-            SetExpr setExpr = (SetExpr) e;
-            StringBuilder sb = new StringBuilder("new HashSet<>(Arrays.asList(");
-            for (int i = 0; i < setExpr.elements.size(); i++) {
-                sb.append(exprToJavaCode(setExpr.elements.get(i)));
-                if (i < setExpr.elements.size() - 1) {
-                    sb.append(", ");
-                }
-            }
-            sb.append("))");
-            return sb.toString();
-        } else if (e instanceof MapExpr) {
-            MapExpr mapExpr = (MapExpr) e;
-            StringBuilder sb = new StringBuilder("new HashMap<>() {{");
-            for (Pair<NameExpr, Expr> entry : mapExpr.entries) {
-                sb.append(" put(").append(exprToJavaCode(entry.key)).append(", ").append(exprToJavaCode(entry.value)).append(");");
-            }
-            sb.append("}}");
-            return sb.toString();
-        } else if (e instanceof TupleExpr) {
-            TupleExpr tupleExpr = (TupleExpr) e;
-            StringBuilder sb = new StringBuilder("new Object[] {");
-            for (int i = 0; i < tupleExpr.elements.size(); i++) {
-                sb.append(exprToJavaCode(tupleExpr.elements.get(i)));
-                if (i < tupleExpr.elements.size() - 1) {
-                    sb.append(", ");
-                }
-            }
-            sb.append("}");
-            return sb.toString();
+        StringBuilder sb = new StringBuilder();
+        new ExprPrinter(sb).print((Expr) expr);
+        return sb.toString();
+    }
+    
+    /**
+     * Convert an AST expression to Java code string, using resolved types to pick
+     * == for primitive comparisons and a single equals call for references.
+     * Comparisons whose operand types cannot be resolved fall back to the name heuristics.
+     */
+    public static String exprToJavaCode(Object expr, TypeInference typeInference) {
+        if (typeInference == null || !(expr instanceof Expr)) {
+            return exprToJavaCode(expr);
         }
-        // Fallback for unhandled Expr types
-        return e.toString();
+        StringBuilder sb = new StringBuilder();
+        appendJavaCode((Expr) expr, sb, typeInference);
+        return sb.toString();
+    }
+    
+    /**
+     * Append the Java code for an AST expression to an existing buffer.
+     */
+    public static void appendJavaCode(Expr expr, StringBuilder sb) {
+        new ExprPrinter(sb).print(expr);
+    }
+    
+    /**
+     * Append the Java code for an AST expression to an existing buffer, using resolved types.
+     */
+    public static void appendJavaCode(Expr expr, StringBuilder sb, TypeInference typeInference) {
+        new ExprPrinter(sb, typeInference.infer(expr)).print(expr);
     }
     
     /**
      * Determines if an expression represents an object (vs a primitive).
-     * This is used to decide whether to use .equals() or == for comparisons.
+     * This is used to decide whether to use .equals() or == for comparisons
+     * when no type information is available (see TypeInference).
      * 
      * @param expr The expression to check
      * @return true if the expression likely represents an object, false if it's a primitive
      */
-    private static boolean isObjectExpression(Expr expr) {
+    static boolean isObjectExpression(Expr expr) {
         if (expr == null) {
             return false;
         }
@@ -640,7 +461,7 @@ public class AstHelper {
      * @param expr The expression to check
      * @return true if the expression likely represents a Map
      */
-    private static boolean isLikelyMapExpression(Expr expr) {
+    static boolean isLikelyMapExpression(Expr expr) {
         if (expr == null) {
             return false;
         }
@@ -771,34 +592,4 @@ public class AstHelper {
         if (right == null) return left;
         return createBinaryExpr(left, right, "AND");
     }
-    
-    /**
-     * Strip outer parentheses from an expression string if they exist.
-     * Used to clean up expressions before combining with AND/OR.
-     */
-    private static String stripOuterParens(String expr) {
-        if (expr == null || expr.length() < 2) {
-            return expr;
-        }
-        if (expr.startsWith("(") && expr.endsWith(")")) {
-            // Check if it's a balanced pair of outer parentheses
-            int depth = 0;
-            for (int i = 0; i < expr.length(); i++) {
-                if (expr.charAt(i) == '(') {
-                    depth++;
-                } else if (expr.charAt(i) == ')') {
-                    depth--;
-                    if (depth == 0 && i < expr.length() - 1) {
-                        // Not a balanced outer pair
-                        return expr;
-                    }
-                }
-            }
-            if (depth == 0) {
-                return expr.substring(1, expr.length() - 1);
-            }
-        }
-        return expr;
-    }
 }
-
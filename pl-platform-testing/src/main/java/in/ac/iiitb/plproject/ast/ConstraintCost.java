@@ -0,0 +1,101 @@
+package in.ac.iiitb.plproject.ast;
+
+import java.util.List;
+
+/**
+ * Rough static estimate of how expensive a constraint is for SPF's solvers, used to
+ * order assumptions so that cheap ones prune infeasible paths first:
+ * - names, literals, null checks and boolean connectives: free
+ * - comparisons and linear integer arithmetic: 1 per operator
+ * - non-linear arithmetic (product of two non-constants, division): 10
+ * - floating-point operators: 4 times the integer cost
+ * - object creation: 5, method calls (collections, strings, helpers): 25
+ * Costs add up over the whole expression.
+ */
+public final class ConstraintCost {
+
+    public static final int LINEAR = 1;
+    public static final int NON_LINEAR = 10;
+    public static final int FLOATING_POINT_FACTOR = 4;
+    public static final int OBJECT_CREATION = 5;
+    public static final int METHOD_CALL = 25;
+
+    private ConstraintCost() {
+    }
+
+    public static int estimate(Expr expr) {
+        return estimate(expr, null);
+    }
+
+    /**
+     * @param types resolved types of expr's nodes, used to spot floating-point
+     *              arithmetic; may be null
+     */
+    public static int estimate(Expr expr, final ExprTypes types) {
+        Integer cost = ExprTraversal.fold(expr, new ExprFolder<Integer>() {
+            @Override
+            public Integer fold(Expr e, List<Integer> childCosts) {
+                int total = own(e, types);
+                for (Integer childCost : childCosts) {
+                    total += childCost != null ? childCost : 0;
+                }
+                return total;
+            }
+        });
+        return cost != null ? cost : 0;
+    }
+
+    private static int own(Expr expr, ExprTypes types) {
+        if (expr instanceof MethodCallExpr) {
+            return METHOD_CALL;
+        }
+        if (expr instanceof ObjectCreationExpr) {
+            return OBJECT_CREATION;
+        }
+        if (!(expr instanceof BinaryExpr)) {
+            return 0;
+        }
+        BinaryExpr binExpr = (BinaryExpr) expr;
+        int cost;
+        switch (binExpr.op) {
+            case AND:
+            case OR:
+                return 0;
+            case EQUALS:
+            case NOT_EQUALS:
+                if (isNull(binExpr.left) || isNull(binExpr.right)) {
+                    return 0;
+                }
+                cost = LINEAR;
+                break;
+            case MULTIPLY:
+                cost = isConstant(binExpr.left) || isConstant(binExpr.right) ? LINEAR : NON_LINEAR;
+                break;
+            case DIVIDE:
+                cost = NON_LINEAR;
+                break;
+            default:
+                cost = LINEAR;
+        }
+        if (types != null && (isFloatingPoint(types.typeOf(binExpr.left)) || isFloatingPoint(types.typeOf(binExpr.right)))) {
+            cost *= FLOATING_POINT_FACTOR;
+        }
+        return cost;
+    }
+
+    private static boolean isNull(Expr expr) {
+        return expr instanceof NameExpr && ((NameExpr) expr).name.identifier.equals("null");
+    }
+
+    private static boolean isConstant(Expr expr) {
+        if (expr instanceof UnaryExpr) {
+            return isConstant(((UnaryExpr) expr).expr);
+        }
+        return expr instanceof IntegerLiteralExpr || expr instanceof DoubleLiteralExpr;
+    }
+
+    private static boolean isFloatingPoint(String typeName) {
+        return "double".equals(typeName) || "float".equals(typeName)
+            || "Double".equals(typeName) || "Float".equals(typeName);
+    }
+}
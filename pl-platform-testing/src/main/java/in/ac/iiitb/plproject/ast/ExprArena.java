@@ -0,0 +1,563 @@
+package in.ac.iiitb.plproject.ast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, hash-consed store for expressions.
+ *
+ * Nodes live in parallel primitive arrays and are addressed by int IDs; identifiers
+ * and string literals are interned once. Every node is hash-consed, so a structurally
+ * identical subtree is stored only once and two IDs from the same arena are equal
+ * exactly when their expressions are: comparison is a single int compare.
+ * This matters for large spec corpora, where the combined pre/postconditions of a
+ * JmlFunctionSpec repeat its individual clauses and many specs repeat each other.
+ *
+ * Use {@link #add(Expr)} and {@link #toExpr(int)} to convert to and from the
+ * regular AST. An arena only grows and is not thread-safe.
+ */
+public final class ExprArena {
+
+    /** ID standing for "no expression" (a null Expr, or a method call without scope). */
+    public static final int NONE = -1;
+
+    public enum Kind {
+        INTEGER, DOUBLE, STRING, BOOLEAN, NAME, THIS, FIELD_ACCESS,
+        BINARY, UNARY, ASSIGN, METHOD_CALL, OBJECT_CREATION, SET, MAP, TUPLE
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final BinaryExpr.Operator[] BINARY_OPERATORS = BinaryExpr.Operator.values();
+    private static final UnaryExpr.Operator[] UNARY_OPERATORS = UnaryExpr.Operator.values();
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Node columns. Per kind:
+    //   INTEGER          first = value
+    //   DOUBLE           first/second = high/low bits of the value
+    //   STRING, NAME     first = string ID
+    //   BOOLEAN          first = 0 or 1
+    //   THIS             -
+    //   FIELD_ACCESS     first = scope, second = field name ID
+    //   BINARY           first = left, second = right, third = operator ordinal
+    //   UNARY            first = operand, third = operator ordinal
+    //   ASSIGN           first = target, second = value
+    //   METHOD_CALL      first = scope (or NONE), second = method name ID, third = argument list
+    //   OBJECT_CREATION  second = type name ID, third = argument list
+    //   SET, TUPLE       third = element list
+    //   MAP              third = list of alternating key and value IDs
+    // Unused columns are 0.
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private int[] first = new int[INITIAL_CAPACITY];
+    private int[] second = new int[INITIAL_CAPACITY];
+    private int[] third = new int[INITIAL_CAPACITY];
+    private int nodeCount;
+
+    // Child lists, stored inline as [length, id0, id1, ...] and hash-consed like nodes;
+    // a list is referenced by the offset of its length slot
+    private int[] lists = new int[INITIAL_CAPACITY];
+    private int listsLength;
+    private int listCount;
+
+    // Interned identifiers and string literal values
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    // Open-addressing hash tables holding (node ID + 1) and (list offset + 1); 0 is empty
+    private int[] nodeTable = new int[INITIAL_CAPACITY * 2];
+    private int[] listTable = new int[INITIAL_CAPACITY * 2];
+
+    // ===================================
+    // Conversion from and to the AST
+    // ===================================
+
+    /**
+     * Add an expression tree, returning the ID of its root (NONE for null).
+     * Subtrees already present in the arena are reused.
+     */
+    public int add(Expr expr) {
+        Integer id = ExprTraversal.fold(expr, new ExprFolder<Integer>() {
+            @Override
+            public Integer fold(Expr e, List<Integer> childIds) {
+                return node(e, childIds);
+            }
+        });
+        return id != null ? id : NONE;
+    }
+
+    /**
+     * Add an expression tree, also recording the ID of each of its nodes (keyed by
+     * node identity) in nodeIds. Structurally equal subtrees get equal IDs.
+     */
+    public int add(Expr expr, final Map<Expr, Integer> nodeIds) {
+        Integer id = ExprTraversal.fold(expr, new ExprFolder<Integer>() {
+            @Override
+            public Integer fold(Expr e, List<Integer> childIds) {
+                int nodeId = node(e, childIds);
+                nodeIds.put(e, nodeId);
+                return nodeId;
+            }
+        });
+        return id != null ? id : NONE;
+    }
+
+    /**
+     * Intern one node whose children (in ExprTraversal.children order) are already in the arena.
+     */
+    private int node(Expr expr, List<Integer> childIds) {
+        if (expr instanceof BinaryExpr) {
+            return node(Kind.BINARY, id(childIds, 0), id(childIds, 1), ((BinaryExpr) expr).op.ordinal());
+        }
+        if (expr instanceof NameExpr) {
+            return node(Kind.NAME, intern(((NameExpr) expr).name.identifier), 0, 0);
+        }
+        if (expr instanceof IntegerLiteralExpr) {
+            return node(Kind.INTEGER, ((IntegerLiteralExpr) expr).value, 0, 0);
+        }
+        if (expr instanceof DoubleLiteralExpr) {
+            long bits = Double.doubleToLongBits(((DoubleLiteralExpr) expr).value);
+            return node(Kind.DOUBLE, (int) (bits >>> 32), (int) bits, 0);
+        }
+        if (expr instanceof StringLiteralExpr) {
+            return node(Kind.STRING, intern(((StringLiteralExpr) expr).value), 0, 0);
+        }
+        if (expr instanceof BooleanLiteralExpr) {
+            return node(Kind.BOOLEAN, ((BooleanLiteralExpr) expr).value ? 1 : 0, 0, 0);
+        }
+        if (expr instanceof ThisExpr) {
+            return node(Kind.THIS, 0, 0, 0);
+        }
+        if (expr instanceof FieldAccessExpr) {
+            return node(Kind.FIELD_ACCESS, id(childIds, 0), intern(((FieldAccessExpr) expr).field.identifier), 0);
+        }
+        if (expr instanceof UnaryExpr) {
+            return node(Kind.UNARY, id(childIds, 0), 0, ((UnaryExpr) expr).op.ordinal());
+        }
+        if (expr instanceof AssignExpr) {
+            return node(Kind.ASSIGN, id(childIds, 0), id(childIds, 1), 0);
+        }
+        if (expr instanceof MethodCallExpr) {
+            return node(Kind.METHOD_CALL, id(childIds, 0), intern(((MethodCallExpr) expr).name.identifier),
+                list(childIds, 1));
+        }
+        if (expr instanceof ObjectCreationExpr) {
+            ObjectCreationExpr objCreationExpr = (ObjectCreationExpr) expr;
+            String typeName = objCreationExpr.type instanceof ClassOrInterfaceType
+                ? ((ClassOrInterfaceType) objCreationExpr.type).name.identifier
+                : objCreationExpr.type.toString();
+            return node(Kind.OBJECT_CREATION, 0, intern(typeName), list(childIds, 0));
+        }
+        if (expr instanceof SetExpr) {
+            return node(Kind.SET, 0, 0, list(childIds, 0));
+        }
+        if (expr instanceof TupleExpr) {
+            return node(Kind.TUPLE, 0, 0, list(childIds, 0));
+        }
+        if (expr instanceof MapExpr) {
+            // Keys and values alternate in children order, as in the stored list
+            return node(Kind.MAP, 0, 0, list(childIds, 0));
+        }
+        throw new IllegalArgumentException("Unsupported expression type: " + expr.getClass().getName());
+    }
+
+    private static int id(List<Integer> childIds, int index) {
+        Integer id = childIds.get(index);
+        return id != null ? id : NONE;
+    }
+
+    /**
+     * Add several expressions (e.g. the requires clauses of a spec), returning their IDs in order.
+     */
+    public int[] addAll(List<? extends Expr> exprs) {
+        int[] ids = new int[exprs.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = add(exprs.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Rebuild a regular AST for the given ID (null for NONE).
+     * Each call returns a fresh tree that callers may transform freely.
+     */
+    public Expr toExpr(int id) {
+        if (id == NONE) {
+            return null;
+        }
+        checkId(id);
+        // Post-order over IDs with an explicit stack; finished subtrees wait on values
+        int[] stack = new int[16];
+        int[] nextChild = new int[16];
+        int depth = 0;
+        stack[depth++] = id;
+        List<Expr> values = new ArrayList<>();
+        while (depth > 0) {
+            int current = stack[depth - 1];
+            int count = childCount(current);
+            if (nextChild[depth - 1] < count) {
+                int child = childAt(current, nextChild[depth - 1]++);
+                if (child == NONE) {
+                    values.add(null);
+                    continue;
+                }
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                    nextChild = Arrays.copyOf(nextChild, depth * 2);
+                }
+                stack[depth] = child;
+                nextChild[depth] = 0;
+                depth++;
+            } else {
+                depth--;
+                List<Expr> children = values.subList(values.size() - count, values.size());
+                Expr expr = build(current, children);
+                children.clear();
+                values.add(expr);
+            }
+        }
+        return values.get(0);
+    }
+
+    /**
+     * Children of a node in ExprTraversal.children order.
+     */
+    private int childCount(int id) {
+        switch (KINDS[kinds[id]]) {
+            case BINARY:
+            case ASSIGN:
+                return 2;
+            case UNARY:
+            case FIELD_ACCESS:
+                return 1;
+            case METHOD_CALL:
+                return 1 + lists[third[id]];
+            case OBJECT_CREATION:
+            case SET:
+            case TUPLE:
+            case MAP:
+                return lists[third[id]];
+            default:
+                return 0;
+        }
+    }
+
+    private int childAt(int id, int index) {
+        switch (KINDS[kinds[id]]) {
+            case BINARY:
+            case ASSIGN:
+                return index == 0 ? first[id] : second[id];
+            case UNARY:
+            case FIELD_ACCESS:
+                return first[id];
+            case METHOD_CALL:
+                return index == 0 ? first[id] : lists[third[id] + index];
+            default:
+                return lists[third[id] + 1 + index];
+        }
+    }
+
+    /**
+     * A fresh AST node for the given ID whose children are already built.
+     */
+    private Expr build(int id, List<Expr> children) {
+        switch (KINDS[kinds[id]]) {
+            case BINARY:
+                return new BinaryExpr(children.get(0), children.get(1), BINARY_OPERATORS[third[id]]);
+            case NAME:
+                return new NameExpr(new SimpleName(strings.get(first[id])));
+            case INTEGER:
+                return new IntegerLiteralExpr(first[id]);
+            case DOUBLE:
+                return new DoubleLiteralExpr(doubleValue(id));
+            case STRING:
+                return new StringLiteralExpr(strings.get(first[id]));
+            case BOOLEAN:
+                return new BooleanLiteralExpr(first[id] != 0);
+            case THIS:
+                return new ThisExpr();
+            case FIELD_ACCESS:
+                return new FieldAccessExpr(children.get(0), new SimpleName(strings.get(second[id])));
+            case UNARY:
+                return new UnaryExpr(children.get(0), UNARY_OPERATORS[third[id]]);
+            case ASSIGN:
+                return new AssignExpr(children.get(0), children.get(1));
+            case METHOD_CALL:
+                return new MethodCallExpr(children.get(0), new SimpleName(strings.get(second[id])),
+                    new ArrayList<>(children.subList(1, children.size())));
+            case OBJECT_CREATION:
+                return new ObjectCreationExpr(new ClassOrInterfaceType(new SimpleName(strings.get(second[id]))),
+                    new ArrayList<>(children));
+            case SET:
+                return new SetExpr(new ArrayList<>(children));
+            case TUPLE:
+                return new TupleExpr(new ArrayList<>(children));
+            case MAP: {
+                List<Pair<NameExpr, Expr>> entries = new ArrayList<>();
+                for (int i = 0; i < children.size(); i += 2) {
+                    entries.add(new Pair<>((NameExpr) children.get(i), children.get(i + 1)));
+                }
+                return new MapExpr(entries);
+            }
+            default:
+                throw new IllegalStateException("Unknown node kind: " + kinds[id]);
+        }
+    }
+
+    // ===================================
+    // Node accessors
+    // ===================================
+
+    public Kind kind(int id) {
+        checkId(id);
+        return KINDS[kinds[id]];
+    }
+
+    /**
+     * Left operand of BINARY, operand of UNARY, target of ASSIGN,
+     * scope of FIELD_ACCESS and METHOD_CALL (NONE if absent).
+     */
+    public int left(int id) {
+        checkId(id);
+        return first[id];
+    }
+
+    /**
+     * Right operand of BINARY, value of ASSIGN.
+     */
+    public int right(int id) {
+        checkId(id);
+        return second[id];
+    }
+
+    /**
+     * Operator name of a BINARY or UNARY node, as in AstHelper.createBinaryExpr/createUnaryExpr.
+     */
+    public String operator(int id) {
+        Kind kind = kind(id);
+        if (kind == Kind.BINARY) {
+            return BINARY_OPERATORS[third[id]].name();
+        }
+        if (kind == Kind.UNARY) {
+            return UNARY_OPERATORS[third[id]].name();
+        }
+        throw new IllegalArgumentException("Node " + id + " is " + kind + ", not an operator");
+    }
+
+    /**
+     * Identifier of NAME, field of FIELD_ACCESS, method of METHOD_CALL,
+     * type of OBJECT_CREATION, value of STRING.
+     */
+    public String identifier(int id) {
+        switch (kind(id)) {
+            case NAME:
+            case STRING:
+                return strings.get(first[id]);
+            case FIELD_ACCESS:
+            case METHOD_CALL:
+            case OBJECT_CREATION:
+                return strings.get(second[id]);
+            default:
+                throw new IllegalArgumentException("Node " + id + " has no identifier");
+        }
+    }
+
+    public int intValue(int id) {
+        requireKind(id, Kind.INTEGER);
+        return first[id];
+    }
+
+    public double doubleValue(int id) {
+        requireKind(id, Kind.DOUBLE);
+        return Double.longBitsToDouble(((long) first[id] << 32) | (second[id] & 0xFFFFFFFFL));
+    }
+
+    public boolean booleanValue(int id) {
+        requireKind(id, Kind.BOOLEAN);
+        return first[id] != 0;
+    }
+
+    /**
+     * Number of list children: arguments of METHOD_CALL/OBJECT_CREATION, elements of
+     * SET/TUPLE, keys and values (alternating) of MAP; 0 for other kinds.
+     */
+    public int argumentCount(int id) {
+        return hasList(kind(id)) ? lists[third[id]] : 0;
+    }
+
+    public int argument(int id, int index) {
+        int count = argumentCount(id);
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Argument " + index + " of node " + id + " (" + count + " arguments)");
+        }
+        return lists[third[id] + 1 + index];
+    }
+
+    // ===================================
+    // Interning and statistics
+    // ===================================
+
+    /**
+     * Intern an identifier or string literal value, returning its string ID.
+     */
+    public int intern(String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    /** Number of distinct nodes stored. */
+    public int size() {
+        return nodeCount;
+    }
+
+    /** Number of distinct identifiers and string values stored. */
+    public int identifierCount() {
+        return strings.size();
+    }
+
+    /**
+     * Approximate heap bytes used by the node columns, child lists and hash tables
+     * (identifier strings excluded).
+     */
+    public long footprintBytes() {
+        return kinds.length + 4L * (first.length + second.length + third.length)
+            + 4L * (lists.length + nodeTable.length + listTable.length);
+    }
+
+    // ===================================
+    // Hash-consing
+    // ===================================
+
+    private int node(Kind kind, int a, int b, int c) {
+        int k = kind.ordinal();
+        int mask = nodeTable.length - 1;
+        int slot = hash(hash(hash(k, a), b), c) & mask;
+        while (nodeTable[slot] != 0) {
+            int id = nodeTable[slot] - 1;
+            if (kinds[id] == k && first[id] == a && second[id] == b && third[id] == c) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (nodeCount == kinds.length) {
+            int capacity = nodeCount * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+            third = Arrays.copyOf(third, capacity);
+        }
+        int id = nodeCount++;
+        kinds[id] = (byte) k;
+        first[id] = a;
+        second[id] = b;
+        third[id] = c;
+        nodeTable[slot] = id + 1;
+        if (nodeCount * 2 > nodeTable.length) {
+            rehashNodes();
+        }
+        return id;
+    }
+
+    private int list(List<Integer> childIds, int from) {
+        int[] ids = new int[childIds.size() - from];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = id(childIds, from + i);
+        }
+        return list(ids, ids.length);
+    }
+
+    private int list(int[] ids, int length) {
+        int mask = listTable.length - 1;
+        int slot = listHash(ids, 0, length) & mask;
+        while (listTable[slot] != 0) {
+            int offset = listTable[slot] - 1;
+            if (lists[offset] == length && rangeEquals(lists, offset + 1, ids, 0, length)) {
+                return offset;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (listsLength + 1 + length > lists.length) {
+            lists = Arrays.copyOf(lists, Math.max(lists.length * 2, listsLength + 1 + length));
+        }
+        int offset = listsLength;
+        lists[offset] = length;
+        System.arraycopy(ids, 0, lists, offset + 1, length);
+        listsLength += 1 + length;
+        listTable[slot] = offset + 1;
+        if (++listCount * 2 > listTable.length) {
+            rehashLists();
+        }
+        return offset;
+    }
+
+    private void rehashNodes() {
+        nodeTable = new int[nodeTable.length * 2];
+        int mask = nodeTable.length - 1;
+        for (int id = 0; id < nodeCount; id++) {
+            int slot = hash(hash(hash(kinds[id], first[id]), second[id]), third[id]) & mask;
+            while (nodeTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            nodeTable[slot] = id + 1;
+        }
+    }
+
+    private void rehashLists() {
+        listTable = new int[listTable.length * 2];
+        int mask = listTable.length - 1;
+        for (int offset = 0; offset < listsLength; offset += 1 + lists[offset]) {
+            int slot = listHash(lists, offset + 1, lists[offset]) & mask;
+            while (listTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            listTable[slot] = offset + 1;
+        }
+    }
+
+    private static int hash(int h, int value) {
+        h = (h ^ value) * 0x9E3779B1;
+        return h ^ (h >>> 15);
+    }
+
+    private static int listHash(int[] values, int from, int length) {
+        int h = hash(0x3C6EF372, length);
+        for (int i = 0; i < length; i++) {
+            h = hash(h, values[from + i]);
+        }
+        return h;
+    }
+
+    private static boolean rangeEquals(int[] a, int aFrom, int[] b, int bFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aFrom + i] != b[bFrom + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasList(Kind kind) {
+        return kind == Kind.METHOD_CALL || kind == Kind.OBJECT_CREATION
+            || kind == Kind.SET || kind == Kind.TUPLE || kind == Kind.MAP;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= nodeCount) {
+            throw new IllegalArgumentException("No node with ID " + id);
+        }
+    }
+
+    private void requireKind(int id, Kind expected) {
+        if (kind(id) != expected) {
+            throw new IllegalArgumentException("Node " + id + " is " + kind(id) + ", expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package in.ac.iiitb.plproject.ast;
+
+import java.util.List;
+
+/**
+ * Bottom-up computation for ExprTraversal.fold: each node is folded from the
+ * results of its children.
+ *
+ * @param <R> result type per node
+ */
+public interface ExprFolder<R> {
+    /**
+     * Called before a node's children (pre-order); returning false folds the node
+     * without visiting them.
+     */
+    default boolean descend(Expr expr) {
+        return true;
+    }
+
+    /**
+     * Called after a node's children (post-order).
+     *
+     * @param childResults results in ExprTraversal.children order (null for absent
+     *                     children), or null if the node was not descended into
+     */
+    R fold(Expr expr, List<R> childResults);
+}
@@ -0,0 +1,416 @@
+package in.ac.iiitb.plproject.ast;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders expressions as Java source into one shared StringBuilder.
+ * Parentheses are only emitted where Java operator precedence needs them, so each
+ * node is printed once and rendering stays linear in the size of the tree
+ * (long AND chains from combined requires/ensures clauses included).
+ * Pending work is kept on an explicit stack instead of recursing, so arbitrarily
+ * deep trees print without exhausting the thread stack.
+ * Package-private so it can read the package-private AST classes directly.
+ */
+final class ExprPrinter {
+
+    // Java operator precedence levels, higher binds tighter
+    static final int PREC_LOWEST = 0;
+    static final int PREC_OR = 3;
+    static final int PREC_AND = 4;
+    static final int PREC_EQUALITY = 8;
+    static final int PREC_RELATIONAL = 9;
+    static final int PREC_ADDITIVE = 11;
+    static final int PREC_MULTIPLICATIVE = 12;
+    static final int PREC_UNARY = 14;
+    static final int PREC_PRIMARY = 16;
+
+    private final StringBuilder sb;
+
+    // Pending output: String (literal text), Task (an expression to print) or CaptureStep
+    private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+    // Resolved operand types; null when printing without type information
+    private final ExprTypes types;
+
+    ExprPrinter(StringBuilder sb) {
+        this(sb, null);
+    }
+
+    ExprPrinter(StringBuilder sb, ExprTypes types) {
+        this.sb = sb;
+        this.types = types;
+    }
+
+    void print(Expr expr) {
+        pending.push(new Task(expr, PREC_LOWEST));
+        while (!pending.isEmpty()) {
+            Object item = pending.pop();
+            if (item instanceof String) {
+                sb.append((String) item);
+            } else if (item instanceof Task) {
+                printNode(((Task) item).expr, ((Task) item).context);
+            } else {
+                ((CaptureStep) item).run(sb);
+            }
+        }
+    }
+
+    /**
+     * Print an expression that appears in a position binding at least as tightly
+     * as the given context precedence; wraps it in parentheses otherwise.
+     * Text due immediately is appended directly; the rest is scheduled.
+     */
+    private void printNode(Expr e, int context) {
+        if (e == null) {
+            sb.append("true"); // Missing expression (e.g. no precondition) reads as true
+            return;
+        }
+        if (e instanceof BinaryExpr) {
+            printBinary((BinaryExpr) e, context);
+        } else if (e instanceof NameExpr) {
+            sb.append(((SimpleName) ((NameExpr) e).name).identifier);
+        } else if (e instanceof MethodCallExpr) {
+            MethodCallExpr methodCallExpr = (MethodCallExpr) e;
+            String call = methodCallExpr.name.identifier + "(";
+            if (methodCallExpr.scope != null) {
+                schedule(task(methodCallExpr.scope, PREC_PRIMARY), "." + call, list(methodCallExpr.args), ")");
+            } else {
+                sb.append(call);
+                schedule(list(methodCallExpr.args), ")");
+            }
+        } else if (e instanceof IntegerLiteralExpr) {
+            int value = ((IntegerLiteralExpr) e).value;
+            boolean paren = value < 0 && PREC_UNARY < context;
+            open(paren);
+            sb.append(value);
+            close(paren);
+        } else if (e instanceof DoubleLiteralExpr) {
+            String value = Double.toString(((DoubleLiteralExpr) e).value);
+            boolean paren = value.charAt(0) == '-' && PREC_UNARY < context; // -0.0 included
+            open(paren);
+            sb.append(value);
+            close(paren);
+        } else if (e instanceof StringLiteralExpr) {
+            sb.append("\"").append(((StringLiteralExpr) e).value).append("\"");
+        } else if (e instanceof BooleanLiteralExpr) {
+            sb.append(((BooleanLiteralExpr) e).value);
+        } else if (e instanceof UnaryExpr) {
+            UnaryExpr unaryExpr = (UnaryExpr) e;
+            boolean paren = PREC_UNARY < context;
+            open(paren);
+            UnaryExpr.Operator op = unaryExpr.op;
+            char sign = 0;
+            if (op == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
+                sb.append("!");
+            } else if (op == UnaryExpr.Operator.MINUS) {
+                sb.append(sign = '-');
+            } else if (op == UnaryExpr.Operator.PLUS) {
+                sb.append(sign = '+');
+            } else {
+                sb.append(op.toString()); // Fallback
+            }
+            // "-" followed by "-5" would lex as the decrement operator: parenthesize the operand
+            int operandContext = sign != 0 && startsWithSign(unaryExpr.expr, sign) ? PREC_PRIMARY : PREC_UNARY;
+            schedule(task(unaryExpr.expr, operandContext), closing(paren));
+        } else if (e instanceof ObjectCreationExpr) {
+            ObjectCreationExpr objCreationExpr = (ObjectCreationExpr) e;
+            String typeName = ((ClassOrInterfaceType) objCreationExpr.type).name.identifier;
+
+            if (typeName.endsWith("[]")) {
+                // Array types: "int[]" -> "new int[]{x}"
+                sb.append("new ").append(typeName, 0, typeName.length() - 2).append("[]{");
+                schedule(list(objCreationExpr.args), "}");
+            } else if (typeName.equals("Set")) {
+                // Cannot instantiate the Set interface directly
+                sb.append("new HashSet<>(Arrays.asList(");
+                schedule(list(objCreationExpr.args), "))");
+            } else {
+                sb.append("new ").append(typeName).append("(");
+                schedule(list(objCreationExpr.args), ")");
+            }
+        } else if (e instanceof ThisExpr) {
+            sb.append("this");
+        } else if (e instanceof FieldAccessExpr) {
+            FieldAccessExpr fieldAccessExpr = (FieldAccessExpr) e;
+            schedule(task(fieldAccessExpr.scope, PREC_PRIMARY), "." + fieldAccessExpr.field.identifier);
+        } else if (e instanceof SetExpr) {
+            sb.append("new HashSet<>(Arrays.asList(");
+            schedule(list(((SetExpr) e).elements), "))");
+        } else if (e instanceof MapExpr) {
+            sb.append("new HashMap<>() {{");
+            List<Object> items = new ArrayList<>();
+            for (Pair<NameExpr, Expr> entry : ((MapExpr) e).entries) {
+                items.add(" put(");
+                items.add(task(entry.key, PREC_LOWEST));
+                items.add(", ");
+                items.add(task(entry.value, PREC_LOWEST));
+                items.add(");");
+            }
+            items.add("}}");
+            schedule(items.toArray());
+        } else if (e instanceof TupleExpr) {
+            sb.append("new Object[] {");
+            schedule(list(((TupleExpr) e).elements), "}");
+        } else {
+            // Fallback for unhandled Expr types
+            sb.append(e.toString());
+        }
+    }
+
+    private void printBinary(BinaryExpr binExpr, int context) {
+        BinaryExpr.Operator op = binExpr.op;
+        switch (op) {
+            case AND:
+                printInfix(binExpr, " && ", PREC_AND, true, context);
+                return;
+            case OR:
+                printInfix(binExpr, " || ", PREC_OR, true, context);
+                return;
+            case EQUALS:
+            case NOT_EQUALS:
+                printEquality(binExpr, op == BinaryExpr.Operator.EQUALS, context);
+                return;
+            case LESS_THAN:
+                printInfix(binExpr, " < ", PREC_RELATIONAL, false, context);
+                return;
+            case LESS_THAN_OR_EQUAL:
+                printInfix(binExpr, " <= ", PREC_RELATIONAL, false, context);
+                return;
+            case GREATER_THAN:
+                printInfix(binExpr, " > ", PREC_RELATIONAL, false, context);
+                return;
+            case GREATER_THAN_OR_EQUAL:
+                printInfix(binExpr, " >= ", PREC_RELATIONAL, false, context);
+                return;
+            case PLUS:
+                // Not associative once string concatenation is involved
+                printInfix(binExpr, " + ", PREC_ADDITIVE, false, context);
+                return;
+            case MINUS:
+                printInfix(binExpr, " - ", PREC_ADDITIVE, false, context);
+                return;
+            case MULTIPLY:
+                printInfix(binExpr, " * ", PREC_MULTIPLICATIVE, false, context);
+                return;
+            case DIVIDE:
+                printInfix(binExpr, " / ", PREC_MULTIPLICATIVE, false, context);
+                return;
+            default:
+                printInfix(binExpr, " " + op.toString() + " ", PREC_LOWEST, false, context); // Fallback
+        }
+    }
+
+    /**
+     * Left-associative infix operator. For associative operators (&&, ||) the
+     * right operand may sit at the same level without parentheses, and a left-deep
+     * chain of the same operator is scheduled flat rather than level by level.
+     */
+    private void printInfix(BinaryExpr binExpr, String operator, int prec, boolean associative, int context) {
+        boolean paren = prec < context;
+        open(paren);
+        if (associative) {
+            ArrayDeque<Expr> rights = new ArrayDeque<>();
+            Expr left = binExpr;
+            while (left instanceof BinaryExpr && ((BinaryExpr) left).op == binExpr.op) {
+                rights.push(((BinaryExpr) left).right);
+                left = ((BinaryExpr) left).left;
+            }
+            List<Object> items = new ArrayList<>(2 * rights.size() + 2);
+            items.add(task(left, prec));
+            while (!rights.isEmpty()) {
+                items.add(operator);
+                items.add(task(rights.pop(), prec));
+            }
+            items.add(closing(paren));
+            schedule(items.toArray());
+        } else {
+            schedule(task(binExpr.left, prec), operator, task(binExpr.right, prec + 1), closing(paren));
+        }
+    }
+
+    /**
+     * == / != with the object-comparison rules of AstHelper:
+     * null checks stay as == / !=, object comparisons go through equals().
+     * Resolved operand types take precedence over the name-based guesses.
+     */
+    private void printEquality(BinaryExpr binExpr, boolean equals, int context) {
+        String operator = equals ? " == " : " != ";
+        if (isNullLiteral(binExpr.left) || isNullLiteral(binExpr.right)) {
+            Expr other = isNullLiteral(binExpr.left) ? binExpr.right : binExpr.left;
+            boolean paren = PREC_EQUALITY < context;
+            open(paren);
+            schedule(task(other, PREC_EQUALITY), operator + "null", closing(paren));
+            return;
+        }
+
+        if (types != null) {
+            if (types.isPrimitive(binExpr.left) || types.isPrimitive(binExpr.right)) {
+                // A primitive on either side: == compares values (unboxing the other side if needed)
+                printInfix(binExpr, operator, PREC_EQUALITY, false, context);
+                return;
+            }
+            if (types.isReference(binExpr.left) && types.isReference(binExpr.right)) {
+                // Two references: one null-safe equals call, each operand evaluated once
+                boolean paren = !equals && PREC_UNARY < context;
+                open(paren);
+                sb.append(equals ? "java.util.Objects.equals(" : "!java.util.Objects.equals(");
+                schedule(task(binExpr.left, PREC_LOWEST), ", ", task(binExpr.right, PREC_LOWEST), ")", closing(paren));
+                return;
+            }
+            // Unresolved operands: fall through to the name heuristics
+        }
+
+        if (!AstHelper.isObjectExpression(binExpr.left) && !AstHelper.isObjectExpression(binExpr.right)) {
+            printInfix(binExpr, operator, PREC_EQUALITY, false, context);
+            return;
+        }
+
+        if (!equals) {
+            // !java.util.Objects.equals(left, right)
+            boolean paren = PREC_UNARY < context;
+            open(paren);
+            sb.append("!java.util.Objects.equals(");
+            schedule(task(binExpr.left, PREC_LOWEST), ", ", task(binExpr.right, PREC_LOWEST), ")", closing(paren));
+            return;
+        }
+
+        boolean leftIsMethodCall = binExpr.left instanceof MethodCallExpr;
+        boolean rightIsMethodCall = binExpr.right instanceof MethodCallExpr;
+        boolean mightBeMapComparison = AstHelper.isLikelyMapExpression(binExpr.left) || AstHelper.isLikelyMapExpression(binExpr.right);
+
+        if (leftIsMethodCall || rightIsMethodCall || mightBeMapComparison) {
+            // left != null && right != null && left.equals(right)
+            // Map.equals() compares contents; each operand is rendered once and its text reused
+            boolean paren = PREC_AND < context;
+            open(paren);
+            Capture left = new Capture();
+            Capture right = new Capture();
+            schedule(new CaptureStep(left, CaptureStep.START), task(binExpr.left, PREC_PRIMARY), new CaptureStep(left, CaptureStep.END),
+                     " != null && ",
+                     new CaptureStep(right, CaptureStep.START), task(binExpr.right, PREC_RELATIONAL), new CaptureStep(right, CaptureStep.END),
+                     " != null && ", new CaptureStep(left, CaptureStep.REPLAY), ".equals(", new CaptureStep(right, CaptureStep.REPLAY), ")",
+                     closing(paren));
+        } else {
+            sb.append("java.util.Objects.equals(");
+            schedule(task(binExpr.left, PREC_LOWEST), ", ", task(binExpr.right, PREC_LOWEST), ")");
+        }
+    }
+
+    /**
+     * Comma-separated list, as one scheduled item sequence.
+     */
+    private Object[] list(List<? extends Expr> exprs) {
+        Object[] items = new Object[Math.max(0, 2 * exprs.size() - 1)];
+        for (int i = 0; i < exprs.size(); i++) {
+            if (i > 0) {
+                items[2 * i - 1] = ", ";
+            }
+            items[2 * i] = task(exprs.get(i), PREC_LOWEST);
+        }
+        return items;
+    }
+
+    /**
+     * Schedule items to run in the given order once the current node returns.
+     * Nested Object[] items are flattened; null items are skipped.
+     */
+    private void schedule(Object... items) {
+        for (int i = items.length - 1; i >= 0; i--) {
+            Object item = items[i];
+            if (item instanceof Object[]) {
+                schedule((Object[]) item);
+            } else if (item != null) {
+                pending.push(item);
+            }
+        }
+    }
+
+    private static Task task(Expr expr, int context) {
+        return new Task(expr, context);
+    }
+
+    private static String closing(boolean paren) {
+        return paren ? ")" : null;
+    }
+
+    /**
+     * Whether an operand printed in unary context starts with the given sign
+     * character (a negative literal or a nested unary +/-).
+     */
+    private static boolean startsWithSign(Expr expr, char sign) {
+        if (expr instanceof IntegerLiteralExpr) {
+            return sign == '-' && ((IntegerLiteralExpr) expr).value < 0;
+        }
+        if (expr instanceof DoubleLiteralExpr) {
+            return Double.toString(((DoubleLiteralExpr) expr).value).charAt(0) == sign;
+        }
+        if (expr instanceof UnaryExpr) {
+            UnaryExpr.Operator op = ((UnaryExpr) expr).op;
+            return op == (sign == '-' ? UnaryExpr.Operator.MINUS : UnaryExpr.Operator.PLUS);
+        }
+        return false;
+    }
+
+    private static boolean isNullLiteral(Expr expr) {
+        return expr instanceof NameExpr && "null".equals(((SimpleName) ((NameExpr) expr).name).identifier);
+    }
+
+    private void open(boolean paren) {
+        if (paren) {
+            sb.append("(");
+        }
+    }
+
+    private void close(boolean paren) {
+        if (paren) {
+            sb.append(")");
+        }
+    }
+
+    /**
+     * An expression waiting to be printed in a given precedence context.
+     */
+    private static final class Task {
+        final Expr expr;
+        final int context;
+
+        Task(Expr expr, int context) {
+            this.expr = expr;
+            this.context = context;
+        }
+    }
+
+    /**
+     * Text printed once and appended again later (the operands of left.equals(right)).
+     */
+    private static final class Capture {
+        int start;
+        String text;
+    }
+
+    private static final class CaptureStep {
+        static final int START = 0;
+        static final int END = 1;
+        static final int REPLAY = 2;
+
+        final Capture capture;
+        final int step;
+
+        CaptureStep(Capture capture, int step) {
+            this.capture = capture;
+            this.step = step;
+        }
+
+        void run(StringBuilder sb) {
+            if (step == START) {
+                capture.start = sb.length();
+            } else if (step == END) {
+                capture.text = sb.substring(capture.start);
+            } else {
+                sb.append(capture.text);
+            }
+        }
+    }
+}
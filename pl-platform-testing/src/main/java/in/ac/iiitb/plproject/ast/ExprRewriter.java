@@ -0,0 +1,23 @@
+package in.ac.iiitb.plproject.ast;
+
+/**
+ * Bottom-up rewrite for ExprTraversal.rewrite.
+ * Each node is first rebuilt from its rewritten children (reusing the original
+ * node when none of them changed) and then handed to rewrite.
+ */
+public interface ExprRewriter {
+    /**
+     * Called before a node's children; returning false leaves them untouched and
+     * passes the original node to rewrite.
+     */
+    default boolean descend(Expr expr) {
+        return true;
+    }
+
+    /**
+     * @param original the node as it appears in the input tree
+     * @param rebuilt  the node with rewritten children
+     * @return the replacement, which may be null
+     */
+    Expr rewrite(Expr original, Expr rebuilt);
+}
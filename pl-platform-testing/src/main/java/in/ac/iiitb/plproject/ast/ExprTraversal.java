@@ -0,0 +1,225 @@
+package in.ac.iiitb.plproject.ast;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stack-safe traversal of expression trees.
+ *
+ * All walks keep their pending nodes on an explicit heap-allocated stack rather
+ * than the thread stack, so the depth of a tree (e.g. a machine-generated chain of
+ * thousands of conjuncts) is limited only by heap. Three styles are offered:
+ * - walk: pre/post-order visiting with ExprVisitor
+ * - fold: bottom-up computation of a value per node with ExprFolder
+ * - rewrite: bottom-up rebuilding of the tree with ExprRewriter
+ */
+public final class ExprTraversal {
+
+    private ExprTraversal() {
+    }
+
+    /**
+     * The direct subexpressions of a node in source order:
+     * - BinaryExpr: left, right
+     * - UnaryExpr: operand
+     * - AssignExpr: target, value
+     * - FieldAccessExpr: scope
+     * - MethodCallExpr: scope (null if absent), then the arguments
+     * - ObjectCreationExpr: the arguments
+     * - SetExpr, TupleExpr: the elements
+     * - MapExpr: keys and values, alternating
+     * Literals, names and this have no children.
+     */
+    public static List<Expr> children(Expr expr) {
+        if (expr instanceof BinaryExpr) {
+            return Arrays.asList(((BinaryExpr) expr).left, ((BinaryExpr) expr).right);
+        } else if (expr instanceof UnaryExpr) {
+            return Collections.singletonList(((UnaryExpr) expr).expr);
+        } else if (expr instanceof AssignExpr) {
+            return Arrays.asList(((AssignExpr) expr).target, ((AssignExpr) expr).value);
+        } else if (expr instanceof FieldAccessExpr) {
+            return Collections.singletonList(((FieldAccessExpr) expr).scope);
+        } else if (expr instanceof MethodCallExpr) {
+            MethodCallExpr methodCallExpr = (MethodCallExpr) expr;
+            List<Expr> children = new ArrayList<>(methodCallExpr.args.size() + 1);
+            children.add(methodCallExpr.scope);
+            children.addAll(methodCallExpr.args);
+            return children;
+        } else if (expr instanceof ObjectCreationExpr) {
+            return ((ObjectCreationExpr) expr).args;
+        } else if (expr instanceof SetExpr) {
+            return ((SetExpr) expr).elements;
+        } else if (expr instanceof TupleExpr) {
+            return ((TupleExpr) expr).elements;
+        } else if (expr instanceof MapExpr) {
+            List<Pair<NameExpr, Expr>> entries = ((MapExpr) expr).entries;
+            List<Expr> children = new ArrayList<>(entries.size() * 2);
+            for (Pair<NameExpr, Expr> entry : entries) {
+                children.add(entry.key);
+                children.add(entry.value);
+            }
+            return children;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Visit every node of the tree: enter in pre-order, leave in post-order.
+     */
+    public static void walk(Expr root, ExprVisitor visitor) {
+        if (root == null) {
+            return;
+        }
+        ArrayDeque<Frame<Void>> stack = new ArrayDeque<>();
+        if (!push(stack, root, visitor)) {
+            return;
+        }
+        while (!stack.isEmpty()) {
+            Frame<Void> frame = stack.peek();
+            if (frame.next < frame.children.size()) {
+                Expr child = frame.children.get(frame.next++);
+                if (child != null) {
+                    push(stack, child, visitor);
+                }
+            } else {
+                stack.pop();
+                visitor.leave(frame.expr);
+            }
+        }
+    }
+
+    private static boolean push(ArrayDeque<Frame<Void>> stack, Expr expr, ExprVisitor visitor) {
+        if (visitor.enter(expr)) {
+            stack.push(new Frame<Void>(expr, children(expr)));
+            return true;
+        }
+        visitor.leave(expr);
+        return false;
+    }
+
+    /**
+     * Compute a value for the tree bottom-up. Returns null for a null root.
+     */
+    public static <R> R fold(Expr root, ExprFolder<R> folder) {
+        if (root == null) {
+            return null;
+        }
+        ArrayDeque<Frame<R>> stack = new ArrayDeque<>();
+        stack.push(newFoldFrame(root, folder));
+        while (true) {
+            Frame<R> frame = stack.peek();
+            if (frame.results != null && frame.next < frame.children.size()) {
+                Expr child = frame.children.get(frame.next++);
+                if (child == null) {
+                    frame.results.add(null);
+                } else {
+                    stack.push(newFoldFrame(child, folder));
+                }
+                continue;
+            }
+            stack.pop();
+            R result = folder.fold(frame.expr, frame.results);
+            if (stack.isEmpty()) {
+                return result;
+            }
+            stack.peek().results.add(result);
+        }
+    }
+
+    private static <R> Frame<R> newFoldFrame(Expr expr, ExprFolder<R> folder) {
+        if (!folder.descend(expr)) {
+            return new Frame<R>(expr, Collections.<Expr>emptyList(), null);
+        }
+        List<Expr> children = children(expr);
+        return new Frame<R>(expr, children, new ArrayList<R>(children.size()));
+    }
+
+    /**
+     * Rebuild the tree bottom-up. Unchanged subtrees are shared with the input.
+     */
+    public static Expr rewrite(Expr root, final ExprRewriter rewriter) {
+        return fold(root, new ExprFolder<Expr>() {
+            @Override
+            public boolean descend(Expr expr) {
+                return rewriter.descend(expr);
+            }
+
+            @Override
+            public Expr fold(Expr expr, List<Expr> childResults) {
+                Expr rebuilt = childResults == null ? expr : withChildren(expr, childResults);
+                return rewriter.rewrite(expr, rebuilt);
+            }
+        });
+    }
+
+    /**
+     * A copy of the node with the given children (in children() order), or the node
+     * itself when every child is unchanged.
+     */
+    public static Expr withChildren(Expr expr, List<Expr> children) {
+        if (sameElements(children(expr), children)) {
+            return expr;
+        }
+        if (expr instanceof BinaryExpr) {
+            return new BinaryExpr(children.get(0), children.get(1), ((BinaryExpr) expr).op);
+        } else if (expr instanceof UnaryExpr) {
+            return new UnaryExpr(children.get(0), ((UnaryExpr) expr).op);
+        } else if (expr instanceof AssignExpr) {
+            return new AssignExpr(children.get(0), children.get(1));
+        } else if (expr instanceof FieldAccessExpr) {
+            return new FieldAccessExpr(children.get(0), ((FieldAccessExpr) expr).field);
+        } else if (expr instanceof MethodCallExpr) {
+            return new MethodCallExpr(children.get(0), ((MethodCallExpr) expr).name,
+                new ArrayList<>(children.subList(1, children.size())));
+        } else if (expr instanceof ObjectCreationExpr) {
+            return new ObjectCreationExpr(((ObjectCreationExpr) expr).type, new ArrayList<>(children));
+        } else if (expr instanceof SetExpr) {
+            return new SetExpr(new ArrayList<>(children));
+        } else if (expr instanceof TupleExpr) {
+            return new TupleExpr(new ArrayList<>(children));
+        } else if (expr instanceof MapExpr) {
+            List<Pair<NameExpr, Expr>> entries = new ArrayList<>(children.size() / 2);
+            for (int i = 0; i < children.size(); i += 2) {
+                entries.add(new Pair<>((NameExpr) children.get(i), children.get(i + 1)));
+            }
+            return new MapExpr(entries);
+        }
+        throw new IllegalArgumentException("Cannot replace children of " + expr.getClass().getSimpleName());
+    }
+
+    private static boolean sameElements(List<Expr> a, List<Expr> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A node on the work stack, with the index of its next child to process and,
+     * for folds, the results of the children processed so far.
+     */
+    private static final class Frame<R> {
+        final Expr expr;
+        final List<Expr> children;
+        final List<R> results;
+        int next;
+
+        Frame(Expr expr, List<Expr> children) {
+            this(expr, children, null);
+        }
+
+        Frame(Expr expr, List<Expr> children, List<R> results) {
+            this.expr = expr;
+            this.children = children;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package in.ac.iiitb.plproject.ast;
+
+import java.util.Map;
+
+/**
+ * Resolved types of the nodes of one expression tree, as computed by
+ * TypeInference.infer. Nodes are looked up by identity.
+ */
+public final class ExprTypes {
+    private final Map<Expr, String> types;
+
+    ExprTypes(Map<Expr, String> types) {
+        this.types = types;
+    }
+
+    /**
+     * The resolved type name, or null if it could not be resolved.
+     */
+    public String typeOf(Expr expr) {
+        return types.get(expr);
+    }
+
+    public boolean isPrimitive(Expr expr) {
+        String type = typeOf(expr);
+        return type != null && TypeInference.isPrimitiveTypeName(type);
+    }
+
+    public boolean isReference(Expr expr) {
+        String type = typeOf(expr);
+        return type != null && !TypeInference.isPrimitiveTypeName(type);
+    }
+}
@@ -0,0 +1,15 @@
+package in.ac.iiitb.plproject.ast;
+
+/**
+ * Pre/post-order callbacks for ExprTraversal.walk.
+ * enter is called before a node's children and decides whether they are visited;
+ * leave is called for every entered node, after its children.
+ */
+public interface ExprVisitor {
+    default boolean enter(Expr expr) {
+        return true;
+    }
+
+    default void leave(Expr expr) {
+    }
+}
@@ -0,0 +1,175 @@
+package in.ac.iiitb.plproject.ast;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Facts about a spec's pre/postcondition that helper generation needs, gathered
+ * in a single walk over each expression instead of one pass per question:
+ * - array parameters: parameters accessed as x[i] in the pre- or postcondition
+ * - primed variables: variables referenced in post-state, as '(x) or x_post
+ * - variables to snapshot: as AstHelper.collectVarsToSnapshot (without "null")
+ * - post-state parameter: as AstHelper.findPostStateParameter, falling back to the
+ *   first parameter (in declaration order) referenced in post-state anywhere
+ * Instances are immutable.
+ */
+public final class PostconditionAnalysis {
+    private final Set<String> arrayParameters;
+    private final Set<String> primedVariables;
+    private final Set<String> varsToSnapshot;
+    private final String postStateParameter;
+
+    private PostconditionAnalysis(Set<String> arrayParameters, Set<String> primedVariables,
+                                  Set<String> varsToSnapshot, String postStateParameter) {
+        this.arrayParameters = Collections.unmodifiableSet(arrayParameters);
+        this.primedVariables = Collections.unmodifiableSet(primedVariables);
+        this.varsToSnapshot = Collections.unmodifiableSet(varsToSnapshot);
+        this.postStateParameter = postStateParameter;
+    }
+
+    /**
+     * Analyze a precondition and postcondition (either may be null) against the
+     * given parameter names.
+     */
+    public static PostconditionAnalysis analyze(Expr pre, Expr post, List<String> paramNames) {
+        Walker walker = new Walker(paramNames);
+        ExprTraversal.walk(pre, walker.preconditionVisitor());
+        String postStateParameter = ExprTraversal.fold(post, walker);
+
+        if (postStateParameter == null && post != null) {
+            for (String paramName : paramNames) {
+                if (walker.primedVariables.contains(paramName)) {
+                    postStateParameter = paramName;
+                    break;
+                }
+            }
+        }
+        walker.varsToSnapshot.remove("null");
+        return new PostconditionAnalysis(walker.arrayParameters, walker.primedVariables,
+            walker.varsToSnapshot, postStateParameter);
+    }
+
+    public Set<String> getArrayParameters() {
+        return arrayParameters;
+    }
+
+    public Set<String> getPrimedVariables() {
+        return primedVariables;
+    }
+
+    public Set<String> getVarsToSnapshot() {
+        return varsToSnapshot;
+    }
+
+    /**
+     * The parameter whose post-state the postcondition refers to, or null if none.
+     */
+    public String getPostStateParameter() {
+        return postStateParameter;
+    }
+
+    /**
+     * One walk per expression. Two counters track which of the original per-question
+     * passes would have reached the current node:
+     * - unsearched: inside a node that the array-access and post-state-parameter
+     *   searches do not descend into (they only follow method calls, binary and
+     *   unary expressions)
+     * - unsnapshotted: inside a primed argument or an object creation, which the
+     *   snapshot collection skips
+     * Folding the postcondition yields the post-state parameter found by
+     * AstHelper.findPostStateParameter.
+     */
+    private static final class Walker implements ExprFolder<String> {
+        private final List<String> paramNames;
+        private final AstHelper.PostStateParameterFinder finder;
+        private final Set<String> arrayParameters = new HashSet<>();
+        private final Set<String> primedVariables = new LinkedHashSet<>();
+        private final Set<String> varsToSnapshot = new HashSet<>();
+        private int unsearched;
+        private int unsnapshotted;
+
+        Walker(List<String> paramNames) {
+            this.paramNames = paramNames;
+            this.finder = new AstHelper.PostStateParameterFinder(paramNames);
+        }
+
+        /**
+         * Preconditions only contribute array parameters.
+         */
+        ExprVisitor preconditionVisitor() {
+            return new ExprVisitor() {
+                @Override
+                public boolean enter(Expr expr) {
+                    if (expr instanceof NameExpr) {
+                        checkArrayAccess(((NameExpr) expr).name.identifier);
+                    }
+                    return !opensUnsearched(expr);
+                }
+            };
+        }
+
+        @Override
+        public boolean descend(Expr expr) {
+            boolean snapshot = unsnapshotted == 0;
+            if (expr instanceof NameExpr) {
+                String name = ((NameExpr) expr).name.identifier;
+                if (unsearched == 0) {
+                    checkArrayAccess(name);
+                }
+                if (name.endsWith("_post")) {
+                    primedVariables.add(name.substring(0, name.length() - "_post".length()));
+                } else if (snapshot) {
+                    varsToSnapshot.add(name);
+                }
+            } else if (isPrimeCall(expr)) {
+                // Primed arguments are accounted for here, not by their own snapshot entries
+                String varName = AstHelper.getNameFromExpr(((MethodCallExpr) expr).args.get(0));
+                if (varName != null) {
+                    if (snapshot) {
+                        varsToSnapshot.add(varName);
+                    }
+                    primedVariables.add(varName);
+                }
+            }
+            adjustCounters(expr, 1);
+            return true;
+        }
+
+        @Override
+        public String fold(Expr expr, List<String> childResults) {
+            adjustCounters(expr, -1);
+            return unsearched == 0 ? finder.fold(expr, childResults) : null;
+        }
+
+        private void adjustCounters(Expr expr, int delta) {
+            if (opensUnsearched(expr)) {
+                unsearched += delta;
+            }
+            if (isPrimeCall(expr) || expr instanceof ObjectCreationExpr) {
+                unsnapshotted += delta;
+            }
+        }
+
+        private static boolean opensUnsearched(Expr expr) {
+            return expr instanceof FieldAccessExpr || expr instanceof SetExpr || expr instanceof TupleExpr
+                || expr instanceof MapExpr || expr instanceof ObjectCreationExpr;
+        }
+
+        private static boolean isPrimeCall(Expr expr) {
+            return expr instanceof MethodCallExpr && ((MethodCallExpr) expr).name.identifier.equals("'")
+                && !((MethodCallExpr) expr).args.isEmpty();
+        }
+
+        private void checkArrayAccess(String identifier) {
+            for (String paramName : paramNames) {
+                if (identifier.startsWith(paramName + "[") && identifier.contains("]")) {
+                    arrayParameters.add(paramName);
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package in.ac.iiitb.plproject.ast;
+
+import in.ac.iiitb.plproject.parser.ast.FunctionSignature;
+import in.ac.iiitb.plproject.parser.ast.Variable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the static type of expressions from declared variable and method types
+ * (FunctionSignature parameters and return types, or the declarations of a
+ * generated method), so code generation can tell primitives from references
+ * instead of guessing from names.
+ *
+ * Types are Java type names as written in declarations ("int", "int[]",
+ * "Map<Integer, Integer>", ...); "null" is the type of the null literal and an
+ * unresolved expression has no type (null).
+ */
+public final class TypeInference {
+
+    /** Receiver key of the functions under test, called unqualified or as Helper.name(...). */
+    private static final String HELPER = "Helper";
+    /** Receiver key of methods every object has. */
+    private static final String ANY_RECEIVER = "*";
+
+    private static final Set<String> COLLECTION_TYPES = new HashSet<>(Arrays.asList(
+        "Collection", "Set", "HashSet", "LinkedHashSet", "TreeSet", "List", "ArrayList", "LinkedList",
+        "Queue", "Deque", "ArrayDeque", "Map", "HashMap", "LinkedHashMap", "TreeMap"));
+
+    /** Return types of library methods: method name -> receiver kind -> return type. */
+    private static final Map<String, Map<String, String>> LIBRARY_METHOD_TYPES = new HashMap<>();
+    static {
+        libraryMethod(ANY_RECEIVER, "equals", "boolean");
+        libraryMethod(ANY_RECEIVER, "hashCode", "int");
+        libraryMethod(ANY_RECEIVER, "toString", "String");
+        for (String name : new String[] {"contains", "isEmpty"}) {
+            libraryMethod("Collection", name, "boolean");
+            libraryMethod("String", name, "boolean");
+        }
+        libraryMethod("Collection", "containsKey", "boolean");
+        libraryMethod("Collection", "containsValue", "boolean");
+        libraryMethod("Collection", "size", "int");
+        libraryMethod("Collection", "indexOf", "int");
+        libraryMethod("String", "startsWith", "boolean");
+        libraryMethod("String", "endsWith", "boolean");
+        libraryMethod("String", "length", "int");
+        libraryMethod("String", "indexOf", "int");
+        // Symbolic PathFinder inputs
+        libraryMethod("Debug", "makeSymbolicInteger", "int");
+        libraryMethod("Debug", "makeSymbolicDouble", "double");
+        libraryMethod("Debug", "makeSymbolicBoolean", "boolean");
+        libraryMethod("Debug", "makeSymbolicString", "String");
+    }
+
+    private static void libraryMethod(String receiver, String name, String returnType) {
+        LIBRARY_METHOD_TYPES.computeIfAbsent(name, k -> new HashMap<>()).put(receiver, returnType);
+    }
+
+    private final Map<String, String> variableTypes = new HashMap<>();
+    private final Map<String, Map<String, String>> methodReturnTypes = new HashMap<>();
+
+    public TypeInference() {
+        for (Map.Entry<String, Map<String, String>> entry : LIBRARY_METHOD_TYPES.entrySet()) {
+            methodReturnTypes.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+    }
+
+    /**
+     * Environment with the parameters of a function declared.
+     */
+    public static TypeInference forParameters(List<Variable> params) {
+        TypeInference inference = new TypeInference();
+        for (Variable param : params) {
+            inference.declareVariable(param.getName(), param.getTypeName());
+        }
+        return inference;
+    }
+
+    public void declareVariable(String name, String typeName) {
+        variableTypes.put(name, typeName);
+    }
+
+    /**
+     * Declare the return type of a function under test; it resolves for calls without
+     * a receiver and for Helper.name(...).
+     */
+    public void declareMethod(String name, String returnType) {
+        methodReturnTypes.computeIfAbsent(name, k -> new HashMap<>()).put(HELPER, returnType);
+    }
+
+    /**
+     * Declare the return types of the functions under test. A void function has no
+     * value, so a call to it used as one stays unresolved.
+     */
+    public void declareMethods(List<FunctionSignature> signatures) {
+        for (FunctionSignature signature : signatures) {
+            String returnType = signature.getReturnTypeName();
+            if (returnType != null && !returnType.equals("void")) {
+                declareMethod(signature.getName(), returnType);
+            }
+        }
+    }
+
+    /**
+     * Type of a variable name. Besides declared names this resolves array elements
+     * ("x[0]" for a declared "int[] x") and the _old/_post forms of a declared variable.
+     */
+    public String variableType(String name) {
+        if (name.equals("null")) {
+            return "null";
+        }
+        String type = variableTypes.get(name);
+        if (type != null) {
+            return type;
+        }
+        int bracket = name.indexOf('[');
+        if (bracket > 0 && name.endsWith("]")) {
+            String arrayType = variableType(name.substring(0, bracket));
+            if (arrayType != null && arrayType.endsWith("[]")) {
+                return arrayType.substring(0, arrayType.length() - 2);
+            }
+            return null;
+        }
+        if (name.endsWith("_old")) {
+            return variableTypes.get(name.substring(0, name.length() - "_old".length()));
+        }
+        if (name.endsWith("_post")) {
+            return variableTypes.get(name.substring(0, name.length() - "_post".length()));
+        }
+        return null;
+    }
+
+    /**
+     * Resolve the type of every node of an expression tree.
+     */
+    public ExprTypes infer(Expr root) {
+        final Map<Expr, String> types = new IdentityHashMap<>();
+        ExprTraversal.fold(root, new ExprFolder<String>() {
+            @Override
+            public String fold(Expr expr, List<String> childTypes) {
+                String type = typeOf(expr, childTypes);
+                if (type != null) {
+                    types.put(expr, type);
+                }
+                return type;
+            }
+        });
+        return new ExprTypes(types);
+    }
+
+    private String typeOf(Expr expr, List<String> childTypes) {
+        if (expr instanceof IntegerLiteralExpr) {
+            return "int";
+        } else if (expr instanceof DoubleLiteralExpr) {
+            return "double";
+        } else if (expr instanceof BooleanLiteralExpr) {
+            return "boolean";
+        } else if (expr instanceof StringLiteralExpr) {
+            return "String";
+        } else if (expr instanceof NameExpr) {
+            return variableType(((NameExpr) expr).name.identifier);
+        } else if (expr instanceof BinaryExpr) {
+            return binaryType(((BinaryExpr) expr).op, childTypes.get(0), childTypes.get(1));
+        } else if (expr instanceof UnaryExpr) {
+            return ((UnaryExpr) expr).op == UnaryExpr.Operator.LOGICAL_COMPLEMENT ? "boolean" : unbox(childTypes.get(0));
+        } else if (expr instanceof MethodCallExpr) {
+            MethodCallExpr methodCallExpr = (MethodCallExpr) expr;
+            if (methodCallExpr.name.identifier.equals("'")) {
+                // Prime operator: the post-state of its argument has the argument's type
+                return childTypes.size() > 1 ? childTypes.get(1) : null;
+            }
+            return returnType(methodCallExpr, childTypes.get(0));
+        } else if (expr instanceof FieldAccessExpr) {
+            String scopeType = childTypes.get(0);
+            if (((FieldAccessExpr) expr).field.identifier.equals("length") && scopeType != null && scopeType.endsWith("[]")) {
+                return "int";
+            }
+            return null;
+        } else if (expr instanceof ObjectCreationExpr) {
+            Type type = ((ObjectCreationExpr) expr).type;
+            return type instanceof ClassOrInterfaceType ? ((ClassOrInterfaceType) type).name.identifier : type.toString();
+        } else if (expr instanceof SetExpr) {
+            return "Set";
+        } else if (expr instanceof MapExpr) {
+            return "Map";
+        } else if (expr instanceof TupleExpr) {
+            return "Object[]";
+        } else if (expr instanceof AssignExpr) {
+            return childTypes.get(0);
+        } else if (expr instanceof ThisExpr) {
+            return "Object";
+        }
+        return null;
+    }
+
+    /**
+     * Return type of a call, looked up by the kind of its receiver and the method name.
+     * When the receiver cannot be resolved the name alone decides, and only if every
+     * receiver kind declaring it agrees on the type; otherwise the call stays unresolved.
+     */
+    private String returnType(MethodCallExpr call, String scopeType) {
+        Map<String, String> byReceiver = methodReturnTypes.get(call.name.identifier);
+        if (byReceiver == null) {
+            return null;
+        }
+        String receiver = receiverKind(call.scope, scopeType);
+        if (receiver != null) {
+            String type = byReceiver.get(receiver);
+            return type != null ? type : byReceiver.get(ANY_RECEIVER);
+        }
+        Set<String> candidates = new HashSet<>(byReceiver.values());
+        return candidates.size() == 1 ? candidates.iterator().next() : null;
+    }
+
+    /**
+     * Receiver kind of a call: Helper for an unqualified call, the class name for a
+     * static call (Debug.makeSymbolicInteger), "Collection" or "String" for a receiver
+     * of those types and the raw type name for any other resolved receiver; null
+     * when the receiver is unresolved.
+     */
+    private static String receiverKind(Expr scope, String scopeType) {
+        if (scope == null) {
+            return HELPER;
+        }
+        if (scopeType != null) {
+            String rawType = scopeType;
+            int generic = rawType.indexOf('<');
+            if (generic >= 0) {
+                rawType = rawType.substring(0, generic);
+            }
+            rawType = rawType.trim();
+            if (rawType.startsWith("java.util.")) {
+                rawType = rawType.substring("java.util.".length());
+            }
+            return COLLECTION_TYPES.contains(rawType) ? "Collection" : rawType;
+        }
+        if (scope instanceof NameExpr) {
+            String identifier = ((NameExpr) scope).name.identifier;
+            if (!identifier.isEmpty() && Character.isUpperCase(identifier.charAt(0))) {
+                return identifier;
+            }
+        }
+        return null;
+    }
+
+    private static String binaryType(BinaryExpr.Operator op, String left, String right) {
+        switch (op) {
+            case AND:
+            case OR:
+            case EQUALS:
+            case NOT_EQUALS:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL:
+                return "boolean";
+            case PLUS:
+                if ("String".equals(left) || "String".equals(right)) {
+                    return "String";
+                }
+                return numericPromotion(left, right);
+            default:
+                return numericPromotion(left, right);
+        }
+    }
+
+    /**
+     * Binary numeric promotion (JLS 5.6.2) of two operand types; null if either is
+     * unresolved or not numeric.
+     */
+    private static String numericPromotion(String left, String right) {
+        left = unbox(left);
+        right = unbox(right);
+        if (!isNumeric(left) || !isNumeric(right)) {
+            return null;
+        }
+        for (String wider : new String[] {"double", "float", "long"}) {
+            if (wider.equals(left) || wider.equals(right)) {
+                return wider;
+            }
+        }
+        return "int";
+    }
+
+    private static boolean isNumeric(String type) {
+        return type != null && isPrimitiveTypeName(type) && !type.equals("boolean");
+    }
+
+    private static String unbox(String type) {
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case "Integer": return "int";
+            case "Long": return "long";
+            case "Short": return "short";
+            case "Byte": return "byte";
+            case "Character": return "char";
+            case "Double": return "double";
+            case "Float": return "float";
+            case "Boolean": return "boolean";
+            default: return type;
+        }
+    }
+
+    /**
+     * Whether a type name is one of Java's eight primitive types (boxed types are references).
+     */
+    public static boolean isPrimitiveTypeName(String typeName) {
+        switch (typeName) {
+            case "int":
+            case "long":
+            case "short":
+            case "byte":
+            case "char":
+            case "double":
+            case "float":
+            case "boolean":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
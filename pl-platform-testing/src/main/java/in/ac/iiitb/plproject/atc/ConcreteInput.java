@@ -1,5 +1,112 @@
 package in.ac.iiitb.plproject.atc;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Concrete values for the symbolic inputs of one generated test method, solved from
+ * one feasible path through it.
+ *
+ * Values are boxed primitives, Strings, empty java.util collections, null, or
+ * NON_NULL for a non-null object of a type without a default value. A path that
+ * ends in a failing assert yields an input with isAssertionViolated() set.
+ */
 public class ConcreteInput {
-    // Placeholder for now
+
+    /** Value of a non-null reference input of a type that cannot be instantiated generically. */
+    public static final Object NON_NULL = new Object() {
+        @Override
+        public String toString() {
+            return "<non-null>";
+        }
+    };
+
+    private final String methodName;
+    private final Map<String, String> types;
+    private final Map<String, Object> values;
+    private final boolean assertionViolated;
+
+    /**
+     * @param types  input name -> declared type, in declaration order
+     * @param values input name -> value; names missing here are null
+     */
+    public ConcreteInput(String methodName, Map<String, String> types, Map<String, Object> values,
+                         boolean assertionViolated) {
+        this.methodName = methodName;
+        this.types = Collections.unmodifiableMap(new LinkedHashMap<>(types));
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        for (String name : types.keySet()) {
+            ordered.put(name, values.get(name));
+        }
+        this.values = Collections.unmodifiableMap(ordered);
+        this.assertionViolated = assertionViolated;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public List<String> getInputNames() {
+        return new ArrayList<>(types.keySet());
+    }
+
+    public String getType(String inputName) {
+        return types.get(inputName);
+    }
+
+    public Object getValue(String inputName) {
+        return values.get(inputName);
+    }
+
+    /**
+     * Input name -> value, in declaration order.
+     */
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    public boolean isAssertionViolated() {
+        return assertionViolated;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ConcreteInput)) {
+            return false;
+        }
+        ConcreteInput other = (ConcreteInput) obj;
+        return methodName.equals(other.methodName) && types.equals(other.types)
+            && values.equals(other.values) && assertionViolated == other.assertionViolated;
+    }
+
+    @Override
+    public int hashCode() {
+        return (methodName.hashCode() * 31 + values.hashCode()) * 31 + (assertionViolated ? 1 : 0);
+    }
+
+    /**
+     * E.g. "scale_helper(x = 0)" or "scale_helper(x = 0) [assertion violated]".
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(methodName).append("(");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            Object value = entry.getValue();
+            sb.append(entry.getKey()).append(" = ");
+            sb.append(value instanceof String ? "\"" + value + "\"" : String.valueOf(value));
+        }
+        sb.append(")");
+        if (assertionViolated) {
+            sb.append(" [assertion violated]");
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,117 @@
+package in.ac.iiitb.plproject.atc;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Coverage of a test suite, one row per input: the row is a bitset over goal IDs
+ * (see CoverageGoals), stored with all other rows in one flat long[] so millions of
+ * inputs cost goalCount / 8 bytes each rather than an object per input.
+ */
+public class CoverageMatrix {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    private final int goalCount;
+    final int words;
+    long[] bits;
+    private int rows;
+
+    public CoverageMatrix(int goalCount) {
+        if (goalCount < 0) {
+            throw new IllegalArgumentException("goalCount must not be negative");
+        }
+        this.goalCount = goalCount;
+        this.words = Math.max(1, (goalCount + 63) >>> 6);
+        this.bits = new long[INITIAL_ROWS * words];
+    }
+
+    public int getGoalCount() {
+        return goalCount;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Add the row of the next input; returns its index.
+     */
+    public int addRow(BitSet covered) {
+        if (covered.length() > goalCount) {
+            throw new IllegalArgumentException("Goal " + (covered.length() - 1) + " out of range 0.." + (goalCount - 1));
+        }
+        int row = newRow();
+        long[] words = covered.toLongArray();
+        System.arraycopy(words, 0, bits, row * this.words, words.length);
+        return row;
+    }
+
+    public int addRow(int... goals) {
+        for (int goal : goals) {
+            if (goal < 0 || goal >= goalCount) {
+                throw new IllegalArgumentException("Goal " + goal + " out of range 0.." + (goalCount - 1));
+            }
+        }
+        int row = newRow();
+        for (int goal : goals) {
+            bits[row * words + (goal >>> 6)] |= 1L << goal;
+        }
+        return row;
+    }
+
+    /**
+     * Add a row from a probe bitmap (AtcIrCodeGenerator.PROBES_FIELD), whose IDs
+     * are goal IDs; entries past getGoalCount() are ignored.
+     */
+    public int addRow(boolean[] probes) {
+        int row = newRow();
+        for (int goal = 0; goal < Math.min(probes.length, goalCount); goal++) {
+            if (probes[goal]) {
+                bits[row * words + (goal >>> 6)] |= 1L << goal;
+            }
+        }
+        return row;
+    }
+
+    public boolean covers(int row, int goal) {
+        checkRow(row);
+        return (bits[row * words + (goal >>> 6)] & 1L << goal) != 0;
+    }
+
+    public BitSet getRow(int row) {
+        checkRow(row);
+        return BitSet.valueOf(Arrays.copyOfRange(bits, row * words, (row + 1) * words));
+    }
+
+    /**
+     * Goals covered by at least one row.
+     */
+    public BitSet getCoveredGoals() {
+        long[] union = new long[words];
+        for (int row = 0; row < rows; row++) {
+            for (int w = 0; w < words; w++) {
+                union[w] |= bits[row * words + w];
+            }
+        }
+        return BitSet.valueOf(union);
+    }
+
+    private int newRow() {
+        if ((long) (rows + 1) * words > bits.length) {
+            long capacity = Math.min((long) bits.length + (bits.length >> 1) + words, MAX_WORDS / words * (long) words);
+            if (capacity < (long) (rows + 1) * words) {
+                throw new IllegalStateException("Coverage matrix is full at " + rows + " rows");
+            }
+            bits = Arrays.copyOf(bits, (int) capacity);
+        }
+        return rows++;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+    }
+}
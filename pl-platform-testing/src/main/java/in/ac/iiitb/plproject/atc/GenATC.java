@@ -9,8 +9,7 @@ public interface GenATC {
     AtcClass generateAtcFile(JmlSpecAst jmlSpecAst, TestStringAst testStringAst);
 
     default String prettyPrint(AtcClass atcClass) {
-        AtcIrCodeGenerator codeGenerator = new AtcIrCodeGenerator();
-        return codeGenerator.generateJavaFile(atcClass);
+        return AtcIrCodeGenerator.getInstance().generateJavaFile(atcClass);
     }
 }
 
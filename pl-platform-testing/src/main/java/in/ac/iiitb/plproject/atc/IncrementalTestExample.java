@@ -2,6 +2,7 @@ package in.ac.iiitb.plproject.atc;
 
 import in.ac.iiitb.plproject.parser.ast.*;
 import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.ExprArena;
 import in.ac.iiitb.plproject.ast.Expr;
 import in.ac.iiitb.plproject.atc.ir.AtcClass;
 import in.ac.iiitb.plproject.atc.ir.AtcTestMethod;
@@ -11,10 +12,34 @@ import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
 import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
 import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
 import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIrCodeGenerator;
+import in.ac.iiitb.plproject.atc.ir.CoverageGoals;
+import in.ac.iiitb.plproject.symex.CachingSolver;
+import in.ac.iiitb.plproject.symex.ConcreteInputReader;
+import in.ac.iiitb.plproject.symex.ConcreteInputStore;
+import in.ac.iiitb.plproject.symex.ConcreteInputWriter;
+import in.ac.iiitb.plproject.symex.JpfBatch;
+import in.ac.iiitb.plproject.symex.JpfBatchOutput;
+import in.ac.iiitb.plproject.symex.JpfBudgetScheduler;
+import in.ac.iiitb.plproject.symex.JpfCostModel;
+import in.ac.iiitb.plproject.symex.JpfInputCollector;
+import in.ac.iiitb.plproject.symex.JpfProcessPool;
+import in.ac.iiitb.plproject.symex.JpfRunResult;
+import in.ac.iiitb.plproject.symex.SpfArtifacts;
 import in.ac.iiitb.plproject.symex.SpfWrapper;
+import in.ac.iiitb.plproject.symex.SymbolicExecutor;
+import in.ac.iiitb.plproject.symex.TieredSolver;
+import in.ac.iiitb.plproject.symex.WarmJobResult;
+import in.ac.iiitb.plproject.symex.WarmWorker;
+import in.ac.iiitb.plproject.symex.WarmWorkerPool;
 
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Incremental Test Example for NewGenATC Algorithm
@@ -37,13 +62,67 @@ public class IncrementalTestExample {
                 case "complex":
                     testComplexExample();
                     break;
+                case "parallel":
+                    testParallelGeneration();
+                    break;
+                case "concurrent":
+                    testConcurrentRendering();
+                    break;
+                case "clauses":
+                    testManyClauses();
+                    break;
+                case "arena":
+                    testExprArena();
+                    break;
+                case "deep":
+                    testDeepSpecs();
+                    break;
+                case "cse":
+                    testSubexpressionHoisting();
+                    break;
+                case "symex":
+                    testSymbolicExecution();
+                    break;
+                case "cache":
+                    testSolverCache();
+                    break;
+                case "jpfpool":
+                    testJpfProcessPool();
+                    break;
+                case "batch":
+                    testBatchedJpfSessions();
+                    break;
+                case "warm":
+                    testWarmWorkers();
+                    break;
+                case "budget":
+                    testBudgetScheduling();
+                    break;
+                case "inputs":
+                    testBinaryInputRecords();
+                    break;
+                case "store":
+                    testColumnarInputStore();
+                    break;
+                case "junit":
+                    testJUnitRegressionClasses();
+                    break;
+                case "minimize":
+                    testSuiteMinimization();
+                    break;
+                case "probes":
+                    testCoverageProbes();
+                    break;
+                case "nullguard":
+                    testNullGuardedInputs();
+                    break;
                 case "all":
                     testSimpleExample();
                     testComplexExample();
                     break;
                 default:
                     System.out.println("Unknown test case: " + testCase);
-                    System.out.println("Available: simple, complex, all");
+                    System.out.println("Available: simple, complex, parallel, concurrent, clauses, arena, deep, cse, symex, cache, jpfpool, batch, warm, budget, inputs, store, junit, minimize, probes, nullguard, all");
             }
         } else {
             // Default: run simple example
@@ -153,6 +232,1434 @@ public class IncrementalTestExample {
     }
 
 
+    /**
+     * Parallel generation check: builds the same large spec set sequentially and
+     * with the fork-join mode, and verifies both render to identical code.
+     */
+    private static void testParallelGeneration() {
+        System.out.println("--- Test Case 3: Parallel Generation ---");
+        
+        try {
+            int specCount = 2000;
+            List<JmlFunctionSpec> specs = createMockIncrementSpecs(specCount);
+            List<String> calls = new ArrayList<>();
+            for (JmlFunctionSpec spec : specs) {
+                calls.add(spec.getName());
+            }
+            JmlSpecAst jmlSpecAst = new JmlSpecAst(specs);
+            TestStringAst testStringAst = new TestStringAst(calls);
+            
+            NewGenATC genAtc = new NewGenATC();
+            long start = System.nanoTime();
+            AtcClass sequential = genAtc.generateAtcFile(jmlSpecAst, testStringAst, NewGenATC.GenerationMode.SEQUENTIAL);
+            long sequentialNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            AtcClass parallel = genAtc.generateAtcFile(jmlSpecAst, testStringAst, NewGenATC.GenerationMode.PARALLEL);
+            long parallelNanos = System.nanoTime() - start;
+            
+            boolean identical = genAtc.prettyPrint(sequential).equals(genAtc.prettyPrint(parallel));
+            System.out.println("  Specs: " + specCount);
+            System.out.println("  Sequential: " + (sequentialNanos / 1_000_000) + " ms");
+            System.out.println("  Parallel (" + genAtc.getPool().getParallelism() + " workers): " + (parallelNanos / 1_000_000) + " ms");
+            System.out.println("  Identical output: " + identical);
+            
+        } catch (Exception e) {
+            System.err.println("Error in parallel example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Concurrency stress check: renders the same ATC class and its methods from
+     * many threads through the shared AtcIrCodeGenerator and compares every
+     * result against the single-threaded rendering.
+     */
+    private static void testConcurrentRendering() {
+        System.out.println("--- Test Case 4: Concurrent Rendering ---");
+        
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        int rendersPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<JmlFunctionSpec> specs = createMockIncrementSpecs(200);
+            specs.add(createMockProcessSpec());
+            specs.add(createMockAppendExclamationSpec());
+            List<String> calls = new ArrayList<>();
+            for (JmlFunctionSpec spec : specs) {
+                calls.add(spec.getName());
+            }
+            AtcClass atcClass = new NewGenATC().generateAtcFile(new JmlSpecAst(specs), new TestStringAst(calls));
+            
+            AtcIrCodeGenerator generator = AtcIrCodeGenerator.getInstance();
+            String expectedClass = new AtcIrCodeGenerator().generateJavaFile(atcClass);
+            List<String> expectedMethods = new ArrayList<>();
+            for (AtcTestMethod method : atcClass.getTestMethods()) {
+                expectedMethods.add(new AtcIrCodeGenerator().generateMethod(method));
+            }
+            
+            AtomicInteger mismatches = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < rendersPerThread; r++) {
+                        if (!expectedClass.equals(generator.generateJavaFile(atcClass))) {
+                            mismatches.incrementAndGet();
+                        }
+                        int index = (offset + r) % expectedMethods.size();
+                        String method = generator.generateMethod(atcClass.getTestMethods().get(index));
+                        if (!expectedMethods.get(index).equals(method)) {
+                            mismatches.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            
+            System.out.println("  Threads: " + threads + ", renders: " + (threads * rendersPerThread * 2));
+            System.out.println("  Mismatches: " + mismatches.get());
+            
+        } catch (Exception e) {
+            System.err.println("Error in concurrent example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Printer benchmark: a spec with thousands of requires/ensures clauses, whose
+     * combined pre/postconditions are long left-deep AND chains.
+     */
+    private static void testManyClauses() {
+        System.out.println("--- Test Case 5: Many Clauses ---");
+        
+        try {
+            for (int clauseCount : new int[] {1000, 2000, 4000}) {
+                List<Expr> requires = new ArrayList<>();
+                List<Expr> ensures = new ArrayList<>();
+                for (int i = 0; i < clauseCount; i++) {
+                    requires.add(createBinaryExpr(AstHelper.createNameExpr("x"), createIntegerLiteral(-i), "GREATER_THAN"));
+                    Expr sum = createBinaryExpr(AstHelper.createNameExpr("x"), createIntegerLiteral(i), "PLUS");
+                    ensures.add(createBinaryExpr(AstHelper.createNameExpr("x_post"), sum, "GREATER_THAN_OR_EQUAL"));
+                }
+                FunctionSignature signature = new FunctionSignature("bounded",
+                    Arrays.asList(new Variable("x", "int")), "void");
+                JmlFunctionSpec spec = new JmlFunctionSpec("bounded", signature, requires, ensures);
+                
+                // Warm up, then take the best of a few runs
+                long best = Long.MAX_VALUE;
+                int length = 0;
+                for (int run = 0; run < 10; run++) {
+                    long start = System.nanoTime();
+                    length = AstHelper.exprToJavaCode(spec.getPrecondition()).length()
+                           + AstHelper.exprToJavaCode(spec.getPostcondition()).length();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.println("  Clauses: " + clauseCount + ", chars: " + length
+                    + ", render: " + (best / 1_000) + " us");
+            }
+            
+            // Sign runs must not print as -- / ++, which Java lexes as decrement / increment
+            Expr x = AstHelper.createNameExpr("x");
+            List<Expr> signed = Arrays.asList(
+                AstHelper.createUnaryExpr(createIntegerLiteral(-5), "MINUS"),
+                AstHelper.createUnaryExpr(AstHelper.createUnaryExpr(x, "MINUS"), "MINUS"),
+                AstHelper.createUnaryExpr(AstHelper.createUnaryExpr(x, "PLUS"), "PLUS"),
+                AstHelper.createUnaryExpr(AstHelper.createUnaryExpr(x, "PLUS"), "MINUS"),
+                createBinaryExpr(x, createIntegerLiteral(-5), "MINUS"));
+            StringBuilder rendered = new StringBuilder();
+            boolean lexesAsSigns = true;
+            for (Expr expr : signed) {
+                String code = AstHelper.exprToJavaCode(expr);
+                lexesAsSigns &= !code.contains("--") && !code.contains("++");
+                rendered.append(rendered.length() == 0 ? "" : ", ").append(code);
+            }
+            System.out.println("  Signs: " + rendered + (lexesAsSigns ? " (OK)" : " (MISLEXED)"));
+            
+        } catch (Exception e) {
+            System.err.println("Error in clauses example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads a large batch of specs into an ExprArena: combined conditions and their
+     * clauses share nodes, and the arena round-trips back to the same Java code.
+     */
+    private static void testExprArena() {
+        System.out.println("--- Test Case 6: Expression Arena ---");
+        
+        try {
+            int specCount = 20000;
+            List<JmlFunctionSpec> specs = createMockIncrementSpecs(specCount);
+            specs.add(createMockAppendExclamationSpec());
+            specs.add(createMockIncrementSpec());
+            specs.add(createMockProcessSpec());
+            
+            ExprArena arena = new ExprArena();
+            int roots = 0;
+            int sharedClauses = 0;
+            int mismatches = 0;
+            for (JmlFunctionSpec spec : specs) {
+                int pre = arena.add(spec.getPrecondition());
+                int post = arena.add(spec.getPostcondition());
+                int[] requires = arena.addAll(spec.getRequiresClauses());
+                int[] ensures = arena.addAll(spec.getEnsuresClauses());
+                roots += 2 + requires.length + ensures.length;
+                // Single-clause specs: the combined condition is the clause itself
+                if (requires.length == 1 && requires[0] == pre) {
+                    sharedClauses++;
+                }
+                if (ensures.length == 1 && ensures[0] == post) {
+                    sharedClauses++;
+                }
+                if (!AstHelper.exprToJavaCode(arena.toExpr(pre)).equals(AstHelper.exprToJavaCode(spec.getPrecondition()))
+                    || !AstHelper.exprToJavaCode(arena.toExpr(post)).equals(AstHelper.exprToJavaCode(spec.getPostcondition()))) {
+                    mismatches++;
+                }
+            }
+            
+            System.out.println("  Specs: " + specs.size() + ", expression roots: " + roots);
+            System.out.println("  Distinct nodes: " + arena.size() + ", identifiers: " + arena.identifierCount()
+                + ", arena bytes: " + arena.footprintBytes());
+            System.out.println("  Clauses shared with combined conditions: " + sharedClauses);
+            System.out.println("  Round-trip mismatches: " + mismatches);
+            
+        } catch (Exception e) {
+            System.err.println("Error in arena example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stack-safety check: specs far deeper than the thread stack allows for recursive
+     * walks (100k-clause conjunctions and a 50k-deep arithmetic chain) go through
+     * generation, rendering, the symbolic transformation and the expression arena.
+     */
+    private static void testDeepSpecs() {
+        System.out.println("--- Test Case 7: Deep Specs ---");
+        
+        try {
+            int clauseCount = 100_000;
+            int chainDepth = 50_000;
+            List<Expr> requires = new ArrayList<>();
+            List<Expr> ensures = new ArrayList<>();
+            for (int i = 0; i < clauseCount; i++) {
+                requires.add(createBinaryExpr(AstHelper.createNameExpr("x"), createIntegerLiteral(-i), "GREATER_THAN"));
+                Expr sum = createBinaryExpr(AstHelper.createNameExpr("x"), createIntegerLiteral(i), "PLUS");
+                ensures.add(createBinaryExpr(AstHelper.createNameExpr("x_post"), sum, "GREATER_THAN_OR_EQUAL"));
+            }
+            // x_post <= x + 1 + 1 + ... (a left-deep chain of non-associative additions)
+            Expr chain = AstHelper.createNameExpr("x");
+            for (int i = 0; i < chainDepth; i++) {
+                chain = createBinaryExpr(chain, createIntegerLiteral(1), "PLUS");
+            }
+            ensures.add(createBinaryExpr(AstHelper.createNameExpr("x_post"), chain, "LESS_THAN_OR_EQUAL"));
+            
+            FunctionSignature signature = new FunctionSignature("increment",
+                Arrays.asList(new Variable("x", "int")), "void");
+            JmlFunctionSpec spec = new JmlFunctionSpec("increment", signature, requires, ensures);
+            JmlSpecAst jmlSpecAst = new JmlSpecAst(Arrays.asList(spec));
+            TestStringAst testStringAst = new TestStringAst(Arrays.asList("increment"));
+            
+            long start = System.nanoTime();
+            AtcClass atcClass = new NewGenATC().generateAtcFile(jmlSpecAst, testStringAst);
+            long generated = System.nanoTime();
+            String javaCode = AtcIrCodeGenerator.getInstance().generateJavaFile(atcClass);
+            long rendered = System.nanoTime();
+            String jpfCode = new SpfWrapper(true).buildArtifacts(atcClass, true).getJpfCode();
+            long transformed = System.nanoTime();
+            
+            ExprArena arena = new ExprArena();
+            int post = arena.add(spec.getPostcondition());
+            boolean roundTrip = AstHelper.exprToJavaCode(arena.toExpr(post))
+                .equals(AstHelper.exprToJavaCode(spec.getPostcondition()));
+            
+            System.out.println("  Clauses: " + clauseCount + ", chain depth: " + chainDepth);
+            System.out.println("  Generate: " + (generated - start) / 1_000_000 + " ms");
+            System.out.println("  Render: " + (rendered - generated) / 1_000_000 + " ms, " + javaCode.length() + " chars");
+            System.out.println("  Symbolic: " + (transformed - rendered) / 1_000_000 + " ms, " + jpfCode.length() + " chars");
+            System.out.println("  Arena nodes: " + arena.size() + ", round trip: " + (roundTrip ? "OK" : "MISMATCH"));
+            
+        } catch (Exception | StackOverflowError e) {
+            System.err.println("Error in deep example: " + e);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Renders helpers whose postconditions repeat a Helper call and an arithmetic
+     * subexpression, with and without hoisting into temporaries. Only the call is
+     * hoisted; the arithmetic is cheaper to recompute.
+     */
+    private static void testSubexpressionHoisting() {
+        System.out.println("--- Test Case 8: Subexpression Hoisting ---");
+        
+        try {
+            // result_post == update(result, data) && (result_post.size() > 0 || update(result, data) != null)
+            Expr update = createMethodCall(null, "update", new ArrayList<Object>(
+                Arrays.<Object>asList(AstHelper.createNameExpr("result"), AstHelper.createNameExpr("data"))));
+            Expr size = createMethodCall(AstHelper.createNameExpr("result_post"), "size", new ArrayList<Object>());
+            Expr post = createBinaryExpr(
+                createBinaryExpr(AstHelper.createNameExpr("result_post"), update, "EQUALS"),
+                createBinaryExpr(
+                    createBinaryExpr(size, createIntegerLiteral(0), "GREATER_THAN"),
+                    createBinaryExpr(update, AstHelper.createNameExpr("null"), "NOT_EQUALS"),
+                    "OR"),
+                "AND");
+            // The return type types the hoisted Helper.update call (as declared by the generated Helper)
+            FunctionSignature updateSignature = new FunctionSignature("update", Arrays.asList(
+                new Variable("data", "Set<Integer>"), new Variable("result", "Map<Integer, Integer>")), "Map<?,?>");
+            
+            // x_post == (x + 1) * 2 || x_post == (x + 1) * 3
+            Expr xPlusOne = createBinaryExpr(AstHelper.createNameExpr("x"), createIntegerLiteral(1), "PLUS");
+            Expr scaled = createBinaryExpr(
+                createBinaryExpr(AstHelper.createNameExpr("x_post"),
+                    createBinaryExpr(xPlusOne, createIntegerLiteral(2), "MULTIPLY"), "EQUALS"),
+                createBinaryExpr(AstHelper.createNameExpr("x_post"),
+                    createBinaryExpr(xPlusOne, createIntegerLiteral(3), "MULTIPLY"), "EQUALS"),
+                "OR");
+            FunctionSignature scaleSignature = new FunctionSignature("scale",
+                Arrays.asList(new Variable("x", "int")), "void");
+            
+            JmlSpecAst jmlSpecAst = new JmlSpecAst(Arrays.asList(
+                new JmlFunctionSpec("update", updateSignature, (Expr) null, post),
+                new JmlFunctionSpec("scale", scaleSignature, (Expr) null, scaled)));
+            TestStringAst testStringAst = new TestStringAst(Arrays.asList("update", "scale"));
+            
+            for (boolean hoist : new boolean[] {false, true}) {
+                NewGenATC genAtc = new NewGenATC();
+                genAtc.setHoistSubexpressions(hoist);
+                AtcClass atcClass = genAtc.generateAtcFile(jmlSpecAst, testStringAst);
+                System.out.println("Hoisting " + (hoist ? "on" : "off") + ":");
+                for (AtcTestMethod method : atcClass.getTestMethods()) {
+                    String code = AtcIrCodeGenerator.getInstance().generateMethod(method);
+                    System.out.print(code);
+                    System.out.println("  // Helper.update calls: " + (code.split("Helper\\.update\\(", -1).length - 1));
+                }
+            }
+            
+        } catch (Exception e) {
+            System.err.println("Error in hoisting example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Runs the built-in SymbolicExecutor on integer/boolean specs and prints the
+     * concrete inputs it solves for, including inputs that violate a postcondition.
+     */
+    private static void testSymbolicExecution() {
+        System.out.println("--- Test Case 9: Symbolic Execution ---");
+        
+        try {
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            for (AtcTestMethod method : atcClass.getTestMethods()) {
+                System.out.print(AtcIrCodeGenerator.getInstance().generateMethod(method));
+            }
+            
+            // Solver tiers as configured by -Datc.solver.* (interval tier, then the built-in solver)
+            SymbolicExecutor executor = new SymbolicExecutor(TieredSolver.fromProperties(System.getProperties()));
+            long start = System.nanoTime();
+            List<ConcreteInput> inputs = executor.execute(atcClass);
+            long micros = (System.nanoTime() - start) / 1_000;
+            System.out.println("Concrete inputs (" + inputs.size() + "):");
+            for (ConcreteInput input : inputs) {
+                System.out.println("  " + input);
+            }
+            // A violation must be forced by its inputs, so no input may also pass
+            Set<String> passing = new HashSet<>();
+            for (ConcreteInput input : inputs) {
+                if (!input.isAssertionViolated()) {
+                    passing.add(input.getMethodName() + input.getValues());
+                }
+            }
+            boolean conflicting = false;
+            for (ConcreteInput input : inputs) {
+                conflicting |= input.isAssertionViolated() && passing.contains(input.getMethodName() + input.getValues());
+            }
+            System.out.println("Inputs both passing and violating: " + (conflicting ? "yes (WRONG)" : "none (OK)"));
+            System.out.println(executor.formatStats());
+            System.out.print("Solver tiers:\n" + ((TieredSolver) executor.getSolver()).formatStats());
+            System.out.println("Time: " + micros + " us");
+            
+        } catch (Exception e) {
+            System.err.println("Error in symbolic execution example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Runs the symbolic execution specs three times against one on-disk path-condition
+     * cache: cold, warm (reloaded from the file), and with deposit's parameter renamed,
+     * which must still hit because cache keys are canonical.
+     */
+    private static void testSolverCache() {
+        System.out.println("--- Test Case 10: Path-Condition Cache ---");
+        
+        java.nio.file.Path cacheFile = null;
+        try {
+            cacheFile = java.nio.file.Files.createTempFile("atc-solver-cache", ".txt");
+            java.nio.file.Files.delete(cacheFile);
+            String[] runs = {"cold", "warm", "renamed"};
+            for (String run : runs) {
+                AtcClass atcClass = createSymbolicExecutionSpecs(run.equals("renamed") ? "amount" : "x");
+                CachingSolver cache = new CachingSolver(TieredSolver.fromProperties(System.getProperties()),
+                    cacheFile, CachingSolver.DEFAULT_MAX_ENTRIES, CachingSolver.DEFAULT_MAX_BYTES);
+                SymbolicExecutor executor = new SymbolicExecutor(cache);
+                long start = System.nanoTime();
+                List<ConcreteInput> inputs = executor.execute(atcClass);
+                long micros = (System.nanoTime() - start) / 1_000;
+                cache.save();
+                System.out.println(run + ": " + inputs.size() + " input(s), " + micros + " us");
+                System.out.print("  " + cache.formatStats());
+                System.out.print("  " + ((TieredSolver) cache.getDelegate()).formatStats().replace("\n", "\n  ").trim() + "\n");
+            }
+            
+        } catch (Exception e) {
+            System.err.println("Error in solver cache example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (cacheFile != null) {
+                cacheFile.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Runs the per-method .jpf files of the symbolic execution specs through a
+     * JpfProcessPool with a shell script standing in for JPF (no JPF install needed):
+     * a normal run, the JPF step of SpfWrapper.run, a run hitting the per-run timeout,
+     * and a cancelled run.
+     */
+    private static void testJpfProcessPool() {
+        System.out.println("--- Test Case 11: JPF Process Pool ---");
+        
+        java.io.File dir = null;
+        try {
+            dir = java.nio.file.Files.createTempDirectory("atc-jpf").toFile();
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            List<String> jpfFiles = new SpfWrapper(true).generateJpfFilesFromAtcClass(
+                atcClass, dir.getPath(), null, null, null);
+            int workers = JpfProcessPool.poolSize(Runtime.getRuntime().availableProcessors(),
+                JpfProcessPool.DEFAULT_MEMORY_MB, JpfProcessPool.DEFAULT_HEAP_MB);
+            
+            // Fake runner: echo the method under test, with $0 bound to the .jpf path
+            JpfProcessPool pool = new JpfProcessPool(Arrays.asList("sh", "-c",
+                "echo \"heap {heap}m\"; grep '^symbolic.method' \"$0\"; echo oops >&2", "{jpf}"),
+                workers, JpfProcessPool.DEFAULT_HEAP_MB, 10_000);
+            long start = System.nanoTime();
+            List<JpfRunResult> results = pool.runAll(jpfFiles);
+            System.out.println(jpfFiles.size() + " run(s) on " + workers + " worker(s) in "
+                + (System.nanoTime() - start) / 1_000 + " us");
+            for (JpfRunResult result : results) {
+                System.out.println("  " + result);
+            }
+            
+            // The JPF step of SpfWrapper.run (-Datc.jpf.run=true) on the same pool
+            SpfWrapper wrapper = new SpfWrapper(true);
+            wrapper.setJpfPool(pool);
+            pool.setOutputListener(null);
+            wrapper.run(atcClass);
+            for (JpfRunResult result : wrapper.getJpfResults()) {
+                System.out.println("  run(): " + result.getName() + " " + result.getStatus() + ", "
+                    + result.getOutputLines() + " line(s)");
+            }
+            
+            JpfProcessPool slow = new JpfProcessPool(Arrays.asList("sh", "-c", "echo started; exec sleep 30", "{jpf}"),
+                workers, JpfProcessPool.DEFAULT_HEAP_MB, 300);
+            System.out.println("Timeout: " + slow.runAll(jpfFiles.subList(0, 1)).get(0));
+            
+            JpfProcessPool cancelled = new JpfProcessPool(Arrays.asList("sh", "-c", "exec sleep 30", "{jpf}"),
+                1, JpfProcessPool.DEFAULT_HEAP_MB, 60_000);
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                cancelled.cancel();
+            });
+            canceller.start();
+            for (JpfRunResult result : cancelled.runAll(jpfFiles)) {
+                System.out.println("Cancel: " + result);
+            }
+            canceller.join();
+            
+        } catch (Exception e) {
+            System.err.println("Error in JPF process pool example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (dir != null) {
+                for (java.io.File file : dir.listFiles()) {
+                    file.delete();
+                }
+                dir.delete();
+            }
+        }
+    }
+
+    /**
+     * Writes per-method and batched .jpf files for 12 helpers and runs both through a
+     * one-worker JpfProcessPool with FakeJpfSession standing in for JPF, so the wall
+     * time difference is the JVM startup and class loading the batches save. Prints the
+     * first driver and the search, listener and input lines its config takes from the
+     * helpers' configs.
+     */
+    private static void testBatchedJpfSessions() {
+        System.out.println("--- Test Case 12: Batched JPF Sessions ---");
+        
+        java.io.File dir = null;
+        try {
+            dir = java.nio.file.Files.createTempDirectory("atc-batch").toFile();
+            List<JmlFunctionSpec> specs = createMockIncrementSpecs(12);
+            List<String> calls = new ArrayList<>();
+            for (JmlFunctionSpec spec : specs) {
+                calls.add(spec.getName());
+            }
+            AtcClass atcClass = new NewGenATC().generateAtcFile(new JmlSpecAst(specs), new TestStringAst(calls));
+            SpfWrapper wrapper = new SpfWrapper(true);
+            wrapper.setInputsPath(new java.io.File(dir, "inputs.bin").getPath());
+            SpfArtifacts artifacts = wrapper.buildArtifacts(atcClass, false);
+            List<String> methodFiles = wrapper.generateJpfFilesFromAtcClass(atcClass, dir.getPath(), null, null, null);
+            List<JpfBatch> batches = wrapper.buildBatches(artifacts, 4);
+            List<String> batchFiles = wrapper.writeBatches(batches, dir.getPath());
+            System.out.print(batches.get(0).getDriverSource());
+            for (String line : batches.get(0).getJpfConfig().split("\n")) {
+                if (line.startsWith("search.") || line.startsWith("listener") || line.startsWith("atc.inputs.types")) {
+                    System.out.println("  " + line);
+                }
+            }
+            
+            List<String> command = Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), FakeJpfSession.class.getName(), "{jpf}");
+            JpfProcessPool pool = new JpfProcessPool(command, 1, JpfProcessPool.DEFAULT_HEAP_MB, 60_000);
+            pool.setOutputListener(null);
+            long start = System.nanoTime();
+            pool.runAll(methodFiles);
+            long perMethodMicros = (System.nanoTime() - start) / 1_000;
+            
+            JpfBatchOutput output = new JpfBatchOutput(null);
+            pool.setOutputListener(output);
+            start = System.nanoTime();
+            pool.runAll(batchFiles);
+            long batchedMicros = (System.nanoTime() - start) / 1_000;
+            
+            for (JpfBatchOutput.MethodResult result : output.getResults(batches)) {
+                System.out.println("  " + result);
+            }
+            int saved = methodFiles.size() - batchFiles.size();
+            System.out.println("Per-method: " + methodFiles.size() + " session(s), " + perMethodMicros + " us");
+            System.out.println("Batched:    " + batchFiles.size() + " session(s), " + batchedMicros + " us");
+            System.out.println("Startup saved: " + (perMethodMicros - batchedMicros) + " us for " + saved
+                + " session(s), ~" + (perMethodMicros - batchedMicros) / Math.max(1, saved) + " us each");
+            
+        } catch (Exception e) {
+            System.err.println("Error in batched JPF example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (dir != null) {
+                for (java.io.File file : dir.listFiles()) {
+                    file.delete();
+                }
+                dir.delete();
+            }
+        }
+    }
+
+    /**
+     * Stand-in for a JPF session: reads symbolic.method from the .jpf file and prints
+     * the batch markers for each method, failing the ones whose name contains "3".
+     * Methods whose name contains "1" take a second path, printed twice the way JPF
+     * re-runs a suffix after backtracking, so it counts once.
+     */
+    public static class FakeJpfSession {
+        public static void main(String[] args) throws java.io.IOException {
+            for (String line : java.nio.file.Files.readAllLines(Paths.get(args[0]))) {
+                if (!line.startsWith("symbolic.method")) {
+                    continue;
+                }
+                for (String target : line.substring(line.indexOf('=') + 1).trim().split(";")) {
+                    String method = target.substring(target.lastIndexOf('.', target.indexOf('(')) + 1, target.indexOf('('));
+                    System.out.println(JpfBatch.beginLine(method));
+                    System.out.println("Test Input: x = " + method.length());
+                    if (method.contains("3")) {
+                        System.out.println(JpfBatch.endLine(method, false) + " java.lang.AssertionError");
+                    } else {
+                        System.out.println(JpfBatch.endLine(method, true));
+                    }
+                    if (method.contains("1")) {
+                        for (int i = 0; i < 2; i++) {
+                            System.out.println("Test Input: x = -1");
+                            System.out.println(JpfBatch.endLine(method, true));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs short symbolic-execution jobs on two warm worker JVMs that recycle after
+     * four jobs, with SymbolicJobHandler standing in for a JPF run, and compares the
+     * latency of cold jobs (first on a fresh JVM) with warm ones. Then SpfWrapper.run
+     * runs its .jpf files on warm workers (-Datc.worker.enabled=true), with
+     * FakeJpfSession as the JPF main class.
+     */
+    private static void testWarmWorkers() {
+        System.out.println("--- Test Case 13: Warm Worker JVMs ---");
+        
+        String classpath = System.getProperty("java.class.path");
+        try (WarmWorkerPool pool = new WarmWorkerPool(SymbolicJobHandler.class.getName(), classpath, 2,
+                WarmWorkerPool.DEFAULT_HEAP_MB, 4, WarmWorkerPool.DEFAULT_HEAP_LIMIT, 60_000)) {
+            List<String> targets = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                targets.add(Integer.toString(20 + i));
+            }
+            List<WarmJobResult> results = pool.runAll(targets);
+            for (WarmJobResult result : results) {
+                System.out.println("  " + result + " " + result.getOutput());
+            }
+            System.out.print(pool.formatStats());
+            System.out.printf("Warm/cold latency: %.2f%n", pool.getWarmAverageMicros() / pool.getColdAverageMicros());
+            
+        } catch (Exception e) {
+            System.err.println("Error in warm worker example: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        try (WarmWorkerPool pool = new WarmWorkerPool(WarmWorker.MainHandler.class.getName(), classpath, 2,
+                WarmWorkerPool.DEFAULT_HEAP_MB, WarmWorkerPool.DEFAULT_MAX_JOBS, WarmWorkerPool.DEFAULT_HEAP_LIMIT, 60_000)) {
+            SpfWrapper wrapper = new SpfWrapper(true);
+            wrapper.setWorkerPool(pool, FakeJpfSession.class.getName());
+            wrapper.run(createSymbolicExecutionSpecs("x"));
+            for (WarmJobResult result : wrapper.getWorkerResults()) {
+                System.out.println("  run(): " + result.getTarget().substring(result.getTarget().indexOf(' ') + 1)
+                    + " " + result.getStatus() + " " + result.getOutput());
+            }
+            
+        } catch (Exception e) {
+            System.err.println("Error in warm worker example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stand-in job handler for warm workers: loads SymbolicJob through the worker's
+     * isolated loader and runs it on the target.
+     */
+    public static class SymbolicJobHandler implements WarmWorker.JobHandler {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run(ClassLoader loader, String target) throws Exception {
+            Class<?> job = loader.loadClass(SymbolicJob.class.getName());
+            ((java.util.function.Consumer<String>) job.getDeclaredConstructor().newInstance()).accept(target);
+        }
+    }
+
+    /**
+     * Stand-in job for warm workers: the target is a spec count; generates that many
+     * increment specs and runs the SymbolicExecutor on them.
+     */
+    public static class SymbolicJob implements java.util.function.Consumer<String> {
+        @Override
+        public void accept(String target) {
+            List<JmlFunctionSpec> specs = createMockIncrementSpecs(Integer.parseInt(target.trim()));
+            List<String> calls = new ArrayList<>();
+            for (JmlFunctionSpec spec : specs) {
+                calls.add(spec.getName());
+            }
+            AtcClass atcClass = new NewGenATC().generateAtcFile(new JmlSpecAst(specs), new TestStringAst(calls));
+            List<ConcreteInput> inputs = new SymbolicExecutor().execute(atcClass);
+            System.out.println(inputs.size() + " input(s)");
+        }
+    }
+
+    /**
+     * Estimates JPF costs for the symbolic execution specs plus the collection-heavy
+     * process spec, splits a 60 s budget over them, and runs the .jpf files through a
+     * JpfBudgetScheduler with a fake runner that finishes early, so the unused seconds
+     * move on to the methods launched later. A 15 s budget, below the per-method floor
+     * times the method count, still plans at most 15 s in total, and SpfWrapper.run
+     * runs its .jpf files through the scheduler.
+     */
+    private static void testBudgetScheduling() {
+        System.out.println("--- Test Case 14: Cost-Based JPF Budgets ---");
+        
+        java.io.File dir = null;
+        try {
+            dir = java.nio.file.Files.createTempDirectory("atc-budget").toFile();
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            AtcClass processClass = new NewGenATC().generateAtcFile(
+                new JmlSpecAst(Arrays.asList(createMockProcessSpec())), new TestStringAst(Arrays.asList("process")));
+            atcClass.getTestMethods().addAll(0, processClass.getTestMethods());
+            
+            SpfWrapper wrapper = new SpfWrapper(true);
+            wrapper.setBudgetSeconds(60);
+            JpfCostModel costModel = wrapper.getCostModel();
+            List<JpfCostModel.Cost> costs = costModel.estimate(atcClass);
+            Map<String, JpfCostModel.Budget> budgets = wrapper.planBudgets(atcClass);
+            for (JpfCostModel.Cost cost : costs) {
+                System.out.println("  " + cost);
+                System.out.println("    -> " + budgets.get(cost.getMethodName()));
+            }
+            
+            List<String> jpfFiles = wrapper.generateJpfFilesFromAtcClass(atcClass, dir.getPath(), null, null, null);
+            Map<String, JpfCostModel.Cost> runs = new LinkedHashMap<>();
+            for (JpfCostModel.Cost cost : costs) {
+                for (String jpfFile : jpfFiles) {
+                    if (jpfFile.endsWith("_" + cost.getMethodName() + ".jpf")) {
+                        runs.put(jpfFile, cost);
+                    }
+                }
+            }
+            JpfProcessPool pool = new JpfProcessPool(Arrays.asList("sh", "-c", "sleep 0.2", "{jpf}"),
+                1, JpfProcessPool.DEFAULT_HEAP_MB, 60_000);
+            JpfBudgetScheduler scheduler = new JpfBudgetScheduler(pool, costModel);
+            List<JpfRunResult> results = scheduler.run(runs, 60);
+            System.out.println("Launch order and allotted time limits:");
+            for (Map.Entry<String, Long> entry : scheduler.getAllotted().entrySet()) {
+                System.out.println("  " + Paths.get(entry.getKey()).getFileName() + ": " + entry.getValue() + " s");
+            }
+            for (JpfRunResult result : results) {
+                System.out.println("  " + result.getName() + ": " + result.getStatus());
+            }
+            
+            SpfWrapper small = new SpfWrapper(true);
+            small.setBudgetSeconds(15);
+            long planned = 0;
+            for (JpfCostModel.Budget budget : small.planBudgets(atcClass).values()) {
+                planned += budget.getTimeLimitSeconds();
+            }
+            System.out.println("15 s budget over " + costs.size() + " method(s): " + planned + " s planned");
+            small.setJpfPool(pool);
+            small.run(atcClass);
+            for (JpfRunResult result : small.getJpfResults()) {
+                System.out.println("  run(): " + result.getName() + ": " + result.getStatus());
+            }
+            
+        } catch (Exception e) {
+            System.err.println("Error in budget scheduling example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (dir != null) {
+                for (java.io.File file : dir.listFiles()) {
+                    file.delete();
+                }
+                dir.delete();
+            }
+        }
+    }
+
+    /**
+     * Streams the inputs found for the symbolic execution and process specs through a
+     * pipe, as the JPF input listener would: a JpfInputCollector writes binary records
+     * (every path twice, so the repeats are dropped) while a reader thread decodes them.
+     * Then compares the record size with the console text and times a bulk round trip.
+     */
+    private static void testBinaryInputRecords() {
+        System.out.println("--- Test Case 15: Binary ConcreteInput Records ---");
+        
+        try {
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            AtcClass processClass = new NewGenATC().generateAtcFile(
+                new JmlSpecAst(Arrays.asList(createMockProcessSpec())), new TestStringAst(Arrays.asList("process")));
+            atcClass.getTestMethods().addAll(processClass.getTestMethods());
+            List<ConcreteInput> inputs = new SymbolicExecutor().execute(atcClass);
+            
+            SpfWrapper wrapper = new SpfWrapper(true);
+            wrapper.setInputsPath("atc-inputs.bin");
+            String config = wrapper.generateJpfFile("in.ac.iiitb.plproject.atc.generated.GeneratedATCs",
+                "deposit_helper", null, null, null, null, null, Collections.singletonMap("x", "int"));
+            for (String line : config.split("\n")) {
+                if (line.startsWith("listener") || line.startsWith("atc.inputs")) {
+                    System.out.println("  " + line);
+                }
+            }
+            System.out.println("Listener compiles against the JPF API stubs: "
+                + compileListener(JpfInputCollector.listenerSource("in.ac.iiitb.plproject.atc.generated")));
+            
+            java.io.PipedInputStream pipeIn = new java.io.PipedInputStream(1 << 16);
+            java.io.PipedOutputStream pipeOut = new java.io.PipedOutputStream(pipeIn);
+            final List<ConcreteInput> received = new ArrayList<>();
+            Thread consumer = new Thread(() -> {
+                try (ConcreteInputReader reader = new ConcreteInputReader(pipeIn)) {
+                    ConcreteInput input;
+                    while ((input = reader.read()) != null) {
+                        received.add(input);
+                    }
+                } catch (java.io.IOException e) {
+                    System.err.println("Reader failed: " + e.getMessage());
+                }
+            });
+            consumer.start();
+            ConcreteInputWriter writer = new ConcreteInputWriter(pipeOut);
+            JpfInputCollector collector = new JpfInputCollector(writer, -1000);
+            int textBytes = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                for (ConcreteInput input : inputs) {
+                    Map<String, Object> solutions = new LinkedHashMap<>();
+                    for (Map.Entry<String, Object> value : input.getValues().entrySet()) {
+                        Object v = value.getValue();
+                        if (v instanceof Boolean) {
+                            solutions.put(value.getKey(), (Boolean) v ? 1L : 0L);
+                        } else if (v instanceof Number) {
+                            solutions.put(value.getKey(), ((Number) v).longValue());
+                        } else if (v instanceof String) {
+                            solutions.put(value.getKey(), v);
+                        }
+                    }
+                    if (pass == 0) {
+                        collector.declare(input.getMethodName(), JpfInputCollector.typesSpec(typesOf(input)));
+                        textBytes += input.toString().length() + 1;
+                    }
+                    collector.record(input.getMethodName(), solutions, input.isAssertionViolated());
+                }
+            }
+            int binaryBytes = writer.getBytes();
+            collector.close();
+            consumer.join();
+            System.out.println("Records: " + collector.getRecords() + " written, " + collector.getDuplicates()
+                + " duplicate(s) dropped, " + received.size() + " read");
+            System.out.println("Round trip equal: " + received.equals(inputs));
+            for (ConcreteInput input : received) {
+                System.out.println("  " + input);
+            }
+            System.out.println("Size: " + binaryBytes + " bytes binary vs " + textBytes + " bytes as text");
+            
+            int copies = 100_000;
+            java.io.ByteArrayOutputStream buffer = new java.io.ByteArrayOutputStream();
+            long start = System.nanoTime();
+            try (ConcreteInputWriter bulk = new ConcreteInputWriter(buffer)) {
+                for (int i = 0; i < copies; i++) {
+                    bulk.write(inputs.get(i % inputs.size()));
+                }
+            }
+            long writeMicros = (System.nanoTime() - start) / 1_000;
+            start = System.nanoTime();
+            int read = new ConcreteInputReader(new java.io.ByteArrayInputStream(buffer.toByteArray())).readAll().size();
+            long readMicros = (System.nanoTime() - start) / 1_000;
+            long bulkText = 0;
+            for (int i = 0; i < copies; i++) {
+                bulkText += inputs.get(i % inputs.size()).toString().length() + 1;
+            }
+            System.out.println("Bulk: " + copies + " records, " + buffer.size() + " bytes binary vs " + bulkText
+                + " bytes as text");
+            System.out.println("Write: " + writeMicros + " us");
+            System.out.println("Read (" + read + " records): " + readMicros + " us");
+            
+        } catch (Exception e) {
+            System.err.println("Error in binary input records example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Appends the inputs found for the symbolic execution and process specs to a
+     * columnar store, then a million synthetic check_helper rows through an Appender,
+     * reopens the file and scans it with a Cursor, counting garbage collections on the
+     * way.
+     */
+    private static void testColumnarInputStore() {
+        System.out.println("--- Test Case 16: Columnar ConcreteInput Store ---");
+        
+        java.nio.file.Path file = null;
+        try {
+            file = java.nio.file.Files.createTempFile("atc-inputs", ".col");
+            java.nio.file.Files.delete(file);
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            AtcClass processClass = new NewGenATC().generateAtcFile(
+                new JmlSpecAst(Arrays.asList(createMockProcessSpec())), new TestStringAst(Arrays.asList("process")));
+            atcClass.getTestMethods().addAll(processClass.getTestMethods());
+            List<ConcreteInput> inputs = new SymbolicExecutor().execute(atcClass);
+            
+            int rows = 1_000_000;
+            long gcBefore = gcCount();
+            long start = System.nanoTime();
+            try (ConcreteInputStore store = ConcreteInputStore.open(file)) {
+                store.appendAll(inputs);
+                ConcreteInputStore.Appender appender = store.appender("check_helper", store.getSchema("check_helper"));
+                int flag = appender.column("flag");
+                int count = appender.column("count");
+                for (int i = 0; i < rows; i++) {
+                    appender.setBoolean(flag, (i & 1) == 0);
+                    appender.setInt(count, i % 201 - 100);
+                    appender.endRow((i & 1) == 0 && i % 201 - 100 < 0);
+                }
+            }
+            long writeMicros = (System.nanoTime() - start) / 1_000;
+            long writeGcs = gcCount() - gcBefore;
+            
+            start = System.nanoTime();
+            try (ConcreteInputStore store = ConcreteInputStore.open(file)) {
+                long openMicros = (System.nanoTime() - start) / 1_000;
+                for (String method : store.getMethods()) {
+                    System.out.println("  " + method + " " + store.getSchema(method) + ": " + store.getRowCount(method)
+                        + " row(s) in " + store.getRowGroupCount(method) + " group(s)");
+                }
+                for (ConcreteInput input : store.inputs("process_helper")) {
+                    System.out.println("  " + input);
+                }
+                System.out.println("  check_helper row 1: " + store.inputs("check_helper").get(1));
+                
+                gcBefore = gcCount();
+                start = System.nanoTime();
+                ConcreteInputStore.Cursor cursor = store.scan("check_helper");
+                int count = cursor.column("count");
+                long sum = 0;
+                int violated = 0;
+                while (cursor.next()) {
+                    sum += cursor.getInt(count);
+                    if (cursor.isAssertionViolated()) {
+                        violated++;
+                    }
+                }
+                long scanMicros = (System.nanoTime() - start) / 1_000;
+                System.out.println("File: " + store.getFileSize() + " bytes for " + (rows + inputs.size()) + " rows");
+                System.out.println("Scan: sum of count = " + sum + ", " + violated + " violated, "
+                    + (gcCount() - gcBefore) + " GC(s)");
+                System.out.println("Append time: " + writeMicros + " us (" + writeGcs + " GC(s))");
+                System.out.println("Reopen time: " + openMicros + " us");
+                System.out.println("Scan time: " + scanMicros + " us");
+            }
+            
+        } catch (Exception e) {
+            System.err.println("Error in columnar store example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (file != null) {
+                file.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Parameterized JUnit regression classes for stored inputs: every helper gets one
+     * data-table test, split into several classes once it has more than
+     * rowsPerClass inputs.
+     */
+    private static void testJUnitRegressionClasses() {
+        System.out.println("--- Test Case 17: Parameterized JUnit Regression Classes ---");
+        
+        java.nio.file.Path file = null;
+        java.nio.file.Path sourceRoot = null;
+        try {
+            file = java.nio.file.Files.createTempFile("atc-inputs", ".col");
+            java.nio.file.Files.delete(file);
+            sourceRoot = java.nio.file.Files.createTempDirectory("atc-junit");
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            AtcClass appendClass = new NewGenATC().generateAtcFile(
+                new JmlSpecAst(Arrays.asList(createMockAppendExclamationSpec())), new TestStringAst(Arrays.asList("appendExclamation")));
+            atcClass.getTestMethods().addAll(appendClass.getTestMethods());
+            List<ConcreteInput> inputs = new SymbolicExecutor().execute(atcClass);
+            
+            JUnitRegressionGenerator generator = new JUnitRegressionGenerator();
+            Map<String, String> sources = generator.generate(atcClass, inputs);
+            String first = sources.keySet().stream().filter(name -> name.endsWith("_Test0")).findFirst().orElse(null);
+            System.out.println("Classes for " + inputs.size() + " solved inputs: " + sources.keySet());
+            if (first != null) {
+                System.out.println(sources.get(first));
+            }
+            
+            int rows = 250_000;
+            long start = System.nanoTime();
+            try (ConcreteInputStore store = ConcreteInputStore.open(file)) {
+                store.appendAll(inputs);
+                // The same deposit input again, once with the opposite outcome
+                ConcreteInputStore.Appender deposits = store.appender("deposit_helper", store.getSchema("deposit_helper"));
+                for (boolean violated : new boolean[] {false, true}) {
+                    deposits.setInt(deposits.column("x"), 10);
+                    deposits.endRow(violated);
+                }
+                ConcreteInputStore.Appender checks = store.appender("check_helper", store.getSchema("check_helper"));
+                ConcreteInputStore.Appender strings = store.appender("appendExclamation_helper",
+                    store.getSchema("appendExclamation_helper"));
+                for (int i = 0; i < rows; i++) {
+                    checks.setBoolean(checks.column("flag"), (i & 1) == 0);
+                    checks.setInt(checks.column("count"), i - rows / 2);
+                    checks.endRow((i & 1) == 0 && i < rows / 2);
+                    if (i % 5 == 0) {
+                        strings.setString(strings.column("s"), "row " + i + (i % 3 == 0 ? "\t\"quoted\"\n" : ""));
+                        strings.endRow(false);
+                    }
+                }
+            }
+            long storeMicros = (System.nanoTime() - start) / 1_000;
+            
+            start = System.nanoTime();
+            List<java.nio.file.Path> files;
+            try (ConcreteInputStore store = ConcreteInputStore.open(file)) {
+                files = generator.write(atcClass, store, sourceRoot);
+            }
+            long generateMicros = (System.nanoTime() - start) / 1_000;
+            
+            long totalBytes = 0;
+            long largest = 0;
+            Map<String, Integer> classesPerHelper = new LinkedHashMap<>();
+            for (java.nio.file.Path path : files) {
+                long size = java.nio.file.Files.size(path);
+                totalBytes += size;
+                largest = Math.max(largest, size);
+                String name = path.getFileName().toString();
+                int test = name.lastIndexOf("_Test");
+                if (test > 0) {
+                    classesPerHelper.merge(name.substring(0, test), 1, Integer::sum);
+                }
+            }
+            System.out.println("Stored " + (rows + rows / 5 + inputs.size() + 2) + " inputs in " + storeMicros + " us");
+            System.out.println("Rows: " + generator.getDuplicateRows() + " duplicate(s) dropped, "
+                + generator.getConflictingRows() + " conflicting written without an outcome");
+            for (java.nio.file.Path path : files) {
+                if (path.getFileName().toString().startsWith(atcClass.getClassName() + "_deposit_helper_")) {
+                    for (String line : java.nio.file.Files.readAllLines(path)) {
+                        if (line.contains("\\t10\\n")) {
+                            System.out.println("  deposit_helper row: " + line.trim());
+                        }
+                    }
+                }
+            }
+            System.out.println("Wrote " + files.size() + " file(s), " + totalBytes + " bytes (largest " + largest
+                + ") in " + generateMicros + " us");
+            System.out.println("Classes per helper (" + generator.getRowsPerClass() + " rows each): " + classesPerHelper);
+            
+        } catch (Exception e) {
+            System.err.println("Error in JUnit regression example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (file != null) {
+                file.toFile().delete();
+            }
+            if (sourceRoot != null) {
+                try (java.util.stream.Stream<java.nio.file.Path> paths = java.nio.file.Files.walk(sourceRoot)) {
+                    paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                } catch (java.io.IOException e) {
+                    System.err.println("Could not clean up " + sourceRoot + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Coverage-based minimization: per-input goals from symbolic execution, then a
+     * greedy set cover, on the demo specs and on a synthetic suite of 2M inputs.
+     */
+    private static void testSuiteMinimization() {
+        System.out.println("--- Test Case 18: Coverage-Based Test-Suite Minimization ---");
+        
+        try {
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            AtcClass processClass = new NewGenATC().generateAtcFile(
+                new JmlSpecAst(Arrays.asList(createMockProcessSpec())), new TestStringAst(Arrays.asList("process")));
+            atcClass.getTestMethods().addAll(processClass.getTestMethods());
+            CoverageGoals goals = CoverageGoals.of(atcClass);
+            CoverageMatrix coverage = new CoverageMatrix(goals.size());
+            List<ConcreteInput> inputs = new SymbolicExecutor().execute(atcClass, goals, coverage);
+            
+            for (int i = 0; i < inputs.size(); i++) {
+                System.out.println("  " + inputs.get(i) + " covers " + coverage.getRow(i));
+            }
+            TestSuiteMinimizer minimizer = new TestSuiteMinimizer();
+            TestSuiteMinimizer.Result result = minimizer.minimize(coverage);
+            System.out.println(result);
+            for (ConcreteInput input : result.select(inputs)) {
+                System.out.println("  kept " + input);
+            }
+            BitSet covered = coverage.getCoveredGoals();
+            for (int goal = 0; goal < goals.size(); goal++) {
+                if (!covered.get(goal)) {
+                    System.out.println("  not covered by any input: " + goals.describe(goal));
+                }
+            }
+            
+            // 2M inputs over 256 goals; many inputs repeat one of 5000 coverage patterns
+            int rows = 2_000_000;
+            int goalCount = 256;
+            CoverageMatrix synthetic = new CoverageMatrix(goalCount);
+            int[] row = new int[6];
+            long start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                long seed = (i % 5_000) * 0x9E3779B97F4A7C15L + (i % 7 == 0 ? i : 0);
+                for (int g = 0; g < row.length; g++) {
+                    seed = seed * 6364136223846793005L + 1442695040888963407L;
+                    row[g] = (int) ((seed >>> 33) % goalCount);
+                }
+                synthetic.addRow(row);
+            }
+            long buildMicros = (System.nanoTime() - start) / 1_000;
+            start = System.nanoTime();
+            TestSuiteMinimizer.Result large = minimizer.minimize(synthetic);
+            long minimizeMicros = (System.nanoTime() - start) / 1_000;
+            System.out.println(large);
+            System.out.println("Coverage preserved: " + (large.getCoveredGoalCount() == synthetic.getCoveredGoals().cardinality()));
+            System.out.println("Matrix: " + (long) rows * ((goalCount + 63) / 64) * 8 + " bytes of bitsets, built in "
+                + buildMicros + " us");
+            System.out.println("Minimize time: " + minimizeMicros + " us");
+            
+        } catch (Exception e) {
+            System.err.println("Error in minimization example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Branch-coverage probes in the generated class, their probe ID map, and probe
+     * bitmaps turned into coverage rows for the minimizer.
+     */
+    private static void testCoverageProbes() {
+        System.out.println("--- Test Case 19: Branch-Coverage Probes ---");
+        
+        try {
+            AtcClass atcClass = createSymbolicExecutionSpecs("x");
+            AtcClass processClass = new NewGenATC().generateAtcFile(
+                new JmlSpecAst(Arrays.asList(createMockProcessSpec())), new TestStringAst(Arrays.asList("process")));
+            atcClass.getTestMethods().addAll(processClass.getTestMethods());
+            
+            AtcIrCodeGenerator generator = AtcIrCodeGenerator.withCoverageProbes();
+            System.out.println(generator.generateJavaFile(atcClass));
+            System.out.println(generator.generateProbeMap(atcClass));
+            
+            // Probe IDs are CoverageGoals IDs, so bitmaps from concrete runs and the
+            // symbolic executor's coverage rows land in the same matrix
+            CoverageGoals goals = CoverageGoals.of(atcClass);
+            CoverageMatrix coverage = new CoverageMatrix(goals.size());
+            List<ConcreteInput> inputs = new SymbolicExecutor().execute(atcClass, goals, coverage);
+            boolean[] probes = new boolean[goals.size()];
+            probes[0] = true; // A concrete run that stopped after deposit_helper's assume
+            int row = coverage.addRow(probes);
+            System.out.println("Symbolic rows: " + inputs.size() + ", probe bitmap row " + row + " covers " + coverage.getRow(row));
+            System.out.println(new TestSuiteMinimizer().minimize(coverage));
+            
+        } catch (Exception e) {
+            System.err.println("Error in coverage probe example: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Drives the generated JPF input listener, compiled against working stubs of the
+     * JPF API, through the two paths of a helper whose reference input is null-guarded:
+     * the path leaving through the guard's early return must write nothing (its
+     * reference input was null, which a record cannot express), the path reaching
+     * the final return writes its input.
+     */
+    private static void testNullGuardedInputs() {
+        System.out.println("--- Test Case 20: Null-Guarded Helper Inputs ---");
+        
+        java.nio.file.Path outDir = null;
+        java.nio.file.Path records = null;
+        try {
+            // bump(int x, Set<Integer> data): requires x >= 0; ensures x' == x + 1
+            Expr x = AstHelper.createNameExpr("x");
+            List<Object> primeArgs = new ArrayList<>();
+            primeArgs.add(x);
+            FunctionSignature signature = new FunctionSignature("bump",
+                Arrays.asList(new Variable("x", "int"), new Variable("data", "Set<Integer>")), "void");
+            JmlFunctionSpec spec = new JmlFunctionSpec("bump", signature,
+                createBinaryExpr(x, createIntegerLiteral(0), "GREATER_THAN_OR_EQUAL"),
+                createBinaryExpr(createMethodCall(null, "'", primeArgs),
+                    createBinaryExpr(x, createIntegerLiteral(1), "PLUS"), "EQUALS"));
+            AtcClass atcClass = new NewGenATC().generateAtcFile(
+                new JmlSpecAst(Arrays.asList(spec)), new TestStringAst(Arrays.asList("bump")));
+            System.out.print(AtcIrCodeGenerator.getInstance().generateMethod(atcClass.getTestMethods().get(0)));
+            System.out.println("SymbolicExecutor inputs: " + new SymbolicExecutor().execute(atcClass));
+            
+            // Two paths of bump_helper (40 instructions): x is stored into local 1, then
+            // the first path returns at the null guard, the second at the end
+            String driver = "package in.ac.iiitb.plproject.atc.generated;\n"
+                + "import gov.nasa.jpf.Config;\n"
+                + "import gov.nasa.jpf.jvm.bytecode.*;\n"
+                + "import gov.nasa.jpf.symbc.numeric.SymbolicInteger;\n"
+                + "import gov.nasa.jpf.vm.*;\n"
+                + "import in.ac.iiitb.plproject.symex.JpfInputCollector;\n"
+                + "public class ListenerDriver implements java.util.function.Consumer<String> {\n"
+                + "  public void accept(String out) {\n"
+                + "    Config conf = new Config();\n"
+                + "    conf.setProperty(JpfInputCollector.OUT_KEY, out);\n"
+                + "    conf.setProperty(JpfInputCollector.TYPES_KEY + \".bump_helper\", \"x:int;data:Set<Integer>\");\n"
+                + "    try {\n"
+                + "      AtcInputListener listener = new AtcInputListener(conf, null);\n"
+                + "      MethodInfo helper = new MethodInfo(\"bump_helper\", 40);\n"
+                + "      VM vm = new VM();\n"
+                + "      SymbolicInteger x = new SymbolicInteger(\"x\");\n"
+                + "      for (int[] path : new int[][] {{3, 12}, {7, 39}}) {\n"
+                + "        StackFrame frame = new StackFrame(helper);\n"
+                + "        ThreadInfo ti = new ThreadInfo(frame);\n"
+                + "        x.solution = path[0];\n"
+                + "        frame.setLocalAttr(1, x);\n"
+                + "        listener.instructionExecuted(vm, ti, null, new JVMLocalVariableInstruction(helper, 2, 1, \"x\"));\n"
+                + "        listener.executeInstruction(vm, ti, new JVMReturnInstruction(helper, path[1]));\n"
+                + "      }\n"
+                + "      listener.searchFinished(null);\n"
+                + "    } catch (java.io.IOException e) {\n"
+                + "      throw new RuntimeException(e);\n"
+                + "    }\n"
+                + "  }\n"
+                + "}\n";
+            Map<String, String> sources = new LinkedHashMap<>();
+            sources.put("in.ac.iiitb.plproject.atc.generated." + JpfInputCollector.LISTENER_NAME,
+                JpfInputCollector.listenerSource("in.ac.iiitb.plproject.atc.generated"));
+            sources.put("in.ac.iiitb.plproject.atc.generated.ListenerDriver", driver);
+            outDir = java.nio.file.Files.createTempDirectory("atc-listener");
+            String compiled = compileWithJpfStubs(sources, outDir);
+            System.out.println("Listener compiles against the JPF API stubs: " + compiled);
+            if (!compiled.equals("true")) {
+                return;
+            }
+            records = java.nio.file.Files.createTempFile("atc-inputs", ".bin");
+            try (java.net.URLClassLoader loader = new java.net.URLClassLoader(
+                    new java.net.URL[] {outDir.toUri().toURL()}, IncrementalTestExample.class.getClassLoader())) {
+                @SuppressWarnings("unchecked")
+                java.util.function.Consumer<String> run = (java.util.function.Consumer<String>) loader
+                    .loadClass("in.ac.iiitb.plproject.atc.generated.ListenerDriver").newInstance();
+                run.accept(records.toString());
+            }
+            List<ConcreteInput> written;
+            try (ConcreteInputReader reader = new ConcreteInputReader(java.nio.file.Files.newInputStream(records))) {
+                written = reader.readAll();
+            }
+            System.out.println("Records for 2 paths (early return at 12, final return at 39): " + written.size());
+            for (ConcreteInput input : written) {
+                System.out.println("  " + input);
+            }
+            
+        } catch (Exception e) {
+            System.err.println("Error in null-guarded inputs example: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            try {
+                if (records != null) {
+                    java.nio.file.Files.deleteIfExists(records);
+                }
+                if (outDir != null) {
+                    deleteTree(outDir);
+                }
+            } catch (java.io.IOException e) {
+                System.err.println("Cleanup failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (java.lang.management.GarbageCollectorMXBean gc : java.lang.management.ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Compiles the generated JPF listener in memory against stubs of the jpf-core and
+     * jpf-symbc members it uses (neither is a dependency of this project); returns
+     * "true", or the compiler's diagnostics.
+     */
+    private static String compileListener(String listenerSource) throws java.io.IOException {
+        java.nio.file.Path outDir = java.nio.file.Files.createTempDirectory("atc-listener");
+        try {
+            return compileWithJpfStubs(Collections.singletonMap(
+                "in.ac.iiitb.plproject.atc.generated." + JpfInputCollector.LISTENER_NAME, listenerSource), outDir);
+        } finally {
+            deleteTree(outDir);
+        }
+    }
+
+    /**
+     * Compiles the given sources (class name -&gt; source) into outDir together with
+     * working stubs of the jpf-core and jpf-symbc members the listener uses: a stub
+     * VM has no choice generators, so every path condition counts as solved and each
+     * symbolic variable has the solution set on it. Returns "true", or the compiler's
+     * diagnostics.
+     */
+    private static String compileWithJpfStubs(Map<String, String> classSources, java.nio.file.Path outDir) {
+        javax.tools.JavaCompiler compiler = javax.tools.ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return "skipped (no system Java compiler)";
+        }
+        Map<String, String> sources = new LinkedHashMap<>(classSources);
+        sources.put("gov.nasa.jpf.Config", "public class Config extends java.util.Properties {"
+            + " public String getString(String key) { return getProperty(key); }"
+            + " public long getLong(String key, long defaultValue) {"
+            + " return containsKey(key) ? Long.parseLong(getProperty(key)) : defaultValue; } }");
+        sources.put("gov.nasa.jpf.JPF", "public class JPF {}");
+        sources.put("gov.nasa.jpf.JPFException", "public class JPFException extends RuntimeException {"
+            + " public JPFException(Throwable cause) { super(cause); } }");
+        sources.put("gov.nasa.jpf.PropertyListenerAdapter", "import gov.nasa.jpf.vm.*;"
+            + " import gov.nasa.jpf.search.Search;"
+            + " public class PropertyListenerAdapter {"
+            + " public void executeInstruction(VM vm, ThreadInfo ti, Instruction insn) {}"
+            + " public void instructionExecuted(VM vm, ThreadInfo ti, Instruction next, Instruction executed) {}"
+            + " public void exceptionThrown(VM vm, ThreadInfo ti, ElementInfo exception) {}"
+            + " public void searchFinished(Search search) {} }");
+        sources.put("gov.nasa.jpf.jvm.bytecode.JVMLocalVariableInstruction",
+            "public class JVMLocalVariableInstruction extends gov.nasa.jpf.vm.Instruction {"
+            + " private final int local; private final String name;"
+            + " public JVMLocalVariableInstruction(gov.nasa.jpf.vm.MethodInfo mi, int index, int local, String name) {"
+            + " super(mi, index); this.local = local; this.name = name; }"
+            + " public int getLocalVariableIndex() { return local; }"
+            + " public String getLocalVariableName() { return name; } }");
+        sources.put("gov.nasa.jpf.jvm.bytecode.JVMReturnInstruction",
+            "public class JVMReturnInstruction extends gov.nasa.jpf.vm.Instruction {"
+            + " public JVMReturnInstruction(gov.nasa.jpf.vm.MethodInfo mi, int index) { super(mi, index); } }");
+        sources.put("gov.nasa.jpf.search.Search", "public class Search {}");
+        sources.put("gov.nasa.jpf.symbc.numeric.PCChoiceGenerator",
+            "public class PCChoiceGenerator implements gov.nasa.jpf.vm.ChoiceGenerator<Integer> {"
+            + " public PathCondition getCurrentPC() { return null; }"
+            + " public gov.nasa.jpf.vm.ChoiceGenerator<?> getPreviousChoiceGenerator() { return null; } }");
+        sources.put("gov.nasa.jpf.symbc.numeric.PathCondition",
+            "public class PathCondition { public boolean solve() { return true; } }");
+        sources.put("gov.nasa.jpf.symbc.numeric.SymbolicInteger", "public class SymbolicInteger {"
+            + " private final String name; public long solution;"
+            + " public SymbolicInteger(String name) { this.name = name; }"
+            + " public String getName() { return name; } public long solution() { return solution; } }");
+        sources.put("gov.nasa.jpf.symbc.numeric.SymbolicReal", "public class SymbolicReal {"
+            + " private final String name; public double solution;"
+            + " public SymbolicReal(String name) { this.name = name; }"
+            + " public String getName() { return name; } public double solution() { return solution; } }");
+        sources.put("gov.nasa.jpf.symbc.string.StringSymbolic", "public class StringSymbolic {"
+            + " private final String name; public String solution;"
+            + " public StringSymbolic(String name) { this.name = name; }"
+            + " public String getName() { return name; } public String solution() { return solution; } }");
+        sources.put("gov.nasa.jpf.vm.ChoiceGenerator",
+            "public interface ChoiceGenerator<T> { ChoiceGenerator<?> getPreviousChoiceGenerator(); }");
+        sources.put("gov.nasa.jpf.vm.ClassInfo", "public class ClassInfo { public String getName() { return null; } }");
+        sources.put("gov.nasa.jpf.vm.ElementInfo",
+            "public class ElementInfo { public ClassInfo getClassInfo() { return null; } }");
+        sources.put("gov.nasa.jpf.vm.Instruction", "public abstract class Instruction {"
+            + " private final MethodInfo mi; private final int index;"
+            + " protected Instruction(MethodInfo mi, int index) { this.mi = mi; this.index = index; }"
+            + " public MethodInfo getMethodInfo() { return mi; }"
+            + " public int getInstructionIndex() { return index; } }");
+        sources.put("gov.nasa.jpf.vm.MethodInfo", "public class MethodInfo {"
+            + " private final String name; private final int instructions;"
+            + " public MethodInfo(String name, int instructions) { this.name = name; this.instructions = instructions; }"
+            + " public String getName() { return name; }"
+            + " public int getNumberOfInstructions() { return instructions; } }");
+        sources.put("gov.nasa.jpf.vm.StackFrame", "public class StackFrame {"
+            + " private final MethodInfo mi; private final java.util.Map<Integer, Object> attrs = new java.util.HashMap<>();"
+            + " public StackFrame(MethodInfo mi) { this.mi = mi; }"
+            + " public MethodInfo getMethodInfo() { return mi; }"
+            + " public StackFrame getPrevious() { return null; }"
+            + " public Object getLocalAttr(int index) { return attrs.get(index); }"
+            + " public void setLocalAttr(int index, Object attr) { attrs.put(index, attr); } }");
+        sources.put("gov.nasa.jpf.vm.ThreadInfo", "public class ThreadInfo {"
+            + " private final StackFrame top; public ThreadInfo(StackFrame top) { this.top = top; }"
+            + " public StackFrame getTopFrame() { return top; } }");
+        sources.put("gov.nasa.jpf.vm.VM",
+            "public class VM { public ChoiceGenerator<?> getChoiceGenerator() { return null; } }");
+        
+        List<javax.tools.JavaFileObject> units = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            String className = source.getKey();
+            String packageName = className.substring(0, className.lastIndexOf('.'));
+            final String code = source.getValue().startsWith("package ") ? source.getValue()
+                : "package " + packageName + "; " + source.getValue();
+            units.add(new javax.tools.SimpleJavaFileObject(java.net.URI.create("string:///"
+                + className.replace('.', '/') + ".java"), javax.tools.JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return code;
+                }
+            });
+        }
+        javax.tools.DiagnosticCollector<javax.tools.JavaFileObject> diagnostics = new javax.tools.DiagnosticCollector<>();
+        List<String> options = Arrays.asList("-d", outDir.toString(),
+            "-classpath", System.getProperty("java.class.path"));
+        boolean compiled = compiler.getTask(null, null, diagnostics, options, null, units).call();
+        StringBuilder messages = new StringBuilder();
+        for (javax.tools.Diagnostic<? extends javax.tools.JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            messages.append("\n    ").append(diagnostic.getMessage(null));
+        }
+        return compiled ? "true" : "false" + messages;
+    }
+
+    private static void deleteTree(java.nio.file.Path root) throws java.io.IOException {
+        try (java.util.stream.Stream<java.nio.file.Path> paths = java.nio.file.Files.walk(root)) {
+            paths.sorted(java.util.Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(java.io.File::delete);
+        }
+    }
+
+    private static Map<String, String> typesOf(ConcreteInput input) {
+        Map<String, String> types = new LinkedHashMap<>();
+        for (String name : input.getInputNames()) {
+            types.put(name, input.getType(name));
+        }
+        return types;
+    }
+
+    /**
+     * deposit/check/setLevel specs shared by the symbolic execution examples; the
+     * parameter name of deposit is given so a renamed copy can be built.
+     */
+    private static AtcClass createSymbolicExecutionSpecs(String depositParam) {
+        // deposit(int x): requires (x >= 10 && x < 50) || x == -1; ensures x' == x + 5
+        Expr x = AstHelper.createNameExpr(depositParam);
+        Expr depositPre = createBinaryExpr(
+            createBinaryExpr(
+                createBinaryExpr(x, createIntegerLiteral(10), "GREATER_THAN_OR_EQUAL"),
+                createBinaryExpr(x, createIntegerLiteral(50), "LESS_THAN"),
+                "AND"),
+            createBinaryExpr(x, createIntegerLiteral(-1), "EQUALS"),
+            "OR");
+        List<Object> primeArgs = new ArrayList<>();
+        primeArgs.add(x);
+        Expr depositPost = createBinaryExpr(createMethodCall(null, "'", primeArgs),
+            createBinaryExpr(x, createIntegerLiteral(5), "PLUS"), "EQUALS");
+        FunctionSignature depositSignature = new FunctionSignature("deposit",
+            Arrays.asList(new Variable(depositParam, "int")), "void");
+        
+        // check(boolean flag, int count): requires count != 0 && (flag || count > 3); ensures count >= 0
+        Expr count = AstHelper.createNameExpr("count");
+        Expr checkPre = createBinaryExpr(
+            createBinaryExpr(count, createIntegerLiteral(0), "NOT_EQUALS"),
+            createBinaryExpr(AstHelper.createNameExpr("flag"),
+                createBinaryExpr(count, createIntegerLiteral(3), "GREATER_THAN"), "OR"),
+            "AND");
+        Expr checkPost = createBinaryExpr(count, createIntegerLiteral(0), "GREATER_THAN_OR_EQUAL");
+        FunctionSignature checkSignature = new FunctionSignature("check",
+            Arrays.asList(new Variable("flag", "boolean"), new Variable("count", "int")), "void");
+        
+        // setLevel(int level): requires level >= 1 && level <= 5 && level != 1 (range checks only)
+        Expr level = AstHelper.createNameExpr("level");
+        Expr levelPre = createBinaryExpr(
+            createBinaryExpr(
+                createBinaryExpr(level, createIntegerLiteral(1), "GREATER_THAN_OR_EQUAL"),
+                createBinaryExpr(level, createIntegerLiteral(5), "LESS_THAN_OR_EQUAL"),
+                "AND"),
+            createBinaryExpr(level, createIntegerLiteral(1), "NOT_EQUALS"),
+            "AND");
+        FunctionSignature levelSignature = new FunctionSignature("setLevel",
+            Arrays.asList(new Variable("level", "int")), "void");
+        
+        JmlSpecAst jmlSpecAst = new JmlSpecAst(Arrays.asList(
+            new JmlFunctionSpec("deposit", depositSignature, depositPre, depositPost),
+            new JmlFunctionSpec("check", checkSignature, checkPre, checkPost),
+            new JmlFunctionSpec("setLevel", levelSignature, levelPre, (Expr) null)));
+        TestStringAst testStringAst = new TestStringAst(Arrays.asList("deposit", "check", "setLevel"));
+        return new NewGenATC().generateAtcFile(jmlSpecAst, testStringAst);
+    }
+
+    /**
+     * Helper method to create a batch of distinct increment-style specs
+     * (increment0, increment1, ...) for the larger generation checks.
+     */
+    private static List<JmlFunctionSpec> createMockIncrementSpecs(int count) {
+        List<JmlFunctionSpec> specs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = "increment" + i;
+            Variable param = new Variable("x", "int");
+            FunctionSignature signature = new FunctionSignature(name, Arrays.asList(param), "void");
+            Expr pre = createBinaryExpr(AstHelper.createNameExpr("x"), createIntegerLiteral(i), "GREATER_THAN");
+            List<Object> primeArgs = new ArrayList<>();
+            primeArgs.add(AstHelper.createNameExpr("x"));
+            Expr post = createBinaryExpr(createMethodCall(null, "'", primeArgs), AstHelper.createNameExpr("x"), "GREATER_THAN");
+            specs.add(new JmlFunctionSpec(name, signature, pre, post));
+        }
+        return specs;
+    }
 
     /**
      * Helper method to create a mock JML spec for appendExclamation function.
@@ -0,0 +1,776 @@
+package in.ac.iiitb.plproject.atc;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.MethodCallExpr;
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcClass;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIrCodeGenerator;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcStatementVisitor;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcTestMethod;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import in.ac.iiitb.plproject.symex.ConcreteInputStore;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the concrete inputs found for each helper of an ATC class into JUnit 4
+ * regression tests. All inputs of one helper go into a single parameterized test
+ * whose rows live in a string table, instead of one test method per input:
+ *
+ *   - each row is "outcome TAB field TAB ..." with one field per input; strings are
+ *     escaped (\\, \t, \n, \r), null is \N, an empty collection \E and a value with no
+ *     literal form \O (such rows are skipped with Assume);
+ *   - rows are deduplicated per input vector; the outcome is 1 if the input violates
+ *     an assertion, 0 if not, and ? if its inputs were reported both ways (the row
+ *     then runs without checking the outcome, so no generated test expects both).
+ *     Only the rows of the class being filled are held; a class is written once it
+ *     has rowsPerClass rows, and rows of written classes are remembered as 64-bit
+ *     digests (up to MAX_DIGESTS per helper, past which rows are only deduplicated
+ *     within their class). A row reported the other way after its class was written
+ *     is counted as conflicting and dropped, since the written row cannot change;
+ *   - rows are packed into string constants of at most CHUNK_BYTES (a class-file
+ *     constant holds at most 65535 bytes), so the table is a handful of ldc's in the
+ *     static initializer rather than code per input;
+ *   - a class holds at most rowsPerClass rows and MAX_CHUNKS constants, which keeps
+ *     the static initializer well under the 64KB method limit and the constant pool
+ *     under 65535 entries; larger input sets are split into <Class>_<helper>_Test0, 1, ...
+ *
+ * The helper body is rendered by AtcIrCodeGenerator (without the "Test Input" prints)
+ * and reads its inputs through Symbolic.input, which one shared support class per
+ * ATC class (<Class>RegressionSupport) binds to the current row.
+ */
+public class JUnitRegressionGenerator {
+
+    public static final int DEFAULT_ROWS_PER_CLASS = 10_000;
+
+    // Limit of a CONSTANT_Utf8 entry, in bytes of modified UTF-8
+    static final int MAX_CONSTANT_BYTES = 65535;
+    private static final int CHUNK_BYTES = 32 * 1024;
+    private static final int CHUNK_ROWS = 256;
+    // About 8 bytes of <clinit> and 2 constant pool entries per chunk
+    private static final int MAX_CHUNKS = 2000;
+    // Digests of written rows remembered per helper, 8 bytes each at a load of 1/2
+    static final int MAX_DIGESTS = 1 << 20;
+
+    private static final String INDENT = "    ";
+
+    /**
+     * Receives each generated compilation unit.
+     */
+    public interface Sink {
+        void write(String className, String source) throws IOException;
+    }
+
+    private final int rowsPerClass;
+
+    // Statistics, accumulated over generate/write calls
+    private long duplicateRows;
+    private long conflictingRows;
+
+    public JUnitRegressionGenerator() {
+        this(DEFAULT_ROWS_PER_CLASS);
+    }
+
+    public JUnitRegressionGenerator(int rowsPerClass) {
+        if (rowsPerClass <= 0) {
+            throw new IllegalArgumentException("rowsPerClass must be positive");
+        }
+        this.rowsPerClass = rowsPerClass;
+    }
+
+    public int getRowsPerClass() {
+        return rowsPerClass;
+    }
+
+    /**
+     * Rows dropped because an earlier row of the same helper had the same inputs.
+     */
+    public long getDuplicateRows() {
+        return duplicateRows;
+    }
+
+    /**
+     * Input vectors reported both with and without an assertion violation, written
+     * without an expected outcome.
+     */
+    public long getConflictingRows() {
+        return conflictingRows;
+    }
+
+    /**
+     * Generate the test classes for the given inputs; inputs of methods that are not
+     * in the ATC class are ignored.
+     *
+     * @return class name -&gt; source, support class first
+     */
+    public Map<String, String> generate(AtcClass atcClass, Iterable<ConcreteInput> inputs) {
+        Map<String, List<ConcreteInput>> byMethod = new LinkedHashMap<>();
+        for (ConcreteInput input : inputs) {
+            byMethod.computeIfAbsent(input.getMethodName(), k -> new ArrayList<>()).add(input);
+        }
+        Map<String, String> sources = new LinkedHashMap<>();
+        try {
+            generate(atcClass, byMethod, sources::put);
+        } catch (IOException e) {
+            // Map sink never throws
+            throw new IllegalStateException(e);
+        }
+        return sources;
+    }
+
+    /**
+     * Generate the test classes for the inputs in a store, one row at a time, and
+     * write them under the given source root.
+     *
+     * @return the files written, support class first
+     */
+    public List<Path> write(AtcClass atcClass, ConcreteInputStore store, Path sourceRoot) throws IOException {
+        Path dir = sourceRoot;
+        String packageName = atcClass.getPackageName();
+        if (packageName != null && !packageName.isEmpty()) {
+            dir = sourceRoot.resolve(packageName.replace('.', '/'));
+        }
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        Path outputDir = dir;
+        Sink sink = (className, source) -> {
+            Path file = outputDir.resolve(className + ".java");
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        };
+
+        boolean supportWritten = false;
+        for (AtcTestMethod method : atcClass.getTestMethods()) {
+            if (!store.getMethods().contains(method.getMethodName()) || store.getRowCount(method.getMethodName()) == 0) {
+                continue;
+            }
+            if (!supportWritten) {
+                sink.write(supportName(atcClass), supportSource(atcClass));
+                supportWritten = true;
+            }
+            Map<String, String> schema = store.getSchema(method.getMethodName());
+            TableWriter table = new TableWriter(atcClass, method, schema, sink);
+            ConcreteInputStore.Cursor cursor = store.scan(method.getMethodName());
+            Object[] values = new Object[cursor.getColumnCount()];
+            while (cursor.next()) {
+                for (int col = 0; col < values.length; col++) {
+                    values[col] = cursor.getValue(col);
+                }
+                table.addRow(cursor.isAssertionViolated(), values);
+            }
+            table.finish();
+        }
+        return files;
+    }
+
+    private void generate(AtcClass atcClass, Map<String, List<ConcreteInput>> byMethod, Sink sink) throws IOException {
+        boolean supportWritten = false;
+        for (AtcTestMethod method : atcClass.getTestMethods()) {
+            List<ConcreteInput> inputs = byMethod.get(method.getMethodName());
+            if (inputs == null || inputs.isEmpty()) {
+                continue;
+            }
+            if (!supportWritten) {
+                sink.write(supportName(atcClass), supportSource(atcClass));
+                supportWritten = true;
+            }
+            Map<String, String> schema = new LinkedHashMap<>();
+            for (String name : inputs.get(0).getInputNames()) {
+                schema.put(name, inputs.get(0).getType(name));
+            }
+            TableWriter table = new TableWriter(atcClass, method, schema, sink);
+            Object[] values = new Object[schema.size()];
+            for (ConcreteInput input : inputs) {
+                if (!input.getInputNames().equals(table.names)) {
+                    throw new IllegalArgumentException("Inputs of " + method.getMethodName()
+                        + " do not share one schema: " + input.getInputNames() + " vs " + table.names);
+                }
+                for (int col = 0; col < values.length; col++) {
+                    values[col] = input.getValue(table.names.get(col));
+                }
+                table.addRow(input.isAssertionViolated(), values);
+            }
+            table.finish();
+        }
+    }
+
+    /**
+     * Collects the distinct rows of one helper class by class: the encoded rows of
+     * the class being filled are held until it has rowsPerClass rows (or finish),
+     * then packed into chunks and emitted, leaving only their digests behind.
+     */
+    private final class TableWriter {
+        private final AtcClass atcClass;
+        private final String methodName;
+        private final String helperSource;
+        private final List<String> names;
+        private final String kinds;
+        private final Sink sink;
+
+        // Encoded fields of each distinct input vector of the current class -> outcome ('0', '1' or '?')
+        private final Map<String, Character> outcomes = new LinkedHashMap<>();
+        private final RowDigests written = new RowDigests();
+        private final List<String> chunks = new ArrayList<>();
+        private final StringBuilder chunk = new StringBuilder();
+        private final StringBuilder row = new StringBuilder();
+        private int chunkRows;
+        private int chunkBytes;
+        private int classRows;
+        private int classIndex;
+        private long firstRow;
+
+        TableWriter(AtcClass atcClass, AtcTestMethod method, Map<String, String> schema, Sink sink) {
+            this.atcClass = atcClass;
+            this.methodName = method.getMethodName();
+            this.helperSource = renderHelper(method);
+            this.names = new ArrayList<>(schema.keySet());
+            StringBuilder sb = new StringBuilder();
+            for (String typeName : schema.values()) {
+                sb.append(kindOf(typeName));
+            }
+            this.kinds = sb.toString();
+            this.sink = sink;
+        }
+
+        void addRow(boolean violated, Object[] values) throws IOException {
+            row.setLength(0);
+            for (Object value : values) {
+                row.append('\t');
+                appendField(row, value);
+            }
+            // Plus the outcome and the newline
+            int bytes = modifiedUtf8Length(row) + 2;
+            if (bytes > MAX_CONSTANT_BYTES) {
+                throw new IllegalArgumentException("Input row of " + methodName + " is " + bytes
+                    + " bytes, over the class-file constant limit of " + MAX_CONSTANT_BYTES);
+            }
+            char outcome = violated ? '1' : '0';
+            String fields = row.toString();
+            Character previous = outcomes.get(fields);
+            if (previous == null) {
+                long digest = digest(fields);
+                char writtenOutcome = written.get(digest);
+                if (writtenOutcome == 0) {
+                    outcomes.put(fields, outcome);
+                    if (outcomes.size() == rowsPerClass) {
+                        flushClass();
+                    }
+                    return;
+                }
+                duplicateRows++;
+                if (writtenOutcome != outcome && writtenOutcome != '?') {
+                    written.put(digest, '?');
+                    conflictingRows++;
+                }
+                return;
+            }
+            duplicateRows++;
+            if (previous != outcome && previous != '?') {
+                outcomes.put(fields, '?');
+                conflictingRows++;
+            }
+        }
+
+        void finish() throws IOException {
+            flushClass();
+        }
+
+        private void flushClass() throws IOException {
+            for (Map.Entry<String, Character> entry : outcomes.entrySet()) {
+                written.put(digest(entry.getKey()), entry.getValue());
+                row.setLength(0);
+                row.append(entry.getValue()).append(entry.getKey()).append('\n');
+                packRow();
+            }
+            outcomes.clear();
+            if (classRows > 0) {
+                endClass();
+            }
+        }
+
+        private void packRow() throws IOException {
+            int bytes = modifiedUtf8Length(row);
+            if (chunkRows > 0 && (chunkRows == CHUNK_ROWS || chunkBytes + bytes > CHUNK_BYTES)) {
+                endChunk();
+            }
+            if (classRows == rowsPerClass || chunks.size() == MAX_CHUNKS) {
+                endClass();
+            }
+            chunk.append(chunkRows == 0 ? "" : "\n" + INDENT + INDENT + INDENT + "+ ");
+            appendLiteral(chunk, row);
+            chunkRows++;
+            chunkBytes += bytes;
+            classRows++;
+        }
+
+        private void endChunk() {
+            chunks.add(chunk.toString());
+            chunk.setLength(0);
+            chunkRows = 0;
+            chunkBytes = 0;
+        }
+
+        private void endClass() throws IOException {
+            if (chunkRows > 0) {
+                endChunk();
+            }
+            String className = atcClass.getClassName() + "_" + methodName + "_Test" + classIndex;
+            sink.write(className, classSource(className));
+            chunks.clear();
+            firstRow += classRows;
+            classRows = 0;
+            classIndex++;
+        }
+
+        private String classSource(String className) {
+            String support = supportName(atcClass);
+            StringBuilder sb = new StringBuilder();
+            appendHeader(sb, atcClass, true);
+            sb.append("import ").append(qualified(atcClass, support)).append(".Symbolic;\n");
+            sb.append("import static ").append(qualified(atcClass, support)).append(".assume;\n\n");
+            sb.append("/**\n");
+            sb.append(" * Regression tests for ").append(methodName).append(", inputs ").append(firstRow)
+                .append(" to ").append(firstRow + classRows - 1).append(".\n");
+            sb.append(" * Generated by JUnitRegressionGenerator.\n");
+            sb.append(" */\n");
+            sb.append("@RunWith(Parameterized.class)\n");
+            sb.append("public class ").append(className).append(" {\n\n");
+
+            sb.append(INDENT).append("private static final String[] COLUMNS = {");
+            for (int i = 0; i < names.size(); i++) {
+                sb.append(i > 0 ? ", " : "");
+                appendLiteral(sb, names.get(i));
+            }
+            sb.append("};\n");
+            sb.append(INDENT).append("private static final String KINDS = ");
+            appendLiteral(sb, kinds);
+            sb.append(";\n\n");
+            sb.append(INDENT).append("// One row per line: 1 if the row violates an assertion, 0 if not, ? if unknown;\n");
+            sb.append(INDENT).append("// then one field per column\n");
+            sb.append(INDENT).append("private static final String[] DATA = {\n");
+            for (String literal : chunks) {
+                sb.append(INDENT).append(INDENT).append(literal).append(",\n");
+            }
+            sb.append(INDENT).append("};\n\n");
+
+            sb.append(INDENT).append("@Parameters(name = \"{index}\")\n");
+            sb.append(INDENT).append("public static Collection<Object[]> data() {\n");
+            sb.append(INDENT).append(INDENT).append("return ").append(support).append(".rows(DATA);\n");
+            sb.append(INDENT).append("}\n\n");
+            sb.append(INDENT).append("@Parameter\n");
+            sb.append(INDENT).append("public String row;\n\n");
+            sb.append(INDENT).append("@Test\n");
+            sb.append(INDENT).append("public void regression() {\n");
+            sb.append(INDENT).append(INDENT).append(support).append(".check(row, COLUMNS, KINDS, this::")
+                .append(methodName).append(");\n");
+            sb.append(INDENT).append("}\n");
+            // The rendered helper starts with a blank line
+            sb.append("\n").append(INDENT).append("@SuppressWarnings(\"unchecked\")\n").append(helperSource.substring(1));
+            sb.append("}\n");
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a digest of an encoded row.
+     */
+    private static long digest(String fields) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < fields.length(); i++) {
+            hash = (hash ^ fields.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Open-addressing set of row digests, each tagged with the outcome of its row in
+     * the low two bits (so a slot is never 0, which marks it empty). Grows up to
+     * 2 * MAX_DIGESTS slots, then ignores new digests.
+     */
+    private static final class RowDigests {
+        private static final long TAG = 3L;
+
+        private long[] slots = new long[1024];
+        private int size;
+
+        /**
+         * Outcome of the row with this digest, 0 if none.
+         */
+        char get(long digest) {
+            int slot = find(slots, digest);
+            return slots[slot] == 0 ? 0 : "0?1".charAt((int) (slots[slot] & TAG) - 1);
+        }
+
+        void put(long digest, char outcome) {
+            int slot = find(slots, digest);
+            long tagged = (digest & ~TAG) | (outcome == '0' ? 1 : outcome == '1' ? 3 : 2);
+            if (slots[slot] != 0) {
+                slots[slot] = tagged;
+                return;
+            }
+            if (size == MAX_DIGESTS) {
+                return;
+            }
+            slots[slot] = tagged;
+            if (++size * 2 > slots.length) {
+                long[] grown = new long[slots.length * 2];
+                for (long entry : slots) {
+                    if (entry != 0) {
+                        grown[find(grown, entry)] = entry;
+                    }
+                }
+                slots = grown;
+            }
+        }
+
+        private static int find(long[] table, long digest) {
+            long key = digest & ~TAG;
+            int mask = table.length - 1;
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            while (table[slot] != 0 && (table[slot] & ~TAG) != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    // ===================================
+    // Shared support class
+    // ===================================
+
+    private static String supportName(AtcClass atcClass) {
+        return atcClass.getClassName() + "RegressionSupport";
+    }
+
+    private static String supportSource(AtcClass atcClass) {
+        StringBuilder sb = new StringBuilder();
+        appendHeader(sb, atcClass, false);
+        sb.append("\n");
+        sb.append("/**\n");
+        sb.append(" * Decodes the input rows of the ").append(atcClass.getClassName())
+            .append(" regression tests and runs a helper on them.\n");
+        sb.append(" * Generated by JUnitRegressionGenerator.\n");
+        sb.append(" */\n");
+        sb.append("public final class ").append(supportName(atcClass)).append(" {\n\n");
+        String[] body = {
+            "private static final Object NO_VALUE = new Object();",
+            "private static final ThreadLocal<Map<String, Object>> INPUTS = new ThreadLocal<>();",
+            "private static final boolean ASSERTIONS = assertionsEnabled();",
+            "",
+            "private " + supportName(atcClass) + "() {",
+            "}",
+            "",
+            "/**",
+            " * Inputs of the row being checked, read by the helper under test.",
+            " */",
+            "public static final class Symbolic {",
+            "    private Symbolic() {",
+            "    }",
+            "",
+            "    @SuppressWarnings(\"unchecked\")",
+            "    public static <T> T input(String name) {",
+            "        return (T) INPUTS.get().get(name);",
+            "    }",
+            "}",
+            "",
+            "public static void assume(boolean condition) {",
+            "    Assume.assumeTrue(\"precondition\", condition);",
+            "}",
+            "",
+            "/**",
+            " * Split the newline-terminated rows of a data table into JUnit parameters.",
+            " */",
+            "public static Collection<Object[]> rows(String[] data) {",
+            "    List<Object[]> rows = new ArrayList<>();",
+            "    for (String chunk : data) {",
+            "        for (int start = 0, end; (end = chunk.indexOf('\\n', start)) >= 0; start = end + 1) {",
+            "            rows.add(new Object[] {chunk.substring(start, end)});",
+            "        }",
+            "    }",
+            "    return rows;",
+            "}",
+            "",
+            "/**",
+            " * Run the helper on one row and check that it violates an assertion exactly",
+            " * when the row says so (rows that expect a violation need -ea); a row whose",
+            " * outcome is unknown (?) only has to run.",
+            " */",
+            "public static void check(String row, String[] columns, String kinds, Runnable helper) {",
+            "    String[] fields = row.split(\"\\t\", -1);",
+            "    boolean known = !fields[0].equals(\"?\");",
+            "    boolean expected = fields[0].equals(\"1\");",
+            "    Assume.assumeTrue(\"assertions are disabled\", ASSERTIONS || !expected);",
+            "    Map<String, Object> inputs = new HashMap<>();",
+            "    for (int i = 0; i < columns.length; i++) {",
+            "        Object value = decode(fields[i + 1], kinds.charAt(i));",
+            "        Assume.assumeTrue(\"no concrete value for \" + columns[i], value != NO_VALUE);",
+            "        inputs.put(columns[i], value);",
+            "    }",
+            "    boolean violated = false;",
+            "    INPUTS.set(inputs);",
+            "    try {",
+            "        helper.run();",
+            "    } catch (AssertionError e) {",
+            "        violated = true;",
+            "    } finally {",
+            "        INPUTS.remove();",
+            "    }",
+            "    if (known) {",
+            "        Assert.assertEquals(\"assertion violated\", expected, violated);",
+            "    }",
+            "}",
+            "",
+            "private static Object decode(String field, char kind) {",
+            "    if (field.equals(\"\\\\N\")) {",
+            "        return null;",
+            "    }",
+            "    if (field.equals(\"\\\\O\")) {",
+            "        return NO_VALUE;",
+            "    }",
+            "    switch (kind) {",
+            "        case 'Z': return field.equals(\"1\");",
+            "        case 'B': return Byte.valueOf(field);",
+            "        case 'S': return Short.valueOf(field);",
+            "        case 'C': return (char) Integer.parseInt(field);",
+            "        case 'I': return Integer.valueOf(field);",
+            "        case 'J': return Long.valueOf(field);",
+            "        case 'F': return Float.valueOf(field);",
+            "        case 'D': return Double.valueOf(field);",
+            "        case 's': return new HashSet<Object>();",
+            "        case 'm': return new HashMap<Object, Object>();",
+            "        case 'l': return new ArrayList<Object>();",
+            "        case 'q': return new LinkedList<Object>();",
+            "        default: return unescape(field);",
+            "    }",
+            "}",
+            "",
+            "private static String unescape(String field) {",
+            "    if (field.indexOf('\\\\') < 0) {",
+            "        return field;",
+            "    }",
+            "    StringBuilder sb = new StringBuilder(field.length());",
+            "    for (int i = 0; i < field.length(); i++) {",
+            "        char c = field.charAt(i);",
+            "        if (c == '\\\\' && i + 1 < field.length()) {",
+            "            c = field.charAt(++i);",
+            "            c = c == 't' ? '\\t' : c == 'n' ? '\\n' : c == 'r' ? '\\r' : c;",
+            "        }",
+            "        sb.append(c);",
+            "    }",
+            "    return sb.toString();",
+            "}",
+            "",
+            "@SuppressWarnings(\"all\")",
+            "private static boolean assertionsEnabled() {",
+            "    boolean enabled = false;",
+            "    assert enabled = true;",
+            "    return enabled;",
+            "}",
+        };
+        for (String line : body) {
+            sb.append(line.isEmpty() ? "" : INDENT).append(line).append("\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static void appendHeader(StringBuilder sb, AtcClass atcClass, boolean testClass) {
+        if (atcClass.getPackageName() != null && !atcClass.getPackageName().isEmpty()) {
+            sb.append("package ").append(atcClass.getPackageName()).append(";\n\n");
+        }
+        List<String> imports = new ArrayList<>();
+        imports.add("java.util.*");
+        for (String anImport : atcClass.getImports()) {
+            // The symbolic runtime is replaced by the support class
+            if (!anImport.startsWith("gov.nasa.jpf.") && !imports.contains(anImport)) {
+                imports.add(anImport);
+            }
+        }
+        imports.add("org.junit.Assert");
+        imports.add("org.junit.Assume");
+        if (testClass) {
+            imports.add("org.junit.Test");
+            imports.add("org.junit.runner.RunWith");
+            imports.add("org.junit.runners.Parameterized");
+            imports.add("org.junit.runners.Parameterized.Parameter");
+            imports.add("org.junit.runners.Parameterized.Parameters");
+        }
+        for (String anImport : imports) {
+            sb.append("import ").append(anImport).append(";\n");
+        }
+    }
+
+    private static String qualified(AtcClass atcClass, String className) {
+        String packageName = atcClass.getPackageName();
+        return packageName == null || packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    /**
+     * The helper as a plain method of the test class; top-level "Test Input" prints
+     * are dropped since every row would print them.
+     */
+    private static String renderHelper(AtcTestMethod method) {
+        List<AtcStatement> statements = new ArrayList<>();
+        for (AtcStatement stmt : method.getStatements()) {
+            if (!stmt.accept(IsPrint.INSTANCE)) {
+                statements.add(stmt);
+            }
+        }
+        return AtcIrCodeGenerator.getInstance().generateMethod(new AtcTestMethod(method.getMethodName(), statements));
+    }
+
+    /**
+     * Whether a statement is a System.out.println call.
+     */
+    private static final class IsPrint implements AtcStatementVisitor<Boolean> {
+        static final IsPrint INSTANCE = new IsPrint();
+
+        @Override
+        public Boolean visit(AtcSymbolicVarDecl stmt) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(AtcVarDecl stmt) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(AtcAssignStmt stmt) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(AtcAssumeStmt stmt) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(AtcAssertStmt stmt) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(AtcMethodCallStmt stmt) {
+            MethodCallExpr call = stmt.getCallExpr();
+            return call.name.identifier.equals("println") && "System.out".equals(AstHelper.getNameFromExpr(call.scope));
+        }
+
+        @Override
+        public Boolean visit(AtcIfStmt stmt) {
+            return false;
+        }
+    }
+
+    // ===================================
+    // Row encoding
+    // ===================================
+
+    /**
+     * One-letter decoder kind of a declared input type (see the support class).
+     */
+    static char kindOf(String typeName) {
+        String baseType = typeName.split("[<>]")[0].trim();
+        if (baseType.startsWith("java.util.")) {
+            baseType = baseType.substring("java.util.".length());
+        }
+        switch (baseType) {
+            case "boolean": case "Boolean": return 'Z';
+            case "byte": case "Byte": return 'B';
+            case "short": case "Short": return 'S';
+            case "char": case "Character": return 'C';
+            case "int": case "Integer": return 'I';
+            case "long": case "Long": return 'J';
+            case "float": case "Float": return 'F';
+            case "double": case "Double": return 'D';
+            case "String": return 'T';
+            case "Set": return 's';
+            case "Map": return 'm';
+            case "List": case "Collection": return 'l';
+            case "Queue": case "Deque": return 'q';
+            default: return 'o';
+        }
+    }
+
+    private static void appendField(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("\\N");
+        } else if (value instanceof Boolean) {
+            sb.append((Boolean) value ? '1' : '0');
+        } else if (value instanceof Character) {
+            sb.append((int) (Character) value);
+        } else if (value instanceof Number) {
+            sb.append(value);
+        } else if (value instanceof String) {
+            String s = (String) value;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '\\': sb.append("\\\\"); break;
+                    case '\t': sb.append("\\t"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    default: sb.append(c);
+                }
+            }
+        } else if (value instanceof Collection && ((Collection<?>) value).isEmpty()
+                || value instanceof Map && ((Map<?, ?>) value).isEmpty()) {
+            sb.append("\\E");
+        } else {
+            sb.append("\\O");
+        }
+    }
+
+    /**
+     * Append a Java string literal. Control characters use octal escapes and
+     * non-ASCII characters unicode escapes, so the source is plain ASCII.
+     */
+    private static void appendLiteral(StringBuilder sb, CharSequence s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default:
+                    if (c < 0x20 || c == 0x7F) {
+                        sb.append(String.format("\\%03o", (int) c));
+                    } else if (c > 0x7F) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Length of a string as stored in the class file (NUL and chars above 0x7FF take
+     * two and three bytes; a surrogate pair takes six).
+     */
+    static int modifiedUtf8Length(CharSequence s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            length += c != 0 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        return length;
+    }
+}
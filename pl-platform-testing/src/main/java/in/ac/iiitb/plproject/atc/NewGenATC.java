@@ -2,15 +2,85 @@ package in.ac.iiitb.plproject.atc;
 
 import in.ac.iiitb.plproject.parser.ast.*;
 import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.ConstraintCost;
 import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.ast.ExprTraversal;
+import in.ac.iiitb.plproject.ast.ExprVisitor;
+import in.ac.iiitb.plproject.ast.PostconditionAnalysis;
+import in.ac.iiitb.plproject.ast.TypeInference;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import in.ac.iiitb.plproject.atc.ir.*;
 import in.ac.iiitb.plproject.symex.TypeMapper;
 
 public class NewGenATC implements GenATC {
 
+    /**
+     * How helper methods are built for the unique specs of a test string.
+     * PARALLEL fans the work out over a ForkJoinPool; the resulting method
+     * order (and therefore the generated code) is identical to SEQUENTIAL.
+     */
+    public enum GenerationMode {
+        SEQUENTIAL,
+        PARALLEL
+    }
+
+    // Number of specs below which a fork-join task stops splitting and generates directly
+    private static final int PARALLEL_THRESHOLD = 8;
+
+    private GenerationMode generationMode;
+    private ForkJoinPool pool;
+    // Hoist calls and repeated subexpressions of assert/assume conditions into temporaries
+    private boolean hoistSubexpressions = true;
+    private final AtcCommonSubexpressionEliminator subexpressionEliminator = new AtcCommonSubexpressionEliminator();
+
+    // Postcondition facts per spec; weak keys so specs that are no longer used can be collected
+    private final Map<JmlFunctionSpec, HelperAnalysis> analysisCache =
+        Collections.synchronizedMap(new WeakHashMap<JmlFunctionSpec, HelperAnalysis>());
+
+    public NewGenATC() {
+        this(GenerationMode.SEQUENTIAL, ForkJoinPool.commonPool());
+    }
+
+    public NewGenATC(ForkJoinPool pool) {
+        this(GenerationMode.PARALLEL, pool);
+    }
+
+    public NewGenATC(GenerationMode generationMode, ForkJoinPool pool) {
+        this.generationMode = generationMode;
+        this.pool = pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    public GenerationMode getGenerationMode() {
+        return generationMode;
+    }
+
+    public void setGenerationMode(GenerationMode generationMode) {
+        this.generationMode = generationMode;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public boolean isHoistSubexpressions() {
+        return hoistSubexpressions;
+    }
+
+    public void setHoistSubexpressions(boolean hoistSubexpressions) {
+        this.hoistSubexpressions = hoistSubexpressions;
+    }
+
     @Override
     public AtcClass generateAtcFile(JmlSpecAst jmlSpecAst, TestStringAst testStringAst) {
+        return generateAtcFile(jmlSpecAst, testStringAst, generationMode);
+    }
+
+    /**
+     * Generate the ATC class using the given mode for this run only.
+     */
+    public AtcClass generateAtcFile(JmlSpecAst jmlSpecAst, TestStringAst testStringAst, GenerationMode mode) {
         List<String> imports = new ArrayList<>();
         imports.add("java.util.*");
 
@@ -27,12 +97,17 @@ public class NewGenATC implements GenATC {
             }
         }
         
-        for (Map.Entry<String, JmlFunctionSpec> entry : uniqueFunctionSpecs.entrySet()) {
-            String funcName = entry.getKey();
-            JmlFunctionSpec spec = entry.getValue();
-            AtcTestMethod helperMethod = generateHelperFunction(spec);
-            generatedHelperMethods.put(funcName, helperMethod);
-            actualTestMethods.add(helperMethod);
+        List<String> funcNames = new ArrayList<>(uniqueFunctionSpecs.keySet());
+        List<JmlFunctionSpec> specs = new ArrayList<>(uniqueFunctionSpecs.values());
+        // Every declared function, called or not, types the calls in pre/postconditions
+        List<FunctionSignature> signatures = new ArrayList<>();
+        for (JmlFunctionSpec spec : jmlSpecAst.getSpecs()) {
+            signatures.add(spec.getSignature());
+        }
+        AtcTestMethod[] helperMethods = generateHelperFunctions(specs, signatures, mode);
+        for (int i = 0; i < helperMethods.length; i++) {
+            generatedHelperMethods.put(funcNames.get(i), helperMethods[i]);
+            actualTestMethods.add(helperMethods[i]);
         }
 
         List<AtcStatement> mainMethodStatements = new ArrayList<>();
@@ -53,22 +128,222 @@ public class NewGenATC implements GenATC {
 
         return new AtcClass(packageName, className, imports, actualTestMethods, mainMethodStatements, runWithAnnotation);
     }
-  
-    private AtcTestMethod generateHelperFunction(JmlFunctionSpec spec) {
+
+    /**
+     * Build one helper method per spec. Results are stored by index so the
+     * parallel path keeps the same method order as the sequential one.
+     */
+    private AtcTestMethod[] generateHelperFunctions(List<JmlFunctionSpec> specs, List<FunctionSignature> signatures,
+                                                    GenerationMode mode) {
+        AtcTestMethod[] helperMethods = new AtcTestMethod[specs.size()];
+        if (mode == GenerationMode.PARALLEL && specs.size() > PARALLEL_THRESHOLD) {
+            pool.invoke(new HelperGenerationTask(specs, signatures, helperMethods, 0, specs.size()));
+        } else {
+            for (int i = 0; i < specs.size(); i++) {
+                helperMethods[i] = generateHelperFunction(specs.get(i), signatures);
+            }
+        }
+        return helperMethods;
+    }
+
+    /**
+     * Fork-join task that splits a range of specs in halves until it is small
+     * enough to generate directly. generateHelperFunction only touches local
+     * state and the stateless AstHelper, so ranges can run concurrently.
+     */
+    private class HelperGenerationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<JmlFunctionSpec> specs;
+        private final List<FunctionSignature> signatures;
+        private final AtcTestMethod[] helperMethods;
+        private final int from;
+        private final int to;
+
+        HelperGenerationTask(List<JmlFunctionSpec> specs, List<FunctionSignature> signatures,
+                             AtcTestMethod[] helperMethods, int from, int to) {
+            this.specs = specs;
+            this.signatures = signatures;
+            this.helperMethods = helperMethods;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    helperMethods[i] = generateHelperFunction(specs.get(i), signatures);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new HelperGenerationTask(specs, signatures, helperMethods, from, mid),
+                      new HelperGenerationTask(specs, signatures, helperMethods, mid, to));
+        }
+    }
+
+    /**
+     * Everything generateHelperFunction derives from a spec's pre/postcondition:
+     * one PostconditionAnalysis walk, the resulting _old snapshot names, the
+     * rewritten postcondition that the helper asserts, and where each conjunct of
+     * the precondition is assumed.
+     */
+    private final class HelperAnalysis {
+        // Function signatures the analysis typed calls with; a run declaring others recomputes it
+        private final List<FunctionSignature> signatures;
+        private final PostconditionAnalysis facts;
+        private final Map<String, String> oldStateMap = new HashMap<>(); // variable -> snapshot name
+        private final String postStateParam;
+        private final Expr rewrittenPost;
+        // Index 0: conjuncts assumed before any input; index i + 1: right after parameter i
+        private final List<List<Expr>> conjunctsAfterInput = new ArrayList<>();
+        // Conjuncts that dereference a collection parameter, assumed after its null check
+        private final List<Expr> conjunctsAfterNullChecks = new ArrayList<>();
+
+        HelperAnalysis(JmlFunctionSpec spec, List<FunctionSignature> signatures) {
+            this.signatures = signatures;
+            List<Variable> params = spec.getSignature().getParameters();
+            List<String> paramNames = new ArrayList<>();
+            for (Variable p : params) {
+                paramNames.add(p.getName());
+            }
+            Expr post = spec.getPostcondition();
+            facts = PostconditionAnalysis.analyze(spec.getPrecondition(), post, paramNames);
+
+            // Only primitive parameters are snapshotted as _old
+            for (String varName : facts.getVarsToSnapshot()) {
+                if (paramNames.contains(varName) && isPrimitiveType(getParamType(varName, params))) {
+                    oldStateMap.put(varName, varName + "_old");
+                }
+            }
+
+            postStateParam = facts.getPostStateParameter();
+            // A primitive post-state parameter is passed by reference and read back into itself
+            String resultVarName = postStateParam != null && isPrimitiveType(getParamType(postStateParam, params))
+                ? postStateParam : null;
+            rewrittenPost = post != null
+                ? (Expr) AstHelper.transformPostCondition(post, resultVarName, oldStateMap, params)
+                : null;
+
+            placePreconditionConjuncts(spec, params);
+        }
+
+        /**
+         * Split the requires clauses into conjuncts and give each the earliest position
+         * where every input it reads exists: right after the last such parameter, or
+         * after the null checks if it dereferences a collection parameter. Conjuncts at
+         * the same position are ordered by estimated solver cost, cheapest first, so
+         * SPF prunes infeasible paths as early and as cheaply as possible.
+         */
+        private void placePreconditionConjuncts(JmlFunctionSpec spec, List<Variable> params) {
+            Set<String> collectionParams = new HashSet<>();
+            for (Variable p : params) {
+                if (isCollectionType(p.getTypeName())) {
+                    collectionParams.add(p.getName());
+                }
+            }
+            for (int i = 0; i <= params.size(); i++) {
+                conjunctsAfterInput.add(new ArrayList<Expr>());
+            }
+
+            final TypeInference types = TypeInference.forParameters(params);
+            types.declareMethods(signatures);
+            final Map<Expr, Integer> costs = new IdentityHashMap<>();
+            for (Expr clause : spec.getRequiresClauses()) {
+                for (Expr conjunct : AstHelper.splitChain(clause, "AND")) {
+                    if (AstHelper.isBooleanLiteral(conjunct, true)) {
+                        continue;
+                    }
+                    costs.put(conjunct, ConstraintCost.estimate(conjunct, types.infer(conjunct)));
+                    if (dereferencesAny(conjunct, collectionParams)) {
+                        conjunctsAfterNullChecks.add(conjunct);
+                        continue;
+                    }
+                    Set<String> reads = new HashSet<>();
+                    AstHelper.addVariableNames(conjunct, reads);
+                    int position = 0;
+                    for (int i = 0; i < params.size(); i++) {
+                        if (reads.contains(params.get(i).getName())) {
+                            position = i + 1;
+                        }
+                    }
+                    conjunctsAfterInput.get(position).add(conjunct);
+                }
+            }
+
+            // Stable sort: equally expensive conjuncts keep their spec order
+            Comparator<Expr> byCost = Comparator.comparingInt(costs::get);
+            for (List<Expr> conjuncts : conjunctsAfterInput) {
+                conjuncts.sort(byCost);
+            }
+            conjunctsAfterNullChecks.sort(byCost);
+        }
+    }
+
+    /**
+     * Whether expr uses one of the given variables other than by comparing it with null.
+     */
+    private static boolean dereferencesAny(Expr expr, final Set<String> names) {
+        if (names.isEmpty()) {
+            return false;
+        }
+        final boolean[] found = new boolean[1];
+        ExprTraversal.walk(expr, new ExprVisitor() {
+            @Override
+            public boolean enter(Expr e) {
+                String op = AstHelper.getBinaryOperator(e);
+                if (("EQUALS".equals(op) || "NOT_EQUALS".equals(op))
+                    && ("null".equals(AstHelper.getNameFromExpr(AstHelper.getLeftOperand(e)))
+                        || "null".equals(AstHelper.getNameFromExpr(AstHelper.getRightOperand(e))))) {
+                    return false;
+                }
+                String name = AstHelper.getNameFromExpr(e);
+                if (name != null && names.contains(name)) {
+                    found[0] = true;
+                }
+                return !found[0];
+            }
+        });
+        return found[0];
+    }
+
+    private static void addAssumes(List<AtcStatement> statements, List<Expr> conditions) {
+        for (Expr condition : conditions) {
+            statements.add(new AtcAssumeStmt(condition));
+        }
+    }
+
+    private HelperAnalysis analyze(JmlFunctionSpec spec, List<FunctionSignature> signatures) {
+        HelperAnalysis analysis = analysisCache.get(spec);
+        // Signatures compare by identity: runs over the same JmlSpecAst share analyses
+        if (analysis == null || !analysis.signatures.equals(signatures)) {
+            // Computed outside the lock so parallel generation does not serialize on the cache;
+            // racing threads compute equal analyses and the last one is kept
+            analysis = new HelperAnalysis(spec, signatures);
+            analysisCache.put(spec, analysis);
+        }
+        return analysis;
+    }
+
+    private AtcTestMethod generateHelperFunction(JmlFunctionSpec spec, List<FunctionSignature> signatures) {
         List<AtcStatement> statements = new ArrayList<>();
         FunctionSignature signature = spec.getSignature();
         
         List<Variable> params = signature.getParameters();
         List<String> paramNames = new ArrayList<>();
         
-        // Store precondition and postcondition
-        Expr pre = spec.getPrecondition();
         Expr post = spec.getPostcondition();
+        HelperAnalysis analysis = analyze(spec, signatures);
+        
+        // Parameters that are accessed as arrays (e.g., x[0] in pre/post conditions)
+        Set<String> arrayParams = analysis.facts.getArrayParameters();
         
-        // Detect parameters that are accessed as arrays (e.g., x[0] in pre/post conditions)
-        Set<String> arrayParams = detectArrayParameters(pre, post, params);
+        // Precondition conjuncts that read no input at all
+        addAssumes(statements, analysis.conjunctsAfterInput.get(0));
         
-        for (Variable param : params) {
+        for (int paramIndex = 0; paramIndex < params.size(); paramIndex++) {
+            Variable param = params.get(paramIndex);
             String name = param.getName();
             String type = param.getTypeName();
             paramNames.add(name);
@@ -89,58 +364,33 @@ public class NewGenATC implements GenATC {
             } else {
                 statements.add(new AtcSymbolicVarDecl(type, name));
             }
+            // Precondition conjuncts whose last input is this parameter
+            addAssumes(statements, analysis.conjunctsAfterInput.get(paramIndex + 1));
         }
         
         // Check if we have collection parameters
         List<String> collectionParams = new ArrayList<>();
         for (String pName : paramNames) {
-            String paramType = getParamType(pName, params);
-            String baseType = paramType;
-            if (paramType.contains("<")) {
-                baseType = paramType.substring(0, paramType.indexOf("<"));
-            }
-            if (TypeMapper.isCollectionType(baseType)) {
+            if (isCollectionType(getParamType(pName, params))) {
                 collectionParams.add(pName);
             }
         }
         
-        // For primitive-only methods: add precondition first, then snapshot old state
-        // For collection methods: add null checks first, then precondition
-        if (collectionParams.isEmpty() && pre != null) {
-            statements.add(new AtcAssumeStmt(pre));
-        }
-        
-        Set<String> varsToSnapshot = collectVarsToSnapshot(post);
-        // Filter out "null" and other literals that shouldn't be snapshotted
-        varsToSnapshot.remove("null");
-        Map<String, String> oldStateMap = new HashMap<>();
-        
-        // Only snapshot primitive types that need old state
+        // Only primitive types that need old state are snapshotted (see HelperAnalysis)
         // For collections, we don't need to snapshot them as _old since they're passed by reference
-        for (String varName : varsToSnapshot) {
-            String varType = "Object";
-            for (Variable p : params) {
-                if (p.getName().equals(varName)) {
-                    varType = p.getTypeName();
-                    break;
-                }
+        for (String varName : analysis.facts.getVarsToSnapshot()) {
+            String oldVarName = analysis.oldStateMap.get(varName);
+            if (oldVarName == null) {
+                continue;
             }
-            
-            // Check if this variable is accessed as an array
-            boolean isArrayParam = arrayParams.contains(varName);
-            
-            // Only snapshot primitive types
-            if (isPrimitiveType(varType)) {
-                String oldVarName = varName + "_old";
-                if (isArrayParam) {
-                    // For array parameters, snapshot the array element: x_old = x[0]
-                    Expr arrayAccess = AstHelper.createNameExpr(varName + "[0]");
-                    statements.add(new AtcVarDecl(varType, oldVarName, arrayAccess));
-                } else {
-                    // For regular primitives, snapshot the variable: x_old = x
-                    statements.add(new AtcVarDecl(varType, oldVarName, AstHelper.createNameExpr(varName)));
-                }
-                oldStateMap.put(varName, oldVarName);
+            String varType = getParamType(varName, params);
+            if (arrayParams.contains(varName)) {
+                // For array parameters, snapshot the array element: x_old = x[0]
+                Expr arrayAccess = AstHelper.createNameExpr(varName + "[0]");
+                statements.add(new AtcVarDecl(varType, oldVarName, arrayAccess));
+            } else {
+                // For regular primitives, snapshot the variable: x_old = x
+                statements.add(new AtcVarDecl(varType, oldVarName, AstHelper.createNameExpr(varName)));
             }
         }
         
@@ -177,11 +427,8 @@ public class NewGenATC implements GenATC {
             }
         }
         
-        // Add precondition assume after null checks (if it exists and not already added)
-        // Only add if we have collection params (primitive-only methods already have it)
-        if (!collectionParams.isEmpty() && pre != null) {
-            statements.add(new AtcAssumeStmt(pre));
-        }
+        // Precondition conjuncts that dereference a collection parameter, now known to be non-null
+        addAssumes(statements, analysis.conjunctsAfterNullChecks);
         
         // Add print statements for collection parameters (only first input collection, not output ones)
         boolean printedCollection = false;
@@ -221,19 +468,7 @@ public class NewGenATC implements GenATC {
         }
         
         String functionName = signature.getName();
-        String resultVarName = null;
-        String postStateParam = null;
-        if (post != null) {
-            List<String> paramNameList = new ArrayList<>();
-            for (Variable p : params) {
-                paramNameList.add(p.getName());
-            }
-            postStateParam = AstHelper.findPostStateParameter(post, paramNameList);
-            
-            if (postStateParam == null) {
-                postStateParam = findPostStateParameter(post, params);
-            }
-        }
+        String postStateParam = analysis.postStateParam;
         
         if (postStateParam != null && isPrimitiveType(getParamType(postStateParam, params))) {
             String paramType = getParamType(postStateParam, params);
@@ -246,8 +481,6 @@ public class NewGenATC implements GenATC {
                 in.ac.iiitb.plproject.ast.MethodCallExpr callExpr = AstHelper.createMethodCallExpr(
                     AstHelper.createNameExpr("Helper"), functionName, callArgs);
                 statements.add(new AtcMethodCallStmt(callExpr));
-                
-                resultVarName = postStateParam;
             } else {
                 // Create array wrapper for primitive parameter
                 String refVarName = postStateParam + "Ref";
@@ -265,8 +498,6 @@ public class NewGenATC implements GenATC {
                 
                 Expr arrayAccessExpr = AstHelper.createNameExpr(refVarName + "[0]");
                 statements.add(new AtcAssignStmt(postStateParam, arrayAccessExpr));
-                
-                resultVarName = postStateParam;
             }
         } else {
             List<Expr> callArgs = new ArrayList<>();
@@ -309,61 +540,24 @@ public class NewGenATC implements GenATC {
                 statements.add(new AtcMethodCallStmt(printlnCall));
                 
                 if (post != null) {
-                    Expr transformedPost = transformPostCondition(post, resultVarName, oldStateMap, params);
-                    statements.add(new AtcAssertStmt(transformedPost));
+                    statements.add(new AtcAssertStmt(analysis.rewrittenPost));
                 }
             } else {
                 statements.add(new AtcMethodCallStmt(callExpr));
                 if (post != null) {
-                    Expr transformedPost = transformPostCondition(post, resultVarName, oldStateMap, params);
-                    statements.add(new AtcAssertStmt(transformedPost));
+                    statements.add(new AtcAssertStmt(analysis.rewrittenPost));
                 }
             }
         }
         
         // Add assertion for primitive postStateParam case
         if (postStateParam != null && isPrimitiveType(getParamType(postStateParam, params)) && post != null) {
-            Expr transformedPost = transformPostCondition(post, resultVarName, oldStateMap, params);
-            statements.add(new AtcAssertStmt(transformedPost));
+            statements.add(new AtcAssertStmt(analysis.rewrittenPost));
         }
         
         String helperMethodName = spec.getName() + "_helper";
-        return new AtcTestMethod(helperMethodName, statements);
-    }
-    
-    private Set<String> collectVarsToSnapshot(Expr expr) {
-        return AstHelper.collectVarsToSnapshot(expr);
-    }
-    private Expr transformPostCondition(Expr expr, String resultVarName, Map<String, String> oldStateMap, List<Variable> params) {
-        return (Expr) AstHelper.transformPostCondition(expr, resultVarName, oldStateMap, params);
-    }
-    
-    private String findPostStateParameter(Expr post, List<Variable> params) {
-        if (post == null) {
-            return null;
-        }
-        
-        String postStr = AstHelper.exprToJavaCode(post);
-        
-        for (Variable param : params) {
-            String paramName = param.getName();
-            String primePattern1 = "'([" + paramName + "])";
-            String primePattern2 = "'(" + paramName + ")";
-            String primePattern3 = "'(["+ paramName + "])";
-            
-            if (postStr.contains(primePattern1) || 
-                postStr.contains(primePattern2) ||
-                postStr.contains(primePattern3) ||
-                postStr.matches(".*'\\s*\\(\\s*\\[\\s*" + paramName + "\\s*\\]\\s*\\).*") ||
-                postStr.matches(".*'\\s*\\(\\s*" + paramName + "\\s*\\).*")) {
-                return paramName;
-            }
-            if (postStr.matches(".*\\b" + paramName + "_post\\b.*")) {
-                return paramName;
-            }
-        }
-        
-        return findPostStateParameterRecursive(post, params);
+        AtcTestMethod helperMethod = new AtcTestMethod(helperMethodName, statements);
+        return hoistSubexpressions ? subexpressionEliminator.apply(helperMethod, signatures) : helperMethod;
     }
     
     private String getParamType(String paramName, List<Variable> params) {
@@ -375,91 +569,9 @@ public class NewGenATC implements GenATC {
         return "int";
     }
     
-    private String findPostStateParameterRecursive(Expr expr, List<Variable> params) {
-        if (expr == null) {
-            return null;
-        }
-        
-        String className = expr.getClass().getSimpleName();
-        
-        if (className.equals("MethodCallExpr")) {
-            try {
-                java.lang.reflect.Field nameField = expr.getClass().getDeclaredField("name");
-                nameField.setAccessible(true);
-                Object nameObj = nameField.get(expr);
-                
-                java.lang.reflect.Field identifierField = nameObj.getClass().getDeclaredField("identifier");
-                identifierField.setAccessible(true);
-                String identifier = (String) identifierField.get(nameObj);
-                
-                java.lang.reflect.Field argsField = expr.getClass().getDeclaredField("args");
-                argsField.setAccessible(true);
-                @SuppressWarnings("unchecked")
-                List<Expr> args = (List<Expr>) argsField.get(expr);
-                
-                if ("'".equals(identifier) && !args.isEmpty()) {
-                    Expr arg = args.get(0);
-                    String varName = AstHelper.getNameFromExpr(arg);
-                    if (varName != null) {
-                        for (Variable param : params) {
-                            if (param.getName().equals(varName)) {
-                                return varName;
-                            }
-                        }
-                    }
-                }
-                
-                for (Expr arg : args) {
-                    String result = findPostStateParameterRecursive(arg, params);
-                    if (result != null) {
-                        return result;
-                    }
-                }
-            } catch (Exception e) {
-                return null;
-            }
-        } else if (className.equals("BinaryExpr")) {
-            try {
-                java.lang.reflect.Field leftField = expr.getClass().getDeclaredField("left");
-                leftField.setAccessible(true);
-                Expr left = (Expr) leftField.get(expr);
-                
-                java.lang.reflect.Field rightField = expr.getClass().getDeclaredField("right");
-                rightField.setAccessible(true);
-                Expr right = (Expr) rightField.get(expr);
-                
-                String result = findPostStateParameterRecursive(left, params);
-                if (result != null) {
-                    return result;
-                }
-                return findPostStateParameterRecursive(right, params);
-            } catch (Exception e) {
-                return null;
-            }
-        } else if (className.equals("NameExpr")) {
-            try {
-                java.lang.reflect.Field nameField = expr.getClass().getDeclaredField("name");
-                nameField.setAccessible(true);
-                Object nameObj = nameField.get(expr);
-                
-                java.lang.reflect.Field identifierField = nameObj.getClass().getDeclaredField("identifier");
-                identifierField.setAccessible(true);
-                String identifier = (String) identifierField.get(nameObj);
-                
-                if (identifier != null && identifier.endsWith("_post")) {
-                    String baseName = identifier.substring(0, identifier.length() - "_post".length());
-                    for (Variable param : params) {
-                        if (param.getName().equals(baseName)) {
-                            return baseName;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                return null;
-            }
-        }
-        
-        return null;
+    private static boolean isCollectionType(String typeName) {
+        String baseType = typeName.contains("<") ? typeName.substring(0, typeName.indexOf("<")) : typeName;
+        return TypeMapper.isCollectionType(baseType);
     }
     
     private boolean isPrimitiveType(String typeName) {
@@ -472,114 +584,4 @@ public class NewGenATC implements GenATC {
                typeName.equals("boolean") || typeName.equals("Boolean") ||
                typeName.equals("char") || typeName.equals("Character");
     }
-    
-    /**
-     * Detect parameters that are accessed as arrays in pre/post conditions.
-     * Returns set of parameter names that should be declared as arrays.
-     */
-    private Set<String> detectArrayParameters(Expr pre, Expr post, List<Variable> params) {
-        Set<String> arrayParams = new HashSet<>();
-        Set<String> paramNames = new HashSet<>();
-        for (Variable param : params) {
-            paramNames.add(param.getName());
-        }
-        
-        // Check pre-condition
-        if (pre != null) {
-            detectArrayAccessRecursive(pre, paramNames, arrayParams);
-        }
-        
-        // Check post-condition
-        if (post != null) {
-            detectArrayAccessRecursive(post, paramNames, arrayParams);
-        }
-        
-        return arrayParams;
-    }
-    
-    /**
-     * Recursively detect array access patterns like x[0] in expressions.
-     */
-    private void detectArrayAccessRecursive(Expr expr, Set<String> paramNames, Set<String> arrayParams) {
-        if (expr == null) {
-            return;
-        }
-        
-        String className = expr.getClass().getSimpleName();
-        
-        if (className.equals("NameExpr")) {
-            // Use reflection to access NameExpr fields since it's package-private
-            try {
-                java.lang.reflect.Field nameField = expr.getClass().getDeclaredField("name");
-                nameField.setAccessible(true);
-                Object nameObj = nameField.get(expr);
-                
-                java.lang.reflect.Field identifierField = nameObj.getClass().getDeclaredField("identifier");
-                identifierField.setAccessible(true);
-                String identifier = (String) identifierField.get(nameObj);
-                
-                // Check if identifier matches pattern paramName[0] or paramName[index]
-                for (String paramName : paramNames) {
-                    if (identifier.startsWith(paramName + "[") && identifier.contains("]")) {
-                        arrayParams.add(paramName);
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                // If reflection fails, try using AstHelper
-                String identifier = AstHelper.getNameFromExpr(expr);
-                if (identifier != null) {
-                    for (String paramName : paramNames) {
-                        if (identifier.startsWith(paramName + "[") && identifier.contains("]")) {
-                            arrayParams.add(paramName);
-                            break;
-                        }
-                    }
-                }
-            }
-        } else if (className.equals("MethodCallExpr")) {
-            try {
-                java.lang.reflect.Field scopeField = expr.getClass().getDeclaredField("scope");
-                scopeField.setAccessible(true);
-                Expr scope = (Expr) scopeField.get(expr);
-                if (scope != null) {
-                    detectArrayAccessRecursive(scope, paramNames, arrayParams);
-                }
-                
-                java.lang.reflect.Field argsField = expr.getClass().getDeclaredField("args");
-                argsField.setAccessible(true);
-                @SuppressWarnings("unchecked")
-                List<Expr> args = (List<Expr>) argsField.get(expr);
-                for (Expr arg : args) {
-                    detectArrayAccessRecursive(arg, paramNames, arrayParams);
-                }
-            } catch (Exception e) {
-                // Ignore reflection errors
-            }
-        } else if (className.equals("BinaryExpr")) {
-            try {
-                java.lang.reflect.Field leftField = expr.getClass().getDeclaredField("left");
-                leftField.setAccessible(true);
-                Expr left = (Expr) leftField.get(expr);
-                detectArrayAccessRecursive(left, paramNames, arrayParams);
-                
-                java.lang.reflect.Field rightField = expr.getClass().getDeclaredField("right");
-                rightField.setAccessible(true);
-                Expr right = (Expr) rightField.get(expr);
-                detectArrayAccessRecursive(right, paramNames, arrayParams);
-            } catch (Exception e) {
-                // Ignore reflection errors
-            }
-        } else if (className.equals("UnaryExpr")) {
-            try {
-                java.lang.reflect.Field exprField = expr.getClass().getDeclaredField("expr");
-                exprField.setAccessible(true);
-                Expr innerExpr = (Expr) exprField.get(expr);
-                detectArrayAccessRecursive(innerExpr, paramNames, arrayParams);
-            } catch (Exception e) {
-                // Ignore reflection errors
-            }
-        }
-    }
 }
-
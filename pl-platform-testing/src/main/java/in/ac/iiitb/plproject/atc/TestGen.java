@@ -2,8 +2,10 @@ package in.ac.iiitb.plproject.atc;
 
 import in.ac.iiitb.plproject.parser.ast.JmlSpecAst;
 import in.ac.iiitb.plproject.parser.ast.TestStringAst;
+import in.ac.iiitb.plproject.symex.ConcreteInputStore;
 import in.ac.iiitb.plproject.symex.SpfWrapper;
 import in.ac.iiitb.plproject.atc.ir.AtcClass;
+import java.io.IOException;
 import java.util.List;
 
 // Skeleton for TestGen class (based on img2.jpeg)
@@ -35,4 +37,15 @@ public class TestGen {
         // 4. Plug back/return results
         return testInputs;
     }
+
+    /**
+     * Like generateTest, but appends the inputs to a columnar store (one table per
+     * test method) instead of keeping them; returns how many were appended.
+     */
+    public long generateTest(JmlSpecAst jmlSpecAst, TestStringAst testStringAst, ConcreteInputStore store)
+            throws IOException {
+        List<ConcreteInput> testInputs = generateTest(jmlSpecAst, testStringAst);
+        store.appendAll(testInputs);
+        return testInputs.size();
+    }
 }
@@ -0,0 +1,192 @@
+package in.ac.iiitb.plproject.atc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Picks a small subset of a test suite that covers every goal the whole suite
+ * covers (greedy set cover over a CoverageMatrix).
+ *
+ * Inputs with identical coverage rows are first collapsed to the first of them,
+ * which is where most of the reduction comes from for symbolic runs. The greedy
+ * then repeatedly takes the row covering the most goals not covered yet. Gains only
+ * shrink as goals get covered, so rows sit in buckets by their last known gain and
+ * a row's gain is recomputed only when its bucket is the highest non-empty one
+ * (lazy greedy); a row whose recomputed gain still matches its bucket is a best
+ * choice. The result is within a factor ln(goals) + 1 of the smallest cover.
+ */
+public class TestSuiteMinimizer {
+
+    /**
+     * Outcome of a minimization: selected rows in increasing order, plus counts.
+     */
+    public static final class Result {
+        private final int inputCount;
+        private final int distinctCount;
+        private final int coveredGoalCount;
+        private final int[] selected;
+
+        Result(int inputCount, int distinctCount, int coveredGoalCount, int[] selected) {
+            this.inputCount = inputCount;
+            this.distinctCount = distinctCount;
+            this.coveredGoalCount = coveredGoalCount;
+            this.selected = selected;
+        }
+
+        public int[] getSelected() {
+            return selected.clone();
+        }
+
+        public int getSelectedCount() {
+            return selected.length;
+        }
+
+        public int getInputCount() {
+            return inputCount;
+        }
+
+        /**
+         * Inputs left after collapsing identical coverage rows.
+         */
+        public int getDistinctCount() {
+            return distinctCount;
+        }
+
+        public int getCoveredGoalCount() {
+            return coveredGoalCount;
+        }
+
+        /**
+         * Fraction of the inputs dropped, 1 - selected / inputs (0 for an empty suite).
+         */
+        public double getReductionRatio() {
+            return inputCount == 0 ? 0 : 1 - (double) selected.length / inputCount;
+        }
+
+        /**
+         * The selected elements of a list with one element per matrix row.
+         */
+        public <T> List<T> select(List<T> inputs) {
+            if (inputs.size() != inputCount) {
+                throw new IllegalArgumentException("Expected " + inputCount + " inputs, got " + inputs.size());
+            }
+            List<T> kept = new ArrayList<>(selected.length);
+            for (int row : selected) {
+                kept.add(inputs.get(row));
+            }
+            return kept;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Minimized %d inputs to %d (%.3f%% reduction, %d distinct coverage rows), %d goals covered",
+                inputCount, selected.length, 100 * getReductionRatio(), distinctCount, coveredGoalCount);
+        }
+    }
+
+    public Result minimize(CoverageMatrix matrix) {
+        int[] distinct = distinctRows(matrix);
+        int words = matrix.words;
+        long[] bits = matrix.bits;
+        long[] covered = new long[words];
+
+        // Bucket queue: head[gain] starts a singly linked list of rows through next[]
+        int[] head = new int[matrix.getGoalCount() + 1];
+        Arrays.fill(head, -1);
+        int[] next = new int[distinct.length];
+        int top = 0;
+        for (int i = distinct.length - 1; i >= 0; i--) {
+            int gain = gain(bits, distinct[i] * words, covered);
+            if (gain > 0) {
+                next[i] = head[gain];
+                head[gain] = i;
+                top = Math.max(top, gain);
+            }
+        }
+
+        int[] selected = new int[Math.min(distinct.length, matrix.getGoalCount())];
+        int count = 0;
+        int coveredGoals = 0;
+        while (top > 0) {
+            int i = head[top];
+            if (i < 0) {
+                top--;
+                continue;
+            }
+            head[top] = next[i];
+            int offset = distinct[i] * words;
+            int gain = gain(bits, offset, covered);
+            if (gain == top) {
+                for (int w = 0; w < words; w++) {
+                    covered[w] |= bits[offset + w];
+                }
+                selected[count++] = distinct[i];
+                coveredGoals += gain;
+            } else if (gain > 0) {
+                next[i] = head[gain];
+                head[gain] = i;
+            }
+        }
+
+        int[] result = Arrays.copyOf(selected, count);
+        Arrays.sort(result);
+        return new Result(matrix.getRowCount(), distinct.length, coveredGoals, result);
+    }
+
+    private static int gain(long[] bits, int offset, long[] covered) {
+        int gain = 0;
+        for (int w = 0; w < covered.length; w++) {
+            gain += Long.bitCount(bits[offset + w] & ~covered[w]);
+        }
+        return gain;
+    }
+
+    /**
+     * First row of each group of identical rows, in row order (open addressing on
+     * a hash of the row's words).
+     */
+    private static int[] distinctRows(CoverageMatrix matrix) {
+        int rows = matrix.getRowCount();
+        int words = matrix.words;
+        long[] bits = matrix.bits;
+        int capacity = Integer.highestOneBit(Math.max(2, rows) * 2 - 1) << 1;
+        if (capacity <= 0) {
+            capacity = 1 << 30;
+        }
+        int mask = capacity - 1;
+        int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+        int[] distinct = new int[Math.min(rows, 1024)];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            int offset = row * words;
+            long hash = 0;
+            for (int w = 0; w < words; w++) {
+                hash = hash * 0x9E3779B97F4A7C15L + bits[offset + w];
+            }
+            hash = (hash ^ hash >>> 31) * 0xBF58476D1CE4E5B9L;
+            int slot = (int) (hash >>> 32) & mask;
+            while (table[slot] >= 0 && !sameRow(bits, table[slot] * words, offset, words)) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] < 0) {
+                table[slot] = row;
+                if (count == distinct.length) {
+                    distinct = Arrays.copyOf(distinct, count * 2);
+                }
+                distinct[count++] = row;
+            }
+        }
+        return Arrays.copyOf(distinct, count);
+    }
+
+    private static boolean sameRow(long[] bits, int a, int b, int words) {
+        for (int w = 0; w < words; w++) {
+            if (bits[a + w] != bits[b + w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -22,5 +22,9 @@ public class AtcAssignStmt extends AtcStatement {
     public Expr getValueExpr() {
         return valueExpr;
     }
-}
 
+    @Override
+    public <R> R accept(AtcStatementVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -15,4 +15,9 @@ public class AtcAssumeStmt extends AtcStatement {
     public Expr getCondition() {
         return condition;
     }
+
+    @Override
+    public <R> R accept(AtcStatementVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
 }
@@ -0,0 +1,379 @@
+package in.ac.iiitb.plproject.atc.ir;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.ast.ExprArena;
+import in.ac.iiitb.plproject.ast.ExprRewriter;
+import in.ac.iiitb.plproject.ast.ExprTraversal;
+import in.ac.iiitb.plproject.ast.ExprTypes;
+import in.ac.iiitb.plproject.ast.TypeInference;
+import in.ac.iiitb.plproject.parser.ast.FunctionSignature;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hoists subexpressions of assert/assume conditions into typed temporaries
+ * (AtcVarDecl statements placed right before the condition), so that each is
+ * evaluated once per condition:
+ * - calls with possible side effects, e.g. Helper.update(result, data), which under
+ *   JPF would otherwise re-explore their paths on every evaluation
+ * - repeated subexpressions (structurally equal, found by hash-consing in an ExprArena)
+ *   that call or construct something; arithmetic over names and literals is cheaper
+ *   to recompute than a temporary is to read
+ * Temporaries are named tempN. A call compared with == keeps the null-guarded
+ * comparison the code generator gives an unhoisted call ("a != null && b != null
+ * && a.equals(b)"), which a typed temporary would otherwise turn into
+ * java.util.Objects.equals (true when both are null).
+ * Only subexpressions that the condition always evaluates are hoisted; anything
+ * reached only through the right operand of && or || stays in place, so
+ * short-circuit guards such as "x != null && x.size() > 0" keep working.
+ *
+ * Runs between NewGenATC and AtcIrCodeGenerator; the input IR is not modified.
+ */
+public class AtcCommonSubexpressionEliminator {
+
+    public AtcClass apply(AtcClass atc) {
+        return apply(atc, Collections.<FunctionSignature>emptyList());
+    }
+
+    /**
+     * @param signatures functions the conditions may call, whose return types type the temporaries
+     */
+    public AtcClass apply(AtcClass atc, List<FunctionSignature> signatures) {
+        List<AtcTestMethod> methods = new ArrayList<>();
+        for (AtcTestMethod method : atc.getTestMethods()) {
+            methods.add(apply(method, signatures));
+        }
+        return new AtcClass(atc.getPackageName(), atc.getClassName(), atc.getImports(), methods,
+            atc.getMainMethodStatements(), atc.getRunWithAnnotationClass());
+    }
+
+    public AtcTestMethod apply(AtcTestMethod method) {
+        return apply(method, Collections.<FunctionSignature>emptyList());
+    }
+
+    public AtcTestMethod apply(AtcTestMethod method, List<FunctionSignature> signatures) {
+        MethodRewriter rewriter = new MethodRewriter(signatures);
+        List<AtcStatement> statements = rewriter.rewrite(method.getStatements());
+        if (rewriter.hoisted == 0) {
+            return method;
+        }
+        return new AtcTestMethod(method.getMethodName(), statements, method.isStatic(), method.isMain());
+    }
+
+    /**
+     * Rewrites the statements of one method, tracking the variables it declares
+     * (for temp names and types) in statement order.
+     */
+    private static final class MethodRewriter implements AtcStatementVisitor<Void> {
+        private final Set<String> declaredNames = new HashSet<>();
+        private final TypeInference types = new TypeInference();
+        private List<AtcStatement> out;
+        private int tempCount;
+        private int hoisted;
+
+        MethodRewriter(List<FunctionSignature> signatures) {
+            types.declareMethods(signatures);
+        }
+
+        List<AtcStatement> rewrite(List<AtcStatement> statements) {
+            List<AtcStatement> enclosing = out;
+            out = new ArrayList<>(statements.size());
+            for (AtcStatement stmt : statements) {
+                stmt.accept(this);
+            }
+            List<AtcStatement> result = out;
+            out = enclosing;
+            return result;
+        }
+
+        @Override
+        public Void visit(AtcSymbolicVarDecl stmt) {
+            declare(stmt.getVarName(), stmt.getTypeName());
+            out.add(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            declare(stmt.getVarName(), stmt.getTypeName());
+            out.add(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            out.add(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcMethodCallStmt stmt) {
+            out.add(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            Expr condition = hoist(stmt.getCondition());
+            out.add(condition == stmt.getCondition() ? stmt : new AtcAssumeStmt(condition));
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssertStmt stmt) {
+            Expr condition = hoist(stmt.getCondition());
+            out.add(condition == stmt.getCondition() ? stmt : new AtcAssertStmt(condition));
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            List<AtcStatement> thenStatements = rewrite(stmt.getThenStatements());
+            out.add(new AtcIfStmt(stmt.getCondition(), thenStatements, stmt.hasReturn()));
+            return null;
+        }
+
+        private void declare(String name, String typeName) {
+            declaredNames.add(name);
+            types.declareVariable(name, typeName);
+        }
+
+        /**
+         * Emit temporaries for the hoistable subexpressions of a condition and
+         * return the condition rewritten to use them (the same node if none).
+         */
+        private Expr hoist(Expr condition) {
+            if (condition == null) {
+                return null;
+            }
+            ExprArena arena = new ExprArena();
+            final Map<Expr, Integer> ids = new IdentityHashMap<>();
+            int rootId = arena.add(condition, ids);
+            ExprTypes exprTypes = types.infer(condition);
+
+            int[] counts = new int[arena.size()];
+            boolean[] unconditional = new boolean[arena.size()];
+            Expr[] representative = new Expr[arena.size()];
+            String[] contextType = new String[arena.size()];
+
+            // Top-down walk recording, per distinct subexpression, how often it occurs and
+            // whether some occurrence is always evaluated
+            ArrayDeque<Expr> pending = new ArrayDeque<>();
+            ArrayDeque<Boolean> pendingUnconditional = new ArrayDeque<>();
+            pending.push(condition);
+            pendingUnconditional.push(Boolean.TRUE);
+            while (!pending.isEmpty()) {
+                Expr expr = pending.pop();
+                boolean always = pendingUnconditional.pop();
+                int id = ids.get(expr);
+                counts[id]++;
+                unconditional[id] |= always;
+                if (representative[id] == null) {
+                    representative[id] = expr;
+                }
+
+                List<Expr> children = ExprTraversal.children(expr);
+                boolean shortCircuit = arena.kind(id) == ExprArena.Kind.BINARY
+                    && (arena.operator(id).equals("AND") || arena.operator(id).equals("OR"));
+                if (arena.kind(id) == ExprArena.Kind.BINARY
+                    && (arena.operator(id).equals("EQUALS") || arena.operator(id).equals("NOT_EQUALS"))) {
+                    // An operand of unknown type compares against a value of the other operand's type
+                    recordContextType(contextType, ids.get(children.get(0)), exprTypes.typeOf(children.get(1)));
+                    recordContextType(contextType, ids.get(children.get(1)), exprTypes.typeOf(children.get(0)));
+                }
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    Expr child = children.get(i);
+                    if (child != null) {
+                        pending.push(child);
+                        pendingUnconditional.push(always && !(shortCircuit && i > 0));
+                    }
+                }
+            }
+
+            // Children are interned before their parents, so increasing IDs put every
+            // temporary after the temporaries it uses (and see their children first)
+            boolean[] cheap = new boolean[arena.size()];
+            for (int id = 0; id < arena.size(); id++) {
+                cheap[id] = isCheap(arena, id, cheap);
+            }
+            final Map<Integer, String> tempNames = new HashMap<>();
+            final Set<String> callTemps = new HashSet<>();
+            for (int id = 0; id < arena.size(); id++) {
+                if (id == rootId || counts[id] == 0 || !unconditional[id]) {
+                    continue;
+                }
+                boolean sideEffecting = hasSideEffects(arena, id);
+                if (!sideEffecting && (counts[id] < 2 || cheap[id])) {
+                    continue;
+                }
+                String typeName = tempType(exprTypes.typeOf(representative[id]), contextType[id], sideEffecting);
+                if (typeName == null) {
+                    continue;
+                }
+                String tempName = newTempName();
+                Expr init = new Replacement(ids, tempNames, callTemps, exprTypes, representative[id]).apply(representative[id]);
+                out.add(new AtcVarDecl(typeName, tempName, init));
+                declare(tempName, typeName);
+                tempNames.put(id, tempName);
+                if (sideEffecting && !TypeInference.isPrimitiveTypeName(typeName)) {
+                    callTemps.add(tempName);
+                }
+                hoisted++;
+            }
+            if (tempNames.isEmpty()) {
+                return condition;
+            }
+            return new Replacement(ids, tempNames, callTemps, exprTypes, null).apply(condition);
+        }
+
+        private static void recordContextType(String[] contextType, int id, String typeName) {
+            if (contextType[id] == null && typeName != null && !typeName.equals("null")) {
+                contextType[id] = typeName;
+            }
+        }
+
+        /**
+         * Declared type of the temporary for a subexpression: its inferred type (calls
+         * resolve through the declared signatures), else the type it is compared with;
+         * null if it cannot be typed.
+         */
+        private static String tempType(String inferred, String context, boolean sideEffecting) {
+            if (inferred != null && !inferred.equals("void") && !inferred.equals("null")) {
+                return inferred;
+            }
+            // An undeclared call may return a supertype or another parameterization of the
+            // reference it is compared with, but any reference fits Object
+            if (context != null && (!sideEffecting || TypeInference.isPrimitiveTypeName(context))) {
+                return context;
+            }
+            return sideEffecting ? "Object" : null;
+        }
+
+        private String newTempName() {
+            String name;
+            do {
+                name = "temp" + tempCount++;
+            } while (declaredNames.contains(name));
+            return name;
+        }
+
+        private static boolean hasSideEffects(ExprArena arena, int id) {
+            ExprArena.Kind kind = arena.kind(id);
+            if (kind == ExprArena.Kind.ASSIGN) {
+                return true;
+            }
+            return kind == ExprArena.Kind.METHOD_CALL && !AstHelper.isPureMethod(arena.identifier(id))
+                && !arena.identifier(id).equals("'");
+        }
+
+        /**
+         * Whether a subexpression is arithmetic, comparisons or logic over names and
+         * literals only (no call, construction or collection literal), given the
+         * answer for its children.
+         */
+        private static boolean isCheap(ExprArena arena, int id, boolean[] cheap) {
+            switch (arena.kind(id)) {
+                case INTEGER:
+                case DOUBLE:
+                case STRING:
+                case BOOLEAN:
+                case NAME:
+                case THIS:
+                    return true;
+                case FIELD_ACCESS:
+                case UNARY:
+                    return cheap[arena.left(id)];
+                case BINARY:
+                    return cheap[arena.left(id)] && cheap[arena.right(id)];
+                case METHOD_CALL:
+                    // The prime operator only names a post-state
+                    if (!arena.identifier(id).equals("'")) {
+                        return false;
+                    }
+                    for (int i = 0; i < arena.argumentCount(id); i++) {
+                        if (!cheap[arena.argument(id, i)]) {
+                            return false;
+                        }
+                    }
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Replaces every hoisted subexpression of an expression (other than keep itself)
+         * by its temporary. An == between a reference and a temporary holding a call
+         * becomes "a != null && b != null && a.equals(b)", as the call itself would print.
+         */
+        private static final class Replacement implements ExprRewriter {
+            private final Map<Expr, Integer> ids;
+            private final Map<Integer, String> tempNames;
+            private final Set<String> callTemps;
+            private final ExprTypes exprTypes;
+            private final Expr keep;
+
+            Replacement(Map<Expr, Integer> ids, Map<Integer, String> tempNames, Set<String> callTemps,
+                        ExprTypes exprTypes, Expr keep) {
+                this.ids = ids;
+                this.tempNames = tempNames;
+                this.callTemps = callTemps;
+                this.exprTypes = exprTypes;
+                this.keep = keep;
+            }
+
+            Expr apply(Expr expr) {
+                return ExprTraversal.rewrite(expr, this);
+            }
+
+            @Override
+            public boolean descend(Expr e) {
+                return e == keep || !tempNames.containsKey(ids.get(e));
+            }
+
+            @Override
+            public Expr rewrite(Expr original, Expr rebuilt) {
+                String tempName = original == keep ? null : tempNames.get(ids.get(original));
+                if (tempName != null) {
+                    return AstHelper.createNameExpr(tempName);
+                }
+                if ("EQUALS".equals(AstHelper.getBinaryOperator(original))) {
+                    Expr left = AstHelper.getLeftOperand(rebuilt);
+                    Expr right = AstHelper.getRightOperand(rebuilt);
+                    if ((isCallTemp(left) && comparesAsObject(AstHelper.getRightOperand(original)))
+                        || (isCallTemp(right) && comparesAsObject(AstHelper.getLeftOperand(original)))) {
+                        return nullGuardedEquals(left, right);
+                    }
+                }
+                return rebuilt;
+            }
+
+            private boolean isCallTemp(Expr expr) {
+                String name = AstHelper.getNameFromExpr(expr);
+                return name != null && callTemps.contains(name);
+            }
+
+            private boolean comparesAsObject(Expr other) {
+                return !exprTypes.isPrimitive(other) && !"null".equals(exprTypes.typeOf(other));
+            }
+
+            private static Expr nullGuardedEquals(Expr left, Expr right) {
+                Expr guards = AstHelper.createBinaryExpr(
+                    AstHelper.createBinaryExpr(left, AstHelper.createNameExpr("null"), "NOT_EQUALS"),
+                    AstHelper.createBinaryExpr(right, AstHelper.createNameExpr("null"), "NOT_EQUALS"),
+                    "AND");
+                return AstHelper.createBinaryExpr(guards,
+                    AstHelper.createMethodCallExpr(left, "equals", new ArrayList<>(Collections.singletonList(right))),
+                    "AND");
+            }
+        }
+    }
+}
@@ -28,5 +28,9 @@ public class AtcIfStmt extends AtcStatement {
     public boolean hasReturn() {
         return hasReturn;
     }
-}
 
+    @Override
+    public <R> R accept(AtcStatementVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+}
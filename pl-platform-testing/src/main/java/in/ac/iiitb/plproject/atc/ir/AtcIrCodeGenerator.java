@@ -2,22 +2,93 @@ package in.ac.iiitb.plproject.atc.ir;
 
 import in.ac.iiitb.plproject.ast.AstHelper;
 import in.ac.iiitb.plproject.ast.Expr;
-import in.ac.iiitb.plproject.ast.MethodCallExpr;
+import in.ac.iiitb.plproject.ast.TypeInference;
 import in.ac.iiitb.plproject.symex.TypeMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.HashMap;
-import java.util.List;
-import java.util.ArrayList;
 
+/**
+ * Renders ATC IR to Java source.
+ * The generator holds no per-render state, so one instance can be shared and
+ * used from many threads at once. Each thread reuses its own staging buffer.
+ *
+ * With coverage probes (withCoverageProbes()), the class gets a preallocated
+ * boolean[] PROBES_FIELD and every if, assume and assert sets its entries, one
+ * constant store per probe at the IDs CoverageGoals assigns (generateProbeMap
+ * lists them):
+ * - if: "taken" as the first statement of the then-block, "not taken" in an else
+ *   block (or after the block when it returns)
+ * - assume: one store after the assume
+ * - assert: each conjunct c becomes ((c) ? P[holds] = true : !(P[fails] = true)),
+ *   so conjuncts are evaluated once and in order; these probes only run when
+ *   assertions are enabled, like the condition itself
+ */
 public class AtcIrCodeGenerator {
 
-    private StringBuilder stringBuilder;
+    public static final String PROBES_FIELD = "ATC_PROBES";
+
     private static final String INDENT = "    ";
+    private static final int CHANNEL_BUFFER_SIZE = 8192;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    // Larger buffers are dropped after use instead of being pinned to the thread
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20;
+
+    private static final AtcIrCodeGenerator SHARED_INSTANCE = new AtcIrCodeGenerator();
+    private static final AtcIrCodeGenerator PROBING_INSTANCE = new AtcIrCodeGenerator(true);
+
+    // Per-thread staging buffer; null while the thread's buffer is in use (nested renders get a fresh one)
+    private static final ThreadLocal<StringBuilder> THREAD_BUFFER =
+        ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    /**
+     * Shared generator instance, safe for concurrent use.
+     */
+    public static AtcIrCodeGenerator getInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * Shared generator instance that emits coverage probes, safe for concurrent use.
+     */
+    public static AtcIrCodeGenerator withCoverageProbes() {
+        return PROBING_INSTANCE;
+    }
+
+    private final boolean probes;
 
     public AtcIrCodeGenerator() {
-        this.stringBuilder = new StringBuilder();
+        this(false);
+    }
+
+    public AtcIrCodeGenerator(boolean probes) {
+        this.probes = probes;
+    }
+
+    public boolean hasCoverageProbes() {
+        return probes;
+    }
+
+    /**
+     * Probe ID to source map of the class: a header line, then
+     * "id TAB method: construct -&gt; outcome" per probe, in PROBES_FIELD order, with
+     * conditions written as in the generated code.
+     */
+    public String generateProbeMap(AtcClass atc) {
+        CoverageGoals goals = CoverageGoals.of(atc);
+        StringBuilder sb = new StringBuilder();
+        sb.append("# ").append(atc.getClassName()).append(".").append(PROBES_FIELD).append(": ")
+            .append(goals.size()).append(" probes\n");
+        for (int goal = 0; goal < goals.size(); goal++) {
+            sb.append(goal).append('\t').append(goals.describe(goal)).append('\n');
+        }
+        return sb.toString();
     }
 
     public String generateJavaFile(AtcClass atc) {
@@ -28,500 +99,358 @@ public class AtcIrCodeGenerator {
         return generateJavaFileInternal(atc);
     }
 
-    private String generateJavaFileInternal(AtcClass atc) {
-        stringBuilder = new StringBuilder();
+    /**
+     * Render a single test method, as it would appear inside the generated class.
+     * Probe IDs, if any, are numbered within this method alone.
+     */
+    public String generateMethod(AtcTestMethod method) {
+        StringBuilder sb = acquireBuffer();
+        try {
+            CoverageGoals goals = null;
+            if (probes) {
+                goals = new CoverageGoals();
+                goals.register(method);
+            }
+            visit(sb, method, goals);
+            return sb.toString();
+        } finally {
+            releaseBuffer(sb);
+        }
+    }
 
-        stringBuilder.append("package ").append(atc.getPackageName()).append(";\n\n");
+    /**
+     * Render the class straight into the given sink, one method at a time,
+     * so only the method currently being emitted is held in memory.
+     */
+    public void generateJavaFile(AtcClass atc, Appendable out) throws IOException {
+        emit(atc, out);
+    }
 
-        for (String anImport : atc.getImports()) {
-            stringBuilder.append("import ").append(anImport).append(";\n");
-        }
-        stringBuilder.append("\n");
+    public void generateSymbolicJavaFile(AtcClass atc, Appendable out) throws IOException {
+        emit(atc, out);
+    }
 
-        if (atc.getRunWithAnnotationClass() != null && !atc.getRunWithAnnotationClass().isEmpty()) {
-            stringBuilder.append("@RunWith(").append(atc.getRunWithAnnotationClass()).append(")\n");
-        }
-        
-        stringBuilder.append("public class ").append(atc.getClassName()).append(" {\n");
+    /**
+     * Render the class as UTF-8 into a byte channel. Characters are encoded in
+     * chunks through a bounded buffer; the channel is flushed but not closed.
+     */
+    public void generateJavaFile(AtcClass atc, WritableByteChannel channel) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), CHANNEL_BUFFER_SIZE);
+        emit(atc, writer);
+        writer.flush();
+    }
+
+    public void generateSymbolicJavaFile(AtcClass atc, WritableByteChannel channel) throws IOException {
+        generateJavaFile(atc, channel);
+    }
 
-        for (AtcTestMethod method : atc.getTestMethods()) {
-            visit(method);
+    private String generateJavaFileInternal(AtcClass atc) {
+        StringBuilder sb = acquireBuffer();
+        try {
+            emit(atc, sb);
+            return sb.toString();
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        } finally {
+            releaseBuffer(sb);
         }
+    }
 
-        generateMainMethod(atc);
+    private void emit(AtcClass atc, Appendable out) throws IOException {
+        // Render directly into a StringBuilder sink; otherwise stage each method and flush it
+        boolean direct = out instanceof StringBuilder;
+        StringBuilder sb = direct ? (StringBuilder) out : acquireBuffer();
+        try {
+            sb.append("package ").append(atc.getPackageName()).append(";\n\n");
 
-        stringBuilder.append("}\n");
+            for (String anImport : atc.getImports()) {
+                sb.append("import ").append(anImport).append(";\n");
+            }
+            sb.append("\n");
 
-        return stringBuilder.toString();
-    }
+            if (atc.getRunWithAnnotationClass() != null && !atc.getRunWithAnnotationClass().isEmpty()) {
+                sb.append("@RunWith(").append(atc.getRunWithAnnotationClass()).append(")\n");
+            }
+            
+            sb.append("public class ").append(atc.getClassName()).append(" {\n");
+            CoverageGoals goals = null;
+            if (probes) {
+                goals = CoverageGoals.of(atc);
+                sb.append("\n").append(INDENT).append("public static final boolean[] ").append(PROBES_FIELD)
+                    .append(" = new boolean[").append(goals.size()).append("];\n");
+            }
+            flush(sb, out);
 
-    private void visit(AtcTestMethod method) {
-        stringBuilder.append("\n");
-        stringBuilder.append(INDENT).append("public void ").append(method.getMethodName()).append("() {\n");
+            for (AtcTestMethod method : atc.getTestMethods()) {
+                visit(sb, method, goals);
+                flush(sb, out);
+            }
 
-        Set<String> declaredVars = new HashSet<>();
-        
-        for (AtcStatement stmt : method.getStatements()) {
-            if (stmt instanceof AtcSymbolicVarDecl) {
-                visit((AtcSymbolicVarDecl) stmt);
-                declaredVars.add(((AtcSymbolicVarDecl) stmt).getVarName());
-            } else if (stmt instanceof AtcVarDecl) {
-                String varName = ((AtcVarDecl) stmt).getVarName();
-                if (declaredVars.contains(varName)) {
-                    visitAsAssignment((AtcVarDecl) stmt);
-                } else {
-                    visit((AtcVarDecl) stmt);
-                    declaredVars.add(varName);
-                }
-            } else if (stmt instanceof AtcAssignStmt) {
-                visit((AtcAssignStmt) stmt);
-            } else if (stmt instanceof AtcAssumeStmt) {
-                visit((AtcAssumeStmt) stmt);
-            } else if (stmt instanceof AtcMethodCallStmt) {
-                visit((AtcMethodCallStmt) stmt);
-            } else if (stmt instanceof AtcAssertStmt) {
-                visit((AtcAssertStmt) stmt);
-            } else if (stmt instanceof AtcIfStmt) {
-                visit((AtcIfStmt) stmt, declaredVars);
+            generateMainMethod(sb, atc);
+
+            sb.append("}\n");
+            flush(sb, out);
+        } finally {
+            if (!direct) {
+                releaseBuffer(sb);
             }
         }
-
-        stringBuilder.append(INDENT).append("}\n");
     }
-    
-    private void visit(AtcIfStmt stmt, Set<String> declaredVars) {
-        String condCode = AstHelper.exprToJavaCode(stmt.getCondition());
-        stringBuilder.append(INDENT).append(INDENT)
-                     .append("if (").append(condCode).append(") {\n");
-        
-        if (stmt.hasReturn()) {
-            stringBuilder.append(INDENT).append(INDENT).append(INDENT)
-                         .append("return;\n");
-        } else {
-            // Use 3 levels of indentation for statements inside if block
-            for (AtcStatement thenStmt : stmt.getThenStatements()) {
-                if (thenStmt instanceof AtcSymbolicVarDecl) {
-                    visitWithIndent((AtcSymbolicVarDecl) thenStmt, 3);
-                    declaredVars.add(((AtcSymbolicVarDecl) thenStmt).getVarName());
-                } else if (thenStmt instanceof AtcVarDecl) {
-                    String varName = ((AtcVarDecl) thenStmt).getVarName();
-                    if (declaredVars.contains(varName)) {
-                        visitAsAssignmentWithIndent((AtcVarDecl) thenStmt, 3);
-                    } else {
-                        visitWithIndent((AtcVarDecl) thenStmt, 3);
-                        declaredVars.add(varName);
-                    }
-                } else if (thenStmt instanceof AtcAssignStmt) {
-                    visitWithIndent((AtcAssignStmt) thenStmt, 3);
-                } else if (thenStmt instanceof AtcAssumeStmt) {
-                    visitWithIndent((AtcAssumeStmt) thenStmt, 3);
-                } else if (thenStmt instanceof AtcMethodCallStmt) {
-                    visitWithIndent((AtcMethodCallStmt) thenStmt, 3);
-                } else if (thenStmt instanceof AtcAssertStmt) {
-                    visitWithIndent((AtcAssertStmt) thenStmt, 3);
-                }
-            }
+
+    private void flush(StringBuilder sb, Appendable out) throws IOException {
+        if (out != sb) {
+            out.append(sb);
+            sb.setLength(0);
         }
-        
-        stringBuilder.append(INDENT).append(INDENT).append("}\n");
     }
-    
-    private void visitWithIndent(AtcMethodCallStmt stmt, int indentLevel) {
-        String callCode = AstHelper.exprToJavaCode(stmt.getCallExpr());
-        for (int i = 0; i < indentLevel; i++) {
-            stringBuilder.append(INDENT);
+
+    private static StringBuilder acquireBuffer() {
+        StringBuilder sb = THREAD_BUFFER.get();
+        if (sb == null) {
+            return new StringBuilder(INITIAL_BUFFER_SIZE);
         }
-        stringBuilder.append(callCode).append(";\n");
+        THREAD_BUFFER.set(null);
+        return sb;
     }
-    
-    private void visitWithIndent(AtcVarDecl stmt, int indentLevel) {
-        String initCode = AstHelper.exprToJavaCode(stmt.getInitExpr());
-        String typeName = stmt.getTypeName();
-        String varName = stmt.getVarName();
-        
-        if (typeName.endsWith("[]") && initCode.startsWith("new ")) {
-            String baseType = typeName.substring(0, typeName.length() - 2);
-            if (initCode.contains("(") && initCode.contains(")")) {
-                String args = initCode.substring(initCode.indexOf("(") + 1, initCode.indexOf(")"));
-                initCode = "new " + baseType + "[]{" + args + "}";
-            }
+
+    private static void releaseBuffer(StringBuilder sb) {
+        if (THREAD_BUFFER.get() != null) {
+            return; // Nested render: the thread's own buffer is already back
         }
-        
-        for (int i = 0; i < indentLevel; i++) {
-            stringBuilder.append(INDENT);
+        if (sb.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            sb = new StringBuilder(INITIAL_BUFFER_SIZE);
         }
-        stringBuilder.append(typeName).append(" ").append(varName)
-                     .append(" = ").append(initCode).append(";\n");
+        sb.setLength(0);
+        THREAD_BUFFER.set(sb);
     }
-    
-    private void visitAsAssignmentWithIndent(AtcVarDecl stmt, int indentLevel) {
-        String valueCode = AstHelper.exprToJavaCode(stmt.getInitExpr());
-        String varName = stmt.getVarName();
-        
-        for (int i = 0; i < indentLevel; i++) {
-            stringBuilder.append(INDENT);
+
+    private void visit(StringBuilder sb, AtcTestMethod method, CoverageGoals goals) {
+        sb.append("\n");
+        sb.append(INDENT).append("public void ").append(method.getMethodName()).append("() {\n");
+
+        StatementRenderer renderer = new StatementRenderer(sb, 2, goals);
+        for (AtcStatement stmt : method.getStatements()) {
+            stmt.accept(renderer);
         }
-        stringBuilder.append(varName).append(" = ").append(valueCode).append(";\n");
+
+        sb.append(INDENT).append("}\n");
     }
-    
-    private void visitWithIndent(AtcAssignStmt stmt, int indentLevel) {
-        String valueCode = AstHelper.exprToJavaCode(stmt.getValueExpr());
-        String varName = stmt.getVarName();
-        
-        for (int i = 0; i < indentLevel; i++) {
-            stringBuilder.append(INDENT);
+
+    /**
+     * Renders statements of one method body at the current indentation depth.
+     * Nested blocks (if bodies) are rendered by the same renderer one level deeper,
+     * sharing the set of variables already declared in the method.
+     */
+    private final class StatementRenderer implements AtcStatementVisitor<Void> {
+        private final StringBuilder sb;
+        private final Set<String> declaredVars = new HashSet<>();
+        // Types of the variables declared so far, as written in their declarations
+        private final TypeInference types = new TypeInference();
+        private final CoverageGoals goals; // null: no probes
+        private int depth;
+
+        StatementRenderer(StringBuilder sb, int depth, CoverageGoals goals) {
+            this.sb = sb;
+            this.depth = depth;
+            this.goals = goals;
         }
-        stringBuilder.append(varName).append(" = ").append(valueCode).append(";\n");
-    }
-    
-    private void visitWithIndent(AtcAssumeStmt stmt, int indentLevel) {
-        String condCode = AstHelper.exprToJavaCode(stmt.getCondition());
-        if (condCode.startsWith("(") && condCode.endsWith(")") && condCode.length() > 2) {
-            String inner = condCode.substring(1, condCode.length() - 1);
-            if (inner.contains("null") && !inner.contains("(")) {
-                condCode = inner;
+
+        private void probe(int id) {
+            if (id >= 0) {
+                indent().append(PROBES_FIELD).append("[").append(id).append("] = true;\n");
             }
         }
-        for (int i = 0; i < indentLevel; i++) {
-            stringBuilder.append(INDENT);
-        }
-        stringBuilder.append("assume(").append(condCode).append(");\n");
-    }
-    
-    private void visitWithIndent(AtcAssertStmt stmt, int indentLevel) {
-        // This is complex, so just use the regular visit and adjust indentation
-        // For now, assert statements shouldn't appear in if blocks, but handle it anyway
-        Expr condition = stmt.getCondition();
-        Map<String, MethodCallExpr> methodCallMap = new HashMap<>();
-        Expr processedCondition = extractMethodCallsFromAssertion(condition, methodCallMap);
-        
-        for (Map.Entry<String, MethodCallExpr> entry : methodCallMap.entrySet()) {
-            String varName = entry.getKey();
-            MethodCallExpr methodCall = entry.getValue();
-            String methodCallCode = AstHelper.exprToJavaCode(methodCall);
-            String returnType = inferReturnType(methodCall);
-            
-            for (int i = 0; i < indentLevel; i++) {
-                stringBuilder.append(INDENT);
+
+        private StringBuilder indent() {
+            for (int i = 0; i < depth; i++) {
+                sb.append(INDENT);
             }
-            stringBuilder.append(returnType).append(" ").append(varName)
-                         .append(" = ").append(methodCallCode).append(";\n");
+            return sb;
         }
-        
-        String condCode = AstHelper.exprToJavaCode(processedCondition);
-        // Strip outer parentheses only for null checks
-        if (condCode.startsWith("(") && condCode.endsWith(")") && condCode.length() > 2) {
-            String inner = condCode.substring(1, condCode.length() - 1);
-            if (inner.contains("null") && !inner.contains("(")) {
-                condCode = inner;
+
+        @Override
+        public Void visit(AtcSymbolicVarDecl stmt) {
+            String typeName = stmt.getTypeName();
+            String varName = stmt.getVarName();
+            String declaredType = inputType(typeName);
+            indent().append(declaredType).append(" ").append(varName).append(" = ");
+            if (TypeMapper.isCollectionType(typeName) || !isUncastInputType(declaredType)) {
+                sb.append("(").append(declaredType).append(") ");
             }
+            sb.append("Symbolic.input(\"").append(varName).append("\");\n");
+            declaredVars.add(varName);
+            types.declareVariable(varName, declaredType);
+            return null;
         }
-        for (int i = 0; i < indentLevel; i++) {
-            stringBuilder.append(INDENT);
-        }
-        stringBuilder.append("assert(").append(condCode).append(");\n");
-    }
-    
-    private void visitWithIndent(AtcSymbolicVarDecl stmt, int indentLevel) {
-        for (int i = 0; i < indentLevel; i++) {
-            stringBuilder.append(INDENT);
-        }
-        
-        String typeName = stmt.getTypeName();
-        String varName = stmt.getVarName();
-        
-        if (TypeMapper.isCollectionType(typeName)) {
-            String genericType = TypeMapper.getGenericType(typeName);
-            stringBuilder.append(genericType).append(" ").append(varName)
-                         .append(" = (").append(genericType).append(") Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("int") || typeName.equals("Integer")) {
-            stringBuilder.append("int ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("double") || typeName.equals("Double")) {
-            stringBuilder.append("double ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("String")) {
-            stringBuilder.append("String ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("boolean") || typeName.equals("Boolean")) {
-            stringBuilder.append("boolean ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else {
-            String genericType = TypeMapper.getGenericType(typeName);
-            stringBuilder.append(genericType).append(" ").append(varName)
-                         .append(" = (").append(genericType).append(") Symbolic.input(\"").append(varName).append("\");\n");
-        }
-    }
 
-    private void visit(AtcSymbolicVarDecl stmt) {
-        String typeName = stmt.getTypeName();
-        String varName = stmt.getVarName();
-        
-        if (TypeMapper.isCollectionType(typeName)) {
-            String genericType = TypeMapper.getGenericType(typeName);
-            stringBuilder.append(INDENT).append(INDENT)
-                         .append(genericType).append(" ").append(varName)
-                         .append(" = (").append(genericType).append(") Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("int") || typeName.equals("Integer")) {
-            stringBuilder.append(INDENT).append(INDENT)
-                         .append("int ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("double") || typeName.equals("Double")) {
-            stringBuilder.append(INDENT).append(INDENT)
-                         .append("double ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("String")) {
-            stringBuilder.append(INDENT).append(INDENT)
-                         .append("String ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else if (typeName.equalsIgnoreCase("boolean") || typeName.equals("Boolean")) {
-            stringBuilder.append(INDENT).append(INDENT)
-                         .append("boolean ").append(varName)
-                         .append(" = Symbolic.input(\"").append(varName).append("\");\n");
-        } else {
-            String genericType = TypeMapper.getGenericType(typeName);
-            stringBuilder.append(INDENT).append(INDENT)
-                         .append(genericType).append(" ").append(varName)
-                         .append(" = (").append(genericType).append(") Symbolic.input(\"").append(varName).append("\");\n");
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            String varName = stmt.getVarName();
+            
+            // A second declaration of the same name is emitted as a plain assignment
+            if (declaredVars.contains(varName)) {
+                String valueCode = AstHelper.exprToJavaCode(stmt.getInitExpr(), types);
+                indent().append(varName).append(" = ").append(valueCode).append(";\n");
+                return null;
+            }
+            
+            String initCode = AstHelper.exprToJavaCode(stmt.getInitExpr(), types);
+            String typeName = stmt.getTypeName();
+            
+            if (typeName.endsWith("[]") && initCode.startsWith("new ") && 
+                initCode.contains("(") && initCode.contains(")") && !initCode.contains("{")) {
+                String baseType = typeName.substring(0, typeName.length() - 2);
+                String args = initCode.substring(initCode.indexOf("(") + 1, initCode.indexOf(")"));
+                initCode = "new " + baseType + "[]{" + args + "}";
+            }
+            
+            indent().append(typeName).append(" ").append(varName)
+                    .append(" = ").append(initCode).append(";\n");
+            declaredVars.add(varName);
+            types.declareVariable(varName, typeName);
+            return null;
         }
-    }
 
-    private void visit(AtcVarDecl stmt) {
-        String initCode = AstHelper.exprToJavaCode(stmt.getInitExpr());
-        String typeName = stmt.getTypeName();
-        String varName = stmt.getVarName();
-        
-        if (typeName.endsWith("[]") && initCode.startsWith("new ") && 
-            initCode.contains("(") && initCode.contains(")") && !initCode.contains("{")) {
-            String baseType = typeName.substring(0, typeName.length() - 2);
-            String args = initCode.substring(initCode.indexOf("(") + 1, initCode.indexOf(")"));
-            initCode = "new " + baseType + "[]{" + args + "}";
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            String valueCode = AstHelper.exprToJavaCode(stmt.getValueExpr(), types);
+            indent().append(stmt.getVarName()).append(" = ").append(valueCode).append(";\n");
+            return null;
         }
-        
-        stringBuilder.append(INDENT).append(INDENT)
-                     .append(typeName).append(" ").append(varName)
-                     .append(" = ").append(initCode).append(";\n");
-    }
-    
-    private void visitAsAssignment(AtcVarDecl stmt) {
-        String valueCode = AstHelper.exprToJavaCode(stmt.getInitExpr());
-        String varName = stmt.getVarName();
-        
-        stringBuilder.append(INDENT).append(INDENT)
-                     .append(varName).append(" = ").append(valueCode).append(";\n");
-    }
-    
-    private void visit(AtcAssignStmt stmt) {
-        String valueCode = AstHelper.exprToJavaCode(stmt.getValueExpr());
-        String varName = stmt.getVarName();
-        
-        stringBuilder.append(INDENT).append(INDENT)
-                     .append(varName).append(" = ").append(valueCode).append(";\n");
-    }
 
-    private void visit(AtcAssumeStmt stmt) {
-        String condCode = AstHelper.exprToJavaCode(stmt.getCondition());
-        if (condCode.startsWith("(") && condCode.endsWith(")") && condCode.length() > 2) {
-            String inner = condCode.substring(1, condCode.length() - 1);
-            if (inner.contains("null") && !inner.contains("(")) {
-                condCode = inner;
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            String condCode = stripNullCheckParens(AstHelper.exprToJavaCode(stmt.getCondition(), types));
+            indent().append("assume(").append(condCode).append(");\n");
+            if (goals != null) {
+                probe(goals.preconditionGoal(stmt));
             }
+            return null;
         }
-        stringBuilder.append(INDENT).append(INDENT)
-                     .append("assume(").append(condCode).append(");\n");
-    }
 
-    private void visit(AtcMethodCallStmt stmt) {
-        String callCode = AstHelper.exprToJavaCode(stmt.getCallExpr());
-        if (callCode.contains("System.out.println") && callCode.contains("Test Input:")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("System\\.out\\.println\\(\\(([^)]+)\\)\\)");
-            java.util.regex.Matcher matcher = pattern.matcher(callCode);
-            if (matcher.find()) {
-                String inner = matcher.group(1);
-                java.util.regex.Pattern varPattern = java.util.regex.Pattern.compile("\"Test Input: [^=]+= \" \\+ ([a-zA-Z_][a-zA-Z0-9_]*)");
-                java.util.regex.Matcher varMatcher = varPattern.matcher(inner);
-                if (varMatcher.find()) {
-                    String varName = varMatcher.group(1);
-                    if (varName.matches("(data|result|map|set|list|collection|queue|deque)")) {
-                        callCode = "System.out.println(" + inner + ")";
+        @Override
+        public Void visit(AtcMethodCallStmt stmt) {
+            String callCode = AstHelper.exprToJavaCode(stmt.getCallExpr(), types);
+            if (callCode.contains("System.out.println") && callCode.contains("Test Input:")) {
+                java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("System\\.out\\.println\\(\\(([^)]+)\\)\\)");
+                java.util.regex.Matcher matcher = pattern.matcher(callCode);
+                if (matcher.find()) {
+                    String inner = matcher.group(1);
+                    java.util.regex.Pattern varPattern = java.util.regex.Pattern.compile("\"Test Input: [^=]+= \" \\+ ([a-zA-Z_][a-zA-Z0-9_]*)");
+                    java.util.regex.Matcher varMatcher = varPattern.matcher(inner);
+                    if (varMatcher.find()) {
+                        String varName = varMatcher.group(1);
+                        if (varName.matches("(data|result|map|set|list|collection|queue|deque)")) {
+                            callCode = "System.out.println(" + inner + ")";
+                        }
                     }
                 }
             }
+            indent().append(callCode).append(";\n");
+            return null;
         }
-        stringBuilder.append(INDENT).append(INDENT)
-                     .append(callCode).append(";\n");
-    }
 
-    private void visit(AtcAssertStmt stmt) {
-        Expr condition = stmt.getCondition();
-        
-        Map<String, MethodCallExpr> methodCallMap = new HashMap<>();
-        Expr processedCondition = extractMethodCallsFromAssertion(condition, methodCallMap);
-        
-        if (methodCallMap.isEmpty()) {
-            String originalCode = AstHelper.exprToJavaCode(condition);
-            if (originalCode.contains("Helper.update(") && countOccurrences(originalCode, "Helper.update(") > 1) {
-                extractMethodCallsFromString(originalCode, methodCallMap);
-                if (!methodCallMap.isEmpty()) {
-                    String processedCode = originalCode;
-                    for (Map.Entry<String, MethodCallExpr> entry : methodCallMap.entrySet()) {
-                        String varName = entry.getKey();
-                        String methodCallCode = AstHelper.exprToJavaCode(entry.getValue());
-                        processedCode = processedCode.replace(methodCallCode, varName);
-                    }
-                    
-                    for (Map.Entry<String, MethodCallExpr> entry : methodCallMap.entrySet()) {
-                        String varName = entry.getKey();
-                        MethodCallExpr methodCall = entry.getValue();
-                        String methodCallCode = AstHelper.exprToJavaCode(methodCall);
-                        String returnType = inferReturnType(methodCall);
-                        
-                        stringBuilder.append(INDENT).append(INDENT)
-                                     .append(returnType).append(" ").append(varName)
-                                     .append(" = ").append(methodCallCode).append(";\n");
-                    }
-                    
-                    stringBuilder.append(INDENT).append(INDENT)
-                                 .append("assert(").append(processedCode).append(");\n");
-                    return;
+        @Override
+        public Void visit(AtcAssertStmt stmt) {
+            if (goals != null && goals.postconditionGoal(stmt, 0, true) >= 0) {
+                List<Expr> conjuncts = CoverageGoals.conjuncts(stmt.getCondition());
+                indent().append("assert(");
+                for (int i = 0; i < conjuncts.size(); i++) {
+                    String conjunct = AstHelper.exprToJavaCode(conjuncts.get(i), types);
+                    int holds = goals.postconditionGoal(stmt, i, true);
+                    int fails = goals.postconditionGoal(stmt, i, false);
+                    sb.append(i > 0 ? " && " : "").append("((").append(conjunct).append(") ? ")
+                        .append(PROBES_FIELD).append("[").append(holds).append("] = true : !(")
+                        .append(PROBES_FIELD).append("[").append(fails).append("] = true))");
                 }
+                sb.append(");\n");
+                return null;
             }
+            String condCode = stripNullCheckParens(AstHelper.exprToJavaCode(stmt.getCondition(), types));
+            indent().append("assert(").append(condCode).append(");\n");
+            return null;
         }
-        
-        for (Map.Entry<String, MethodCallExpr> entry : methodCallMap.entrySet()) {
-            String varName = entry.getKey();
-            MethodCallExpr methodCall = entry.getValue();
-            String methodCallCode = AstHelper.exprToJavaCode(methodCall);
-            String returnType = inferReturnType(methodCall);
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            String condCode = AstHelper.exprToJavaCode(stmt.getCondition(), types);
+            indent().append("if (").append(condCode).append(") {\n");
+            int taken = goals != null ? goals.branchGoal(stmt, true) : -1;
+            int notTaken = goals != null ? goals.branchGoal(stmt, false) : -1;
             
-            stringBuilder.append(INDENT).append(INDENT)
-                         .append(returnType).append(" ").append(varName)
-                         .append(" = ").append(methodCallCode).append(";\n");
-        }
-        
-        String condCode = AstHelper.exprToJavaCode(processedCondition);
-        if (condCode.startsWith("(") && condCode.endsWith(")") && condCode.length() > 2) {
-            String inner = condCode.substring(1, condCode.length() - 1);
-            if (inner.contains("null") && !inner.contains("(")) {
-                condCode = inner;
-            }
-        }
-        stringBuilder.append(INDENT).append(INDENT)
-                     .append("assert(").append(condCode).append(");\n");
-    }
-    
-    private int countOccurrences(String str, String substr) {
-        int count = 0;
-        int index = 0;
-        while ((index = str.indexOf(substr, index)) != -1) {
-            count++;
-            index += substr.length();
-        }
-        return count;
-    }
-    
-    private void extractMethodCallsFromString(String code, Map<String, MethodCallExpr> methodCallMap) {
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("Helper\\.update\\([^)]+\\)");
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        
-        String firstMatch = null;
-        while (matcher.find()) {
-            String match = matcher.group();
-            if (firstMatch == null) {
-                firstMatch = match;
-                java.util.regex.Pattern argPattern = java.util.regex.Pattern.compile("Helper\\.update\\(([^)]+)\\)");
-                java.util.regex.Matcher argMatcher = argPattern.matcher(match);
-                if (argMatcher.find()) {
-                    String argsStr = argMatcher.group(1);
-                    String[] args = argsStr.split(",");
-                    List<Expr> argExprs = new ArrayList<>();
-                    for (String arg : args) {
-                        argExprs.add(AstHelper.createNameExpr(arg.trim()));
-                    }
-                    MethodCallExpr updateCall = AstHelper.createMethodCallExpr(
-                        AstHelper.createNameExpr("Helper"), "update", argExprs);
-                    methodCallMap.put("expectedResult", updateCall);
-                    break;
+            depth++;
+            probe(taken);
+            if (stmt.hasReturn()) {
+                indent().append("return;\n");
+            } else {
+                for (AtcStatement thenStmt : stmt.getThenStatements()) {
+                    thenStmt.accept(this);
                 }
             }
-        }
-    }
-    
-    private Expr extractMethodCallsFromAssertion(Expr expr, Map<String, MethodCallExpr> methodCallMap) {
-        if (expr == null) {
-            return expr;
-        }
-        
-        if (expr instanceof MethodCallExpr) {
-            MethodCallExpr methodCall = (MethodCallExpr) expr;
-            String varName = generateMethodCallVarName(methodCall, methodCallMap.size());
-            methodCallMap.put(varName, methodCall);
+            depth--;
             
-            return AstHelper.createNameExpr(varName);
-        }
-        
-        try {
-            Class<?> binaryExprClass = Class.forName("in.ac.iiitb.plproject.ast.BinaryExpr");
-            if (binaryExprClass.isInstance(expr)) {
-                java.lang.reflect.Field leftField = binaryExprClass.getDeclaredField("left");
-                java.lang.reflect.Field rightField = binaryExprClass.getDeclaredField("right");
-                java.lang.reflect.Field opField = binaryExprClass.getDeclaredField("op");
-                leftField.setAccessible(true);
-                rightField.setAccessible(true);
-                opField.setAccessible(true);
-                
-                Expr left = (Expr) leftField.get(expr);
-                Expr right = (Expr) rightField.get(expr);
-                Object op = opField.get(expr);
-                
-                Expr processedLeft = extractMethodCallsFromAssertion(left, methodCallMap);
-                Expr processedRight = extractMethodCallsFromAssertion(right, methodCallMap);
-                
-                String opName = op.getClass().getMethod("name").invoke(op).toString();
-                
-                return AstHelper.createBinaryExpr(processedLeft, processedRight, opName);
+            if (notTaken >= 0 && !stmt.hasReturn()) {
+                indent().append("} else {\n");
+                depth++;
+                probe(notTaken);
+                depth--;
             }
-        } catch (Exception e) {
-        }
-        
-        return expr;
-    }
-    
-    private String generateMethodCallVarName(MethodCallExpr methodCall, int index) {
-        String methodName = methodCall.name.identifier;
-        if (methodName.equals("update")) {
-            return "expectedResult";
-        } else {
-            return "temp" + index;
+            indent().append("}\n");
+            if (stmt.hasReturn()) {
+                probe(notTaken);
+            }
+            return null;
         }
     }
-    
-    private String inferReturnType(MethodCallExpr methodCall) {
-        String methodName = methodCall.name.identifier;
-        if (methodName.equals("update")) {
-            return "Map<?,?>";
+
+    /**
+     * Declared type of a symbolic input in the generated code.
+     */
+    static String inputType(String typeName) {
+        if (TypeMapper.isCollectionType(typeName)) {
+            return TypeMapper.getGenericType(typeName);
+        } else if (typeName.equalsIgnoreCase("int") || typeName.equals("Integer")) {
+            return "int";
+        } else if (typeName.equalsIgnoreCase("double") || typeName.equals("Double")) {
+            return "double";
+        } else if (typeName.equalsIgnoreCase("String")) {
+            return "String";
+        } else if (typeName.equalsIgnoreCase("boolean") || typeName.equals("Boolean")) {
+            return "boolean";
         }
-        return "Object";
+        return TypeMapper.getGenericType(typeName);
     }
 
+    /**
+     * Whether Symbolic.input(..) is assigned to an input of this type without a cast.
+     */
+    private static boolean isUncastInputType(String declaredType) {
+        return declaredType.equals("int") || declaredType.equals("double")
+            || declaredType.equals("String") || declaredType.equals("boolean");
+    }
 
-    private void generateMainMethod(AtcClass atc) {
-        stringBuilder.append("\n");
-        stringBuilder.append(INDENT).append("public static void main(String[] args) {\n");
+    /**
+     * Strip outer parentheses only for simple null checks, e.g. "(x != null)" -> "x != null".
+     */
+    static String stripNullCheckParens(String condCode) {
+        if (condCode.startsWith("(") && condCode.endsWith(")") && condCode.length() > 2) {
+            String inner = condCode.substring(1, condCode.length() - 1);
+            if (inner.contains("null") && !inner.contains("(")) {
+                return inner;
+            }
+        }
+        return condCode;
+    }
+    
+    private void generateMainMethod(StringBuilder sb, AtcClass atc) {
+        sb.append("\n");
+        sb.append(INDENT).append("public static void main(String[] args) {\n");
 
+        StatementRenderer renderer = new StatementRenderer(sb, 2, null);
         for (AtcStatement statement : atc.getMainMethodStatements()) {
-            if (statement instanceof AtcMethodCallStmt) {
-                String callCode = AstHelper.exprToJavaCode(((AtcMethodCallStmt) statement).getCallExpr());
-                stringBuilder.append(INDENT).append(INDENT)
-                             .append(callCode).append(";\n");
-            } else if (statement instanceof AtcVarDecl) {
-                String initCode = AstHelper.exprToJavaCode(((AtcVarDecl) statement).getInitExpr());
-                stringBuilder.append(INDENT).append(INDENT)
-                             .append(((AtcVarDecl) statement).getTypeName()).append(" ")
-                             .append(((AtcVarDecl) statement).getVarName()).append(" = ")
-                             .append(initCode).append(";\n");
-            }
+            statement.accept(renderer);
         }
-        stringBuilder.append(INDENT).append("}\n");
+        sb.append(INDENT).append("}\n");
     }
 }
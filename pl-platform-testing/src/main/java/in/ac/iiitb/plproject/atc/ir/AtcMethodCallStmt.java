@@ -15,4 +15,9 @@ public class AtcMethodCallStmt extends AtcStatement {
     public MethodCallExpr getCallExpr() {
         return callExpr;
     }
+
+    @Override
+    public <R> R accept(AtcStatementVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
 }
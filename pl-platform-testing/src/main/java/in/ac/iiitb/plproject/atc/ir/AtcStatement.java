@@ -3,4 +3,10 @@ package in.ac.iiitb.plproject.atc.ir;
 /**
  * Abstract base class for all statements in a test method's body.
  */
-public abstract class AtcStatement { }
+public abstract class AtcStatement {
+
+    /**
+     * Double-dispatch entry point: calls the visitor method for this statement type.
+     */
+    public abstract <R> R accept(AtcStatementVisitor<R> visitor);
+}
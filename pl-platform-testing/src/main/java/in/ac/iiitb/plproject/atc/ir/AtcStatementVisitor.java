@@ -0,0 +1,24 @@
+package in.ac.iiitb.plproject.atc.ir;
+
+/**
+ * Visitor over the AtcStatement hierarchy.
+ * Each statement calls back the matching visit method from accept(), so passes
+ * over the IR dispatch once per statement instead of walking an instanceof chain.
+ *
+ * @param <R> result type of the pass (e.g. the transformed statement, or Void for renderers)
+ */
+public interface AtcStatementVisitor<R> {
+    R visit(AtcSymbolicVarDecl stmt);
+
+    R visit(AtcVarDecl stmt);
+
+    R visit(AtcAssignStmt stmt);
+
+    R visit(AtcAssumeStmt stmt);
+
+    R visit(AtcAssertStmt stmt);
+
+    R visit(AtcMethodCallStmt stmt);
+
+    R visit(AtcIfStmt stmt);
+}
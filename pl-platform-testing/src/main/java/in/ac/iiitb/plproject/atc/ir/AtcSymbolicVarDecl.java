@@ -19,4 +19,9 @@ public class AtcSymbolicVarDecl extends AtcStatement {
     public String getVarName() {
         return varName;
     }
+
+    @Override
+    public <R> R accept(AtcStatementVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
 }
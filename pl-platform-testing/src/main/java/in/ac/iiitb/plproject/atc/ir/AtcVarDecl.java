@@ -28,4 +28,9 @@ public class AtcVarDecl extends AtcStatement {
     public Expr getInitExpr() {
         return initExpr;
     }
+
+    @Override
+    public <R> R accept(AtcStatementVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
 }
@@ -0,0 +1,164 @@
+package in.ac.iiitb.plproject.atc.ir;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.ast.TypeInference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Static numbering of the coverage goals of an ATC class, in statement order:
+ * - each if: taken, not taken (2 goals)
+ * - each assume (precondition): reached (1 goal)
+ * - each assert (postcondition): per conjunct, holds and fails (2 goals each)
+ * Goal IDs are dense from 0, so a set of goals fits a bitset of size().
+ */
+public class CoverageGoals {
+
+    private final List<String> descriptions = new ArrayList<>();
+    // First goal of each statement that has goals
+    private final Map<AtcStatement, Integer> bases = new IdentityHashMap<>();
+
+    public static CoverageGoals of(AtcClass atcClass) {
+        CoverageGoals goals = new CoverageGoals();
+        for (AtcTestMethod method : atcClass.getTestMethods()) {
+            goals.register(method);
+        }
+        return goals;
+    }
+
+    /**
+     * Number the goals of one more method; statements already numbered keep their IDs.
+     */
+    public void register(AtcTestMethod method) {
+        register(method.getMethodName(), method.getStatements());
+    }
+
+    public int size() {
+        return descriptions.size();
+    }
+
+    /**
+     * "method: construct -&gt; outcome" for a goal ID, with conditions written as in
+     * the generated code.
+     */
+    public String describe(int goal) {
+        return descriptions.get(goal);
+    }
+
+    /**
+     * Top-level conjuncts of a condition, in the order their goals are numbered.
+     */
+    public static List<Expr> conjuncts(Expr condition) {
+        return AstHelper.splitChain(condition, "AND");
+    }
+
+    /**
+     * Goal of an if outcome, or -1 if the statement was not numbered.
+     */
+    public int branchGoal(AtcIfStmt stmt, boolean taken) {
+        Integer base = bases.get(stmt);
+        return base == null ? -1 : base + (taken ? 0 : 1);
+    }
+
+    /**
+     * Goal of reaching past an assume, or -1 if not numbered.
+     */
+    public int preconditionGoal(AtcAssumeStmt stmt) {
+        Integer base = bases.get(stmt);
+        return base == null ? -1 : base;
+    }
+
+    /**
+     * Goal of a conjunct of an assert holding or failing, or -1 if not numbered.
+     */
+    public int postconditionGoal(AtcAssertStmt stmt, int conjunct, boolean holds) {
+        Integer base = bases.get(stmt);
+        return base == null ? -1 : base + 2 * conjunct + (holds ? 0 : 1);
+    }
+
+    private void register(String methodName, List<AtcStatement> statements) {
+        Numbering numbering = new Numbering(methodName);
+        for (AtcStatement stmt : statements) {
+            stmt.accept(numbering);
+        }
+    }
+
+    /**
+     * Numbers the goals of one method in statement order, typing conditions from the
+     * declarations seen so far so descriptions read as in the generated code.
+     */
+    private final class Numbering implements AtcStatementVisitor<Void> {
+        private final String methodName;
+        private final Set<String> declaredVars = new HashSet<>();
+        private final TypeInference types = new TypeInference();
+
+        Numbering(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public Void visit(AtcSymbolicVarDecl stmt) {
+            declaredVars.add(stmt.getVarName());
+            types.declareVariable(stmt.getVarName(), AtcIrCodeGenerator.inputType(stmt.getTypeName()));
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            // A second declaration of the same name is rendered as an assignment
+            if (declaredVars.add(stmt.getVarName())) {
+                types.declareVariable(stmt.getVarName(), stmt.getTypeName());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcMethodCallStmt stmt) {
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            if (bases.putIfAbsent(stmt, size()) == null) {
+                String code = AstHelper.exprToJavaCode(stmt.getCondition(), types);
+                descriptions.add(methodName + ": if (" + code + ") -> taken");
+                descriptions.add(methodName + ": if (" + code + ") -> not taken");
+            }
+            for (AtcStatement thenStmt : stmt.getThenStatements()) {
+                thenStmt.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            if (bases.putIfAbsent(stmt, size()) == null) {
+                String code = AtcIrCodeGenerator.stripNullCheckParens(AstHelper.exprToJavaCode(stmt.getCondition(), types));
+                descriptions.add(methodName + ": assume " + code + " -> reached");
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssertStmt stmt) {
+            if (bases.putIfAbsent(stmt, size()) == null) {
+                for (Expr conjunct : conjuncts(stmt.getCondition())) {
+                    String code = AstHelper.exprToJavaCode(conjunct, types);
+                    descriptions.add(methodName + ": assert " + code + " -> holds");
+                    descriptions.add(methodName + ": assert " + code + " -> fails");
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Constant folding of assumptions: literal true conjuncts are dropped from
+ * assume conditions, and assume(true) is removed altogether.
+ */
+public class AssumeFoldingPass implements AtcPass {
+
+    @Override
+    public String getName() {
+        return "fold-assumes";
+    }
+
+    @Override
+    public List<AtcStatement> run(List<AtcStatement> statements, AtcPassStats stats) {
+        return new Folder(stats).rewrite(statements);
+    }
+
+    private static final class Folder extends StatementRewriter {
+        Folder(AtcPassStats stats) {
+            super(stats);
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            if (stmt.getCondition() == null) {
+                keep(stmt);
+                return null;
+            }
+            List<Expr> conjuncts = AstHelper.splitChain(stmt.getCondition(), "AND");
+            List<Expr> kept = new ArrayList<>(conjuncts.size());
+            for (Expr conjunct : conjuncts) {
+                if (!AstHelper.isBooleanLiteral(conjunct, true)) {
+                    kept.add(conjunct);
+                }
+            }
+            if (kept.size() == conjuncts.size()) {
+                keep(stmt);
+            } else if (kept.isEmpty()) {
+                remove();
+            } else {
+                replace(new AtcAssumeStmt(AstHelper.combineExpressionsWithAnd(kept)));
+            }
+            return null;
+        }
+    }
+}
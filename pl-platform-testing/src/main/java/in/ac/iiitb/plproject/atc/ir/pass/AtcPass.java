@@ -0,0 +1,24 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import java.util.List;
+
+/**
+ * One optimization over the statements of a test method, run by AtcPassManager
+ * before the IR is handed to the symbolic transformer. Passes must not modify
+ * their input: they return a new list (or the same list when nothing changed).
+ */
+public interface AtcPass {
+
+    /**
+     * Name used in statistics and configuration keys (atc.pass.&lt;name&gt;).
+     */
+    String getName();
+
+    /**
+     * @param statements the method body
+     * @param stats      counters of this pass; call recordChange once per rewrite or removal
+     * @return the optimized body
+     */
+    List<AtcStatement> run(List<AtcStatement> statements, AtcPassStats stats);
+}
@@ -0,0 +1,163 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.atc.ir.AtcClass;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcTestMethod;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Runs a pipeline of AtcPass optimizations over every test method of an AtcClass,
+ * in registration order, collecting per-pass statistics.
+ *
+ * Passes can be switched off individually. From configuration (e.g. system
+ * properties or a .properties file), in the same key = value style as .jpf files:
+ *   atc.passes = false                  disables the whole pipeline
+ *   atc.pass.&lt;name&gt; = false             disables one pass, e.g. atc.pass.dead-statements
+ */
+public class AtcPassManager {
+
+    public static final String ENABLED_KEY = "atc.passes";
+    public static final String PASS_KEY_PREFIX = "atc.pass.";
+
+    private final Map<String, AtcPass> passes = new LinkedHashMap<>();
+    private final Map<String, AtcPassStats> stats = new LinkedHashMap<>();
+    private final Set<String> disabled = new HashSet<>();
+    private boolean enabled = true;
+
+    /**
+     * The standard pipeline: fold constant assumes, merge null checks, drop unused
+     * _old snapshots, then remove dead statements.
+     */
+    public static AtcPassManager standard() {
+        AtcPassManager manager = new AtcPassManager();
+        manager.add(new AssumeFoldingPass());
+        manager.add(new NullCheckMergePass());
+        manager.add(new UnusedSnapshotPass());
+        manager.add(new DeadStatementPass());
+        return manager;
+    }
+
+    /**
+     * The standard pipeline with passes toggled by the given configuration.
+     */
+    public static AtcPassManager fromProperties(Properties config) {
+        AtcPassManager manager = standard();
+        manager.configure(config);
+        return manager;
+    }
+
+    public void configure(Properties config) {
+        String all = config.getProperty(ENABLED_KEY);
+        if (all != null) {
+            enabled = Boolean.parseBoolean(all.trim());
+        }
+        for (String name : passes.keySet()) {
+            String value = config.getProperty(PASS_KEY_PREFIX + name);
+            if (value != null) {
+                setEnabled(name, Boolean.parseBoolean(value.trim()));
+            }
+        }
+    }
+
+    public void add(AtcPass pass) {
+        passes.put(pass.getName(), pass);
+        stats.put(pass.getName(), new AtcPassStats(pass.getName()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled(String passName) {
+        return enabled && passes.containsKey(passName) && !disabled.contains(passName);
+    }
+
+    public void setEnabled(String passName, boolean passEnabled) {
+        if (!passes.containsKey(passName)) {
+            throw new IllegalArgumentException("Unknown pass: " + passName);
+        }
+        if (passEnabled) {
+            disabled.remove(passName);
+        } else {
+            disabled.add(passName);
+        }
+    }
+
+    public List<String> getPassNames() {
+        return new ArrayList<>(passes.keySet());
+    }
+
+    /**
+     * Optimize every test method. The main method only calls the test methods and is kept as is.
+     * Statistics start from zero, so afterwards they describe this class only.
+     */
+    public AtcClass run(AtcClass atcClass) {
+        resetStats();
+        if (!enabled) {
+            return atcClass;
+        }
+        List<AtcTestMethod> methods = new ArrayList<>();
+        for (AtcTestMethod method : atcClass.getTestMethods()) {
+            methods.add(run(method));
+        }
+        return new AtcClass(atcClass.getPackageName(), atcClass.getClassName(), atcClass.getImports(),
+            methods, atcClass.getMainMethodStatements(), atcClass.getRunWithAnnotationClass());
+    }
+
+    public AtcTestMethod run(AtcTestMethod method) {
+        List<AtcStatement> statements = method.getStatements();
+        List<AtcStatement> original = statements;
+        for (AtcPass pass : passes.values()) {
+            if (!isEnabled(pass.getName())) {
+                continue;
+            }
+            AtcPassStats passStats = stats.get(pass.getName());
+            int before = StatementCount.count(statements);
+            long start = System.nanoTime();
+            statements = pass.run(statements, passStats);
+            passStats.recordRun(before, StatementCount.count(statements), System.nanoTime() - start);
+        }
+        if (statements == original) {
+            return method;
+        }
+        return new AtcTestMethod(method.getMethodName(), statements, method.isStatic(), method.isMain());
+    }
+
+    /**
+     * Statistics per pass, in pipeline order: the methods of the last run(AtcClass)
+     * plus any run(AtcTestMethod) since.
+     */
+    public List<AtcPassStats> getStats() {
+        return Collections.unmodifiableList(new ArrayList<>(stats.values()));
+    }
+
+    public void resetStats() {
+        for (AtcPassStats passStats : stats.values()) {
+            passStats.reset();
+        }
+    }
+
+    /**
+     * One line per enabled pass.
+     */
+    public String formatStats() {
+        StringBuilder sb = new StringBuilder();
+        for (AtcPassStats passStats : stats.values()) {
+            if (isEnabled(passStats.getPassName())) {
+                sb.append(passStats).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
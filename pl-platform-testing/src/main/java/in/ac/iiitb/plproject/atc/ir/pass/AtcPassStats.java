@@ -0,0 +1,72 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+/**
+ * Counters of one pass, accumulated over the methods it has run on since the
+ * last reset (AtcPassManager resets them at the start of each class).
+ * Statement counts include statements nested in if bodies.
+ */
+public class AtcPassStats {
+    private final String passName;
+    private int methods;
+    private int statementsIn;
+    private int statementsOut;
+    private int changes;
+    private long nanos;
+
+    public AtcPassStats(String passName) {
+        this.passName = passName;
+    }
+
+    public synchronized void recordChange() {
+        changes++;
+    }
+
+    synchronized void recordRun(int in, int out, long elapsedNanos) {
+        methods++;
+        statementsIn += in;
+        statementsOut += out;
+        nanos += elapsedNanos;
+    }
+
+    synchronized void reset() {
+        methods = 0;
+        statementsIn = 0;
+        statementsOut = 0;
+        changes = 0;
+        nanos = 0;
+    }
+
+    public String getPassName() {
+        return passName;
+    }
+
+    public synchronized int getMethods() {
+        return methods;
+    }
+
+    public synchronized int getStatementsIn() {
+        return statementsIn;
+    }
+
+    public synchronized int getStatementsOut() {
+        return statementsOut;
+    }
+
+    public synchronized int getStatementsRemoved() {
+        return statementsIn - statementsOut;
+    }
+
+    public synchronized int getChanges() {
+        return changes;
+    }
+
+    public synchronized long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return passName + ": " + methods + " method(s), " + statementsIn + " -> " + statementsOut
+            + " statement(s), " + changes + " change(s), " + (nanos / 1_000) + " us";
+    }
+}
@@ -0,0 +1,191 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.ast.ExprArena;
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dead-statement elimination:
+ * - assumptions repeating an earlier assumption that still holds (structural
+ *   equality through an ExprArena)
+ * - declarations and assignments of variables that are never read afterwards,
+ *   when the value has no side effects
+ * - ifs without return whose body ends up empty, when the condition has no side effects
+ * Symbolic input declarations are always kept.
+ */
+public class DeadStatementPass implements AtcPass {
+
+    @Override
+    public String getName() {
+        return "dead-statements";
+    }
+
+    @Override
+    public List<AtcStatement> run(List<AtcStatement> statements, AtcPassStats stats) {
+        List<AtcStatement> deduplicated = new RepeatedAssumes(stats).rewrite(statements);
+        return new DeadStores(stats).rewriteBackward(deduplicated);
+    }
+
+    /**
+     * Forward walk keeping the assumptions in force (arena ID -> variables read).
+     * Assignments invalidate the assumptions that read the assigned variable; calls
+     * with side effects and if bodies invalidate everything.
+     */
+    private static final class RepeatedAssumes extends StatementRewriter {
+        private final ExprArena arena = new ExprArena();
+        private Map<Integer, Set<String>> assumed = new HashMap<>();
+
+        RepeatedAssumes(AtcPassStats stats) {
+            super(stats);
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            Expr condition = stmt.getCondition();
+            if (condition == null) {
+                keep(stmt);
+                return null;
+            }
+            int id = arena.add(condition);
+            if (assumed.containsKey(id)) {
+                remove();
+                return null;
+            }
+            Set<String> reads = new HashSet<>();
+            ReadNames.addReads(condition, reads);
+            assumed.put(id, reads);
+            keep(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            invalidate(stmt.getVarName());
+            keep(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            invalidate(stmt.getVarName());
+            keep(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcMethodCallStmt stmt) {
+            if (AstHelper.hasSideEffects(stmt.getCallExpr())) {
+                assumed.clear();
+            }
+            keep(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            // Assumptions made before the if hold in its body, not the other way round
+            Map<Integer, Set<String>> outside = assumed;
+            assumed = new HashMap<>(outside);
+            List<AtcStatement> thenStatements = rewriteBody(stmt);
+            assumed = outside;
+            keepRewritten(stmt, withBody(stmt, thenStatements));
+            if (!thenStatements.isEmpty()) {
+                assumed.clear();
+            }
+            return null;
+        }
+
+        private void invalidate(String varName) {
+            assumed.values().removeIf(reads -> reads.contains(varName));
+        }
+    }
+
+    /**
+     * Backward liveness walk. live holds the variables read after the statement
+     * being visited.
+     */
+    private static final class DeadStores extends StatementRewriter {
+        private Set<String> live = new HashSet<>();
+
+        DeadStores(AtcPassStats stats) {
+            super(stats);
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            if (!live.contains(stmt.getVarName()) && !AstHelper.hasSideEffects(stmt.getInitExpr())) {
+                remove();
+                return null;
+            }
+            live.remove(stmt.getVarName());
+            return read(stmt);
+        }
+
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            if (!live.contains(stmt.getVarName()) && !AstHelper.hasSideEffects(stmt.getValueExpr())) {
+                remove();
+                return null;
+            }
+            live.remove(stmt.getVarName());
+            return read(stmt);
+        }
+
+        @Override
+        public Void visit(AtcSymbolicVarDecl stmt) {
+            return read(stmt);
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            return read(stmt);
+        }
+
+        @Override
+        public Void visit(AtcAssertStmt stmt) {
+            return read(stmt);
+        }
+
+        @Override
+        public Void visit(AtcMethodCallStmt stmt) {
+            return read(stmt);
+        }
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            // A returning body ends the method, so nothing after the if is live in it
+            Set<String> after = live;
+            live = stmt.hasReturn() ? new HashSet<String>() : new HashSet<>(after);
+            List<AtcStatement> thenStatements = rewriteBody(stmt);
+            Set<String> bodyLive = live;
+            live = after;
+            if (thenStatements.isEmpty() && !stmt.hasReturn() && !AstHelper.hasSideEffects(stmt.getCondition())) {
+                remove();
+                return null;
+            }
+            keepRewritten(stmt, withBody(stmt, thenStatements));
+            live.addAll(bodyLive);
+            ReadNames.addReads(stmt.getCondition(), live);
+            return null;
+        }
+
+        private Void read(AtcStatement stmt) {
+            ReadNames.addReads(stmt, live);
+            keep(stmt);
+            return null;
+        }
+    }
+}
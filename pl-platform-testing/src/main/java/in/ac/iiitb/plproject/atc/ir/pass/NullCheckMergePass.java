@@ -0,0 +1,165 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merges the per-collection null check with the assumptions that follow it.
+ *
+ * NewGenATC guards collection parameters with
+ *   if (data == null || result == null) { return; }
+ *   assume(data != null);
+ *   assume(result != null);
+ * Under SPF the if forks a path per null input that only returns. The pass
+ * replaces the guard with a single assume(data != null && result != null),
+ * drops later non-null assumptions (and conjuncts) it already implies, and
+ * inlines later if bodies whose condition is only such non-null tests.
+ */
+public class NullCheckMergePass implements AtcPass {
+
+    @Override
+    public String getName() {
+        return "merge-null-checks";
+    }
+
+    @Override
+    public List<AtcStatement> run(List<AtcStatement> statements, AtcPassStats stats) {
+        return new Merger(stats).rewrite(statements);
+    }
+
+    /**
+     * Forward walk keeping the variables known to be non-null at the current statement.
+     */
+    private static final class Merger extends StatementRewriter {
+        private final Set<String> nonNull = new HashSet<>();
+
+        Merger(AtcPassStats stats) {
+            super(stats);
+        }
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            List<String> guarded = stmt.hasReturn() && stmt.getThenStatements().isEmpty()
+                ? nullTestedNames(stmt.getCondition()) : null;
+            if (guarded != null) {
+                List<Expr> conditions = new ArrayList<>();
+                for (String name : guarded) {
+                    conditions.add(AstHelper.createBinaryExpr(
+                        AstHelper.createNameExpr(name), AstHelper.createNameExpr("null"), "NOT_EQUALS"));
+                }
+                nonNull.addAll(guarded);
+                replace(new AtcAssumeStmt(AstHelper.combineExpressionsWithAnd(conditions)));
+                return null;
+            }
+            boolean implied = !stmt.hasReturn() && impliedByNonNull(stmt.getCondition(), nonNull);
+            // Facts established before the if still hold after it unless the body reassigns
+            forgetAssigned(stmt);
+            if (implied) {
+                replace(stmt.getThenStatements());
+            } else {
+                keep(stmt);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            if (stmt.getCondition() == null) {
+                keep(stmt);
+                return null;
+            }
+            List<Expr> conjuncts = AstHelper.splitChain(stmt.getCondition(), "AND");
+            List<Expr> kept = new ArrayList<>(conjuncts.size());
+            for (Expr conjunct : conjuncts) {
+                String name = nonNullTestedName(conjunct);
+                if (name == null || !nonNull.contains(name)) {
+                    kept.add(conjunct);
+                }
+            }
+            for (Expr conjunct : kept) {
+                String name = nonNullTestedName(conjunct);
+                if (name != null) {
+                    nonNull.add(name);
+                }
+            }
+            if (kept.size() == conjuncts.size()) {
+                keep(stmt);
+            } else if (kept.isEmpty()) {
+                remove();
+            } else {
+                replace(new AtcAssumeStmt(AstHelper.combineExpressionsWithAnd(kept)));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            forgetAssigned(stmt);
+            keep(stmt);
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            forgetAssigned(stmt);
+            keep(stmt);
+            return null;
+        }
+
+        private void forgetAssigned(AtcStatement stmt) {
+            Set<String> written = new HashSet<>();
+            WrittenNames.addWrites(stmt, written);
+            nonNull.removeAll(written);
+        }
+    }
+
+    /**
+     * The names tested by "a == null || b == null || ...", or null for any other condition.
+     */
+    private static List<String> nullTestedNames(Expr condition) {
+        List<String> names = new ArrayList<>();
+        for (Expr disjunct : AstHelper.splitChain(condition, "OR")) {
+            String name = comparedWithNull(disjunct, "EQUALS");
+            if (name == null) {
+                return null;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    private static boolean impliedByNonNull(Expr condition, Set<String> nonNull) {
+        for (Expr conjunct : AstHelper.splitChain(condition, "AND")) {
+            String name = nonNullTestedName(conjunct);
+            if (name == null || !nonNull.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String nonNullTestedName(Expr expr) {
+        return comparedWithNull(expr, "NOT_EQUALS");
+    }
+
+    /**
+     * The variable of "x OP null", or null if expr has another shape.
+     */
+    private static String comparedWithNull(Expr expr, String operator) {
+        if (!operator.equals(AstHelper.getBinaryOperator(expr))
+            || !"null".equals(AstHelper.getNameFromExpr(AstHelper.getRightOperand(expr)))) {
+            return null;
+        }
+        String name = AstHelper.getNameFromExpr(AstHelper.getLeftOperand(expr));
+        return name != null && name.indexOf('[') < 0 ? name : null;
+    }
+}
@@ -0,0 +1,83 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcStatementVisitor;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the variables a statement reads. Names of the form "x[0]" read x.
+ */
+final class ReadNames implements AtcStatementVisitor<Void> {
+    private final Set<String> names;
+
+    private ReadNames(Set<String> names) {
+        this.names = names;
+    }
+
+    static void addReads(AtcStatement stmt, Set<String> names) {
+        stmt.accept(new ReadNames(names));
+    }
+
+    static void addReads(List<AtcStatement> statements, Set<String> names) {
+        ReadNames reader = new ReadNames(names);
+        for (AtcStatement stmt : statements) {
+            stmt.accept(reader);
+        }
+    }
+
+    static void addReads(Expr expr, Set<String> names) {
+        AstHelper.addVariableNames(expr, names);
+    }
+
+    @Override
+    public Void visit(AtcSymbolicVarDecl stmt) {
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcVarDecl stmt) {
+        addReads(stmt.getInitExpr(), names);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssignStmt stmt) {
+        addReads(stmt.getValueExpr(), names);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssumeStmt stmt) {
+        addReads(stmt.getCondition(), names);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssertStmt stmt) {
+        addReads(stmt.getCondition(), names);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcMethodCallStmt stmt) {
+        addReads(stmt.getCallExpr(), names);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcIfStmt stmt) {
+        addReads(stmt.getCondition(), names);
+        addReads(stmt.getThenStatements(), names);
+        return null;
+    }
+}
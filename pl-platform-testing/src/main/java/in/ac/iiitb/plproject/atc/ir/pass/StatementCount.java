@@ -0,0 +1,65 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcStatementVisitor;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.List;
+
+/**
+ * Number of statements, counting the statements of if bodies as well as the if.
+ */
+final class StatementCount implements AtcStatementVisitor<Integer> {
+    private static final StatementCount INSTANCE = new StatementCount();
+
+    private StatementCount() {
+    }
+
+    static int count(List<AtcStatement> statements) {
+        int count = 0;
+        for (AtcStatement stmt : statements) {
+            count += stmt.accept(INSTANCE);
+        }
+        return count;
+    }
+
+    @Override
+    public Integer visit(AtcSymbolicVarDecl stmt) {
+        return 1;
+    }
+
+    @Override
+    public Integer visit(AtcVarDecl stmt) {
+        return 1;
+    }
+
+    @Override
+    public Integer visit(AtcAssignStmt stmt) {
+        return 1;
+    }
+
+    @Override
+    public Integer visit(AtcAssumeStmt stmt) {
+        return 1;
+    }
+
+    @Override
+    public Integer visit(AtcAssertStmt stmt) {
+        return 1;
+    }
+
+    @Override
+    public Integer visit(AtcMethodCallStmt stmt) {
+        return 1;
+    }
+
+    @Override
+    public Integer visit(AtcIfStmt stmt) {
+        return 1 + count(stmt.getThenStatements());
+    }
+}
@@ -0,0 +1,155 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcStatementVisitor;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base of the passes: a statement visitor whose visit methods keep, replace or
+ * remove the visited statement. Statements of a kind the pass does not override
+ * are kept, and if bodies are rewritten by the same visitor.
+ */
+abstract class StatementRewriter implements AtcStatementVisitor<Void> {
+    private final AtcPassStats stats;
+    private List<AtcStatement> out;
+    private boolean changed;
+    private boolean backward;
+
+    StatementRewriter(AtcPassStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Visit the statements first to last; returns the same list when nothing changed.
+     */
+    List<AtcStatement> rewrite(List<AtcStatement> statements) {
+        return rewrite(statements, false);
+    }
+
+    /**
+     * Visit the statements last to first, for backward analyses; the result is in
+     * program order.
+     */
+    List<AtcStatement> rewriteBackward(List<AtcStatement> statements) {
+        return rewrite(statements, true);
+    }
+
+    /**
+     * Rewrite an if body in the direction of the enclosing walk.
+     */
+    List<AtcStatement> rewriteBody(AtcIfStmt stmt) {
+        return rewrite(stmt.getThenStatements(), backward);
+    }
+
+    private List<AtcStatement> rewrite(List<AtcStatement> statements, boolean reversed) {
+        List<AtcStatement> enclosingOut = out;
+        boolean enclosingChanged = changed;
+        boolean enclosingBackward = backward;
+        out = new ArrayList<>(statements.size());
+        changed = false;
+        backward = reversed;
+        for (int i = 0; i < statements.size(); i++) {
+            statements.get(reversed ? statements.size() - 1 - i : i).accept(this);
+        }
+        List<AtcStatement> result = statements;
+        if (changed) {
+            result = out;
+            if (reversed) {
+                Collections.reverse(result);
+            }
+        }
+        out = enclosingOut;
+        changed = enclosingChanged;
+        backward = enclosingBackward;
+        return result;
+    }
+
+    final void keep(AtcStatement stmt) {
+        out.add(stmt);
+    }
+
+    /**
+     * Keep a statement whose nested statements may have been rewritten; that is
+     * not a change of its own.
+     */
+    final void keepRewritten(AtcStatement original, AtcStatement rewritten) {
+        out.add(rewritten);
+        changed |= rewritten != original;
+    }
+
+    final void replace(AtcStatement... replacement) {
+        replace(Arrays.asList(replacement));
+    }
+
+    final void replace(List<AtcStatement> replacement) {
+        stats.recordChange();
+        changed = true;
+        for (int i = 0; i < replacement.size(); i++) {
+            out.add(replacement.get(backward ? replacement.size() - 1 - i : i));
+        }
+    }
+
+    final void remove() {
+        replace(Collections.<AtcStatement>emptyList());
+    }
+
+    /**
+     * The if with the given body, or the if itself if the body is the same list.
+     */
+    static AtcStatement withBody(AtcIfStmt stmt, List<AtcStatement> thenStatements) {
+        return thenStatements == stmt.getThenStatements()
+            ? stmt : new AtcIfStmt(stmt.getCondition(), thenStatements, stmt.hasReturn());
+    }
+
+    @Override
+    public Void visit(AtcSymbolicVarDecl stmt) {
+        keep(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcVarDecl stmt) {
+        keep(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssignStmt stmt) {
+        keep(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssumeStmt stmt) {
+        keep(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssertStmt stmt) {
+        keep(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcMethodCallStmt stmt) {
+        keep(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcIfStmt stmt) {
+        keepRewritten(stmt, withBody(stmt, rewriteBody(stmt)));
+        return null;
+    }
+}
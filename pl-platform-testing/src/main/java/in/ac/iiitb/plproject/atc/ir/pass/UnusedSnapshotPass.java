@@ -0,0 +1,48 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Removes _old snapshots (int x_old = x;) that no statement of the method reads,
+ * e.g. when the postcondition mentions x only through its post-state.
+ */
+public class UnusedSnapshotPass implements AtcPass {
+
+    private static final String OLD_SUFFIX = "_old";
+
+    @Override
+    public String getName() {
+        return "unused-snapshots";
+    }
+
+    @Override
+    public List<AtcStatement> run(List<AtcStatement> statements, AtcPassStats stats) {
+        Set<String> read = new HashSet<>();
+        ReadNames.addReads(statements, read);
+        return new Remover(read, stats).rewrite(statements);
+    }
+
+    private static final class Remover extends StatementRewriter {
+        private final Set<String> read;
+
+        Remover(Set<String> read, AtcPassStats stats) {
+            super(stats);
+            this.read = read;
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            String varName = stmt.getVarName();
+            if (varName.endsWith(OLD_SUFFIX) && !read.contains(varName)) {
+                remove();
+            } else {
+                keep(stmt);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package in.ac.iiitb.plproject.atc.ir.pass;
+
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcStatementVisitor;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the variables a statement declares or assigns, including in if bodies.
+ */
+final class WrittenNames implements AtcStatementVisitor<Void> {
+    private final Set<String> names;
+
+    private WrittenNames(Set<String> names) {
+        this.names = names;
+    }
+
+    static void addWrites(AtcStatement stmt, Set<String> names) {
+        stmt.accept(new WrittenNames(names));
+    }
+
+    static void addWrites(List<AtcStatement> statements, Set<String> names) {
+        WrittenNames writer = new WrittenNames(names);
+        for (AtcStatement stmt : statements) {
+            stmt.accept(writer);
+        }
+    }
+
+    @Override
+    public Void visit(AtcSymbolicVarDecl stmt) {
+        names.add(stmt.getVarName());
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcVarDecl stmt) {
+        names.add(stmt.getVarName());
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssignStmt stmt) {
+        names.add(stmt.getVarName());
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssumeStmt stmt) {
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcAssertStmt stmt) {
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcMethodCallStmt stmt) {
+        return null;
+    }
+
+    @Override
+    public Void visit(AtcIfStmt stmt) {
+        addWrites(stmt.getThenStatements(), names);
+        return null;
+    }
+}
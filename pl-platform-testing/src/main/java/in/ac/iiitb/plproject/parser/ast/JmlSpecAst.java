@@ -9,6 +9,10 @@ public class JmlSpecAst {
         this.specs = specs;
     }
 
+    public List<JmlFunctionSpec> getSpecs() {
+        return specs;
+    }
+
     public JmlFunctionSpec findSpecFor(String functionName) {
         // Placeholder implementation
         for (JmlFunctionSpec spec : specs) {
@@ -8,7 +8,7 @@ import in.ac.iiitb.plproject.symex.TypeMapper;
 import java.util.List;
 import java.util.ArrayList;
 
-public class AtcIrToSymbolicIrTransformer {
+public class AtcIrToSymbolicIrTransformer implements AtcStatementVisitor<AtcStatement> {
     
     private static final String DEBUG_IMPORT = "gov.nasa.jpf.symbc.Debug";
     
@@ -57,13 +57,43 @@ public class AtcIrToSymbolicIrTransformer {
     }
     
     private AtcStatement transformStatement(AtcStatement stmt) {
-        if (stmt instanceof AtcSymbolicVarDecl) {
-            return transformSymbolicVarDecl((AtcSymbolicVarDecl) stmt);
-        } else if (stmt instanceof AtcAssumeStmt) {
-            return transformAssumeStmt((AtcAssumeStmt) stmt);
-        } else if (stmt instanceof AtcIfStmt) {
-            return transformIfStmt((AtcIfStmt) stmt);
-        }
+        return stmt.accept(this);
+    }
+    
+    @Override
+    public AtcStatement visit(AtcSymbolicVarDecl stmt) {
+        return transformSymbolicVarDecl(stmt);
+    }
+    
+    @Override
+    public AtcStatement visit(AtcAssumeStmt stmt) {
+        return transformAssumeStmt(stmt);
+    }
+    
+    @Override
+    public AtcStatement visit(AtcIfStmt stmt) {
+        return transformIfStmt(stmt);
+    }
+    
+    // Remaining statements carry over to the symbolic IR unchanged
+    
+    @Override
+    public AtcStatement visit(AtcVarDecl stmt) {
+        return stmt;
+    }
+    
+    @Override
+    public AtcStatement visit(AtcAssignStmt stmt) {
+        return stmt;
+    }
+    
+    @Override
+    public AtcStatement visit(AtcAssertStmt stmt) {
+        return stmt;
+    }
+    
+    @Override
+    public AtcStatement visit(AtcMethodCallStmt stmt) {
         return stmt;
     }
     
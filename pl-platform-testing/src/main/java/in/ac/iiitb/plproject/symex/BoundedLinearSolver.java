@@ -0,0 +1,447 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Decision procedure for Constraint formulas over bounded integers, in the spirit of
+ * SPF's symbolic.minint/symbolic.maxint: every variable ranges over [minInt, maxInt]
+ * unless the formula narrows it (booleans and null flags are 0/1 ranges).
+ *
+ * Depth-first search over a stack of states: each state holds variable bounds, the
+ * atoms assumed so far and the disjunctions still to decide. Bounds propagation over
+ * the linear atoms prunes a state; disjunctions are split one operand per branch
+ * (skipping refuted operands); once all disjunctions are decided, variables are
+ * labelled smallest domain first, trying the value closest to 0. Models therefore
+ * prefer small values, which keeps generated inputs readable. The search gives up
+ * with UNKNOWN after maxNodes states.
+ */
+public class BoundedLinearSolver implements ConstraintSolver {
+
+    public static final long DEFAULT_MIN_INT = -100;
+    public static final long DEFAULT_MAX_INT = 100;
+    public static final int DEFAULT_MAX_NODES = 20000;
+
+    // Bound tightening rounds per state; propagation is only a pruning aid, labelling is complete
+    private static final int MAX_PROPAGATION_ROUNDS = 64;
+
+    private final long minInt;
+    private final long maxInt;
+    private final int maxNodes;
+
+    public BoundedLinearSolver() {
+        this(DEFAULT_MIN_INT, DEFAULT_MAX_INT, DEFAULT_MAX_NODES);
+    }
+
+    public BoundedLinearSolver(long minInt, long maxInt, int maxNodes) {
+        if (minInt > maxInt) {
+            throw new IllegalArgumentException("Empty integer range [" + minInt + ", " + maxInt + "]");
+        }
+        this.minInt = minInt;
+        this.maxInt = maxInt;
+        this.maxNodes = maxNodes;
+    }
+
+    @Override
+    public String getName() {
+        return "linear";
+    }
+
+    @Override
+    public long getMinInt() {
+        return minInt;
+    }
+
+    @Override
+    public long getMaxInt() {
+        return maxInt;
+    }
+
+    public SolverResult solve(List<Constraint> constraints) {
+        return solve(Constraint.and(constraints));
+    }
+
+    @Override
+    public SolverResult solve(Constraint constraint) {
+        if (constraint == Constraint.TRUE) {
+            return SolverResult.sat(new HashMap<String, Long>());
+        }
+        if (constraint == Constraint.FALSE) {
+            return SolverResult.UNSAT;
+        }
+        Set<String> names = new TreeSet<>();
+        constraint.addVariables(names);
+        String[] variables = names.toArray(new String[0]);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < variables.length; i++) {
+            index.put(variables[i], i);
+        }
+
+        ArrayDeque<State> stack = new ArrayDeque<>();
+        State initial = new State(variables.length, minInt, maxInt);
+        initial.add(constraint, index);
+        stack.push(initial);
+
+        int nodes = 0;
+        while (!stack.isEmpty()) {
+            if (++nodes > maxNodes) {
+                return SolverResult.UNKNOWN;
+            }
+            State state = stack.pop();
+            if (!state.propagate()) {
+                continue;
+            }
+            if (!state.disjunctions.isEmpty()) {
+                branchOnDisjunction(state, index, stack);
+                continue;
+            }
+            int var = state.pickUnfixed();
+            if (var < 0) {
+                Map<String, Long> model = new HashMap<>();
+                for (int i = 0; i < variables.length; i++) {
+                    model.put(variables[i], state.lo[i]);
+                }
+                if (constraint.evaluate(model)) {
+                    return SolverResult.sat(model);
+                }
+                continue;
+            }
+            // Push the alternatives first so the value closest to 0 is tried first
+            long value = Math.max(state.lo[var], Math.min(state.hi[var], 0));
+            if (value < state.hi[var]) {
+                State above = state.copy();
+                above.lo[var] = value + 1;
+                stack.push(above);
+            }
+            if (value > state.lo[var]) {
+                State below = state.copy();
+                below.hi[var] = value - 1;
+                stack.push(below);
+            }
+            State fixed = state.copy();
+            fixed.lo[var] = value;
+            fixed.hi[var] = value;
+            stack.push(fixed);
+        }
+        return SolverResult.UNSAT;
+    }
+
+    private static void branchOnDisjunction(State state, Map<String, Integer> index, ArrayDeque<State> stack) {
+        Constraint disjunction = state.disjunctions.poll();
+        List<Constraint> open = new ArrayList<>();
+        for (Constraint operand : disjunction.getOperands()) {
+            if (state.entails(operand, index)) {
+                // Already satisfied by the current bounds: nothing to decide
+                stack.push(state);
+                return;
+            }
+            if (!state.refutes(operand, index)) {
+                open.add(operand);
+            }
+        }
+        for (int i = open.size() - 1; i >= 0; i--) {
+            State branch = i == 0 ? state : state.copy();
+            branch.add(open.get(i), index);
+            stack.push(branch);
+        }
+    }
+
+    /**
+     * One search node. Atoms are stored as coefficient/variable-index arrays.
+     */
+    private static final class State {
+        final long[] lo;
+        final long[] hi;
+        final List<Atom> atoms;
+        final ArrayDeque<Constraint> disjunctions;
+
+        State(int variableCount, long minInt, long maxInt) {
+            lo = new long[variableCount];
+            hi = new long[variableCount];
+            Arrays.fill(lo, minInt);
+            Arrays.fill(hi, maxInt);
+            atoms = new ArrayList<>();
+            disjunctions = new ArrayDeque<>();
+        }
+
+        private State(State other) {
+            lo = other.lo.clone();
+            hi = other.hi.clone();
+            atoms = new ArrayList<>(other.atoms);
+            disjunctions = new ArrayDeque<>(other.disjunctions);
+        }
+
+        State copy() {
+            return new State(this);
+        }
+
+        void add(Constraint constraint, Map<String, Integer> index) {
+            switch (constraint.getKind()) {
+                case TRUE:
+                    break;
+                case FALSE:
+                    // Unsatisfiable atom: 1 <= 0
+                    atoms.add(new Atom(Constraint.Kind.LE, new int[0], new long[0], 1));
+                    break;
+                case AND:
+                    for (Constraint operand : constraint.getOperands()) {
+                        add(operand, index);
+                    }
+                    break;
+                case OR:
+                    disjunctions.add(constraint);
+                    break;
+                default:
+                    atoms.add(Atom.of(constraint, index));
+            }
+        }
+
+        int pickUnfixed() {
+            int best = -1;
+            for (int i = 0; i < lo.length; i++) {
+                if (lo[i] < hi[i] && (best < 0 || hi[i] - lo[i] < hi[best] - lo[best])) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Tighten bounds to a fixpoint (or the round limit); false if some atom cannot hold.
+         */
+        boolean propagate() {
+            for (int round = 0; round < MAX_PROPAGATION_ROUNDS; round++) {
+                boolean changed = false;
+                for (Atom atom : atoms) {
+                    int result;
+                    switch (atom.kind) {
+                        case LE:
+                            result = tighten(atom, 1);
+                            break;
+                        case EQ:
+                            result = tighten(atom, 1);
+                            if (result != FAILED) {
+                                result = Math.max(result, tighten(atom, -1));
+                            }
+                            break;
+                        default:
+                            result = excludeZero(atom);
+                    }
+                    if (result == FAILED) {
+                        return false;
+                    }
+                    changed |= result == CHANGED;
+                }
+                if (!changed) {
+                    break;
+                }
+            }
+            return true;
+        }
+
+        private static final int UNCHANGED = 0;
+        private static final int CHANGED = 1;
+        private static final int FAILED = 2;
+
+        /**
+         * Bounds propagation for sign * (sum c_i x_i + k) &lt;= 0.
+         */
+        private int tighten(Atom atom, int sign) {
+            long minSum = sign * atom.constant;
+            for (int i = 0; i < atom.vars.length; i++) {
+                minSum += minTerm(sign * atom.coefficients[i], atom.vars[i]);
+            }
+            if (minSum > 0) {
+                return FAILED;
+            }
+            int result = UNCHANGED;
+            for (int i = 0; i < atom.vars.length; i++) {
+                int var = atom.vars[i];
+                long a = sign * atom.coefficients[i];
+                // a * x <= -(minimum of the other terms)
+                long bound = -(minSum - minTerm(a, var));
+                if (a > 0) {
+                    long newHi = Math.floorDiv(bound, a);
+                    if (newHi < hi[var]) {
+                        hi[var] = newHi;
+                        result = CHANGED;
+                    }
+                } else {
+                    long newLo = -Math.floorDiv(-bound, a);
+                    if (newLo > lo[var]) {
+                        lo[var] = newLo;
+                        result = CHANGED;
+                    }
+                }
+                if (lo[var] > hi[var]) {
+                    return FAILED;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Propagation for sum c_i x_i + k != 0: fails if all variables are fixed to a
+         * root, trims a bound when a single unfixed variable's excluded value is on it.
+         */
+        private int excludeZero(Atom atom) {
+            long rest = atom.constant;
+            int unfixed = -1;
+            for (int i = 0; i < atom.vars.length; i++) {
+                int var = atom.vars[i];
+                if (lo[var] == hi[var]) {
+                    rest += atom.coefficients[i] * lo[var];
+                } else if (unfixed >= 0) {
+                    return UNCHANGED;
+                } else {
+                    unfixed = i;
+                }
+            }
+            if (unfixed < 0) {
+                return rest != 0 ? UNCHANGED : FAILED;
+            }
+            long c = atom.coefficients[unfixed];
+            int var = atom.vars[unfixed];
+            if (rest % c != 0) {
+                return UNCHANGED;
+            }
+            long excluded = -rest / c;
+            if (excluded == lo[var]) {
+                lo[var]++;
+            } else if (excluded == hi[var]) {
+                hi[var]--;
+            } else {
+                return UNCHANGED;
+            }
+            return lo[var] > hi[var] ? FAILED : CHANGED;
+        }
+
+        private long minTerm(long coefficient, int var) {
+            return coefficient > 0 ? coefficient * lo[var] : coefficient * hi[var];
+        }
+
+        private long maxTerm(long coefficient, int var) {
+            return coefficient > 0 ? coefficient * hi[var] : coefficient * lo[var];
+        }
+
+        /**
+         * Whether the constraint holds for every assignment within the current bounds.
+         */
+        boolean entails(Constraint constraint, Map<String, Integer> index) {
+            switch (constraint.getKind()) {
+                case TRUE:
+                    return true;
+                case FALSE:
+                    return false;
+                case AND:
+                    for (Constraint operand : constraint.getOperands()) {
+                        if (!entails(operand, index)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case OR:
+                    for (Constraint operand : constraint.getOperands()) {
+                        if (entails(operand, index)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    long[] range = range(constraint.getExpr(), index);
+                    switch (constraint.getKind()) {
+                        case LE:
+                            return range[1] <= 0;
+                        case EQ:
+                            return range[0] == 0 && range[1] == 0;
+                        default:
+                            return range[0] > 0 || range[1] < 0;
+                    }
+            }
+        }
+
+        /**
+         * Whether the constraint fails for every assignment within the current bounds.
+         */
+        boolean refutes(Constraint constraint, Map<String, Integer> index) {
+            switch (constraint.getKind()) {
+                case TRUE:
+                    return false;
+                case FALSE:
+                    return true;
+                case AND:
+                    for (Constraint operand : constraint.getOperands()) {
+                        if (refutes(operand, index)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                case OR:
+                    for (Constraint operand : constraint.getOperands()) {
+                        if (!refutes(operand, index)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                default:
+                    long[] range = range(constraint.getExpr(), index);
+                    switch (constraint.getKind()) {
+                        case LE:
+                            return range[0] > 0;
+                        case EQ:
+                            return range[0] > 0 || range[1] < 0;
+                        default:
+                            return range[0] == 0 && range[1] == 0;
+                    }
+            }
+        }
+
+        private long[] range(LinearExpr expr, Map<String, Integer> index) {
+            long min = expr.getConstant();
+            long max = expr.getConstant();
+            for (Map.Entry<String, Long> term : expr.getTerms().entrySet()) {
+                int var = index.get(term.getKey());
+                min += minTerm(term.getValue(), var);
+                max += maxTerm(term.getValue(), var);
+            }
+            return new long[] {min, max};
+        }
+    }
+
+    /**
+     * A Constraint atom compiled against the variable index.
+     */
+    private static final class Atom {
+        final Constraint.Kind kind;
+        final int[] vars;
+        final long[] coefficients;
+        final long constant;
+
+        Atom(Constraint.Kind kind, int[] vars, long[] coefficients, long constant) {
+            this.kind = kind;
+            this.vars = vars;
+            this.coefficients = coefficients;
+            this.constant = constant;
+        }
+
+        static Atom of(Constraint constraint, Map<String, Integer> index) {
+            LinearExpr expr = constraint.getExpr();
+            Map<String, Long> terms = expr.getTerms();
+            int[] vars = new int[terms.size()];
+            long[] coefficients = new long[terms.size()];
+            int i = 0;
+            for (Map.Entry<String, Long> term : terms.entrySet()) {
+                vars[i] = index.get(term.getKey());
+                coefficients[i] = term.getValue();
+                i++;
+            }
+            return new Atom(constraint.getKind(), vars, coefficients, expr.getConstant());
+        }
+    }
+}
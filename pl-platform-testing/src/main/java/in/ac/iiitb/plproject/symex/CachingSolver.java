@@ -0,0 +1,347 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Path-condition cache in front of another solver (normally the TieredSolver), kept
+ * across runs in a text file so nightly regeneration of unchanged specs mostly skips
+ * solving.
+ *
+ * Each query is looked up by its CanonicalConstraint key, so the same path condition
+ * over renamed variables or with conjuncts in another order is a hit. Entries hold a
+ * SAT model (over canonical names) or an UNSAT verdict; UNKNOWN is never cached. On a
+ * miss the most recent SAT models are evaluated against the query before the
+ * delegate is asked: path conditions grow one branch at a time, so the model of the
+ * prefix often still satisfies the extension.
+ *
+ * Entries are evicted least recently used first once either maxEntries or maxBytes
+ * (key plus value characters) is exceeded. The file is only read at construction
+ * and written by save(); it records the integer range and is ignored if that differs.
+ *
+ * Configuration:
+ *   atc.solver.cache = &lt;file&gt;          enable the cache, persisted to this file
+ *   atc.solver.cache.entries = N       entry limit (default 10000)
+ *   atc.solver.cache.bytes = N         size limit (default 16 MiB)
+ */
+public class CachingSolver implements ConstraintSolver {
+
+    public static final String CACHE_KEY = "atc.solver.cache";
+    public static final String ENTRIES_KEY = "atc.solver.cache.entries";
+    public static final String BYTES_KEY = "atc.solver.cache.bytes";
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+    public static final int RECENT_MODELS = 16;
+
+    private static final String HEADER = "# atc path-condition cache v1";
+    private static final String UNSAT = "U";
+    private static final String SAT = "S";
+
+    private final ConstraintSolver delegate;
+    private final Path file; // null: in memory only
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<Map<String, Long>> recentModels = new ArrayDeque<>();
+    private long bytes;
+    private boolean dirty;
+
+    private int queries;
+    private int hits;
+    private int reused;
+    private int misses;
+    private int evictions;
+
+    public CachingSolver(ConstraintSolver delegate, Path file, int maxEntries, long maxBytes) {
+        this.delegate = delegate;
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        if (file != null) {
+            load();
+        }
+    }
+
+    /**
+     * The delegate wrapped in a cache if atc.solver.cache is set, else the delegate itself.
+     */
+    public static ConstraintSolver fromProperties(ConstraintSolver delegate, Properties config) {
+        String path = config.getProperty(CACHE_KEY);
+        if (path == null || path.trim().isEmpty()) {
+            return delegate;
+        }
+        int maxEntries = Integer.parseInt(config.getProperty(ENTRIES_KEY, Integer.toString(DEFAULT_MAX_ENTRIES)).trim());
+        long maxBytes = Long.parseLong(config.getProperty(BYTES_KEY, Long.toString(DEFAULT_MAX_BYTES)).trim());
+        return new CachingSolver(delegate, Paths.get(path.trim()), maxEntries, maxBytes);
+    }
+
+    @Override
+    public String getName() {
+        return "cache";
+    }
+
+    @Override
+    public long getMinInt() {
+        return delegate.getMinInt();
+    }
+
+    @Override
+    public long getMaxInt() {
+        return delegate.getMaxInt();
+    }
+
+    public ConstraintSolver getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public synchronized SolverResult solve(Constraint constraint) {
+        queries++;
+        CanonicalConstraint canonical = CanonicalConstraint.of(constraint);
+        String key = canonical.getKey();
+
+        String value = entries.get(key);
+        if (value != null) {
+            if (value.equals(UNSAT)) {
+                hits++;
+                return SolverResult.UNSAT;
+            }
+            Map<String, Long> model = canonical.fromCanonical(parseModel(value));
+            if (satisfies(constraint, canonical, model)) {
+                hits++;
+                remember(model);
+                return SolverResult.sat(model);
+            }
+            // Stale or damaged entry: drop it and solve again
+            bytes -= size(key, entries.remove(key));
+            dirty = true;
+        }
+
+        for (Map<String, Long> recent : recentModels) {
+            Map<String, Long> model = new HashMap<>();
+            for (String variable : canonical.getVariables()) {
+                Long recentValue = recent.get(variable);
+                model.put(variable, recentValue != null ? recentValue : defaultValue());
+            }
+            if (satisfies(constraint, canonical, model)) {
+                reused++;
+                put(key, formatModel(canonical.toCanonical(model)));
+                remember(model);
+                return SolverResult.sat(model);
+            }
+        }
+
+        misses++;
+        SolverResult result = delegate.solve(constraint);
+        if (result.isSat()) {
+            put(key, formatModel(canonical.toCanonical(result.getModel())));
+            remember(result.getModel());
+        } else if (result.isUnsat()) {
+            put(key, UNSAT);
+        }
+        return result;
+    }
+
+    private boolean satisfies(Constraint constraint, CanonicalConstraint canonical, Map<String, Long> model) {
+        for (String variable : canonical.getVariables()) {
+            Long value = model.get(variable);
+            if (value == null || value < getMinInt() || value > getMaxInt()) {
+                return false;
+            }
+        }
+        return constraint.evaluate(model);
+    }
+
+    /**
+     * The value a solver picks for an unconstrained variable: closest to 0 in range.
+     */
+    private long defaultValue() {
+        return Math.max(getMinInt(), Math.min(getMaxInt(), 0L));
+    }
+
+    private void remember(Map<String, Long> model) {
+        recentModels.remove(model);
+        recentModels.addFirst(model);
+        if (recentModels.size() > RECENT_MODELS) {
+            recentModels.removeLast();
+        }
+    }
+
+    private void put(String key, String value) {
+        String previous = entries.put(key, value);
+        if (previous != null) {
+            bytes -= size(key, previous);
+        }
+        bytes += size(key, value);
+        dirty = true;
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            Map.Entry<String, String> entry = eldest.next();
+            bytes -= size(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long size(String key, String value) {
+        return key.length() + value.length();
+    }
+
+    private static String formatModel(Map<String, Long> model) {
+        StringBuilder sb = new StringBuilder(SAT);
+        for (Map.Entry<String, Long> entry : new TreeMap<>(model).entrySet()) {
+            sb.append(sb.length() == 1 ? " " : ",").append(entry.getKey()).append("=").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, Long> parseModel(String value) {
+        Map<String, Long> model = new HashMap<>();
+        String body = value.substring(SAT.length()).trim();
+        if (body.isEmpty()) {
+            return model;
+        }
+        for (String assignment : body.split(",")) {
+            int eq = assignment.indexOf('=');
+            if (eq > 0) {
+                try {
+                    model.put(assignment.substring(0, eq), Long.parseLong(assignment.substring(eq + 1)));
+                } catch (NumberFormatException e) {
+                    // Leave the variable out; the entry then fails validation
+                }
+            }
+        }
+        return model;
+    }
+
+    // ===================================
+    // Persistence
+    // ===================================
+
+    private String header() {
+        return HEADER + " minint=" + getMinInt() + " maxint=" + getMaxInt();
+    }
+
+    /**
+     * Read the cache file, least recently used entry first. A missing file, another
+     * integer range or an unreadable file leaves the cache empty.
+     */
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!header().equals(reader.readLine())) {
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    put(line.substring(tab + 1), line.substring(0, tab));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring solver cache " + file + ": " + e.getMessage());
+            entries.clear();
+            bytes = 0;
+        }
+        dirty = false;
+        evictions = 0;
+    }
+
+    /**
+     * Write the cache file if anything changed, keeping LRU order; written to a
+     * temporary file first so an interrupted run never leaves a truncated cache.
+     */
+    public synchronized void save() throws IOException {
+        if (file == null || !dirty) {
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(header());
+            writer.newLine();
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                writer.write(entry.getValue());
+                writer.write('\t');
+                writer.write(entry.getKey());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dirty = false;
+    }
+
+    // ===================================
+    // Statistics
+    // ===================================
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getQueries() {
+        return queries;
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getReused() {
+        return reused;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized int getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Fraction of queries answered without the delegate (exact hits and reused models).
+     */
+    public synchronized double getHitRate() {
+        return queries == 0 ? 0.0 : (double) (hits + reused) / queries;
+    }
+
+    public synchronized void resetStats() {
+        queries = 0;
+        hits = 0;
+        reused = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public synchronized String formatStats() {
+        return String.format("cache: %d queries, %d hit(s), %d reused model(s), %d miss(es), hit rate %.1f%%, "
+            + "%d entries (%d bytes), %d eviction(s)%n",
+            queries, hits, reused, misses, 100.0 * getHitRate(), entries.size(), bytes, evictions);
+    }
+}
@@ -0,0 +1,282 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Canonical text of a Constraint that does not depend on variable names or on the
+ * order of conjuncts, disjuncts and terms, used as the key of CachingSolver.
+ *
+ * - atoms are divided by the gcd of their coefficients (x + x &lt;= 3 becomes x &lt;= 1),
+ *   and == / != atoms take whichever sign renders first
+ * - variables are renamed v0, v1, ... in an order computed from the structure of the
+ *   constraint alone: colour refinement, where a variable's colour is refined by the
+ *   atoms it occurs in and the colours of the variables it shares them with
+ * - operands of AND/OR are sorted by their rendering and duplicates dropped
+ * Variables that refinement cannot tell apart are ordered by name; for truly
+ * symmetric variables that still yields the same text, otherwise at worst a cache miss.
+ */
+public final class CanonicalConstraint {
+
+    private static final int MAX_REFINEMENT_ROUNDS = 4;
+
+    private final String key;
+    private final List<String> variables; // original names, by canonical index
+
+    private CanonicalConstraint(String key, List<String> variables) {
+        this.key = key;
+        this.variables = variables;
+    }
+
+    public static CanonicalConstraint of(Constraint constraint) {
+        Constraint normalized = normalize(constraint);
+        List<Constraint> atoms = new ArrayList<>();
+        collectAtoms(normalized, atoms);
+
+        TreeSet<String> names = new TreeSet<>();
+        normalized.addVariables(names);
+        List<String> ordered = new ArrayList<>(names);
+        final Map<String, Integer> rank = refine(ordered, atoms);
+        Collections.sort(ordered, (a, b) -> {
+            int byRank = Integer.compare(rank.get(a), rank.get(b));
+            return byRank != 0 ? byRank : a.compareTo(b);
+        });
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            index.put(ordered.get(i), i);
+        }
+        return new CanonicalConstraint(render(normalized, index), Collections.unmodifiableList(ordered));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Original variable names; the i-th is v&lt;i&gt; in the key.
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public static String canonicalName(int index) {
+        return "v" + index;
+    }
+
+    /**
+     * A model over the original variables, renamed to canonical names.
+     */
+    public Map<String, Long> toCanonical(Map<String, Long> model) {
+        Map<String, Long> canonical = new HashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            Long value = model.get(variables.get(i));
+            if (value != null) {
+                canonical.put(canonicalName(i), value);
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * A model over canonical names, renamed back to this constraint's variables.
+     */
+    public Map<String, Long> fromCanonical(Map<String, Long> canonical) {
+        Map<String, Long> model = new HashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            Long value = canonical.get(canonicalName(i));
+            if (value != null) {
+                model.put(variables.get(i), value);
+            }
+        }
+        return model;
+    }
+
+    // ===================================
+    // Normalization
+    // ===================================
+
+    private static Constraint normalize(Constraint constraint) {
+        switch (constraint.getKind()) {
+            case TRUE:
+            case FALSE:
+                return constraint;
+            case AND:
+            case OR: {
+                List<Constraint> operands = new ArrayList<>();
+                for (Constraint operand : constraint.getOperands()) {
+                    operands.add(normalize(operand));
+                }
+                return constraint.getKind() == Constraint.Kind.AND ? Constraint.and(operands) : Constraint.or(operands);
+            }
+            default:
+                return normalizeAtom(constraint);
+        }
+    }
+
+    /**
+     * Divide an atom by the gcd of its coefficients, rounding the constant so the set
+     * of integer solutions stays the same.
+     */
+    private static Constraint normalizeAtom(Constraint atom) {
+        LinearExpr expr = atom.getExpr();
+        long gcd = 0;
+        for (long coefficient : expr.getTerms().values()) {
+            gcd = gcd(gcd, Math.abs(coefficient));
+        }
+        long constant = expr.getConstant();
+        if (gcd > 1) {
+            if (atom.getKind() == Constraint.Kind.LE) {
+                // g*e + k <= 0  <=>  e <= floor(-k/g)  <=>  e + ceil(k/g) <= 0
+                constant = -Math.floorDiv(-constant, gcd);
+            } else if (constant % gcd != 0) {
+                // g*e + k == 0 has no integer solution
+                return atom.getKind() == Constraint.Kind.EQ ? Constraint.FALSE : Constraint.TRUE;
+            } else {
+                constant /= gcd;
+            }
+            LinearExpr scaled = LinearExpr.constant(constant);
+            for (Map.Entry<String, Long> term : expr.getTerms().entrySet()) {
+                scaled = scaled.plus(LinearExpr.variable(term.getKey()).times(term.getValue() / gcd));
+            }
+            expr = scaled;
+        }
+        switch (atom.getKind()) {
+            case LE:
+                return Constraint.lessOrEqual(expr, LinearExpr.ZERO);
+            case EQ:
+                return Constraint.equal(expr, LinearExpr.ZERO);
+            default:
+                return Constraint.notEqual(expr, LinearExpr.ZERO);
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static void collectAtoms(Constraint constraint, List<Constraint> atoms) {
+        if (constraint.isAtom()) {
+            atoms.add(constraint);
+        }
+        for (Constraint operand : constraint.getOperands()) {
+            collectAtoms(operand, atoms);
+        }
+    }
+
+    // ===================================
+    // Variable ordering
+    // ===================================
+
+    /**
+     * Colour refinement: returns a name-independent rank per variable.
+     */
+    private static Map<String, Integer> refine(List<String> variables, List<Constraint> atoms) {
+        Map<String, Integer> rank = new HashMap<>();
+        for (String variable : variables) {
+            rank.put(variable, 0);
+        }
+        int distinct = 1;
+        for (int round = 0; round < MAX_REFINEMENT_ROUNDS && distinct < variables.size(); round++) {
+            Map<String, List<String>> occurrences = new HashMap<>();
+            for (String variable : variables) {
+                occurrences.put(variable, new ArrayList<String>());
+            }
+            for (Constraint atom : atoms) {
+                Map<String, Long> terms = atom.getExpr().getTerms();
+                boolean signFree = atom.getKind() != Constraint.Kind.LE;
+                for (String variable : terms.keySet()) {
+                    List<String> others = new ArrayList<>();
+                    for (Map.Entry<String, Long> other : terms.entrySet()) {
+                        if (!other.getKey().equals(variable)) {
+                            long coefficient = signFree ? Math.abs(other.getValue()) : other.getValue();
+                            others.add(coefficient + "*" + rank.get(other.getKey()));
+                        }
+                    }
+                    Collections.sort(others);
+                    long own = signFree ? Math.abs(terms.get(variable)) : terms.get(variable);
+                    long constant = signFree ? Math.abs(atom.getExpr().getConstant()) : atom.getExpr().getConstant();
+                    occurrences.get(variable).add(atom.getKind() + ":" + own + ":" + constant + ":" + others);
+                }
+            }
+            Map<String, String> signatures = new HashMap<>();
+            TreeSet<String> sorted = new TreeSet<>();
+            for (String variable : variables) {
+                List<String> own = occurrences.get(variable);
+                Collections.sort(own);
+                String signature = rank.get(variable) + "|" + own;
+                signatures.put(variable, signature);
+                sorted.add(signature);
+            }
+            List<String> ranks = new ArrayList<>(sorted);
+            for (String variable : variables) {
+                rank.put(variable, Collections.binarySearch(ranks, signatures.get(variable)));
+            }
+            if (sorted.size() == distinct) {
+                break;
+            }
+            distinct = sorted.size();
+        }
+        return rank;
+    }
+
+    // ===================================
+    // Rendering
+    // ===================================
+
+    private static String render(Constraint constraint, Map<String, Integer> index) {
+        switch (constraint.getKind()) {
+            case TRUE:
+                return "T";
+            case FALSE:
+                return "F";
+            case AND:
+            case OR: {
+                TreeSet<String> operands = new TreeSet<>();
+                for (Constraint operand : constraint.getOperands()) {
+                    operands.add(render(operand, index));
+                }
+                StringBuilder sb = new StringBuilder(constraint.getKind() == Constraint.Kind.AND ? "&(" : "|(");
+                boolean first = true;
+                for (String operand : operands) {
+                    sb.append(first ? "" : ",").append(operand);
+                    first = false;
+                }
+                return sb.append(")").toString();
+            }
+            case LE:
+                return "LE[" + renderExpr(constraint.getExpr(), index, 1) + "]";
+            default: {
+                String positive = renderExpr(constraint.getExpr(), index, 1);
+                String negative = renderExpr(constraint.getExpr(), index, -1);
+                String kind = constraint.getKind() == Constraint.Kind.EQ ? "EQ[" : "NE[";
+                return kind + (positive.compareTo(negative) <= 0 ? positive : negative) + "]";
+            }
+        }
+    }
+
+    private static String renderExpr(LinearExpr expr, Map<String, Integer> index, int sign) {
+        long[] coefficients = new long[index.size()];
+        boolean[] present = new boolean[index.size()];
+        for (Map.Entry<String, Long> term : expr.getTerms().entrySet()) {
+            int i = index.get(term.getKey());
+            coefficients[i] = sign * term.getValue();
+            present[i] = true;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < coefficients.length; i++) {
+            if (present[i]) {
+                sb.append(coefficients[i]).append("*").append(canonicalName(i)).append(" ");
+            }
+        }
+        return sb.append(sign * expr.getConstant()).toString();
+    }
+}
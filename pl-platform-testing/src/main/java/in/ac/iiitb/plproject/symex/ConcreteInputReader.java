@@ -0,0 +1,190 @@
+package in.ac.iiitb.plproject.symex;
+
+import in.ac.iiitb.plproject.atc.ConcreteInput;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the records written by ConcreteInputWriter, one ConcreteInput at a time, so a
+ * consumer can follow a file or pipe while the JPF run is still writing to it.
+ * Streams appended one after another (one per JPF process) are read as one.
+ */
+public class ConcreteInputReader implements Closeable {
+
+    private final DataInputStream in;
+    private final List<String> names = new ArrayList<>();
+    private boolean started;
+
+    public ConcreteInputReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+    }
+
+    public static ConcreteInputReader open(String path) throws IOException {
+        return new ConcreteInputReader(new FileInputStream(path));
+    }
+
+    /**
+     * The next record, or null at the end of the input. Blocks on a pipe until a record
+     * arrives; throws EOFException if the input ends inside a record.
+     */
+    public ConcreteInput read() throws IOException {
+        int tag = in.read();
+        while (tag == ConcreteInputWriter.MAGIC[0]) {
+            readHeader();
+            tag = in.read();
+        }
+        if (tag < 0) {
+            return null;
+        }
+        if (!started || (tag != ConcreteInputWriter.RECORD && tag != ConcreteInputWriter.RECORD_VIOLATED)) {
+            throw new IOException("Not a ConcreteInput record stream (tag " + tag + ")");
+        }
+        String methodName = readName();
+        int count = (int) readVarint();
+        Map<String, String> types = new LinkedHashMap<>();
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readName();
+            types.put(name, readName());
+            values.put(name, readValue());
+        }
+        return new ConcreteInput(methodName, types, values, tag == ConcreteInputWriter.RECORD_VIOLATED);
+    }
+
+    /**
+     * All remaining records.
+     */
+    public List<ConcreteInput> readAll() throws IOException {
+        List<ConcreteInput> inputs = new ArrayList<>();
+        ConcreteInput input;
+        while ((input = read()) != null) {
+            inputs.add(input);
+        }
+        return inputs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readHeader() throws IOException {
+        byte[] magic = ConcreteInputWriter.MAGIC;
+        for (int i = 1; i < magic.length; i++) {
+            if (in.readByte() != magic[i]) {
+                throw new IOException("Not a ConcreteInput record stream");
+            }
+        }
+        int version = in.readUnsignedByte();
+        if (version != ConcreteInputWriter.VERSION) {
+            throw new IOException("Unsupported ConcreteInput stream version " + version);
+        }
+        names.clear();
+        started = true;
+    }
+
+    private String readName() throws IOException {
+        int ref = (int) readVarint();
+        if (ref > 0) {
+            if (ref > names.size()) {
+                throw new IOException("Bad name reference " + ref);
+            }
+            return names.get(ref - 1);
+        }
+        String name = readString();
+        if (names.size() < ConcreteInputWriter.MAX_NAMES) {
+            names.add(name);
+        }
+        return name;
+    }
+
+    private Object readValue() throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case ConcreteInputWriter.V_NULL:
+                return null;
+            case ConcreteInputWriter.V_NON_NULL:
+                return ConcreteInput.NON_NULL;
+            case ConcreteInputWriter.V_FALSE:
+                return false;
+            case ConcreteInputWriter.V_TRUE:
+                return true;
+            case ConcreteInputWriter.V_INT:
+                return (int) readZigzag();
+            case ConcreteInputWriter.V_LONG:
+                return readZigzag();
+            case ConcreteInputWriter.V_SHORT:
+                return (short) readZigzag();
+            case ConcreteInputWriter.V_BYTE:
+                return in.readByte();
+            case ConcreteInputWriter.V_CHAR:
+                return (char) readVarint();
+            case ConcreteInputWriter.V_FLOAT:
+                return in.readFloat();
+            case ConcreteInputWriter.V_DOUBLE:
+                return in.readDouble();
+            case ConcreteInputWriter.V_STRING:
+                return readString();
+            case ConcreteInputWriter.V_SET:
+                return readElements(new HashSet<>());
+            case ConcreteInputWriter.V_LIST:
+                return readElements(new ArrayList<>());
+            case ConcreteInputWriter.V_QUEUE:
+                return readElements(new LinkedList<>());
+            case ConcreteInputWriter.V_MAP:
+                int size = (int) readVarint();
+                Map<Object, Object> map = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue();
+                    map.put(key, readValue());
+                }
+                return map;
+            default:
+                throw new IOException("Bad value tag " + tag);
+        }
+    }
+
+    private Collection<Object> readElements(Collection<Object> elements) throws IOException {
+        int size = (int) readVarint();
+        for (int i = 0; i < size; i++) {
+            elements.add(readValue());
+        }
+        return elements;
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[(int) readVarint()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    private long readZigzag() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
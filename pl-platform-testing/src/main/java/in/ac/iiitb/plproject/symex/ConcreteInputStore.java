@@ -0,0 +1,888 @@
+package in.ac.iiitb.plproject.symex;
+
+import in.ac.iiitb.plproject.atc.ConcreteInput;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only columnar file of ConcreteInputs, memory-mapped for reading and writing,
+ * for campaigns whose inputs do not fit on the heap as ConcreteInput objects.
+ *
+ * Each test method is a table with one column per symbolic input and a fixed schema
+ * (input name and declared type). Rows are buffered per method in primitive arrays
+ * and written as a row group of up to rowGroupRows rows: a header with the method
+ * name and schema, then the assertion-violated bits and one section per column, each
+ * with a null bitmap and values in the column's encoding:
+ *   BITS  boolean, 1 bit         I8   byte             I16  short
+ *   U16   char                   I32  int              I64  long
+ *   F32   float                  F64  double
+ *   UTF8  String: int offsets[rows + 1], then the UTF-8 bytes
+ *   REF   any other type: only the null bitmap; a non-null value is the default
+ *         object SymbolicExecutor gives that type (empty collection or NON_NULL)
+ *
+ * All numbers are little-endian and sections are 8-byte aligned. A group's magic
+ * number is written after its data, so opening the file again only walks the group
+ * headers to rebuild the method index, and drops a group left incomplete by a crash.
+ * Rows are appended through an Appender and scanned through a Cursor straight from
+ * the mapping, without per-row allocation; inputs() materializes ConcreteInputs on
+ * demand. Not thread-safe.
+ */
+public class ConcreteInputStore implements Closeable {
+
+    public static final int DEFAULT_ROW_GROUP_ROWS = 1 << 16;
+
+    public static final byte BITS = 0;
+    public static final byte I8 = 1;
+    public static final byte I16 = 2;
+    public static final byte U16 = 3;
+    public static final byte I32 = 4;
+    public static final byte I64 = 5;
+    public static final byte F32 = 6;
+    public static final byte F64 = 7;
+    public static final byte UTF8 = 8;
+    public static final byte REF = 9;
+
+    private static final long FILE_MAGIC = 0x31534c4f43435441L; // "ATCCOLS1"
+    private static final int GROUP_MAGIC = 0x50524752; // "RGRP"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER = 16;
+    private static final int GROUP_FIXED_HEADER = 32;
+    private static final int MAX_HEAP_BYTES = 64 << 20;
+
+    private final FileChannel channel;
+    private final int rowGroupRows;
+    private final Map<String, Table> tables = new LinkedHashMap<>();
+    private long end;
+
+    private ConcreteInputStore(FileChannel channel, int rowGroupRows) {
+        this.channel = channel;
+        this.rowGroupRows = rowGroupRows;
+    }
+
+    public static ConcreteInputStore open(Path file) throws IOException {
+        return open(file, DEFAULT_ROW_GROUP_ROWS);
+    }
+
+    /**
+     * Open (or create) a store; existing row groups are indexed and new rows appended.
+     */
+    public static ConcreteInputStore open(Path file, int rowGroupRows) throws IOException {
+        if (rowGroupRows < 1) {
+            throw new IllegalArgumentException("Row group size must be positive: " + rowGroupRows);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        ConcreteInputStore store = new ConcreteInputStore(channel, rowGroupRows);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Column encoding for a declared input type.
+     */
+    public static byte encodingOf(String typeName) {
+        switch (SymbolicExecutor.unbox(typeName)) {
+            case "boolean": return BITS;
+            case "byte": return I8;
+            case "short": return I16;
+            case "char": return U16;
+            case "int": return I32;
+            case "long": return I64;
+            case "float": return F32;
+            case "double": return F64;
+            case "String":
+            case "java.lang.String":
+                return UTF8;
+            default: return REF;
+        }
+    }
+
+    // ===================================
+    // Index
+    // ===================================
+
+    public Set<String> getMethods() {
+        return Collections.unmodifiableSet(tables.keySet());
+    }
+
+    /**
+     * Input name -&gt; declared type of a method's table, or null if it has none.
+     */
+    public Map<String, String> getSchema(String methodName) {
+        Table table = tables.get(methodName);
+        return table != null ? table.types : null;
+    }
+
+    /**
+     * Rows of a method, including rows not yet written to the file.
+     */
+    public long getRowCount(String methodName) {
+        Table table = tables.get(methodName);
+        return table != null ? table.sealedRows + (table.appender != null ? table.appender.rows : 0) : 0;
+    }
+
+    public int getRowGroupCount(String methodName) {
+        Table table = tables.get(methodName);
+        return table != null ? table.groups.size() : 0;
+    }
+
+    /**
+     * Bytes written to the file so far.
+     */
+    public long getFileSize() {
+        return end;
+    }
+
+    // ===================================
+    // Appending
+    // ===================================
+
+    /**
+     * The appender of a method's table, creating the table with the given schema (input
+     * name -&gt; declared type). An existing table must have the same schema.
+     */
+    public Appender appender(String methodName, Map<String, String> inputTypes) {
+        Table table = tables.get(methodName);
+        if (table == null) {
+            table = new Table(methodName, inputTypes);
+            tables.put(methodName, table);
+        } else if (!table.types.equals(inputTypes) || !new ArrayList<>(table.types.keySet())
+                .equals(new ArrayList<>(inputTypes.keySet()))) {
+            throw new IllegalArgumentException("Schema of " + methodName + " is " + table.types + ", not " + inputTypes);
+        }
+        if (table.appender == null) {
+            table.appender = new Appender(table);
+        }
+        return table.appender;
+    }
+
+    /**
+     * Append one input (boxes; use an Appender for bulk loads).
+     */
+    public void append(ConcreteInput input) throws IOException {
+        Map<String, String> types = new LinkedHashMap<>();
+        for (String name : input.getInputNames()) {
+            types.put(name, input.getType(name));
+        }
+        Appender appender = appender(input.getMethodName(), types);
+        for (int col = 0; col < appender.table.columns; col++) {
+            appender.setValue(col, input.getValue(appender.table.names[col]));
+        }
+        appender.endRow(input.isAssertionViolated());
+    }
+
+    public void appendAll(Iterable<ConcreteInput> inputs) throws IOException {
+        for (ConcreteInput input : inputs) {
+            append(input);
+        }
+    }
+
+    /**
+     * Write every buffered row to the file.
+     */
+    public void flush() throws IOException {
+        for (Table table : tables.values()) {
+            if (table.appender != null) {
+                table.appender.seal();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Builds the rows of one method. Set each column of a row (unset columns are null),
+     * then endRow(); a full row group is written to the file by endRow().
+     */
+    public final class Appender {
+        private final Table table;
+        private final long[][] values;
+        private final long[][] nulls;
+        private final int[][] offsets;
+        private final byte[][] heaps;
+        private final boolean[] set;
+        private long[] violated = new long[16];
+        private int rows;
+        private int heapBytes;
+
+        private Appender(Table table) {
+            this.table = table;
+            int columns = table.columns;
+            values = new long[columns][];
+            nulls = new long[columns][];
+            offsets = new int[columns][];
+            heaps = new byte[columns][];
+            set = new boolean[columns];
+            for (int col = 0; col < columns; col++) {
+                nulls[col] = new long[16];
+                if (table.encodings[col] == UTF8) {
+                    offsets[col] = new int[1024 + 1];
+                    heaps[col] = new byte[4096];
+                } else if (table.encodings[col] != REF) {
+                    values[col] = new long[1024];
+                }
+            }
+        }
+
+        /**
+         * Column index of an input, or -1.
+         */
+        public int column(String inputName) {
+            return table.column(inputName);
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public void setLong(int col, long value) {
+            ensureValues(col);
+            values[col][rows] = value;
+            set[col] = true;
+        }
+
+        public void setInt(int col, int value) {
+            setLong(col, value);
+        }
+
+        public void setBoolean(int col, boolean value) {
+            setLong(col, value ? 1 : 0);
+        }
+
+        public void setChar(int col, char value) {
+            setLong(col, value);
+        }
+
+        public void setDouble(int col, double value) {
+            setLong(col, table.encodings[col] == F32
+                ? Float.floatToRawIntBits((float) value) : Double.doubleToRawLongBits(value));
+        }
+
+        public void setString(int col, CharSequence value) {
+            if (value == null) {
+                setNull(col);
+                return;
+            }
+            if (table.encodings[col] != UTF8) {
+                throw new IllegalArgumentException(table.names[col] + " is not a String column");
+            }
+            byte[] heap = ensureHeap(col, value.length() * 3);
+            int pos = offsets[col][rows];
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    heap[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    heap[pos++] = (byte) (0xC0 | c >> 6);
+                    heap[pos++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    heap[pos++] = (byte) (0xF0 | cp >> 18);
+                    heap[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    heap[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    heap[pos++] = (byte) (0x80 | cp & 0x3F);
+                } else {
+                    heap[pos++] = (byte) (0xE0 | c >> 12);
+                    heap[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    heap[pos++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            offsets[col][rows + 1] = pos;
+            set[col] = true;
+        }
+
+        /**
+         * Mark a REF column non-null (its value reads back as the type's default object).
+         */
+        public void setPresent(int col) {
+            set[col] = true;
+        }
+
+        public void setNull(int col) {
+            set[col] = false;
+        }
+
+        /**
+         * Set a column from a boxed value as found in a ConcreteInput.
+         */
+        public void setValue(int col, Object value) {
+            if (value == null) {
+                setNull(col);
+                return;
+            }
+            switch (table.encodings[col]) {
+                case BITS:
+                    setBoolean(col, (Boolean) value);
+                    break;
+                case U16:
+                    setChar(col, (Character) value);
+                    break;
+                case F32:
+                case F64:
+                    setDouble(col, ((Number) value).doubleValue());
+                    break;
+                case UTF8:
+                    setString(col, (String) value);
+                    break;
+                case REF:
+                    if (!value.equals(SymbolicExecutor.defaultObject(table.typeNames[col]))) {
+                        throw new IllegalArgumentException("Only null and default objects are stored for "
+                            + table.names[col] + ": " + value);
+                    }
+                    setPresent(col);
+                    break;
+                default:
+                    setLong(col, ((Number) value).longValue());
+            }
+        }
+
+        /**
+         * Finish the current row.
+         */
+        public void endRow(boolean assertionViolated) throws IOException {
+            int words = (rows >>> 6) + 1;
+            if (violated.length < words) {
+                violated = Arrays.copyOf(violated, violated.length * 2);
+            }
+            if (assertionViolated) {
+                violated[rows >>> 6] |= 1L << rows;
+            }
+            for (int col = 0; col < table.columns; col++) {
+                if (nulls[col].length < words) {
+                    nulls[col] = Arrays.copyOf(nulls[col], nulls[col].length * 2);
+                }
+                if (!set[col]) {
+                    nulls[col][rows >>> 6] |= 1L << rows;
+                    if (values[col] != null) {
+                        ensureValues(col);
+                        values[col][rows] = 0;
+                    } else if (offsets[col] != null) {
+                        ensureHeap(col, 0);
+                        offsets[col][rows + 1] = offsets[col][rows];
+                    }
+                }
+                if (offsets[col] != null) {
+                    heapBytes = Math.max(heapBytes, offsets[col][rows + 1]);
+                }
+                set[col] = false;
+            }
+            rows++;
+            if (rows >= rowGroupRows || heapBytes >= MAX_HEAP_BYTES) {
+                seal();
+            }
+        }
+
+        private void ensureValues(int col) {
+            if (values[col] == null) {
+                throw new IllegalArgumentException(table.names[col] + " is not a primitive column");
+            }
+            if (rows >= values[col].length) {
+                values[col] = Arrays.copyOf(values[col], Math.max(rows + 1, values[col].length * 2));
+            }
+        }
+
+        private byte[] ensureHeap(int col, int extra) {
+            if (rows + 2 > offsets[col].length) {
+                offsets[col] = Arrays.copyOf(offsets[col], Math.max(rows + 2, offsets[col].length * 2));
+            }
+            int needed = offsets[col][rows] + extra;
+            if (needed > heaps[col].length) {
+                heaps[col] = Arrays.copyOf(heaps[col], Math.max(needed, heaps[col].length * 2));
+            }
+            return heaps[col];
+        }
+
+        /**
+         * Write the buffered rows as one row group and start an empty one.
+         */
+        private void seal() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            byte[] header = table.header;
+            int headerLength = align(GROUP_FIXED_HEADER + header.length);
+            long length = headerLength + align(bitBytes(rows));
+            for (int col = 0; col < table.columns; col++) {
+                length += columnBytes(table.encodings[col], rows, offsets[col] != null ? offsets[col][rows] : 0);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, end, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, length);
+            buffer.putInt(16, rows);
+            buffer.putInt(20, table.columns);
+            buffer.putInt(24, headerLength);
+            buffer.position(GROUP_FIXED_HEADER);
+            buffer.put(header);
+
+            int pos = headerLength;
+            pos = putBits(buffer, pos, violated, rows);
+            for (int col = 0; col < table.columns; col++) {
+                pos = putBits(buffer, pos, nulls[col], rows);
+                pos = putValues(buffer, pos, col);
+            }
+            buffer.putInt(0, GROUP_MAGIC);
+
+            table.addGroup(new Group(table, buffer, rows));
+            end += length;
+            Arrays.fill(violated, 0);
+            for (int col = 0; col < table.columns; col++) {
+                Arrays.fill(nulls[col], 0);
+            }
+            rows = 0;
+            heapBytes = 0;
+        }
+
+        private int putValues(ByteBuffer buffer, int pos, int col) {
+            long[] column = values[col];
+            switch (table.encodings[col]) {
+                case BITS:
+                    for (int row = 0; row < rows; row += 8) {
+                        int b = 0;
+                        for (int bit = 0; bit < 8 && row + bit < rows; bit++) {
+                            b |= (int) (column[row + bit] & 1) << bit;
+                        }
+                        buffer.put(pos + (row >>> 3), (byte) b);
+                    }
+                    return pos + align(bitBytes(rows));
+                case I8:
+                    for (int row = 0; row < rows; row++) {
+                        buffer.put(pos + row, (byte) column[row]);
+                    }
+                    return pos + align(rows);
+                case I16:
+                case U16:
+                    for (int row = 0; row < rows; row++) {
+                        buffer.putShort(pos + 2 * row, (short) column[row]);
+                    }
+                    return pos + align(2L * rows);
+                case I32:
+                case F32:
+                    for (int row = 0; row < rows; row++) {
+                        buffer.putInt(pos + 4 * row, (int) column[row]);
+                    }
+                    return pos + align(4L * rows);
+                case I64:
+                case F64:
+                    for (int row = 0; row < rows; row++) {
+                        buffer.putLong(pos + 8 * row, column[row]);
+                    }
+                    return pos + 8 * rows;
+                case UTF8:
+                    int[] offs = offsets[col];
+                    for (int row = 0; row <= rows; row++) {
+                        buffer.putInt(pos + 4 * row, offs[row]);
+                    }
+                    pos += align(4L * (rows + 1));
+                    buffer.position(pos);
+                    buffer.put(heaps[col], 0, offs[rows]);
+                    offs[0] = 0;
+                    return pos + align(offs[rows]);
+                default:
+                    return pos;
+            }
+        }
+    }
+
+    private static int putBits(ByteBuffer buffer, int pos, long[] words, int rows) {
+        int bytes = bitBytes(rows);
+        for (int i = 0; i < bytes; i++) {
+            buffer.put(pos + i, (byte) (words[i >>> 3] >>> ((i & 7) * 8)));
+        }
+        return pos + align(bytes);
+    }
+
+    private static int bitBytes(int rows) {
+        return (rows + 7) >>> 3;
+    }
+
+    private static int align(long bytes) {
+        return (int) ((bytes + 7) & ~7L);
+    }
+
+    private static long columnBytes(byte encoding, int rows, int heapBytes) {
+        long bits = align(bitBytes(rows));
+        switch (encoding) {
+            case BITS: return bits + bits;
+            case I8: return bits + align(rows);
+            case I16:
+            case U16: return bits + align(2L * rows);
+            case I32:
+            case F32: return bits + align(4L * rows);
+            case I64:
+            case F64: return bits + 8L * rows;
+            case UTF8: return bits + align(4L * (rows + 1)) + align(heapBytes);
+            default: return bits;
+        }
+    }
+
+    // ===================================
+    // Scanning
+    // ===================================
+
+    /**
+     * Cursor over all rows of a method (none if the method has no table). Rows still
+     * buffered in an appender are not visible until flush().
+     */
+    public Cursor scan(String methodName) {
+        Table table = tables.get(methodName);
+        return new Cursor(table != null ? table : new Table(methodName, Collections.<String, String>emptyMap()));
+    }
+
+    /**
+     * A method's written rows as a read-only list; each get() materializes one input.
+     */
+    public List<ConcreteInput> inputs(String methodName) {
+        final Table table = tables.get(methodName);
+        if (table == null) {
+            return Collections.emptyList();
+        }
+        return new AbstractList<ConcreteInput>() {
+            @Override
+            public ConcreteInput get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Row " + index + " of " + size());
+                }
+                int g = Collections.binarySearch(table.groupStarts, (long) index);
+                if (g < 0) {
+                    g = -g - 2;
+                }
+                Cursor cursor = new Cursor(table);
+                cursor.seek(g, (int) (index - table.groupStarts.get(g)));
+                return cursor.toInput();
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(Integer.MAX_VALUE, table.sealedRows);
+            }
+        };
+    }
+
+    /**
+     * Reads rows straight from the mapped file. Column indexes are the schema order.
+     */
+    public final class Cursor {
+        private final Table table;
+        private int groupIndex = -1;
+        private Group group;
+        private int row = -1;
+
+        private Cursor(Table table) {
+            this.table = table;
+        }
+
+        /**
+         * Advance to the next row; false when there are no more.
+         */
+        public boolean next() {
+            while (group == null || row + 1 >= group.rows) {
+                if (groupIndex + 1 >= table.groups.size()) {
+                    return false;
+                }
+                group = table.groups.get(++groupIndex);
+                row = -1;
+            }
+            row++;
+            return true;
+        }
+
+        private void seek(int groupIndex, int row) {
+            this.groupIndex = groupIndex;
+            this.group = table.groups.get(groupIndex);
+            this.row = row;
+        }
+
+        public int column(String inputName) {
+            return table.column(inputName);
+        }
+
+        public int getColumnCount() {
+            return table.columns;
+        }
+
+        public boolean isAssertionViolated() {
+            return bit(group.violatedOffset, row);
+        }
+
+        public boolean isNull(int col) {
+            return bit(group.nullOffsets[col], row);
+        }
+
+        public boolean getBoolean(int col) {
+            return bit(group.valueOffsets[col], row);
+        }
+
+        /**
+         * Value of an integral (or boolean, as 0/1) column.
+         */
+        public long getLong(int col) {
+            ByteBuffer buffer = group.buffer;
+            int offset = group.valueOffsets[col];
+            switch (table.encodings[col]) {
+                case BITS: return bit(offset, row) ? 1 : 0;
+                case I8: return buffer.get(offset + row);
+                case I16: return buffer.getShort(offset + 2 * row);
+                case U16: return buffer.getChar(offset + 2 * row);
+                case I32: return buffer.getInt(offset + 4 * row);
+                case I64: return buffer.getLong(offset + 8 * row);
+                default: throw new IllegalArgumentException(table.names[col] + " is not an integral column");
+            }
+        }
+
+        public int getInt(int col) {
+            return (int) getLong(col);
+        }
+
+        public double getDouble(int col) {
+            ByteBuffer buffer = group.buffer;
+            int offset = group.valueOffsets[col];
+            switch (table.encodings[col]) {
+                case F32: return buffer.getFloat(offset + 4 * row);
+                case F64: return buffer.getDouble(offset + 8 * row);
+                default: return getLong(col);
+            }
+        }
+
+        /**
+         * UTF-8 length of a String column's value (no allocation).
+         */
+        public int getStringLength(int col) {
+            int offset = group.valueOffsets[col];
+            return group.buffer.getInt(offset + 4 * (row + 1)) - group.buffer.getInt(offset + 4 * row);
+        }
+
+        public String getString(int col) {
+            if (isNull(col)) {
+                return null;
+            }
+            int offset = group.valueOffsets[col];
+            int start = group.buffer.getInt(offset + 4 * row);
+            byte[] bytes = new byte[getStringLength(col)];
+            ByteBuffer heap = group.buffer.duplicate();
+            heap.position(group.heapOffsets[col] + start);
+            heap.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Boxed value of a column, as in a ConcreteInput.
+         */
+        public Object getValue(int col) {
+            if (isNull(col)) {
+                return null;
+            }
+            switch (table.encodings[col]) {
+                case BITS: return getBoolean(col);
+                case I8: return (byte) getLong(col);
+                case I16: return (short) getLong(col);
+                case U16: return (char) getLong(col);
+                case I32: return getInt(col);
+                case I64: return getLong(col);
+                case F32: return (float) getDouble(col);
+                case F64: return getDouble(col);
+                case UTF8: return getString(col);
+                default: return SymbolicExecutor.defaultObject(table.typeNames[col]);
+            }
+        }
+
+        public ConcreteInput toInput() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int col = 0; col < table.columns; col++) {
+                values.put(table.names[col], getValue(col));
+            }
+            return new ConcreteInput(table.methodName, table.types, values, isAssertionViolated());
+        }
+
+        private boolean bit(int offset, int index) {
+            return (group.buffer.get(offset + (index >>> 3)) >>> (index & 7) & 1) != 0;
+        }
+    }
+
+    // ===================================
+    // File structure
+    // ===================================
+
+    private void load() throws IOException {
+        long size = channel.size();
+        ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        if (size < FILE_HEADER) {
+            fileHeader.putLong(0, FILE_MAGIC).putInt(8, VERSION);
+            channel.truncate(0);
+            channel.write(fileHeader, 0);
+            end = FILE_HEADER;
+            return;
+        }
+        channel.read(fileHeader, 0);
+        if (fileHeader.getLong(0) != FILE_MAGIC || fileHeader.getInt(8) != VERSION) {
+            throw new IOException("Not a ConcreteInput store (version " + VERSION + ")");
+        }
+        long pos = FILE_HEADER;
+        ByteBuffer fixed = ByteBuffer.allocate(GROUP_FIXED_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        while (pos + GROUP_FIXED_HEADER <= size) {
+            fixed.clear();
+            channel.read(fixed, pos);
+            long length = fixed.getLong(8);
+            int headerLength = fixed.getInt(24);
+            if (fixed.getInt(0) != GROUP_MAGIC || length <= 0 || pos + length > size
+                    || headerLength < GROUP_FIXED_HEADER || headerLength > length) {
+                break;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, pos, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer header = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            header.position(GROUP_FIXED_HEADER);
+            String methodName = readName(header);
+            Map<String, String> types = new LinkedHashMap<>();
+            for (int col = 0; col < buffer.getInt(20); col++) {
+                String name = readName(header);
+                types.put(name, readName(header));
+                header.get();
+            }
+            Table table = tables.get(methodName);
+            if (table == null) {
+                table = new Table(methodName, types);
+                tables.put(methodName, table);
+            } else if (!table.types.equals(types)) {
+                throw new IOException("Row group at " + pos + " changes the schema of " + methodName);
+            }
+            table.addGroup(new Group(table, buffer, buffer.getInt(16)));
+            pos += length;
+        }
+        end = pos;
+        if (end < size) {
+            channel.truncate(end);
+        }
+    }
+
+    private static String readName(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeName(ByteBuffer buffer, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Name too long: " + name.substring(0, 64) + "...");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Schema and row groups of one method.
+     */
+    private static final class Table {
+        final String methodName;
+        final Map<String, String> types;
+        final int columns;
+        final String[] names;
+        final String[] typeNames;
+        final byte[] encodings;
+        final byte[] header;
+        final List<Group> groups = new ArrayList<>();
+        final List<Long> groupStarts = new ArrayList<>();
+        long sealedRows;
+        Appender appender;
+
+        Table(String methodName, Map<String, String> inputTypes) {
+            this.methodName = methodName;
+            this.types = Collections.unmodifiableMap(new LinkedHashMap<>(inputTypes));
+            this.columns = types.size();
+            this.names = types.keySet().toArray(new String[0]);
+            this.typeNames = types.values().toArray(new String[0]);
+            this.encodings = new byte[columns];
+            int size = 2 + methodName.length() * 3;
+            for (int col = 0; col < columns; col++) {
+                encodings[col] = encodingOf(typeNames[col]);
+                size += 5 + (names[col].length() + typeNames[col].length()) * 3;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            writeName(buffer, methodName);
+            for (int col = 0; col < columns; col++) {
+                writeName(buffer, names[col]);
+                writeName(buffer, typeNames[col]);
+                buffer.put(encodings[col]);
+            }
+            this.header = Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        int column(String inputName) {
+            for (int col = 0; col < columns; col++) {
+                if (names[col].equals(inputName)) {
+                    return col;
+                }
+            }
+            return -1;
+        }
+
+        void addGroup(Group group) {
+            groups.add(group);
+            groupStarts.add(sealedRows);
+            sealedRows += group.rows;
+        }
+    }
+
+    /**
+     * Section offsets of one mapped row group.
+     */
+    private static final class Group {
+        final ByteBuffer buffer;
+        final int rows;
+        final int violatedOffset;
+        final int[] nullOffsets;
+        final int[] valueOffsets;
+        final int[] heapOffsets;
+
+        Group(Table table, ByteBuffer buffer, int rows) {
+            this.buffer = buffer;
+            this.rows = rows;
+            nullOffsets = new int[table.columns];
+            valueOffsets = new int[table.columns];
+            heapOffsets = new int[table.columns];
+            int pos = buffer.getInt(24);
+            violatedOffset = pos;
+            int bits = align(bitBytes(rows));
+            pos += bits;
+            for (int col = 0; col < table.columns; col++) {
+                nullOffsets[col] = pos;
+                valueOffsets[col] = pos + bits;
+                int heapBytes = 0;
+                if (table.encodings[col] == UTF8) {
+                    heapOffsets[col] = valueOffsets[col] + align(4L * (rows + 1));
+                    heapBytes = buffer.getInt(valueOffsets[col] + 4 * rows);
+                }
+                pos += columnBytes(table.encodings[col], rows, heapBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package in.ac.iiitb.plproject.symex;
+
+import in.ac.iiitb.plproject.atc.ConcreteInput;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes ConcreteInputs as compact binary records, to be read back by
+ * ConcreteInputReader. Meant for a file or a named pipe that a JPF run
+ * (JpfInputCollector) and the rest of the pipeline share.
+ *
+ * Format:
+ *   stream := header record*           a file may hold several streams back to back
+ *   header := "ATCI" version           version is one byte, VERSION
+ *   record := tag method count (name type value)^count
+ *   tag    := RECORD or RECORD_VIOLATED (one byte)
+ *   name, method, type := ref [length utf8]   ref 0 defines the next table entry,
+ *                                             ref k repeats entry k - 1
+ *   value  := value tag + payload          see the V_* constants
+ *
+ * Counts and lengths are unsigned varints (7 bits per byte, low bits first); integer
+ * values are zigzag varints. Method, input and type names are written once per stream
+ * (up to MAX_NAMES of them) and referenced afterwards, so a record of a few int inputs
+ * takes about ten bytes. Collection values are written with their elements.
+ */
+public class ConcreteInputWriter implements Closeable, Flushable {
+
+    static final byte[] MAGIC = {'A', 'T', 'C', 'I'};
+    static final int VERSION = 1;
+    static final int MAX_NAMES = 4096;
+
+    static final int RECORD = 0x10;
+    static final int RECORD_VIOLATED = 0x11;
+
+    static final int V_NULL = 0;
+    static final int V_NON_NULL = 1;
+    static final int V_FALSE = 2;
+    static final int V_TRUE = 3;
+    static final int V_INT = 4;
+    static final int V_LONG = 5;
+    static final int V_SHORT = 6;
+    static final int V_BYTE = 7;
+    static final int V_CHAR = 8;
+    static final int V_FLOAT = 9;
+    static final int V_DOUBLE = 10;
+    static final int V_STRING = 11;
+    static final int V_SET = 12;
+    static final int V_MAP = 13;
+    static final int V_LIST = 14;
+    static final int V_QUEUE = 15;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> names = new HashMap<>();
+    private long records;
+
+    public ConcreteInputWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.write(MAGIC);
+        this.out.write(VERSION);
+    }
+
+    /**
+     * Append to a file, or write into a named pipe, at the given path.
+     */
+    public static ConcreteInputWriter open(String path) throws IOException {
+        return new ConcreteInputWriter(new FileOutputStream(path, true));
+    }
+
+    public void write(ConcreteInput input) throws IOException {
+        out.write(input.isAssertionViolated() ? RECORD_VIOLATED : RECORD);
+        writeName(input.getMethodName());
+        List<String> inputNames = input.getInputNames();
+        writeVarint(inputNames.size());
+        for (String name : inputNames) {
+            writeName(name);
+            writeName(input.getType(name));
+            writeValue(input.getValue(name));
+        }
+        records++;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Bytes written so far, header included (saturates at Integer.MAX_VALUE).
+     */
+    public int getBytes() {
+        return out.size();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeName(String name) throws IOException {
+        Integer ref = names.get(name);
+        if (ref != null) {
+            writeVarint(ref + 1);
+            return;
+        }
+        writeVarint(0);
+        writeString(name);
+        if (names.size() < MAX_NAMES) {
+            names.put(name, names.size());
+        }
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            out.write(V_NULL);
+        } else if (value == ConcreteInput.NON_NULL) {
+            out.write(V_NON_NULL);
+        } else if (value instanceof Boolean) {
+            out.write((Boolean) value ? V_TRUE : V_FALSE);
+        } else if (value instanceof Integer) {
+            out.write(V_INT);
+            writeVarint(zigzag((Integer) value));
+        } else if (value instanceof Long) {
+            out.write(V_LONG);
+            writeVarint(zigzag((Long) value));
+        } else if (value instanceof Short) {
+            out.write(V_SHORT);
+            writeVarint(zigzag((Short) value));
+        } else if (value instanceof Byte) {
+            out.write(V_BYTE);
+            out.write((Byte) value);
+        } else if (value instanceof Character) {
+            out.write(V_CHAR);
+            writeVarint((Character) value);
+        } else if (value instanceof Float) {
+            out.write(V_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.write(V_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            out.write(V_STRING);
+            writeString((String) value);
+        } else if (value instanceof Set) {
+            out.write(V_SET);
+            writeElements((Set<?>) value);
+        } else if (value instanceof Map) {
+            out.write(V_MAP);
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeVarint(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        } else if (value instanceof LinkedList) {
+            out.write(V_QUEUE);
+            writeElements((LinkedList<?>) value);
+        } else if (value instanceof List) {
+            out.write(V_LIST);
+            writeElements((List<?>) value);
+        } else {
+            throw new IllegalArgumentException("Cannot encode input value of " + value.getClass().getName());
+        }
+    }
+
+    private void writeElements(Collection<?> elements) throws IOException {
+        writeVarint(elements.size());
+        for (Object element : elements) {
+            writeValue(element);
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
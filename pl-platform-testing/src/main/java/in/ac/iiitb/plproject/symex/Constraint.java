@@ -0,0 +1,257 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable boolean formula over linear integer atoms, the path-condition language of
+ * SymbolicExecutor and the ConstraintSolvers.
+ *
+ * Atoms compare a LinearExpr against zero (e &lt;= 0, e == 0, e != 0); strict and
+ * reversed comparisons are rewritten into these over the integers. Negation is pushed
+ * into the atoms on construction, so formulas are always in negation normal form, and
+ * atoms without variables fold to TRUE or FALSE. Nested ANDs and ORs are flattened.
+ */
+public final class Constraint {
+
+    public enum Kind {
+        TRUE, FALSE, AND, OR, LE, EQ, NE
+    }
+
+    public static final Constraint TRUE = new Constraint(Kind.TRUE, null, Collections.<Constraint>emptyList());
+    public static final Constraint FALSE = new Constraint(Kind.FALSE, null, Collections.<Constraint>emptyList());
+
+    private final Kind kind;
+    private final LinearExpr expr; // atoms only
+    private final List<Constraint> operands; // AND/OR only
+
+    private Constraint(Kind kind, LinearExpr expr, List<Constraint> operands) {
+        this.kind = kind;
+        this.expr = expr;
+        this.operands = operands;
+    }
+
+    // ===================================
+    // Atoms
+    // ===================================
+
+    private static Constraint atom(Kind kind, LinearExpr expr) {
+        if (expr.isConstant()) {
+            long value = expr.getConstant();
+            boolean holds = kind == Kind.LE ? value <= 0 : kind == Kind.EQ ? value == 0 : value != 0;
+            return holds ? TRUE : FALSE;
+        }
+        return new Constraint(kind, expr, Collections.<Constraint>emptyList());
+    }
+
+    public static Constraint lessOrEqual(LinearExpr left, LinearExpr right) {
+        return atom(Kind.LE, left.minus(right));
+    }
+
+    public static Constraint less(LinearExpr left, LinearExpr right) {
+        return atom(Kind.LE, left.minus(right).plus(1));
+    }
+
+    public static Constraint greaterOrEqual(LinearExpr left, LinearExpr right) {
+        return lessOrEqual(right, left);
+    }
+
+    public static Constraint greater(LinearExpr left, LinearExpr right) {
+        return less(right, left);
+    }
+
+    public static Constraint equal(LinearExpr left, LinearExpr right) {
+        return atom(Kind.EQ, left.minus(right));
+    }
+
+    public static Constraint notEqual(LinearExpr left, LinearExpr right) {
+        return atom(Kind.NE, left.minus(right));
+    }
+
+    /**
+     * lo &lt;= variable &lt;= hi.
+     */
+    public static Constraint range(String variable, long lo, long hi) {
+        LinearExpr var = LinearExpr.variable(variable);
+        return and(greaterOrEqual(var, LinearExpr.constant(lo)), lessOrEqual(var, LinearExpr.constant(hi)));
+    }
+
+    // ===================================
+    // Connectives
+    // ===================================
+
+    public static Constraint and(Constraint left, Constraint right) {
+        return join(Kind.AND, Arrays.asList(left, right));
+    }
+
+    public static Constraint or(Constraint left, Constraint right) {
+        return join(Kind.OR, Arrays.asList(left, right));
+    }
+
+    public static Constraint and(List<Constraint> constraints) {
+        return join(Kind.AND, constraints);
+    }
+
+    public static Constraint or(List<Constraint> constraints) {
+        return join(Kind.OR, constraints);
+    }
+
+    private static Constraint join(Kind kind, List<Constraint> parts) {
+        // TRUE is the unit of AND and absorbs OR; FALSE the other way round
+        Constraint unit = kind == Kind.AND ? TRUE : FALSE;
+        Constraint absorbing = kind == Kind.AND ? FALSE : TRUE;
+        List<Constraint> joined = new ArrayList<>();
+        for (Constraint part : parts) {
+            if (part == absorbing) {
+                return absorbing;
+            }
+            if (part.kind == kind) {
+                joined.addAll(part.operands);
+            } else if (part != unit) {
+                joined.add(part);
+            }
+        }
+        if (joined.isEmpty()) {
+            return unit;
+        }
+        if (joined.size() == 1) {
+            return joined.get(0);
+        }
+        return new Constraint(kind, null, Collections.unmodifiableList(joined));
+    }
+
+    public Constraint not() {
+        switch (kind) {
+            case TRUE:
+                return FALSE;
+            case FALSE:
+                return TRUE;
+            case LE:
+                // !(e <= 0)  <=>  e >= 1  <=>  -e + 1 <= 0
+                return atom(Kind.LE, expr.times(-1).plus(1));
+            case EQ:
+                return atom(Kind.NE, expr);
+            case NE:
+                return atom(Kind.EQ, expr);
+            default:
+                List<Constraint> negated = new ArrayList<>(operands.size());
+                for (Constraint operand : operands) {
+                    negated.add(operand.not());
+                }
+                return join(kind == Kind.AND ? Kind.OR : Kind.AND, negated);
+        }
+    }
+
+    // ===================================
+    // Accessors
+    // ===================================
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isAtom() {
+        return kind == Kind.LE || kind == Kind.EQ || kind == Kind.NE;
+    }
+
+    /**
+     * Left-hand side of an atom (compared against zero); null for other kinds.
+     */
+    public LinearExpr getExpr() {
+        return expr;
+    }
+
+    /**
+     * Operands of AND/OR; empty for other kinds.
+     */
+    public List<Constraint> getOperands() {
+        return operands;
+    }
+
+    public void addVariables(Set<String> variables) {
+        if (isAtom()) {
+            variables.addAll(expr.getTerms().keySet());
+        }
+        for (Constraint operand : operands) {
+            operand.addVariables(variables);
+        }
+    }
+
+    /**
+     * Truth value under an assignment; unassigned variables count as 0.
+     */
+    public boolean evaluate(Map<String, Long> model) {
+        switch (kind) {
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            case LE:
+                return expr.evaluate(model) <= 0;
+            case EQ:
+                return expr.evaluate(model) == 0;
+            case NE:
+                return expr.evaluate(model) != 0;
+            case AND:
+                for (Constraint operand : operands) {
+                    if (!operand.evaluate(model)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                for (Constraint operand : operands) {
+                    if (operand.evaluate(model)) {
+                        return true;
+                    }
+                }
+                return false;
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Constraint)) {
+            return false;
+        }
+        Constraint other = (Constraint) obj;
+        return kind == other.kind && (expr == null ? other.expr == null : expr.equals(other.expr))
+            && operands.equals(other.operands);
+    }
+
+    @Override
+    public int hashCode() {
+        return (kind.hashCode() * 31 + (expr != null ? expr.hashCode() : 0)) * 31 + operands.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case TRUE:
+                return "true";
+            case FALSE:
+                return "false";
+            case LE:
+                return expr + " <= 0";
+            case EQ:
+                return expr + " == 0";
+            case NE:
+                return expr + " != 0";
+            default:
+                StringBuilder sb = new StringBuilder();
+                String separator = kind == Kind.AND ? " && " : " || ";
+                for (Constraint operand : operands) {
+                    if (sb.length() > 0) {
+                        sb.append(separator);
+                    }
+                    boolean parenthesize = !operand.isAtom();
+                    sb.append(parenthesize ? "(" : "").append(operand).append(parenthesize ? ")" : "");
+                }
+                return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package in.ac.iiitb.plproject.symex;
+
+/**
+ * A decision procedure for path conditions over bounded integers: every variable
+ * ranges over [getMinInt(), getMaxInt()] unless the constraint narrows it.
+ *
+ * A solver that cannot decide a constraint (outside its fragment, budget exhausted,
+ * backend unavailable) answers UNKNOWN, which lets TieredSolver pass it on.
+ */
+public interface ConstraintSolver {
+
+    /**
+     * Short name used in statistics and configuration, e.g. "interval".
+     */
+    String getName();
+
+    long getMinInt();
+
+    long getMaxInt();
+
+    SolverResult solve(Constraint constraint);
+}
@@ -0,0 +1,140 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Fast first tier for TieredSolver: decides constant constraints and conjunctions of
+ * single-variable atoms (range checks such as "x &gt; 0 &amp;&amp; x &lt;= 10 &amp;&amp; y != 3"),
+ * which is what most preconditions reduce to. Each variable's bounds are intersected
+ * and its excluded values collected, in one pass and without search.
+ *
+ * Anything else (disjunctions, atoms over several variables) is UNKNOWN and goes to
+ * the next tier. Models pick the same values BoundedLinearSolver would: the value
+ * closest to 0, then downwards, then upwards.
+ */
+public class IntervalSolver implements ConstraintSolver {
+
+    private final long minInt;
+    private final long maxInt;
+
+    public IntervalSolver() {
+        this(BoundedLinearSolver.DEFAULT_MIN_INT, BoundedLinearSolver.DEFAULT_MAX_INT);
+    }
+
+    public IntervalSolver(long minInt, long maxInt) {
+        this.minInt = minInt;
+        this.maxInt = maxInt;
+    }
+
+    @Override
+    public String getName() {
+        return "interval";
+    }
+
+    @Override
+    public long getMinInt() {
+        return minInt;
+    }
+
+    @Override
+    public long getMaxInt() {
+        return maxInt;
+    }
+
+    @Override
+    public SolverResult solve(Constraint constraint) {
+        if (constraint == Constraint.TRUE) {
+            return SolverResult.sat(Collections.<String, Long>emptyMap());
+        }
+        if (constraint == Constraint.FALSE) {
+            return SolverResult.UNSAT;
+        }
+        List<Constraint> atoms = constraint.getKind() == Constraint.Kind.AND
+            ? constraint.getOperands() : Collections.singletonList(constraint);
+
+        Map<String, long[]> bounds = new TreeMap<>();
+        Map<String, Set<Long>> excluded = new HashMap<>();
+        for (Constraint atom : atoms) {
+            if (!atom.isAtom() || atom.getExpr().getTerms().size() != 1) {
+                return SolverResult.UNKNOWN;
+            }
+            // a * x + k  (<= | == | !=)  0
+            Map.Entry<String, Long> term = atom.getExpr().getTerms().entrySet().iterator().next();
+            String var = term.getKey();
+            long a = term.getValue();
+            long k = atom.getExpr().getConstant();
+            long[] range = bounds.get(var);
+            if (range == null) {
+                range = new long[] {minInt, maxInt};
+                bounds.put(var, range);
+            }
+            switch (atom.getKind()) {
+                case LE:
+                    if (a > 0) {
+                        range[1] = Math.min(range[1], Math.floorDiv(-k, a));
+                    } else {
+                        range[0] = Math.max(range[0], -Math.floorDiv(-k, -a));
+                    }
+                    break;
+                case EQ:
+                    if (k % a != 0) {
+                        return SolverResult.UNSAT;
+                    }
+                    range[0] = Math.max(range[0], -k / a);
+                    range[1] = Math.min(range[1], -k / a);
+                    break;
+                default:
+                    if (k % a == 0) {
+                        Set<Long> values = excluded.get(var);
+                        if (values == null) {
+                            values = new HashSet<>();
+                            excluded.put(var, values);
+                        }
+                        values.add(-k / a);
+                    }
+            }
+        }
+
+        Map<String, Long> model = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : bounds.entrySet()) {
+            Long value = pick(entry.getValue()[0], entry.getValue()[1], excluded.get(entry.getKey()));
+            if (value == null) {
+                return SolverResult.UNSAT;
+            }
+            model.put(entry.getKey(), value);
+        }
+        return SolverResult.sat(model);
+    }
+
+    /**
+     * The first allowed value of [lo, hi] in labelling order, or null if there is none.
+     */
+    private static Long pick(long lo, long hi, Set<Long> excluded) {
+        if (lo > hi) {
+            return null;
+        }
+        long start = Math.max(lo, Math.min(hi, 0));
+        if (excluded == null || !excluded.contains(start)) {
+            return start;
+        }
+        // At most excluded.size() values are skipped in each direction
+        int limit = excluded.size();
+        for (long v = start - 1, steps = 0; v >= lo && steps <= limit; v--, steps++) {
+            if (!excluded.contains(v)) {
+                return v;
+            }
+        }
+        for (long v = start + 1, steps = 0; v <= hi && steps <= limit; v++, steps++) {
+            if (!excluded.contains(v)) {
+                return v;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Several helper methods of one generated class run in a single JPF session: a driver
+ * class whose main picks one helper with Verify.getInt and calls it on a fresh
+ * instance, plus the .jpf config that targets it. JPF explores every choice, so each
+ * helper runs from the same initial state on its own branch of the search, and JVM
+ * and JPF startup and class loading are paid once per batch.
+ *
+ * Each call is bracketed by marker lines so JpfBatchOutput can split the session
+ * output per method, and wrapped in catch (Throwable) so a failing helper (an assert
+ * violation, an exception) ends its own section without ending the search.
+ */
+public class JpfBatch {
+
+    public static final String MARKER = "[ATC-BATCH]";
+    public static final String BEGIN = "BEGIN";
+    public static final String END = "END";
+    public static final String OK = "OK";
+    public static final String FAILED = "FAILED";
+
+    private final String name;
+    private final String driverClassName;
+    private final String targetClassName;
+    private final List<String> methods;
+    private final String driverSource;
+    private final String jpfConfig;
+
+    public JpfBatch(String name, String driverClassName, String targetClassName, List<String> methods,
+                    String driverSource, String jpfConfig) {
+        this.name = name;
+        this.driverClassName = driverClassName;
+        this.targetClassName = targetClassName;
+        this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+        this.driverSource = driverSource;
+        this.jpfConfig = jpfConfig;
+    }
+
+    /**
+     * Simple name of the driver class, also the base name of its .java and .jpf files.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public String getTargetClassName() {
+        return targetClassName;
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    public String getDriverSource() {
+        return driverSource;
+    }
+
+    public String getJpfConfig() {
+        return jpfConfig;
+    }
+
+    /**
+     * Source of a driver that runs one of the given no-argument helpers of
+     * targetSimpleName (same package) per Verify.getInt choice, behind a failure
+     * boundary. It compiles against jpf-core's gov.nasa.jpf.vm.Verify.
+     */
+    public static String driverSource(String packageName, String driverSimpleName, String targetSimpleName,
+                                      List<String> methods) {
+        StringBuilder sb = new StringBuilder();
+        if (packageName != null && !packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import gov.nasa.jpf.vm.Verify;\n\n");
+        sb.append("public class ").append(driverSimpleName).append(" {\n\n");
+        sb.append("    public static void main(String[] args) {\n");
+        sb.append("        switch (Verify.getInt(0, ").append(methods.size() - 1).append(")) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            String method = methods.get(i);
+            sb.append("            case ").append(i).append(":\n");
+            sb.append("                System.out.println(\"").append(beginLine(method)).append("\");\n");
+            sb.append("                try {\n");
+            sb.append("                    new ").append(targetSimpleName).append("().").append(method).append("();\n");
+            sb.append("                    System.out.println(\"").append(endLine(method, true)).append("\");\n");
+            sb.append("                } catch (Throwable t) {\n");
+            sb.append("                    System.out.println(\"").append(endLine(method, false)).append(" \" + t);\n");
+            sb.append("                }\n");
+            sb.append("                break;\n");
+        }
+        sb.append("            default:\n");
+        sb.append("                break;\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public static String beginLine(String method) {
+        return MARKER + " " + BEGIN + " " + method;
+    }
+
+    public static String endLine(String method, boolean ok) {
+        return MARKER + " " + END + " " + method + " " + (ok ? OK : FAILED);
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + methods;
+    }
+}
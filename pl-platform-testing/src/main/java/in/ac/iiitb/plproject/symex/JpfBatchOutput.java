@@ -0,0 +1,164 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits the output of batched JPF sessions into per-method results, as an
+ * OutputListener for JpfProcessPool. Lines after a method's BEGIN marker belong to
+ * that method until the next BEGIN of the same session; lines before the first BEGIN
+ * are only forwarded.
+ *
+ * JPF backtracks, so a method's END marker (and the output before it) appears once per
+ * explored path, and again for choices that do not change what the helper prints
+ * (a re-run suffix ends with the same lines). A method counts its distinct paths, an
+ * END outcome with the lines since its previous marker, and fails if any path did.
+ * A section still open when the results are taken (the session crashed, timed out or
+ * was cancelled) leaves the method INCOMPLETE; methods that never began are NOT_RUN.
+ */
+public class JpfBatchOutput implements JpfProcessPool.OutputListener {
+
+    public enum Status { PASSED, FAILED, INCOMPLETE, NOT_RUN }
+
+    private final JpfProcessPool.OutputListener forward; // may be null
+    private final Map<String, MethodResult> results = new LinkedHashMap<>();
+    private final Map<String, MethodResult> current = new HashMap<>(); // run name -> method of the last BEGIN
+    private final Map<String, Boolean> open = new HashMap<>(); // run name -> section not ended yet
+
+    public JpfBatchOutput(JpfProcessPool.OutputListener forward) {
+        this.forward = forward;
+    }
+
+    @Override
+    public void line(String name, boolean stderr, String line) {
+        synchronized (this) {
+            if (!stderr && line.startsWith(JpfBatch.MARKER + " ")) {
+                marker(name, line.substring(JpfBatch.MARKER.length() + 1));
+            } else {
+                MethodResult method = current.get(name);
+                if (method != null) {
+                    method.lines.add(line);
+                }
+            }
+        }
+        if (forward != null) {
+            forward.line(name, stderr, line);
+        }
+    }
+
+    private void marker(String name, String marker) {
+        String[] parts = marker.split(" ", 4);
+        if (parts.length < 2) {
+            return;
+        }
+        MethodResult result = results.get(parts[1]);
+        if (result == null) {
+            result = new MethodResult(name, parts[1]);
+            results.put(parts[1], result);
+        }
+        if (parts[0].equals(JpfBatch.BEGIN)) {
+            current.put(name, result);
+            open.put(name, true);
+            result.begun = true;
+            result.pathStart = result.lines.size();
+        } else if (parts[0].equals(JpfBatch.END)) {
+            open.put(name, false);
+            String outcome = parts.length > 3 ? parts[2] + " " + parts[3] : parts.length > 2 ? parts[2] : "";
+            List<String> pathLines = result.lines.subList(result.pathStart, result.lines.size());
+            boolean distinct = result.paths.add(outcome + "\n" + String.join("\n", pathLines));
+            result.pathStart = result.lines.size();
+            if (distinct && parts.length > 2 && parts[2].equals(JpfBatch.FAILED)) {
+                result.failures.add(parts.length > 3 ? parts[3] : "");
+            }
+        }
+    }
+
+    /**
+     * Result per method of the given batches, in batch order.
+     */
+    public synchronized List<MethodResult> getResults(List<JpfBatch> batches) {
+        for (Map.Entry<String, Boolean> entry : open.entrySet()) {
+            if (entry.getValue()) {
+                current.get(entry.getKey()).incomplete = true;
+            }
+        }
+        List<MethodResult> list = new ArrayList<>();
+        for (JpfBatch batch : batches) {
+            for (String method : batch.getMethods()) {
+                MethodResult result = results.get(method);
+                list.add(result != null ? result : new MethodResult(batch.getName(), method));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * One helper method's share of a batched session.
+     */
+    public static final class MethodResult {
+        private final String batch;
+        private final String method;
+        private final List<String> lines = new ArrayList<>();
+        private final List<String> failures = new ArrayList<>();
+        private boolean begun;
+        private final Set<String> paths = new HashSet<>(); // outcome and output of each distinct path
+        private boolean incomplete;
+        private int pathStart; // first line of the current path in lines
+
+        MethodResult(String batch, String method) {
+            this.batch = batch;
+            this.method = method;
+        }
+
+        public String getBatch() {
+            return batch;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public Status getStatus() {
+            if (!begun) {
+                return Status.NOT_RUN;
+            }
+            if (!failures.isEmpty()) {
+                return Status.FAILED;
+            }
+            return incomplete || paths.isEmpty() ? Status.INCOMPLETE : Status.PASSED;
+        }
+
+        /**
+         * Output lines of this method's sections, all paths together.
+         */
+        public List<String> getLines() {
+            return Collections.unmodifiableList(lines);
+        }
+
+        /**
+         * The Throwable text of each distinct failed path.
+         */
+        public List<String> getFailures() {
+            return Collections.unmodifiableList(failures);
+        }
+
+        /**
+         * Distinct paths that reached the END marker.
+         */
+        public int getPaths() {
+            return paths.size();
+        }
+
+        @Override
+        public String toString() {
+            return method + " [" + batch + "]: " + getStatus() + ", " + paths.size() + " path(s), "
+                + lines.size() + " line(s)" + (failures.isEmpty() ? "" : ", first failure: " + failures.get(0));
+        }
+    }
+}
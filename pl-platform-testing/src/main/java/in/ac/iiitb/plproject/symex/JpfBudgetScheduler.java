@@ -0,0 +1,154 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs per-method .jpf files on a JpfProcessPool within one global time budget.
+ *
+ * Each method starts from the share JpfCostModel.plan gives it. Methods are launched
+ * most expensive first; a run that finishes before its time limit returns the unused
+ * seconds to a shared surplus, which is handed to methods not started yet in
+ * proportion to their scores. A method's search.time_limit is rewritten in its .jpf
+ * file just before launch, and the process is killed GRACE_SECONDS after that limit.
+ */
+public class JpfBudgetScheduler {
+
+    public static final long GRACE_SECONDS = 10;
+
+    private final JpfProcessPool pool;
+    private final JpfCostModel costModel;
+
+    private final Map<String, Long> allotted = new LinkedHashMap<>();
+    private double surplus;
+    private double pendingScore;
+
+    public JpfBudgetScheduler(JpfProcessPool pool, JpfCostModel costModel) {
+        this.pool = pool;
+        this.costModel = costModel;
+    }
+
+    /**
+     * Run every .jpf file (key) with its method's cost (value); results are in input order.
+     */
+    public List<JpfRunResult> run(Map<String, JpfCostModel.Cost> jpfFiles, long totalSeconds)
+            throws InterruptedException {
+        final List<String> files = new ArrayList<>(jpfFiles.keySet());
+        List<JpfCostModel.Cost> costs = new ArrayList<>(jpfFiles.values());
+        Map<String, JpfCostModel.Budget> plan = costModel.plan(costs, totalSeconds);
+
+        final List<Integer> order = new ArrayList<>();
+        synchronized (this) {
+            allotted.clear();
+            surplus = 0;
+            pendingScore = 0;
+            for (int i = 0; i < files.size(); i++) {
+                order.add(i);
+                pendingScore += costs.get(i).getScore();
+            }
+        }
+        Collections.sort(order, (a, b) -> Double.compare(costs.get(b).getScore(), costs.get(a).getScore()));
+
+        final JpfRunResult[] results = new JpfRunResult[files.size()];
+        final int[] next = {0};
+        int threads = Math.min(pool.getWorkers(), Math.max(1, files.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "jpf-budget-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.resetCancelled();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    while (true) {
+                        int index;
+                        long seconds;
+                        synchronized (this) {
+                            if (next[0] >= order.size()) {
+                                return null;
+                            }
+                            index = order.get(next[0]++);
+                            JpfCostModel.Cost cost = costs.get(index);
+                            seconds = take(cost, plan.get(cost.getMethodName()).getTimeLimitSeconds());
+                            allotted.put(files.get(index), seconds);
+                        }
+                        setTimeLimit(Paths.get(files.get(index)), seconds);
+                        JpfRunResult result = pool.run(files.get(index), (seconds + GRACE_SECONDS) * 1000);
+                        results[index] = result;
+                        giveBack(seconds - result.getMillis() / 1000.0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("JPF budget worker failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            pool.cancel();
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+        List<JpfRunResult> list = new ArrayList<>();
+        Collections.addAll(list, results);
+        return list;
+    }
+
+    /**
+     * Planned seconds plus this method's share of the surplus.
+     */
+    private long take(JpfCostModel.Cost cost, long planned) {
+        double share = pendingScore > 0 ? surplus * cost.getScore() / pendingScore : 0;
+        pendingScore -= cost.getScore();
+        surplus -= share;
+        return planned + (long) share;
+    }
+
+    private synchronized void giveBack(double unusedSeconds) {
+        if (unusedSeconds > 0) {
+            surplus += unusedSeconds;
+        }
+    }
+
+    /**
+     * Seconds each .jpf file was given, in launch order.
+     */
+    public synchronized Map<String, Long> getAllotted() {
+        return new LinkedHashMap<>(allotted);
+    }
+
+    /**
+     * Replace (or add) the search.time_limit line of a .jpf file.
+     */
+    static void setTimeLimit(Path jpfFile, long seconds) throws IOException {
+        List<String> lines = new ArrayList<>(Files.readAllLines(jpfFile, StandardCharsets.UTF_8));
+        boolean replaced = false;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).startsWith("search.time_limit")) {
+                lines.set(i, "search.time_limit = " + seconds);
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            lines.add("search.time_limit = " + seconds);
+        }
+        Files.write(jpfFile, lines, StandardCharsets.UTF_8);
+    }
+}
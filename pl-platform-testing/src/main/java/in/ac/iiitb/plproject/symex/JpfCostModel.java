@@ -0,0 +1,409 @@
+package in.ac.iiitb.plproject.symex;
+
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.ast.ExprArena;
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcClass;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcStatementVisitor;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcTestMethod;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static estimate of how expensive a generated test method is for JPF, read off its
+ * IR, and the search settings derived from it.
+ *
+ * A method's score is (input weight) * (path estimate) * (1 + condition nodes / 16):
+ * - input weight sums the symbolic inputs by type: 1 for int-like and boolean, 2 for
+ *   floating point and other objects, 3 for String, 4 for arrays, and 8 for each
+ *   collection type in the declared type (Map&lt;Integer, Set&lt;Integer&gt;&gt; counts twice)
+ * - the path estimate is 2^(branches + disjunctions), capped at 2^10: if statements and
+ *   asserts fork, and so does every || in an assume, if or assert condition
+ * - condition nodes are the distinct expression nodes of those conditions
+ *
+ * plan() splits a global time budget in proportion to score. Each method gets at least
+ * MIN_TIME_SECONDS, or an equal share of the budget when that is smaller, so the time
+ * limits never add up to more than the budget. Methods with many paths or collection inputs get
+ * BFSHeuristic, so one deep branch of lazily initialized structures cannot use up the
+ * budget; the rest get depth-first search, which needs less memory.
+ */
+public class JpfCostModel {
+
+    public static final String DFS = ".search.DFSearch";
+    public static final String BFS_HEURISTIC = ".search.heuristic.BFSHeuristic";
+
+    public static final long MIN_TIME_SECONDS = 10;
+    public static final int MIN_DEPTH = 100;
+    public static final int MAX_DEPTH = 1000;
+    public static final int BFS_PATH_THRESHOLD = 8;
+    private static final int MAX_PATH_EXPONENT = 10;
+
+    /**
+     * Cost of every test method of the class except main, in method order.
+     */
+    public List<Cost> estimate(AtcClass atcClass) {
+        List<Cost> costs = new ArrayList<>();
+        for (AtcTestMethod method : atcClass.getTestMethods()) {
+            if (method.isTestAnnotated() && !method.isMain()) {
+                costs.add(estimate(method));
+            }
+        }
+        return costs;
+    }
+
+    public Cost estimate(AtcTestMethod method) {
+        Counter counter = new Counter();
+        counter.visitAll(method.getStatements());
+        int forks = Math.min(counter.branches + counter.disjunctions, MAX_PATH_EXPONENT);
+        return new Cost(method.getMethodName(), counter.inputTypes, counter.collectionInputs, counter.inputWeight,
+            counter.statements, counter.branches, counter.disjunctions, counter.conditionNodes, 1L << forks);
+    }
+
+    /**
+     * Split totalSeconds over the methods in proportion to their scores; the time
+     * limits sum to at most totalSeconds.
+     */
+    public Map<String, Budget> plan(List<Cost> costs, long totalSeconds) {
+        double totalScore = 0;
+        for (Cost cost : costs) {
+            totalScore += cost.getScore();
+        }
+        long floor = costs.isEmpty() ? 0 : Math.min(MIN_TIME_SECONDS, Math.max(0, totalSeconds) / costs.size());
+        long spare = Math.max(0, totalSeconds - floor * costs.size());
+        Map<String, Budget> budgets = new LinkedHashMap<>();
+        for (Cost cost : costs) {
+            long seconds = floor + (totalScore > 0 ? (long) (spare * cost.getScore() / totalScore) : 0);
+            budgets.put(cost.getMethodName(), budgetFor(cost, seconds));
+        }
+        return budgets;
+    }
+
+    /**
+     * Search settings for one method given its share of the time budget.
+     */
+    public Budget budgetFor(Cost cost, long seconds) {
+        int depth = MIN_DEPTH + 20 * (cost.getStatements() + cost.getBranches() + cost.getDisjunctions())
+            + 100 * cost.getCollectionInputs();
+        String search = cost.getPathEstimate() >= BFS_PATH_THRESHOLD || cost.getCollectionInputs() > 0
+            ? BFS_HEURISTIC : DFS;
+        return new Budget(seconds, Math.min(MAX_DEPTH, depth), search);
+    }
+
+    /**
+     * Features and score of one method.
+     */
+    public static final class Cost {
+        private final String methodName;
+        private final Map<String, String> inputTypes;
+        private final int collectionInputs;
+        private final int inputWeight;
+        private final int statements;
+        private final int branches;
+        private final int disjunctions;
+        private final int conditionNodes;
+        private final long pathEstimate;
+
+        Cost(String methodName, Map<String, String> inputTypes, int collectionInputs, int inputWeight, int statements, int branches,
+             int disjunctions, int conditionNodes, long pathEstimate) {
+            this.methodName = methodName;
+            this.inputTypes = Collections.unmodifiableMap(new LinkedHashMap<>(inputTypes));
+            this.collectionInputs = collectionInputs;
+            this.inputWeight = inputWeight;
+            this.statements = statements;
+            this.branches = branches;
+            this.disjunctions = disjunctions;
+            this.conditionNodes = conditionNodes;
+            this.pathEstimate = pathEstimate;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public int getInputs() {
+            return inputTypes.size();
+        }
+
+        /**
+         * Symbolic input name -&gt; declared type, in declaration order.
+         */
+        public Map<String, String> getInputTypes() {
+            return inputTypes;
+        }
+
+        public int getCollectionInputs() {
+            return collectionInputs;
+        }
+
+        public int getInputWeight() {
+            return inputWeight;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getBranches() {
+            return branches;
+        }
+
+        public int getDisjunctions() {
+            return disjunctions;
+        }
+
+        public int getConditionNodes() {
+            return conditionNodes;
+        }
+
+        public long getPathEstimate() {
+            return pathEstimate;
+        }
+
+        public double getScore() {
+            return Math.max(1, inputWeight) * (double) pathEstimate * (1 + conditionNodes / 16.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d input(s) (%d collection, weight %d), %d branch(es), %d disjunction(s), "
+                    + "%d condition node(s), ~%d path(s), score %.1f",
+                methodName, inputTypes.size(), collectionInputs, inputWeight, branches, disjunctions, conditionNodes,
+                pathEstimate, getScore());
+        }
+    }
+
+    /**
+     * JPF search settings for one method.
+     */
+    public static final class Budget {
+        private final long timeLimitSeconds;
+        private final int depthLimit;
+        private final String searchClass;
+
+        public Budget(long timeLimitSeconds, int depthLimit, String searchClass) {
+            this.timeLimitSeconds = timeLimitSeconds;
+            this.depthLimit = depthLimit;
+            this.searchClass = searchClass;
+        }
+
+        public long getTimeLimitSeconds() {
+            return timeLimitSeconds;
+        }
+
+        public int getDepthLimit() {
+            return depthLimit;
+        }
+
+        public String getSearchClass() {
+            return searchClass;
+        }
+
+        @Override
+        public String toString() {
+            return timeLimitSeconds + " s, depth " + depthLimit + ", " + searchClass;
+        }
+    }
+
+    // ===================================
+    // IR walk
+    // ===================================
+
+    private static final class Counter implements AtcStatementVisitor<Void> {
+        private final ExprArena arena = new ExprArena();
+        private final BitSet seen = new BitSet();
+        private final Map<String, String> inputTypes = new LinkedHashMap<>();
+        private int collectionInputs;
+        private int inputWeight;
+        private int statements;
+        private int branches;
+        private int disjunctions;
+        private int conditionNodes;
+
+        void visitAll(List<AtcStatement> list) {
+            for (AtcStatement stmt : list) {
+                statements++;
+                stmt.accept(this);
+            }
+        }
+
+        private void input(String varName, String typeName) {
+            inputTypes.put(varName, typeName);
+            int collections = collectionTypes(typeName);
+            if (collections > 0) {
+                collectionInputs++;
+                inputWeight += 8 * collections;
+            } else {
+                inputWeight += weight(typeName);
+            }
+        }
+
+        /**
+         * Count distinct nodes and || operators of a condition.
+         */
+        private void condition(Expr expr) {
+            if (expr == null) {
+                return;
+            }
+            ArrayDeque<Integer> stack = new ArrayDeque<>();
+            stack.push(arena.add(expr));
+            while (!stack.isEmpty()) {
+                int id = stack.pop();
+                if (id == ExprArena.NONE || seen.get(id)) {
+                    continue;
+                }
+                seen.set(id);
+                conditionNodes++;
+                ExprArena.Kind kind = arena.kind(id);
+                if (kind == ExprArena.Kind.BINARY && arena.operator(id).equals("OR")) {
+                    disjunctions++;
+                }
+                if (kind == ExprArena.Kind.BINARY || kind == ExprArena.Kind.ASSIGN) {
+                    stack.push(arena.left(id));
+                    stack.push(arena.right(id));
+                } else if (kind == ExprArena.Kind.UNARY || kind == ExprArena.Kind.FIELD_ACCESS) {
+                    stack.push(arena.left(id));
+                } else if (kind == ExprArena.Kind.METHOD_CALL || kind == ExprArena.Kind.OBJECT_CREATION
+                        || kind == ExprArena.Kind.SET || kind == ExprArena.Kind.MAP || kind == ExprArena.Kind.TUPLE) {
+                    if (kind == ExprArena.Kind.METHOD_CALL) {
+                        stack.push(arena.left(id));
+                    }
+                    for (int i = 0; i < arena.argumentCount(id); i++) {
+                        stack.push(arena.argument(id, i));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Whether an initializer declares a Symbolic.input(..) (array parameters).
+         */
+        private boolean declaresInput(Expr expr) {
+            ArrayDeque<Integer> stack = new ArrayDeque<>();
+            stack.push(arena.add(expr));
+            while (!stack.isEmpty()) {
+                int id = stack.pop();
+                if (id == ExprArena.NONE) {
+                    continue;
+                }
+                ExprArena.Kind kind = arena.kind(id);
+                if (kind == ExprArena.Kind.METHOD_CALL) {
+                    int scope = arena.left(id);
+                    if (arena.identifier(id).equals("input") && scope != ExprArena.NONE
+                            && arena.kind(scope) == ExprArena.Kind.NAME && arena.identifier(scope).equals("Symbolic")) {
+                        return true;
+                    }
+                }
+                if (kind == ExprArena.Kind.METHOD_CALL || kind == ExprArena.Kind.OBJECT_CREATION
+                        || kind == ExprArena.Kind.SET || kind == ExprArena.Kind.MAP || kind == ExprArena.Kind.TUPLE) {
+                    for (int i = 0; i < arena.argumentCount(id); i++) {
+                        stack.push(arena.argument(id, i));
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Void visit(AtcSymbolicVarDecl stmt) {
+            input(stmt.getVarName(), stmt.getTypeName());
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            if (stmt.getInitExpr() != null && declaresInput(stmt.getInitExpr())) {
+                input(stmt.getVarName(), stmt.getTypeName());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            condition(stmt.getCondition());
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssertStmt stmt) {
+            branches++;
+            condition(stmt.getCondition());
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcMethodCallStmt stmt) {
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            branches++;
+            condition(stmt.getCondition());
+            visitAll(stmt.getThenStatements());
+            return null;
+        }
+    }
+
+    private static int collectionTypes(String typeName) {
+        int count = 0;
+        for (String part : typeName.split("[<>,\\s]+")) {
+            String base = part.startsWith("java.util.") ? part.substring("java.util.".length()) : part;
+            switch (base) {
+                case "Set":
+                case "Map":
+                case "List":
+                case "Collection":
+                case "Queue":
+                case "Deque":
+                case "HashSet":
+                case "HashMap":
+                case "ArrayList":
+                case "LinkedList":
+                case "TreeSet":
+                case "TreeMap":
+                    count++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return count;
+    }
+
+    private static int weight(String typeName) {
+        if (typeName.endsWith("[]")) {
+            return 4;
+        }
+        switch (typeName) {
+            case "int":
+            case "long":
+            case "short":
+            case "byte":
+            case "char":
+            case "boolean":
+                return 1;
+            case "String":
+            case "java.lang.String":
+                return 3;
+            default:
+                return 2;
+        }
+    }
+}
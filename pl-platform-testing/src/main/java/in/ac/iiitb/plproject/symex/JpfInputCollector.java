@@ -0,0 +1,300 @@
+package in.ac.iiitb.plproject.symex;
+
+import in.ac.iiitb.plproject.atc.ConcreteInput;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPF-independent half of the input listener: turns the solutions of one finished
+ * path through a helper method into a ConcreteInput and writes it to a
+ * ConcreteInputWriter, skipping inputs already written for that method.
+ *
+ * The JPF half is a listener class generated by listenerSource (it needs jpf-core
+ * and jpf-symbc to compile, which this project does not depend on). It reads the
+ * output path from OUT_KEY and each helper's declared inputs from
+ * TYPES_KEY.&lt;method&gt; ("x:int;s:String", written by SpfWrapper), captures the
+ * symbolic variable of each input when it is stored into its local (later writes,
+ * such as the post-state in x = xRef[0], are ignored), and calls record() with their
+ * solutions when a helper reaches its final return or throws an AssertionError.
+ * The early return of a helper's null guard is skipped: that path had a null
+ * reference input, which a record (holding a default object for every reference)
+ * cannot express, and SymbolicExecutor reports nothing for it either. Solutions are Long for
+ * integer and boolean inputs, Double for reals and String for strings; inputs the
+ * path condition does not constrain get the same defaults SymbolicExecutor uses.
+ */
+public class JpfInputCollector implements Closeable {
+
+    public static final String OUT_KEY = "atc.inputs.out";
+    public static final String TYPES_KEY = "atc.inputs.types";
+    public static final String LISTENER_NAME = "AtcInputListener";
+
+    private final ConcreteInputWriter writer;
+    private final long undefined;
+    private final Map<String, Map<String, String>> declared = new HashMap<>();
+    private final Set<ConcreteInput> written = new HashSet<>();
+    private long duplicates;
+
+    /**
+     * @param undefined value of an unsolved symbolic integer (symbolic.undefined)
+     */
+    public JpfInputCollector(ConcreteInputWriter writer, long undefined) {
+        this.writer = writer;
+        this.undefined = undefined;
+    }
+
+    public static JpfInputCollector open(String path, long undefined) throws IOException {
+        return new JpfInputCollector(ConcreteInputWriter.open(path), undefined);
+    }
+
+    /**
+     * Declare the inputs of a helper from a TYPES_KEY value.
+     */
+    public void declare(String methodName, String typesSpec) {
+        Map<String, String> types = new LinkedHashMap<>();
+        if (typesSpec != null) {
+            for (String entry : typesSpec.split(";")) {
+                int colon = entry.indexOf(':');
+                if (colon > 0) {
+                    types.put(entry.substring(0, colon).trim(), entry.substring(colon + 1).trim());
+                }
+            }
+        }
+        declared.put(methodName, types);
+    }
+
+    public boolean isDeclared(String methodName) {
+        return declared.containsKey(methodName);
+    }
+
+    /**
+     * TYPES_KEY value for the given inputs (name -&gt; declared type).
+     */
+    public static String typesSpec(Map<String, String> inputTypes) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : inputTypes.entrySet()) {
+            sb.append(sb.length() > 0 ? ";" : "").append(entry.getKey()).append(":").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write the input of one finished path and flush, so a reader on a pipe sees it
+     * right away. Returns false if the same input was already written.
+     *
+     * @param solutions symbolic variable name -&gt; solution; variables that are not
+     *                  inputs of the method are ignored
+     */
+    public boolean record(String methodName, Map<String, Object> solutions, boolean violated) throws IOException {
+        Map<String, String> types = declared.get(methodName);
+        if (types == null) {
+            types = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : solutions.entrySet()) {
+                Object solution = entry.getValue();
+                types.put(entry.getKey(), solution instanceof String ? "String"
+                    : solution instanceof Double ? "double" : "int");
+            }
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, String> input : types.entrySet()) {
+            values.put(input.getKey(), concreteValue(input.getValue(), solutions.get(input.getKey())));
+        }
+        ConcreteInput input = new ConcreteInput(methodName, types, values, violated);
+        if (!written.add(input)) {
+            duplicates++;
+            return false;
+        }
+        writer.write(input);
+        writer.flush();
+        return true;
+    }
+
+    public long getRecords() {
+        return writer.getRecords();
+    }
+
+    /**
+     * Paths whose input was the same as an earlier path's and was not written again.
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private Object concreteValue(String typeName, Object solution) {
+        String type = SymbolicExecutor.unbox(typeName);
+        long value = solution instanceof Number && ((Number) solution).longValue() != undefined
+            ? ((Number) solution).longValue() : 0;
+        switch (type) {
+            case "int":
+                return (int) value;
+            case "long":
+                return value;
+            case "short":
+                return (short) value;
+            case "byte":
+                return (byte) value;
+            case "char":
+                return (char) value;
+            case "boolean":
+                return value == 1;
+            case "double":
+                return solution instanceof Number ? ((Number) solution).doubleValue() : 0.0;
+            case "float":
+                return solution instanceof Number ? ((Number) solution).floatValue() : 0.0f;
+            default:
+                if (solution instanceof String) {
+                    return solution;
+                }
+                return SymbolicExecutor.defaultObject(typeName);
+        }
+    }
+
+    /**
+     * Source of the JPF listener (class LISTENER_NAME in the given package) that feeds
+     * a JpfInputCollector. Compile it against jpf-core, jpf-symbc and this project and
+     * put it on JPF's native_classpath; the generated test class needs debug info (-g)
+     * so the listener can find the inputs among the helper's local variables.
+     * An input is captured when a local of its name is given the symbolic variable
+     * of the same name (Debug.makeSymbolicInteger("x")), so the post-state written
+     * back into it later does not replace the input.
+     */
+    public static String listenerSource(String packageName) {
+        StringBuilder sb = new StringBuilder();
+        if (packageName != null && !packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import gov.nasa.jpf.Config;\n");
+        sb.append("import gov.nasa.jpf.JPF;\n");
+        sb.append("import gov.nasa.jpf.JPFException;\n");
+        sb.append("import gov.nasa.jpf.PropertyListenerAdapter;\n");
+        sb.append("import gov.nasa.jpf.jvm.bytecode.JVMLocalVariableInstruction;\n");
+        sb.append("import gov.nasa.jpf.jvm.bytecode.JVMReturnInstruction;\n");
+        sb.append("import gov.nasa.jpf.search.Search;\n");
+        sb.append("import gov.nasa.jpf.symbc.numeric.PCChoiceGenerator;\n");
+        sb.append("import gov.nasa.jpf.symbc.numeric.PathCondition;\n");
+        sb.append("import gov.nasa.jpf.symbc.numeric.SymbolicInteger;\n");
+        sb.append("import gov.nasa.jpf.symbc.numeric.SymbolicReal;\n");
+        sb.append("import gov.nasa.jpf.symbc.string.StringSymbolic;\n");
+        sb.append("import gov.nasa.jpf.vm.ChoiceGenerator;\n");
+        sb.append("import gov.nasa.jpf.vm.ElementInfo;\n");
+        sb.append("import gov.nasa.jpf.vm.Instruction;\n");
+        sb.append("import gov.nasa.jpf.vm.StackFrame;\n");
+        sb.append("import gov.nasa.jpf.vm.ThreadInfo;\n");
+        sb.append("import gov.nasa.jpf.vm.VM;\n");
+        sb.append("import in.ac.iiitb.plproject.symex.JpfInputCollector;\n");
+        sb.append("import java.io.IOException;\n");
+        sb.append("import java.util.HashMap;\n");
+        sb.append("import java.util.LinkedHashMap;\n");
+        sb.append("import java.util.Map;\n\n");
+        sb.append("/**\n");
+        sb.append(" * Writes the solved inputs of every path through a helper method as binary\n");
+        sb.append(" * ConcreteInput records (generated by JpfInputCollector.listenerSource).\n");
+        sb.append(" */\n");
+        sb.append("public class ").append(LISTENER_NAME).append(" extends PropertyListenerAdapter {\n\n");
+        sb.append("    private final JpfInputCollector collector;\n");
+        sb.append("    // Helper method -> input name -> the symbolic variable declared for it\n");
+        sb.append("    private final Map<String, Map<String, Object>> inputs = new HashMap<>();\n\n");
+        sb.append("    public ").append(LISTENER_NAME).append("(Config conf, JPF jpf) throws IOException {\n");
+        sb.append("        collector = JpfInputCollector.open(conf.getString(JpfInputCollector.OUT_KEY),\n");
+        sb.append("            conf.getLong(\"symbolic.undefined\", -1000));\n");
+        sb.append("        String prefix = JpfInputCollector.TYPES_KEY + \".\";\n");
+        sb.append("        for (Object key : conf.keySet()) {\n");
+        sb.append("            if (key.toString().startsWith(prefix)) {\n");
+        sb.append("                collector.declare(key.toString().substring(prefix.length()), conf.getString(key.toString()));\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public void executeInstruction(VM vm, ThreadInfo ti, Instruction insn) {\n");
+        sb.append("        if (insn instanceof JVMReturnInstruction && collector.isDeclared(insn.getMethodInfo().getName())\n");
+        sb.append("            && isFinalReturn(insn)) {\n");
+        sb.append("            record(vm, ti.getTopFrame(), false);\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public void instructionExecuted(VM vm, ThreadInfo ti, Instruction next, Instruction executed) {\n");
+        sb.append("        if (!(executed instanceof JVMLocalVariableInstruction)) {\n");
+        sb.append("            return;\n");
+        sb.append("        }\n");
+        sb.append("        String methodName = executed.getMethodInfo().getName();\n");
+        sb.append("        JVMLocalVariableInstruction local = (JVMLocalVariableInstruction) executed;\n");
+        sb.append("        Object attr = ti.getTopFrame().getLocalAttr(local.getLocalVariableIndex());\n");
+        sb.append("        String name = local.getLocalVariableName();\n");
+        sb.append("        if (collector.isDeclared(methodName) && name != null && name.equals(symbolName(attr))) {\n");
+        sb.append("            inputs.computeIfAbsent(methodName, k -> new HashMap<>()).put(name, attr);\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public void exceptionThrown(VM vm, ThreadInfo ti, ElementInfo exception) {\n");
+        sb.append("        if (!exception.getClassInfo().getName().equals(\"java.lang.AssertionError\")) {\n");
+        sb.append("            return;\n");
+        sb.append("        }\n");
+        sb.append("        for (StackFrame frame = ti.getTopFrame(); frame != null; frame = frame.getPrevious()) {\n");
+        sb.append("            if (collector.isDeclared(frame.getMethodInfo().getName())) {\n");
+        sb.append("                record(vm, frame, true);\n");
+        sb.append("                return;\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public void searchFinished(Search search) {\n");
+        sb.append("        try {\n");
+        sb.append("            collector.close();\n");
+        sb.append("        } catch (IOException e) {\n");
+        sb.append("            throw new JPFException(e);\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append("    private void record(VM vm, StackFrame frame, boolean violated) {\n");
+        sb.append("        ChoiceGenerator<?> cg = vm.getChoiceGenerator();\n");
+        sb.append("        while (cg != null && !(cg instanceof PCChoiceGenerator)) {\n");
+        sb.append("            cg = cg.getPreviousChoiceGenerator();\n");
+        sb.append("        }\n");
+        sb.append("        PathCondition pc = cg != null ? ((PCChoiceGenerator) cg).getCurrentPC() : null;\n");
+        sb.append("        if (pc != null && !pc.solve()) {\n");
+        sb.append("            return;\n");
+        sb.append("        }\n");
+        sb.append("        String methodName = frame.getMethodInfo().getName();\n");
+        sb.append("        Map<String, Object> solutions = new LinkedHashMap<>();\n");
+        sb.append("        for (Map.Entry<String, Object> input : inputs.getOrDefault(methodName, new HashMap<>()).entrySet()) {\n");
+        sb.append("            Object attr = input.getValue();\n");
+        sb.append("            if (attr instanceof SymbolicInteger) {\n");
+        sb.append("                solutions.put(input.getKey(), ((SymbolicInteger) attr).solution());\n");
+        sb.append("            } else if (attr instanceof SymbolicReal) {\n");
+        sb.append("                solutions.put(input.getKey(), ((SymbolicReal) attr).solution());\n");
+        sb.append("            } else if (attr instanceof StringSymbolic) {\n");
+        sb.append("                solutions.put(input.getKey(), ((StringSymbolic) attr).solution());\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("        try {\n");
+        sb.append("            collector.record(methodName, solutions, violated);\n");
+        sb.append("        } catch (IOException e) {\n");
+        sb.append("            throw new JPFException(e);\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append("    // A helper's null guard returns early; javac puts the return that ends the\n");
+        sb.append("    // method body last, so only it finishes a path whose inputs were all non-null\n");
+        sb.append("    private static boolean isFinalReturn(Instruction insn) {\n");
+        sb.append("        return insn.getInstructionIndex() == insn.getMethodInfo().getNumberOfInstructions() - 1;\n");
+        sb.append("    }\n\n");
+        sb.append("    private static String symbolName(Object attr) {\n");
+        sb.append("        if (attr instanceof SymbolicInteger) {\n");
+        sb.append("            return ((SymbolicInteger) attr).getName();\n");
+        sb.append("        }\n");
+        sb.append("        if (attr instanceof SymbolicReal) {\n");
+        sb.append("            return ((SymbolicReal) attr).getName();\n");
+        sb.append("        }\n");
+        sb.append("        return attr instanceof StringSymbolic ? ((StringSymbolic) attr).getName() : null;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
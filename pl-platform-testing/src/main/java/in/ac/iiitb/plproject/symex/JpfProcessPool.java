@@ -0,0 +1,308 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the per-method .jpf configs written by SpfWrapper (GeneratedATCs_&lt;method&gt;.jpf),
+ * each in its own child JVM, on a fixed number of workers: the number of cores, capped
+ * so that workers * heap fits the memory budget.
+ *
+ * Output of every child is read line by line as it is produced and handed to an
+ * OutputListener (by default printed with a "[name]" prefix); a result keeps only the
+ * last TAIL_LINES lines. Each run is killed after the per-run timeout, and cancel()
+ * kills the running children and skips the ones not started yet.
+ *
+ * The command is a template: {jpf} is replaced by the .jpf path and {heap} by the heap
+ * size in MB. Any command works, so a script can stand in for JPF offline.
+ *
+ * Configuration:
+ *   atc.jpf.command = ...     command template (default: java -Xmx{heap}m -jar &lt;home&gt;/build/RunJPF.jar {jpf})
+ *   atc.jpf.home = &lt;dir&gt;      jpf-core directory for the default command (default "jpf-core")
+ *   atc.jpf.workers = N       pool size, overriding the computed one
+ *   atc.jpf.memory = MB       memory budget for all children (default 4096)
+ *   atc.jpf.heap = MB         heap per child (default 1024)
+ *   atc.jpf.timeout = S       per-run timeout in seconds (default 600)
+ */
+public class JpfProcessPool {
+
+    public static final String COMMAND_KEY = "atc.jpf.command";
+    public static final String HOME_KEY = "atc.jpf.home";
+    public static final String WORKERS_KEY = "atc.jpf.workers";
+    public static final String MEMORY_KEY = "atc.jpf.memory";
+    public static final String HEAP_KEY = "atc.jpf.heap";
+    public static final String TIMEOUT_KEY = "atc.jpf.timeout";
+
+    public static final int DEFAULT_MEMORY_MB = 4096;
+    public static final int DEFAULT_HEAP_MB = 1024;
+    public static final long DEFAULT_TIMEOUT_SECONDS = 600;
+    public static final int TAIL_LINES = 20;
+
+    private static final long KILL_GRACE_MILLIS = 2000;
+    private static final long DRAIN_AFTER_KILL_MILLIS = 100;
+    private static final File NULL_INPUT = new File(
+        System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+
+    /**
+     * Receives every output line of every child; called concurrently from reader threads.
+     */
+    public interface OutputListener {
+        void line(String name, boolean stderr, String line);
+    }
+
+    /** Prints each line prefixed with the run name, stderr lines to System.err. */
+    public static final OutputListener CONSOLE = (name, stderr, line) ->
+        (stderr ? System.err : System.out).println("[" + name + "] " + line);
+
+    private final List<String> command;
+    private final int workers;
+    private final int heapMb;
+    private final long timeoutMillis;
+    private OutputListener listener = CONSOLE;
+
+    private final Set<Process> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    public JpfProcessPool(List<String> command, int workers, int heapMb, long timeoutMillis) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("JpfProcessPool needs at least one worker");
+        }
+        this.command = new ArrayList<>(command);
+        this.workers = workers;
+        this.heapMb = heapMb;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public static JpfProcessPool fromProperties(Properties config) {
+        int heapMb = Integer.parseInt(config.getProperty(HEAP_KEY, Integer.toString(DEFAULT_HEAP_MB)).trim());
+        long memoryMb = Long.parseLong(config.getProperty(MEMORY_KEY, Integer.toString(DEFAULT_MEMORY_MB)).trim());
+        String workersValue = config.getProperty(WORKERS_KEY);
+        int workers = workersValue != null ? Integer.parseInt(workersValue.trim())
+            : poolSize(Runtime.getRuntime().availableProcessors(), memoryMb, heapMb);
+        long timeoutSeconds = Long.parseLong(config.getProperty(TIMEOUT_KEY, Long.toString(DEFAULT_TIMEOUT_SECONDS)).trim());
+
+        String commandValue = config.getProperty(COMMAND_KEY);
+        List<String> command;
+        if (commandValue != null) {
+            command = Arrays.asList(commandValue.trim().split("\\s+"));
+        } else {
+            String home = config.getProperty(HOME_KEY, "jpf-core").trim();
+            command = Arrays.asList("java", "-Xmx{heap}m", "-jar",
+                Paths.get(home, "build", "RunJPF.jar").toString(), "{jpf}");
+        }
+        return new JpfProcessPool(command, workers, heapMb, timeoutSeconds * 1000);
+    }
+
+    /**
+     * One worker per core, but no more than fit in the memory budget, and at least one.
+     */
+    public static int poolSize(int cores, long memoryMb, int heapMb) {
+        long byMemory = heapMb > 0 ? memoryMb / heapMb : cores;
+        return (int) Math.max(1, Math.min(cores, byMemory));
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setOutputListener(OutputListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Command line for one .jpf file, with the placeholders filled in.
+     */
+    public List<String> commandFor(String jpfFile) {
+        List<String> line = new ArrayList<>();
+        for (String part : command) {
+            line.add(part.replace("{jpf}", jpfFile).replace("{heap}", Integer.toString(heapMb)));
+        }
+        return line;
+    }
+
+    /**
+     * Run every .jpf file and wait for all of them; results are in input order.
+     */
+    public List<JpfRunResult> runAll(List<String> jpfFiles) throws InterruptedException {
+        resetCancelled();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, jpfFiles.size())), r -> {
+            Thread thread = new Thread(r, "jpf-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<JpfRunResult>> futures = new ArrayList<>();
+            for (String jpfFile : jpfFiles) {
+                futures.add(pool.submit(() -> run(jpfFile, timeoutMillis)));
+            }
+            List<JpfRunResult> results = new ArrayList<>();
+            for (Future<JpfRunResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("JPF worker failed", e.getCause());
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            cancel();
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Kill running children and skip the rest of the current runAll.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Process process : running) {
+            process.destroyForcibly();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Start accepting runs again after cancel().
+     */
+    public void resetCancelled() {
+        cancelled = false;
+    }
+
+    /**
+     * Run one .jpf file on the calling thread with the given timeout, for schedulers
+     * that decide the order and per-run limits themselves (JpfBudgetScheduler).
+     */
+    public JpfRunResult run(String jpfFile, long timeoutMillis) {
+        String name = runName(jpfFile);
+        OutputTail tail = new OutputTail();
+        if (cancelled) {
+            return new JpfRunResult(name, jpfFile, JpfRunResult.Status.CANCELLED, -1, 0, 0, tail.lines());
+        }
+        long start = System.nanoTime();
+        Process process;
+        try {
+            process = new ProcessBuilder(commandFor(jpfFile)).redirectInput(ProcessBuilder.Redirect.from(NULL_INPUT)).start();
+        } catch (IOException e) {
+            tail.add(e.getMessage());
+            return new JpfRunResult(name, jpfFile, JpfRunResult.Status.ERROR, -1, 0, 1, tail.lines());
+        }
+        running.add(process);
+        Thread out = pump(name, process.getInputStream(), false, tail);
+        Thread err = pump(name, process.getErrorStream(), true, tail);
+
+        JpfRunResult.Status status;
+        int exitCode = -1;
+        try {
+            if (cancelled) {
+                process.destroyForcibly();
+            }
+            if (process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                exitCode = process.exitValue();
+                status = cancelled ? JpfRunResult.Status.CANCELLED
+                    : exitCode == 0 ? JpfRunResult.Status.COMPLETED : JpfRunResult.Status.FAILED;
+            } else {
+                kill(process);
+                status = cancelled ? JpfRunResult.Status.CANCELLED : JpfRunResult.Status.TIMED_OUT;
+            }
+            // A killed child's own children may still hold the pipes open; don't wait on them
+            long drainMillis = status == JpfRunResult.Status.COMPLETED || status == JpfRunResult.Status.FAILED
+                ? KILL_GRACE_MILLIS : DRAIN_AFTER_KILL_MILLIS;
+            out.join(drainMillis);
+            err.join(drainMillis);
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            status = JpfRunResult.Status.CANCELLED;
+            exitCode = -1;
+        } finally {
+            running.remove(process);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new JpfRunResult(name, jpfFile, status, exitCode, millis, tail.count(), tail.lines());
+    }
+
+    /**
+     * Ask the process to stop, then force it after a grace period.
+     */
+    private static void kill(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(KILL_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            process.waitFor(KILL_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Thread pump(String name, InputStream stream, boolean stderr, OutputTail tail) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    tail.add(line);
+                    OutputListener current = listener;
+                    if (current != null) {
+                        current.line(name, stderr, line);
+                    }
+                }
+            } catch (IOException e) {
+                // Stream closed because the process was killed
+            }
+        }, "jpf-output-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static String runName(String jpfFile) {
+        String fileName = Paths.get(jpfFile).getFileName().toString();
+        return fileName.endsWith(".jpf") ? fileName.substring(0, fileName.length() - 4) : fileName;
+    }
+
+    /**
+     * Line count plus the last TAIL_LINES lines, shared by the stdout and stderr readers.
+     */
+    private static final class OutputTail {
+        private final ArrayDeque<String> lines = new ArrayDeque<>();
+        private int count;
+
+        synchronized void add(String line) {
+            count++;
+            lines.addLast(line);
+            if (lines.size() > TAIL_LINES) {
+                lines.removeFirst();
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized List<String> lines() {
+            return new ArrayList<>(lines);
+        }
+    }
+}
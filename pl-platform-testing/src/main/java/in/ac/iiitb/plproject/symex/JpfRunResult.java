@@ -0,0 +1,89 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one JPF child process run by JpfProcessPool. Only the last lines of its
+ * output are kept; the full output went to the pool's OutputListener as it streamed.
+ */
+public class JpfRunResult {
+
+    public enum Status {
+        /** Exited with status 0. */
+        COMPLETED,
+        /** Exited with a non-zero status. */
+        FAILED,
+        /** Killed after the per-run timeout. */
+        TIMED_OUT,
+        /** Killed or never started because the pool was cancelled. */
+        CANCELLED,
+        /** The process could not be started. */
+        ERROR
+    }
+
+    private final String name;
+    private final String jpfFile;
+    private final Status status;
+    private final int exitCode;
+    private final long millis;
+    private final int outputLines;
+    private final List<String> tail;
+
+    public JpfRunResult(String name, String jpfFile, Status status, int exitCode, long millis,
+                        int outputLines, List<String> tail) {
+        this.name = name;
+        this.jpfFile = jpfFile;
+        this.status = status;
+        this.exitCode = exitCode;
+        this.millis = millis;
+        this.outputLines = outputLines;
+        this.tail = Collections.unmodifiableList(tail);
+    }
+
+    /**
+     * The .jpf file name without directory and extension, e.g. "GeneratedATCs_increment_helper".
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getJpfFile() {
+        return jpfFile;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Exit status of the process, or -1 if it did not exit on its own.
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Lines written to stdout and stderr together.
+     */
+    public int getOutputLines() {
+        return outputLines;
+    }
+
+    /**
+     * The last lines of output (stdout and stderr interleaved as they arrived).
+     */
+    public List<String> getTail() {
+        return tail;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + status + (exitCode >= 0 ? " (exit " + exitCode + ")" : "")
+            + " in " + millis + " ms, " + outputLines + " line(s)";
+    }
+}
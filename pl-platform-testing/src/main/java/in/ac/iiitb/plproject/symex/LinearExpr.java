@@ -0,0 +1,138 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable linear integer expression: sum of coefficient * variable, plus a constant.
+ * Terms are kept sorted by variable name and never have a zero coefficient, so two
+ * equal expressions have equal term maps.
+ */
+public final class LinearExpr {
+
+    public static final LinearExpr ZERO = new LinearExpr(new TreeMap<String, Long>(), 0);
+
+    private final TreeMap<String, Long> terms;
+    private final long constant;
+
+    private LinearExpr(TreeMap<String, Long> terms, long constant) {
+        this.terms = terms;
+        this.constant = constant;
+    }
+
+    public static LinearExpr constant(long value) {
+        return value == 0 ? ZERO : new LinearExpr(new TreeMap<String, Long>(), value);
+    }
+
+    public static LinearExpr variable(String name) {
+        TreeMap<String, Long> terms = new TreeMap<>();
+        terms.put(name, 1L);
+        return new LinearExpr(terms, 0);
+    }
+
+    public boolean isConstant() {
+        return terms.isEmpty();
+    }
+
+    public long getConstant() {
+        return constant;
+    }
+
+    /**
+     * Variable -> coefficient, sorted by variable name.
+     */
+    public Map<String, Long> getTerms() {
+        return Collections.unmodifiableMap(terms);
+    }
+
+    public long coefficient(String variable) {
+        Long coefficient = terms.get(variable);
+        return coefficient != null ? coefficient : 0;
+    }
+
+    public LinearExpr plus(LinearExpr other) {
+        TreeMap<String, Long> sum = new TreeMap<>(terms);
+        for (Map.Entry<String, Long> term : other.terms.entrySet()) {
+            long coefficient = coefficient(term.getKey()) + term.getValue();
+            if (coefficient == 0) {
+                sum.remove(term.getKey());
+            } else {
+                sum.put(term.getKey(), coefficient);
+            }
+        }
+        return new LinearExpr(sum, constant + other.constant);
+    }
+
+    public LinearExpr plus(long value) {
+        return value == 0 ? this : new LinearExpr(terms, constant + value);
+    }
+
+    public LinearExpr minus(LinearExpr other) {
+        return plus(other.times(-1));
+    }
+
+    public LinearExpr times(long factor) {
+        if (factor == 0) {
+            return ZERO;
+        }
+        TreeMap<String, Long> scaled = new TreeMap<>();
+        for (Map.Entry<String, Long> term : terms.entrySet()) {
+            scaled.put(term.getKey(), term.getValue() * factor);
+        }
+        return new LinearExpr(scaled, constant * factor);
+    }
+
+    /**
+     * Value under an assignment; unassigned variables count as 0.
+     */
+    public long evaluate(Map<String, Long> model) {
+        long value = constant;
+        for (Map.Entry<String, Long> term : terms.entrySet()) {
+            Long variableValue = model.get(term.getKey());
+            value += term.getValue() * (variableValue != null ? variableValue : 0);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof LinearExpr)) {
+            return false;
+        }
+        LinearExpr other = (LinearExpr) obj;
+        return constant == other.constant && terms.equals(other.terms);
+    }
+
+    @Override
+    public int hashCode() {
+        return terms.hashCode() * 31 + Long.hashCode(constant);
+    }
+
+    /**
+     * E.g. "2*x - y + 3".
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> term : terms.entrySet()) {
+            long coefficient = term.getValue();
+            if (sb.length() > 0) {
+                sb.append(coefficient < 0 ? " - " : " + ");
+            } else if (coefficient < 0) {
+                sb.append("-");
+            }
+            if (Math.abs(coefficient) != 1) {
+                sb.append(Math.abs(coefficient)).append("*");
+            }
+            sb.append(term.getKey());
+        }
+        if (sb.length() == 0) {
+            return Long.toString(constant);
+        }
+        if (constant != 0) {
+            sb.append(constant < 0 ? " - " : " + ").append(Math.abs(constant));
+        }
+        return sb.toString();
+    }
+}
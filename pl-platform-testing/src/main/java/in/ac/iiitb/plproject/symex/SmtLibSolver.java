@@ -0,0 +1,199 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Full-strength tier backed by an external SMT solver (z3 by default), driven through
+ * SMT-LIB 2 over stdin: one process per query, integer variables bounded by
+ * [minInt, maxInt] like symbolic.minint/maxint in the generated .jpf files.
+ *
+ * When the solver binary cannot be started the tier marks itself unavailable and
+ * answers UNKNOWN from then on, so a TieredSolver falls through to its local tier.
+ */
+public class SmtLibSolver implements ConstraintSolver {
+
+    public static final List<String> DEFAULT_COMMAND = Arrays.asList("z3", "-in", "-smt2");
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    private static final Pattern MODEL_VALUE = Pattern.compile(
+        "\\(define-fun\\s+\\|?([^|\\s]+)\\|?\\s+\\(\\)\\s+Int\\s+(\\(\\s*-\\s*\\d+\\s*\\)|\\d+)\\s*\\)");
+
+    private final String name;
+    private final List<String> command;
+    private final long minInt;
+    private final long maxInt;
+    private final long timeoutMillis;
+    private volatile boolean available = true;
+
+    public SmtLibSolver() {
+        this("z3", DEFAULT_COMMAND, BoundedLinearSolver.DEFAULT_MIN_INT, BoundedLinearSolver.DEFAULT_MAX_INT,
+            DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public SmtLibSolver(String name, List<String> command, long minInt, long maxInt, long timeoutMillis) {
+        this.name = name;
+        this.command = command;
+        this.minInt = minInt;
+        this.maxInt = maxInt;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getMinInt() {
+        return minInt;
+    }
+
+    @Override
+    public long getMaxInt() {
+        return maxInt;
+    }
+
+    /**
+     * False once the solver process failed to start.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public SolverResult solve(Constraint constraint) {
+        if (!available) {
+            return SolverResult.UNKNOWN;
+        }
+        Set<String> variables = new TreeSet<>();
+        constraint.addVariables(variables);
+        String script = toSmtLib(constraint, variables);
+
+        File output = null;
+        try {
+            output = File.createTempFile("atc-smt", ".out");
+            Process process;
+            try {
+                process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(output).start();
+            } catch (IOException e) {
+                available = false;
+                return SolverResult.UNKNOWN;
+            }
+            try (OutputStream in = process.getOutputStream()) {
+                in.write(script.getBytes(StandardCharsets.UTF_8));
+            }
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                return SolverResult.UNKNOWN;
+            }
+            return parse(new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8), variables);
+        } catch (IOException e) {
+            return SolverResult.UNKNOWN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SolverResult.UNKNOWN;
+        } finally {
+            if (output != null) {
+                output.delete();
+            }
+        }
+    }
+
+    /**
+     * SMT-LIB 2 script checking the constraint and printing a model.
+     */
+    public String toSmtLib(Constraint constraint, Set<String> variables) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("(set-option :produce-models true)\n");
+        sb.append("(set-logic QF_LIA)\n");
+        for (String variable : variables) {
+            String symbol = symbol(variable);
+            sb.append("(declare-const ").append(symbol).append(" Int)\n");
+            sb.append("(assert (and (<= ").append(number(minInt)).append(" ").append(symbol).append(") (<= ")
+                .append(symbol).append(" ").append(number(maxInt)).append(")))\n");
+        }
+        sb.append("(assert ");
+        appendFormula(constraint, sb);
+        sb.append(")\n(check-sat)\n(get-model)\n");
+        return sb.toString();
+    }
+
+    private static void appendFormula(Constraint constraint, StringBuilder sb) {
+        switch (constraint.getKind()) {
+            case TRUE:
+                sb.append("true");
+                return;
+            case FALSE:
+                sb.append("false");
+                return;
+            case AND:
+            case OR:
+                sb.append(constraint.getKind() == Constraint.Kind.AND ? "(and" : "(or");
+                for (Constraint operand : constraint.getOperands()) {
+                    sb.append(" ");
+                    appendFormula(operand, sb);
+                }
+                sb.append(")");
+                return;
+            case LE:
+                sb.append("(<= ");
+                break;
+            case EQ:
+                sb.append("(= ");
+                break;
+            default:
+                sb.append("(distinct ");
+        }
+        appendTerm(constraint.getExpr(), sb);
+        sb.append(" 0)");
+    }
+
+    private static void appendTerm(LinearExpr expr, StringBuilder sb) {
+        sb.append("(+");
+        for (Map.Entry<String, Long> term : expr.getTerms().entrySet()) {
+            sb.append(" (* ").append(number(term.getValue())).append(" ").append(symbol(term.getKey())).append(")");
+        }
+        sb.append(" ").append(number(expr.getConstant())).append(")");
+    }
+
+    private static String number(long value) {
+        return value < 0 ? "(- " + -value + ")" : Long.toString(value);
+    }
+
+    private static String symbol(String variable) {
+        return "|" + variable + "|";
+    }
+
+    private static SolverResult parse(String output, Set<String> variables) {
+        String status = output.trim().split("\\s+", 2)[0];
+        if (status.equals("unsat")) {
+            return SolverResult.UNSAT;
+        }
+        if (!status.equals("sat")) {
+            return SolverResult.UNKNOWN;
+        }
+        Map<String, Long> model = new HashMap<>();
+        Matcher matcher = MODEL_VALUE.matcher(output);
+        while (matcher.find()) {
+            String value = matcher.group(2).replaceAll("[()\\s]", "");
+            model.put(matcher.group(1), Long.parseLong(value));
+        }
+        if (!model.keySet().containsAll(variables)) {
+            return SolverResult.UNKNOWN;
+        }
+        return SolverResult.sat(model);
+    }
+}
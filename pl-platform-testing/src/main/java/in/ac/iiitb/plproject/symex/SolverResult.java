@@ -0,0 +1,55 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of deciding a path condition: SAT with a model, UNSAT, or UNKNOWN when
+ * the solver gave up (search budget exhausted or constraints it cannot decide).
+ */
+public final class SolverResult {
+
+    public enum Status {
+        SAT, UNSAT, UNKNOWN
+    }
+
+    public static final SolverResult UNSAT = new SolverResult(Status.UNSAT, null);
+    public static final SolverResult UNKNOWN = new SolverResult(Status.UNKNOWN, null);
+
+    private final Status status;
+    private final Map<String, Long> model;
+
+    private SolverResult(Status status, Map<String, Long> model) {
+        this.status = status;
+        this.model = model;
+    }
+
+    public static SolverResult sat(Map<String, Long> model) {
+        return new SolverResult(Status.SAT, Collections.unmodifiableMap(new TreeMap<>(model)));
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSat() {
+        return status == Status.SAT;
+    }
+
+    public boolean isUnsat() {
+        return status == Status.UNSAT;
+    }
+
+    /**
+     * Variable values of a SAT result, sorted by name; null otherwise.
+     */
+    public Map<String, Long> getModel() {
+        return model;
+    }
+
+    @Override
+    public String toString() {
+        return status == Status.SAT ? "SAT " + model : status.name();
+    }
+}
@@ -0,0 +1,70 @@
+package in.ac.iiitb.plproject.symex;
+
+import in.ac.iiitb.plproject.atc.ir.AtcClass;
+import java.util.Map;
+
+/**
+ * Everything SpfWrapper derives from one AtcClass, produced exactly once:
+ * the optimized IR, the plain ATC source, the symbolic IR, the JPF-ready source and
+ * the .jpf configs.
+ * The two Java sources are null when they were not rendered into memory
+ * (quiet runs stream the JPF source from the symbolic IR instead).
+ */
+public class SpfArtifacts {
+    private final AtcClass atcClass;
+    private final AtcClass optimizedIr;
+    private final String simpleJavaCode;
+    private final AtcClass symbolicIr;
+    private final String jpfCode;
+    private final String fullClassName;
+    private final String mainJpfConfig;
+    private final Map<String, String> methodJpfConfigs; // method name -> .jpf content, in method order
+
+    public SpfArtifacts(AtcClass atcClass, AtcClass optimizedIr, String simpleJavaCode, AtcClass symbolicIr,
+                        String jpfCode, String fullClassName, String mainJpfConfig,
+                        Map<String, String> methodJpfConfigs) {
+        this.atcClass = atcClass;
+        this.optimizedIr = optimizedIr;
+        this.simpleJavaCode = simpleJavaCode;
+        this.symbolicIr = symbolicIr;
+        this.jpfCode = jpfCode;
+        this.fullClassName = fullClassName;
+        this.mainJpfConfig = mainJpfConfig;
+        this.methodJpfConfigs = methodJpfConfigs;
+    }
+
+    public AtcClass getAtcClass() {
+        return atcClass;
+    }
+
+    /**
+     * The IR after the pass pipeline, before the symbolic transformation.
+     */
+    public AtcClass getOptimizedIr() {
+        return optimizedIr;
+    }
+
+    public String getSimpleJavaCode() {
+        return simpleJavaCode;
+    }
+
+    public AtcClass getSymbolicIr() {
+        return symbolicIr;
+    }
+
+    public String getJpfCode() {
+        return jpfCode;
+    }
+
+    public String getFullClassName() {
+        return fullClassName;
+    }
+
+    public String getMainJpfConfig() {
+        return mainJpfConfig;
+    }
+
+    public Map<String, String> getMethodJpfConfigs() {
+        return methodJpfConfigs;
+    }
+}
@@ -4,22 +4,220 @@ import in.ac.iiitb.plproject.atc.ConcreteInput;
 import in.ac.iiitb.plproject.atc.ir.AtcClass;
 import in.ac.iiitb.plproject.atc.ir.AtcTestMethod;
 import in.ac.iiitb.plproject.atc.ir.AtcIrCodeGenerator;
+import in.ac.iiitb.plproject.atc.ir.pass.AtcPassManager;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class SpfWrapper {
     
+    public static final String DECISION_PROCEDURE_KEY = "symbolic.dp";
+    public static final String BATCH_SIZE_KEY = "atc.jpf.batch";
+    public static final String BUDGET_KEY = "atc.jpf.budget";
+    public static final long DEFAULT_METHOD_SECONDS = 120;
+    public static final String INPUTS_KEY = "atc.jpf.inputs";
+    public static final String PROBES_KEY = "atc.probes";
+    public static final String RUN_KEY = "atc.jpf.run";
+    
     private AtcIrToSymbolicIrTransformer transformer;
     private AtcIrCodeGenerator codeGenerator;
+    private AtcPassManager passManager; // IR optimizations run before the symbolic transformation
+    private SymbolicExecutor executor; // Built-in symbolic execution that produces the concrete inputs
+    private String decisionProcedure; // symbolic.dp written to the .jpf files
+    private boolean quiet; // Skip console dumps of generated code and progress messages
+    private int batchSize; // Helpers per batched JPF session written next to the per-method configs; 0 = none
+    private JpfCostModel costModel; // Splits the search budget and picks the search per helper
+    private long budgetSeconds; // Global JPF time budget for all helpers; 0 = DEFAULT_METHOD_SECONDS each
+    private String inputsPath; // File or pipe for binary ConcreteInput records from JPF; null = console only
+    private JpfProcessPool jpfPool; // Runs the saved per-method .jpf files after generation; null = JPF is not run
+    private List<JpfRunResult> jpfResults = new ArrayList<>(); // Results of the last run's JPF step
+    private WarmWorkerPool workerPool; // Runs the saved .jpf files on warm JVMs instead of the JPF pool; null = off
+    private String workerMainClass; // Main class each warm job calls with its .jpf file
+    private List<WarmJobResult> workerResults = new ArrayList<>(); // Results of the last run's warm worker step
     
     public SpfWrapper() {
+        this(false);
+    }
+    
+    public SpfWrapper(boolean quiet) {
         this.transformer = new AtcIrToSymbolicIrTransformer();
-        this.codeGenerator = new AtcIrCodeGenerator();
+        this.codeGenerator = Boolean.getBoolean(PROBES_KEY)
+            ? AtcIrCodeGenerator.withCoverageProbes() : AtcIrCodeGenerator.getInstance();
+        this.passManager = AtcPassManager.fromProperties(System.getProperties());
+        this.executor = new SymbolicExecutor(CachingSolver.fromProperties(
+            TieredSolver.fromProperties(System.getProperties()), System.getProperties()));
+        this.decisionProcedure = System.getProperty(DECISION_PROCEDURE_KEY, "z3");
+        this.batchSize = Integer.getInteger(BATCH_SIZE_KEY, 0);
+        this.costModel = new JpfCostModel();
+        this.budgetSeconds = Long.getLong(BUDGET_KEY, 0L);
+        this.inputsPath = System.getProperty(INPUTS_KEY);
+        this.jpfPool = Boolean.getBoolean(RUN_KEY) ? JpfProcessPool.fromProperties(System.getProperties()) : null;
+        this.workerPool = Boolean.getBoolean(WarmWorkerPool.ENABLED_KEY)
+            ? WarmWorkerPool.forJpf(System.getProperties()) : null;
+        this.workerMainClass = System.getProperty(WarmWorkerPool.MAIN_KEY, WarmWorkerPool.DEFAULT_JPF_MAIN);
+        this.quiet = quiet;
+    }
+    
+    public AtcPassManager getPassManager() {
+        return passManager;
+    }
+    
+    public void setPassManager(AtcPassManager passManager) {
+        this.passManager = passManager;
+    }
+    
+    public SymbolicExecutor getExecutor() {
+        return executor;
+    }
+    
+    public void setExecutor(SymbolicExecutor executor) {
+        this.executor = executor;
+    }
+    
+    public String getDecisionProcedure() {
+        return decisionProcedure;
+    }
+    
+    /**
+     * SPF decision procedure for the generated .jpf files (symbolic.dp), e.g. "z3" or "choco".
+     */
+    public void setDecisionProcedure(String decisionProcedure) {
+        this.decisionProcedure = decisionProcedure;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * When positive, saved outputs also include batched JPF sessions (driver + .jpf)
+     * of up to this many helper methods each.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public JpfCostModel getCostModel() {
+        return costModel;
+    }
+    
+    public long getBudgetSeconds() {
+        return budgetSeconds;
+    }
+    
+    /**
+     * Global time budget (search.time_limit summed over all helpers) that the cost
+     * model splits; 0 means DEFAULT_METHOD_SECONDS per helper.
+     */
+    public void setBudgetSeconds(long budgetSeconds) {
+        this.budgetSeconds = budgetSeconds;
+    }
+    
+    public String getInputsPath() {
+        return inputsPath;
+    }
+    
+    /**
+     * When set, helper .jpf files add the generated input listener, which writes each
+     * solved path's inputs as binary ConcreteInput records (ConcreteInputReader) to
+     * this file or named pipe; saved outputs then include the listener source.
+     */
+    public void setInputsPath(String inputsPath) {
+        this.inputsPath = inputsPath;
+    }
+    
+    public JpfProcessPool getJpfPool() {
+        return jpfPool;
+    }
+    
+    /**
+     * When set, run() also runs the saved per-method .jpf files on this pool
+     * (-Datc.jpf.run=true sets one up from the atc.jpf.* properties).
+     */
+    public void setJpfPool(JpfProcessPool jpfPool) {
+        this.jpfPool = jpfPool;
+    }
+    
+    /**
+     * Results of the JPF runs of the last run() call; empty if JPF was not run.
+     */
+    public List<JpfRunResult> getJpfResults() {
+        return jpfResults;
+    }
+    
+    public WarmWorkerPool getWorkerPool() {
+        return workerPool;
+    }
+    
+    /**
+     * Warm workers that run the saved per-method .jpf files after generation, each job
+     * calling mainClass with the .jpf path through the worker's isolated loader. They
+     * take the place of the JPF pool; null turns them off. The caller closes the pool.
+     */
+    public void setWorkerPool(WarmWorkerPool workerPool, String mainClass) {
+        this.workerPool = workerPool;
+        this.workerMainClass = mainClass;
+    }
+    
+    /**
+     * Warm job results of the last run (empty without workers).
+     */
+    public List<WarmJobResult> getWorkerResults() {
+        return workerResults;
+    }
+    
+    public boolean isCoverageProbes() {
+        return codeGenerator.hasCoverageProbes();
+    }
+    
+    /**
+     * When set, generated classes get branch-coverage probes (AtcIrCodeGenerator) and
+     * saved outputs include the probe ID map, &lt;Class&gt;.probes.
+     */
+    public void setCoverageProbes(boolean probes) {
+        this.codeGenerator = probes ? AtcIrCodeGenerator.withCoverageProbes() : AtcIrCodeGenerator.getInstance();
+    }
+    
+    /**
+     * Declared symbolic inputs per helper method, for the input listener.
+     */
+    private Map<String, Map<String, String>> inputTypes(AtcClass atcClass) {
+        Map<String, Map<String, String>> types = new LinkedHashMap<>();
+        for (JpfCostModel.Cost cost : costModel.estimate(atcClass)) {
+            types.put(cost.getMethodName(), cost.getInputTypes());
+        }
+        return types;
+    }
+    
+    /**
+     * Search settings per helper method of the (optimized) IR, from the cost model.
+     */
+    public Map<String, JpfCostModel.Budget> planBudgets(AtcClass atcClass) {
+        List<JpfCostModel.Cost> costs = costModel.estimate(atcClass);
+        long total = budgetSeconds > 0 ? budgetSeconds : DEFAULT_METHOD_SECONDS * costs.size();
+        return costModel.plan(costs, total);
+    }
+    
+    public boolean isQuiet() {
+        return quiet;
+    }
+    
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+    
+    private void log(String message) {
+        if (!quiet) {
+            System.out.println(message);
+        }
     }
     
     private String extractMethodSignature(String javaCode, String methodName) {
@@ -108,130 +306,315 @@ public class SpfWrapper {
         return methodName + "()";
     }
     
+    /**
+     * Run every generation stage once for the given class: render the plain ATC,
+     * transform to symbolic IR, render the JPF source and build the .jpf configs.
+     * All later stages (printing, saving) reuse these artifacts.
+     */
+    public SpfArtifacts buildArtifacts(AtcClass atcClass) throws IOException {
+        return buildArtifacts(atcClass, true);
+    }
+    
+    /**
+     * Same as buildArtifacts(AtcClass), but when renderSources is false the Java
+     * sources are not kept in memory; saveOutputFiles then streams the JPF
+     * source from the symbolic IR straight to disk.
+     */
+    public SpfArtifacts buildArtifacts(AtcClass atcClass, boolean renderSources) throws IOException {
+        AtcClass optimizedIr = optimize(atcClass);
+        AtcClass symbolicIr = transformer.transform(optimizedIr);
+        String simpleJavaCode = renderSources ? codeGenerator.generateJavaFile(atcClass) : null;
+        String jpfCode = renderSources ? codeGenerator.generateSymbolicJavaFile(symbolicIr) : null;
+        
+        String fullClassName = getFullClassName(symbolicIr);
+        String mainJpfConfig = generateJpfFile(fullClassName, "main", null, null, null, jpfCode);
+        Map<String, JpfCostModel.Budget> budgets = planBudgets(optimizedIr);
+        Map<String, Map<String, String>> inputTypes = inputTypes(optimizedIr);
+        Map<String, String> methodJpfConfigs = new LinkedHashMap<>();
+        for (String methodName : getTestMethodNames(symbolicIr)) {
+            methodJpfConfigs.put(methodName, generateJpfFile(fullClassName, methodName, null, null, null, jpfCode,
+                budgets.get(methodName), inputTypes.get(methodName)));
+        }
+        
+        return new SpfArtifacts(atcClass, optimizedIr, simpleJavaCode, symbolicIr, jpfCode, fullClassName,
+            mainJpfConfig, methodJpfConfigs);
+    }
+    
     public void printBothVersions(AtcClass atcClass) {
-        String simpleJavaCode = codeGenerator.generateJavaFile(atcClass);
-        AtcClass symbolicIr = transformer.transform(atcClass);
-        String jpfCode = codeGenerator.generateSymbolicJavaFile(symbolicIr);
-        printBothVersions(simpleJavaCode, jpfCode, atcClass);
+        try {
+            printBothVersions(buildArtifacts(atcClass));
+        } catch (IOException e) {
+            System.err.println("Error generating .jpf file: " + e.getMessage());
+        }
     }
     
-    private void printBothVersions(String simpleJavaCode, String jpfCode, AtcClass atcClass) {
+    private void printBothVersions(SpfArtifacts artifacts) {
         String separator = "================================================================================";
         
         System.out.println("\n" + separator);
         System.out.println("ORIGINAL ATC CODE (Generated by NewGenATC - Non-Symbolic):");
         System.out.println(separator);
-        System.out.println(simpleJavaCode);
+        System.out.println(artifacts.getSimpleJavaCode());
         System.out.println();
         
         System.out.println(separator);
         System.out.println("JPF-TRANSFORMED CODE (Ready for Symbolic PathFinder):");
         System.out.println(separator);
-        System.out.println(jpfCode);
+        System.out.println(artifacts.getJpfCode());
         System.out.println();
         
-        String packageName = atcClass.getPackageName();
-        String className = atcClass.getClassName();
-        String fullClassName = (packageName != null && !packageName.isEmpty()) 
-            ? packageName + "." + className 
-            : className;
+        String fullClassName = artifacts.getFullClassName();
+        Map<String, String> methodJpfConfigs = artifacts.getMethodJpfConfigs();
         
-        List<String> testMethods = new ArrayList<>();
-        for (AtcTestMethod method : atcClass.getTestMethods()) {
-            if (method.isTestAnnotated() && !method.isMain()) {
-                testMethods.add(method.getMethodName());
-            }
-        }
-        
-        if (fullClassName != null && !testMethods.isEmpty()) {
+        if (fullClassName != null && !methodJpfConfigs.isEmpty()) {
             System.out.println(separator);
             System.out.println("GENERATED .JPF CONFIGURATION FILES:");
             System.out.println(separator);
             
-            String firstMethod = testMethods.get(0);
-            try {
-                String jpfContent = generateJpfFile(fullClassName, firstMethod, null, null, null, jpfCode);
-                System.out.println("# Example .jpf file for: " + fullClassName + "." + firstMethod + "()");
-                System.out.println(jpfContent);
-                System.out.println();
-                
-                if (testMethods.size() > 1) {
-                    System.out.println("# " + (testMethods.size() - 1) + " more test method(s) found.");
-                }
-            } catch (IOException e) {
-                System.err.println("Error generating .jpf file: " + e.getMessage());
+            Map.Entry<String, String> first = methodJpfConfigs.entrySet().iterator().next();
+            System.out.println("# Example .jpf file for: " + fullClassName + "." + first.getKey() + "()");
+            System.out.println(first.getValue());
+            System.out.println();
+            
+            if (methodJpfConfigs.size() > 1) {
+                System.out.println("# " + (methodJpfConfigs.size() - 1) + " more test method(s) found.");
             }
         }
     }
     
+    /**
+     * Generate and save the JPF artifacts, then find concrete inputs by executing the
+     * optimized IR with the built-in SymbolicExecutor (no JPF install needed). With a
+     * JPF pool set, the saved per-method .jpf files are run on it first, within the
+     * global budget when one is set; with warm workers set they run there instead.
+     */
     public List<ConcreteInput> run(AtcClass atcClass) {
-        printBothVersions(atcClass);
-        
-        AtcClass symbolicIr = transformer.transform(atcClass);
-        String jpfCode = codeGenerator.generateSymbolicJavaFile(symbolicIr);
-        String simpleJavaCode = codeGenerator.generateJavaFile(atcClass);
-        
+        AtcClass optimizedIr = null;
+        jpfResults = new ArrayList<>();
+        workerResults = new ArrayList<>();
         try {
-            saveOutputFiles(simpleJavaCode, jpfCode, symbolicIr);
+            SpfArtifacts artifacts = buildArtifacts(atcClass, !quiet);
+            optimizedIr = artifacts.getOptimizedIr();
+            if (!quiet) {
+                printBothVersions(artifacts);
+            }
+            Map<String, String> jpfFiles = saveOutputFiles(artifacts);
+            if (workerPool != null && !jpfFiles.isEmpty()) {
+                workerResults = runWorkers(jpfFiles);
+            } else if (jpfPool != null && !jpfFiles.isEmpty()) {
+                jpfResults = runJpf(jpfFiles, optimizedIr);
+            }
         } catch (IOException e) {
             System.err.println("Error saving output files: " + e.getMessage());
             e.printStackTrace();
         }
         
-        System.out.println("(SPF execution not yet implemented)");
-        return new ArrayList<ConcreteInput>();
+        if (optimizedIr == null) {
+            optimizedIr = optimize(atcClass);
+        }
+        List<ConcreteInput> inputs = executor.execute(optimizedIr);
+        ConstraintSolver solver = executor.getSolver();
+        if (solver instanceof CachingSolver) {
+            try {
+                ((CachingSolver) solver).save();
+            } catch (IOException e) {
+                System.err.println("Error saving solver cache: " + e.getMessage());
+            }
+        }
+        if (!quiet) {
+            if (passManager != null) {
+                System.out.print("IR passes:\n" + passManager.formatStats());
+            }
+            System.out.println(executor.formatStats());
+            if (solver instanceof CachingSolver) {
+                System.out.print(((CachingSolver) solver).formatStats());
+                solver = ((CachingSolver) solver).getDelegate();
+            }
+            if (solver instanceof TieredSolver) {
+                System.out.print("Solver tiers:\n" + ((TieredSolver) solver).formatStats());
+            }
+            if (!jpfResults.isEmpty()) {
+                System.out.println("JPF runs (" + jpfResults.size() + "):");
+                for (JpfRunResult result : jpfResults) {
+                    System.out.println("  " + result);
+                }
+            }
+            if (!workerResults.isEmpty()) {
+                System.out.println("Warm JPF jobs (" + workerResults.size() + "):");
+                for (WarmJobResult result : workerResults) {
+                    System.out.println("  " + result);
+                }
+            }
+            System.out.println("Concrete inputs (" + inputs.size() + "):");
+            for (ConcreteInput input : inputs) {
+                System.out.println("  " + input);
+            }
+        }
+        return inputs;
+    }
+    
+    /**
+     * Run the saved per-method .jpf files (method name -> path) on the JPF pool. With a
+     * global budget they go through a JpfBudgetScheduler, so time a helper leaves
+     * unused moves on to the ones launched after it. An interrupted run cancels the
+     * pool and returns nothing.
+     */
+    private List<JpfRunResult> runJpf(Map<String, String> jpfFiles, AtcClass optimizedIr) {
+        log("Running " + jpfFiles.size() + " .jpf file(s) on " + jpfPool.getWorkers() + " JPF worker(s)");
+        try {
+            if (budgetSeconds > 0) {
+                Map<String, JpfCostModel.Cost> runs = new LinkedHashMap<>();
+                for (JpfCostModel.Cost cost : costModel.estimate(optimizedIr)) {
+                    String jpfFile = jpfFiles.get(cost.getMethodName());
+                    if (jpfFile != null) {
+                        runs.put(jpfFile, cost);
+                    }
+                }
+                return new JpfBudgetScheduler(jpfPool, costModel).run(runs, budgetSeconds);
+            }
+            return jpfPool.runAll(new ArrayList<>(jpfFiles.values()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("JPF runs interrupted");
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Run the saved per-method .jpf files on the warm workers; an interrupted run
+     * returns nothing.
+     */
+    private List<WarmJobResult> runWorkers(Map<String, String> jpfFiles) {
+        log("Running " + jpfFiles.size() + " .jpf file(s) on " + workerPool.getWorkers() + " warm worker(s)");
+        List<String> targets = new ArrayList<>();
+        for (String jpfFile : jpfFiles.values()) {
+            targets.add(workerMainClass + " " + jpfFile);
+        }
+        try {
+            return workerPool.runAll(targets);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Warm JPF jobs interrupted");
+            return new ArrayList<>();
+        }
     }
     
     public String transformIrToJpfCode(AtcClass atcClass) {
-        AtcClass symbolicIr = transformer.transform(atcClass);
+        AtcClass symbolicIr = toSymbolicIr(atcClass);
         return codeGenerator.generateSymbolicJavaFile(symbolicIr);
     }
     
-    private void saveOutputFiles(String simpleJavaCode, String jpfCode, AtcClass atcClass) throws IOException {
-        System.out.println("\n=== Saving output files ===");
-        String outputDir = "outputs";
-        java.io.File outputDirFile = new java.io.File(outputDir);
-        if (!outputDirFile.exists()) {
-            boolean created = outputDirFile.mkdirs();
-            System.out.println("Created outputs directory: " + created + " (path: " + outputDirFile.getAbsolutePath() + ")");
-        } else {
-            System.out.println("Outputs directory already exists: " + outputDirFile.getAbsolutePath());
+    /**
+     * Optimize the IR with the pass manager (if any), then transform it to symbolic IR.
+     */
+    private AtcClass toSymbolicIr(AtcClass atcClass) {
+        return transformer.transform(optimize(atcClass));
+    }
+    
+    private AtcClass optimize(AtcClass atcClass) {
+        if (passManager == null) {
+            return atcClass;
         }
-        
+        return passManager.run(atcClass);
+    }
+    
+    private String getFullClassName(AtcClass atcClass) {
         String packageName = atcClass.getPackageName();
         String className = atcClass.getClassName();
-        String fullClassName = (packageName != null && !packageName.isEmpty()) 
+        return (packageName != null && !packageName.isEmpty()) 
             ? packageName + "." + className 
             : className;
-        
+    }
+    
+    private List<String> getTestMethodNames(AtcClass atcClass) {
         List<String> testMethods = new ArrayList<>();
         for (AtcTestMethod method : atcClass.getTestMethods()) {
             if (method.isTestAnnotated() && !method.isMain()) {
                 testMethods.add(method.getMethodName());
             }
         }
+        return testMethods;
+    }
+    
+    private void writeFile(String path, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(path)) {
+            writer.write(content);
+        }
+    }
+    
+    /**
+     * Save the artifacts under outputs/; returns the per-method .jpf files written
+     * (method name -> path).
+     */
+    private Map<String, String> saveOutputFiles(SpfArtifacts artifacts) throws IOException {
+        log("\n=== Saving output files ===");
+        String outputDir = "outputs";
+        java.io.File outputDirFile = new java.io.File(outputDir);
+        if (!outputDirFile.exists()) {
+            boolean created = outputDirFile.mkdirs();
+            log("Created outputs directory: " + created + " (path: " + outputDirFile.getAbsolutePath() + ")");
+        } else {
+            log("Outputs directory already exists: " + outputDirFile.getAbsolutePath());
+        }
+        
+        String className = artifacts.getSymbolicIr().getClassName();
         
         String javaFileName = className + ".java";
         String javaFilePath = Paths.get(outputDir, javaFileName).toString();
-        try (FileWriter writer = new FileWriter(javaFilePath)) {
-            writer.write(jpfCode);
-            System.out.println("Saved JPF-transformed Java file: " + javaFilePath);
+        if (artifacts.getJpfCode() != null) {
+            writeFile(javaFilePath, artifacts.getJpfCode());
+        } else {
+            try (FileChannel channel = FileChannel.open(Paths.get(javaFilePath),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                codeGenerator.generateSymbolicJavaFile(artifacts.getSymbolicIr(), channel);
+            }
+        }
+        log("Saved JPF-transformed Java file: " + javaFilePath);
+        
+        if (codeGenerator.hasCoverageProbes()) {
+            String probeMapPath = Paths.get(outputDir, className + ".probes").toString();
+            writeFile(probeMapPath, codeGenerator.generateProbeMap(artifacts.getSymbolicIr()));
+            log("Saved coverage probe map: " + probeMapPath);
         }
         
         String mainJpfFileName = className + "_main.jpf";
         String mainJpfFilePath = Paths.get(outputDir, mainJpfFileName).toString();
         try {
-            generateJpfFile(fullClassName, "main", mainJpfFilePath, null, null, jpfCode);
-            System.out.println("Generated main .jpf file: " + mainJpfFilePath);
+            writeFile(mainJpfFilePath, artifacts.getMainJpfConfig());
+            log("Generated main .jpf file: " + mainJpfFilePath);
         } catch (IOException e) {
             System.err.println("Error generating main .jpf file: " + e.getMessage());
         }
         
-        if (!testMethods.isEmpty() && fullClassName != null) {
-            List<String> jpfFiles = generateJpfFilesForMethods(fullClassName, testMethods, outputDir, null, null, jpfCode);
-            System.out.println("Generated " + jpfFiles.size() + " additional .jpf file(s) for individual test methods:");
-            for (String jpfFile : jpfFiles) {
-                System.out.println("  - " + jpfFile);
+        Map<String, String> methodJpfConfigs = artifacts.getMethodJpfConfigs();
+        Map<String, String> jpfFiles = new LinkedHashMap<>();
+        if (!methodJpfConfigs.isEmpty() && artifacts.getFullClassName() != null) {
+            String fullClassName = artifacts.getFullClassName();
+            String simpleClassName = fullClassName.substring(fullClassName.lastIndexOf('.') + 1);
+            for (Map.Entry<String, String> entry : methodJpfConfigs.entrySet()) {
+                String jpfFilePath = Paths.get(outputDir, simpleClassName + "_" + entry.getKey() + ".jpf").toString();
+                writeFile(jpfFilePath, entry.getValue());
+                jpfFiles.put(entry.getKey(), jpfFilePath);
+            }
+            log("Generated " + jpfFiles.size() + " additional .jpf file(s) for individual test methods:");
+            for (String jpfFile : jpfFiles.values()) {
+                log("  - " + jpfFile);
+            }
+        }
+        
+        if (inputsPath != null && artifacts.getFullClassName() != null) {
+            String fullClassName = artifacts.getFullClassName();
+            int dot = fullClassName.lastIndexOf('.');
+            String listenerPath = Paths.get(outputDir, JpfInputCollector.LISTENER_NAME + ".java").toString();
+            writeFile(listenerPath, JpfInputCollector.listenerSource(dot >= 0 ? fullClassName.substring(0, dot) : ""));
+            log("Saved input listener: " + listenerPath + " (records go to " + inputsPath + ")");
+        }
+        
+        if (batchSize > 0 && !methodJpfConfigs.isEmpty() && artifacts.getFullClassName() != null) {
+            List<String> batchFiles = writeBatches(buildBatches(artifacts, batchSize), outputDir);
+            log("Generated " + batchFiles.size() + " batched .jpf file(s) of up to " + batchSize + " method(s):");
+            for (String batchFile : batchFiles) {
+                log("  - " + batchFile);
             }
         }
         
@@ -274,10 +657,11 @@ public class SpfWrapper {
             writer.write("        return updated;\n");
             writer.write("    }\n");
             writer.write("}\n");
-            System.out.println("Generated Helper.java: " + helperJavaPath);
+            log("Generated Helper.java: " + helperJavaPath);
         } catch (IOException e) {
             System.err.println("Error generating Helper.java: " + e.getMessage());
         }
+        return jpfFiles;
     }
     
     public String getJpfCode(AtcClass atcClass) {
@@ -291,6 +675,26 @@ public class SpfWrapper {
     
     public String generateJpfFile(String className, String methodName, String outputPath, 
                                    String classpath, String sourcepath, String javaCode) throws IOException {
+        return generateJpfFile(className, methodName, outputPath, classpath, sourcepath, javaCode, null);
+    }
+    
+    /**
+     * With a budget from the cost model, the search bounds and search class come from
+     * it; without one the fixed defaults are used.
+     */
+    public String generateJpfFile(String className, String methodName, String outputPath, 
+                                   String classpath, String sourcepath, String javaCode,
+                                   JpfCostModel.Budget budget) throws IOException {
+        return generateJpfFile(className, methodName, outputPath, classpath, sourcepath, javaCode, budget, null);
+    }
+    
+    /**
+     * With an inputs path set, a helper's config also adds the input listener, with
+     * the helper's declared inputs (name -&gt; type) when known.
+     */
+    public String generateJpfFile(String className, String methodName, String outputPath, 
+                                   String classpath, String sourcepath, String javaCode,
+                                   JpfCostModel.Budget budget, Map<String, String> inputTypes) throws IOException {
         StringBuilder jpfContent = new StringBuilder();
         
         jpfContent.append("# Target class\n");
@@ -326,7 +730,7 @@ public class SpfWrapper {
         
         if ("main".equals(methodName)) {
             jpfContent.append("# Constraint solver - required for symbolic execution\n");
-            jpfContent.append("symbolic.dp = z3\n\n");
+            jpfContent.append("symbolic.dp = ").append(decisionProcedure).append("\n\n");
         }
         
         jpfContent.append("# Symbolic string variables created via Debug.makeSymbolicString\n");
@@ -341,12 +745,18 @@ public class SpfWrapper {
         }
         
         jpfContent.append("\n# Integer ranges\n");
-        jpfContent.append("symbolic.minint = -100\n");
-        jpfContent.append("symbolic.maxint = 100\n");
+        jpfContent.append("symbolic.minint = ").append(executor.getSolver().getMinInt()).append("\n");
+        jpfContent.append("symbolic.maxint = ").append(executor.getSolver().getMaxInt()).append("\n");
         jpfContent.append("symbolic.undefined = -1000\n\n");
         
         jpfContent.append("# Search bounds to prevent infinite exploration\n");
-        if ("main".equals(methodName)) {
+        String searchClass = JpfCostModel.BFS_HEURISTIC;
+        if (budget != null) {
+            jpfContent.append("# Bounds and search strategy from the static cost model (JpfCostModel)\n");
+            jpfContent.append("search.depth_limit = ").append(budget.getDepthLimit()).append("\n");
+            jpfContent.append("search.time_limit = ").append(budget.getTimeLimitSeconds()).append("\n");
+            searchClass = budget.getSearchClass();
+        } else if ("main".equals(methodName)) {
             jpfContent.append("search.depth_limit = 200\n");
             jpfContent.append("search.time_limit = 60\n");
         } else {
@@ -354,7 +764,7 @@ public class SpfWrapper {
             jpfContent.append("search.time_limit = 120\n");
         }
         jpfContent.append("search.multiple_errors = true\n");
-        jpfContent.append("search.class = .search.heuristic.BFSHeuristic\n\n");
+        jpfContent.append("search.class = ").append(searchClass).append("\n\n");
         
         if ("main".equals(methodName)) {
             jpfContent.append("# Show path conditions and symbolic execution results\n");
@@ -367,7 +777,22 @@ public class SpfWrapper {
         } else {
             jpfContent.append("# Listeners for test input extraction and coverage\n");
             jpfContent.append("# SymbolicSequenceListener generates JUnit tests with concrete values\n");
-            jpfContent.append("listener = gov.nasa.jpf.symbc.sequences.SymbolicSequenceListener,gov.nasa.jpf.listener.CoverageAnalyzer\n\n");
+            jpfContent.append("listener = gov.nasa.jpf.symbc.sequences.SymbolicSequenceListener,gov.nasa.jpf.listener.CoverageAnalyzer");
+            if (inputsPath != null) {
+                int dot = className.lastIndexOf('.');
+                jpfContent.append(",").append(dot >= 0 ? className.substring(0, dot + 1) : "")
+                    .append(JpfInputCollector.LISTENER_NAME);
+            }
+            jpfContent.append("\n\n");
+            
+            if (inputsPath != null) {
+                jpfContent.append("# ").append(JpfInputCollector.LISTENER_NAME)
+                    .append(" writes each solved path's inputs as binary ConcreteInput records (ConcreteInputReader)\n");
+                jpfContent.append("# It must be compiled with this project's classes on native_classpath\n");
+                jpfContent.append(JpfInputCollector.OUT_KEY).append(" = ").append(inputsPath).append("\n");
+                jpfContent.append(JpfInputCollector.TYPES_KEY).append(".").append(methodName).append(" = ")
+                    .append(inputTypes != null ? JpfInputCollector.typesSpec(inputTypes) : "").append("\n\n");
+            }
             
             String simpleClassName = className.substring(className.lastIndexOf('.') + 1);
             jpfContent.append("# Show method coverage\n");
@@ -375,11 +800,16 @@ public class SpfWrapper {
             jpfContent.append("coverage.show_methods = true\n");
             jpfContent.append("coverage.show_bodies = true\n\n");
             
-            jpfContent.append("# To extract concrete test input values from JPF output:\n");
-            jpfContent.append("# 1. Look for 'pc X constraint # = Y' sections - these show path conditions\n");
-            jpfContent.append("# 2. Look for 'JUnit 4.0 test class' section - shows generated test cases\n");
-            jpfContent.append("# 3. The path conditions show constraints; JPF's solver finds values satisfying them\n");
-            jpfContent.append("# 4. For actual concrete values, check the constraint solver output or add Debug.printPC() calls\n");
+            if (inputsPath != null) {
+                jpfContent.append("# Concrete test input values: read ").append(inputsPath)
+                    .append(" with ConcreteInputReader instead of scraping this output\n");
+            } else {
+                jpfContent.append("# To extract concrete test input values from JPF output:\n");
+                jpfContent.append("# 1. Look for 'pc X constraint # = Y' sections - these show path conditions\n");
+                jpfContent.append("# 2. Look for 'JUnit 4.0 test class' section - shows generated test cases\n");
+                jpfContent.append("# 3. The path conditions show constraints; JPF's solver finds values satisfying them\n");
+                jpfContent.append("# 4. For actual concrete values, check the constraint solver output or add Debug.printPC() calls\n");
+            }
         }
         
         String content = jpfContent.toString();
@@ -393,10 +823,110 @@ public class SpfWrapper {
         return content;
     }
     
+    /**
+     * Group the helper methods of the artifacts into batches of up to batchSize, each
+     * run by one driver class (&lt;Class&gt;_Batch&lt;n&gt;) in a single JPF session.
+     *
+     * A batch's config is built from its helpers' configs: the time limits add up,
+     * the depth limit is the largest one, BFSHeuristic is used if any helper uses it,
+     * and the listener, coverage and input record lines (with every helper's
+     * atc.inputs.types line) are kept.
+     */
+    public List<JpfBatch> buildBatches(SpfArtifacts artifacts, int batchSize) throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        String fullClassName = artifacts.getFullClassName();
+        int dot = fullClassName.lastIndexOf('.');
+        String packageName = dot >= 0 ? fullClassName.substring(0, dot) : "";
+        String simpleClassName = fullClassName.substring(dot + 1);
+        List<String> methodNames = new ArrayList<>(artifacts.getMethodJpfConfigs().keySet());
+        
+        List<JpfBatch> batches = new ArrayList<>();
+        for (int start = 0; start < methodNames.size(); start += batchSize) {
+            List<String> methods = methodNames.subList(start, Math.min(start + batchSize, methodNames.size()));
+            String driverName = simpleClassName + "_Batch" + batches.size();
+            String driverClassName = packageName.isEmpty() ? driverName : packageName + "." + driverName;
+            
+            long timeLimit = 0;
+            int depthLimit = 0;
+            String searchClass = JpfCostModel.DFS;
+            Map<String, String> helperSettings = new LinkedHashMap<>();
+            for (String method : methods) {
+                Map<String, String> settings = jpfSettings(artifacts.getMethodJpfConfigs().get(method));
+                timeLimit += Long.parseLong(settings.get("search.time_limit"));
+                depthLimit = Math.max(depthLimit, Integer.parseInt(settings.get("search.depth_limit")));
+                if (JpfCostModel.BFS_HEURISTIC.equals(settings.get("search.class"))) {
+                    searchClass = JpfCostModel.BFS_HEURISTIC;
+                }
+                for (Map.Entry<String, String> entry : settings.entrySet()) {
+                    String key = entry.getKey();
+                    if (key.equals("listener") || key.startsWith("coverage.") || key.equals(JpfInputCollector.OUT_KEY)
+                            || key.startsWith(JpfInputCollector.TYPES_KEY + ".")) {
+                        helperSettings.put(key, entry.getValue());
+                    }
+                }
+            }
+            
+            StringBuilder config = new StringBuilder(generateJpfFile(driverClassName, "main", null, null, null, null,
+                new JpfCostModel.Budget(timeLimit, depthLimit, searchClass)));
+            config.append("\n# Listeners, coverage and input records of the batched helpers\n");
+            for (Map.Entry<String, String> entry : helperSettings.entrySet()) {
+                config.append(entry.getKey()).append(" = ").append(entry.getValue()).append("\n");
+            }
+            config.append("\n# Helper methods run by this batch, one per path of the driver's Verify.getInt choice\n");
+            config.append("symbolic.method = ");
+            for (int i = 0; i < methods.size(); i++) {
+                config.append(i > 0 ? ";" : "").append(fullClassName).append(".").append(methods.get(i)).append("()");
+            }
+            config.append("\n");
+            batches.add(new JpfBatch(driverName, driverClassName, fullClassName, methods,
+                JpfBatch.driverSource(packageName, driverName, simpleClassName, methods), config.toString()));
+        }
+        return batches;
+    }
+    
+    /**
+     * The key = value lines of a .jpf config, comments skipped.
+     */
+    private static Map<String, String> jpfSettings(String config) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (String line : config.split("\n")) {
+            int eq = line.indexOf('=');
+            if (eq > 0 && !line.startsWith("#")) {
+                settings.put(line.substring(0, eq).trim(), line.substring(eq + 1).trim());
+            }
+        }
+        return settings;
+    }
+    
+    /**
+     * Write each batch's driver source and .jpf config to outputDir; returns the .jpf paths.
+     */
+    public List<String> writeBatches(List<JpfBatch> batches, String outputDir) throws IOException {
+        List<String> jpfFiles = new ArrayList<>();
+        for (JpfBatch batch : batches) {
+            writeFile(Paths.get(outputDir, batch.getName() + ".java").toString(), batch.getDriverSource());
+            String jpfFile = Paths.get(outputDir, batch.getName() + ".jpf").toString();
+            writeFile(jpfFile, batch.getJpfConfig());
+            jpfFiles.add(jpfFile);
+        }
+        return jpfFiles;
+    }
+    
     public List<String> generateJpfFilesForMethods(String className, List<String> methodNames, 
                                                     String outputDir, String classpath, String sourcepath,
                                                     String javaCode) 
             throws IOException {
+        return generateJpfFilesForMethods(className, methodNames, outputDir, classpath, sourcepath, javaCode,
+            new LinkedHashMap<String, JpfCostModel.Budget>(), new LinkedHashMap<String, Map<String, String>>());
+    }
+    
+    private List<String> generateJpfFilesForMethods(String className, List<String> methodNames,
+                                                    String outputDir, String classpath, String sourcepath,
+                                                    String javaCode, Map<String, JpfCostModel.Budget> budgets,
+                                                    Map<String, Map<String, String>> inputTypes)
+            throws IOException {
         List<String> generatedFiles = new ArrayList<>();
         String simpleClassName = className.substring(className.lastIndexOf('.') + 1);
         
@@ -406,7 +936,8 @@ public class SpfWrapper {
                 ? Paths.get(outputDir, jpfFileName).toString() 
                 : jpfFileName;
             
-            generateJpfFile(className, methodName, outputPath, classpath, sourcepath, javaCode);
+            generateJpfFile(className, methodName, outputPath, classpath, sourcepath, javaCode,
+                budgets.get(methodName), inputTypes.get(methodName));
             generatedFiles.add(outputPath);
         }
         
@@ -423,6 +954,7 @@ public class SpfWrapper {
             methodNames.add(method.getMethodName());
         }
         
-        return generateJpfFilesForMethods(fullClassName, methodNames, outputDir, classpath, sourcepath, javaCode);
+        return generateJpfFilesForMethods(fullClassName, methodNames, outputDir, classpath, sourcepath, javaCode,
+            planBudgets(atcClass), inputTypes(atcClass));
     }
 }
@@ -0,0 +1,883 @@
+package in.ac.iiitb.plproject.symex;
+
+import in.ac.iiitb.plproject.ast.AstHelper;
+import in.ac.iiitb.plproject.ast.Expr;
+import in.ac.iiitb.plproject.ast.ExprArena;
+import in.ac.iiitb.plproject.atc.ConcreteInput;
+import in.ac.iiitb.plproject.atc.CoverageMatrix;
+import in.ac.iiitb.plproject.atc.ir.AtcAssertStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssignStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcAssumeStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcClass;
+import in.ac.iiitb.plproject.atc.ir.CoverageGoals;
+import in.ac.iiitb.plproject.atc.ir.AtcIfStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcMethodCallStmt;
+import in.ac.iiitb.plproject.atc.ir.AtcStatement;
+import in.ac.iiitb.plproject.atc.ir.AtcStatementVisitor;
+import in.ac.iiitb.plproject.atc.ir.AtcSymbolicVarDecl;
+import in.ac.iiitb.plproject.atc.ir.AtcTestMethod;
+import in.ac.iiitb.plproject.atc.ir.AtcVarDecl;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-process symbolic execution of ATC IR, producing ConcreteInputs without a JPF
+ * install or compiling the generated classes.
+ *
+ * Each test method is explored path by path, as SPF would explore the generated
+ * GeneratedATCs method:
+ * - AtcSymbolicVarDecl (and Symbolic.input(..) inside array initializers) introduces a
+ *   symbolic input: integral types become solver variables, booleans 0/1 variables,
+ *   references a 0/1 "is null" flag (name + "$null")
+ * - AtcIfStmt forks on its condition; a then-branch with a return ends its path there
+ * - AtcAssumeStmt adds its condition to the path condition
+ * - AtcAssertStmt forks a violating path (condition negated), then continues assuming it
+ * - calls to the function under test havoc the elements of array arguments, so
+ *   post-states (x = xRef[0]) are unconstrained fresh variables
+ * A violation is only reported when the solved inputs force it, i.e. the assert cannot
+ * hold for any value of the havoc'd post-state; one that depends on what the callee
+ * writes says nothing about the inputs and is counted as unforced.
+ * At the end of a path (or at a violated assert) the path condition is solved (by
+ * default with TieredSolver.standard()) and the model becomes a ConcreteInput; paths that return early
+ * (precondition guards) produce none.
+ *
+ * With CoverageGoals, each input also gets the goals its path covers: the if outcomes
+ * taken, the assumes passed, and per assert conjunct whether it held or (on
+ * a violating path, judged by the model) failed.
+ *
+ * Only linear integer and boolean conditions over inputs and null checks are modeled.
+ * A condition the executor cannot model (method calls, non-linear or floating-point
+ * arithmetic, ...) is counted as unmodeled: an assume or assert keeps just its modeled
+ * conjuncts, an if explores both branches unconstrained.
+ */
+public class SymbolicExecutor {
+
+    public static final int DEFAULT_MAX_PATHS = 1000;
+
+    private final ConstraintSolver solver;
+    private int maxPaths = DEFAULT_MAX_PATHS;
+
+    // Statistics, accumulated over execute calls
+    private int pathsExplored;
+    private int pathsReturned;
+    private int pathsInfeasible;
+    private int pathsUndecided;
+    private int assertionViolations;
+    private int violationsUnforced;
+    private int unmodeledConditions;
+    private int solverCalls;
+    private int methodsTruncated;
+
+    public SymbolicExecutor() {
+        this(TieredSolver.standard());
+    }
+
+    public SymbolicExecutor(ConstraintSolver solver) {
+        this.solver = solver;
+    }
+
+    public ConstraintSolver getSolver() {
+        return solver;
+    }
+
+    public int getMaxPaths() {
+        return maxPaths;
+    }
+
+    /**
+     * Maximum number of paths explored per test method; the rest are dropped.
+     */
+    public void setMaxPaths(int maxPaths) {
+        this.maxPaths = maxPaths;
+    }
+
+    /**
+     * Inputs for every test method, in method order.
+     */
+    public List<ConcreteInput> execute(AtcClass atcClass) {
+        List<ConcreteInput> inputs = new ArrayList<>();
+        for (AtcTestMethod method : atcClass.getTestMethods()) {
+            inputs.addAll(execute(method));
+        }
+        return inputs;
+    }
+
+    /**
+     * Distinct inputs of one test method, one per feasible completed or assertion-violating path.
+     */
+    public List<ConcreteInput> execute(AtcTestMethod method) {
+        return new ArrayList<>(run(method, null).results);
+    }
+
+    /**
+     * Inputs for every test method, adding one row per returned input to coverage
+     * with the goals (numbered by goals) its path covers.
+     */
+    public List<ConcreteInput> execute(AtcClass atcClass, CoverageGoals goals, CoverageMatrix coverage) {
+        List<ConcreteInput> inputs = new ArrayList<>();
+        for (AtcTestMethod method : atcClass.getTestMethods()) {
+            MethodRun run = run(method, goals);
+            for (ConcreteInput input : run.results) {
+                coverage.addRow(run.coverage.get(input));
+                inputs.add(input);
+            }
+        }
+        return inputs;
+    }
+
+    private MethodRun run(AtcTestMethod method, CoverageGoals goals) {
+        MethodRun run = new MethodRun(method.getMethodName(), goals);
+        ArrayDeque<Path> worklist = new ArrayDeque<>();
+        worklist.push(new Path(method.getStatements(), goals != null));
+        int paths = 0;
+        while (!worklist.isEmpty()) {
+            if (++paths > maxPaths) {
+                methodsTruncated++;
+                break;
+            }
+            pathsExplored++;
+            run.explore(worklist.pop(), worklist);
+        }
+        return run;
+    }
+
+    public String formatStats() {
+        return "Symbolic execution: " + pathsExplored + " paths (" + pathsReturned + " returned early, "
+            + pathsInfeasible + " infeasible, " + pathsUndecided + " undecided), "
+            + assertionViolations + " assertion violations, " + (violationsUnforced > 0 ? violationsUnforced
+            + " unforced violations dropped, " : "") + unmodeledConditions + " unmodeled conditions, "
+            + solverCalls + " solver calls" + (methodsTruncated > 0 ? ", " + methodsTruncated + " methods truncated" : "");
+    }
+
+    public void resetStats() {
+        pathsExplored = 0;
+        pathsReturned = 0;
+        pathsInfeasible = 0;
+        pathsUndecided = 0;
+        assertionViolations = 0;
+        violationsUnforced = 0;
+        unmodeledConditions = 0;
+        solverCalls = 0;
+        methodsTruncated = 0;
+    }
+
+    private SolverResult solve(List<Constraint> pathCondition) {
+        solverCalls++;
+        return solver.solve(Constraint.and(pathCondition));
+    }
+
+    /**
+     * Value of an input nothing constrains: the one closest to 0, as the solvers pick.
+     */
+    private long defaultValue() {
+        return Math.max(solver.getMinInt(), Math.min(solver.getMaxInt(), 0));
+    }
+
+    // ===================================
+    // Symbolic state
+    // ===================================
+
+    /**
+     * A reference value. Values in the environment are LinearExpr (integral),
+     * Constraint (boolean), Ref, or null when not modeled.
+     */
+    private static final class Ref {
+        static final Ref NULL = new Ref(Constraint.TRUE, null);
+        static final Ref OBJECT = new Ref(Constraint.FALSE, null);
+
+        final Constraint isNull;
+        final Object[] elements; // array elements, null for non-arrays
+
+        Ref(Constraint isNull, Object[] elements) {
+            this.isNull = isNull;
+            this.elements = elements;
+        }
+    }
+
+    /**
+     * A statement list being executed; returnsAtEnd for the body of an if that returns.
+     */
+    private static final class Frame {
+        final List<AtcStatement> statements;
+        final boolean returnsAtEnd;
+        int next;
+
+        Frame(List<AtcStatement> statements, boolean returnsAtEnd) {
+            this.statements = statements;
+            this.returnsAtEnd = returnsAtEnd;
+        }
+
+        Frame copy() {
+            Frame frame = new Frame(statements, returnsAtEnd);
+            frame.next = next;
+            return frame;
+        }
+    }
+
+    private static final class Path {
+        final Map<String, Object> env;
+        final List<Constraint> pathCondition;
+        final Map<String, String> inputTypes; // symbolic inputs in declaration order
+        final ArrayDeque<Frame> frames;
+        final BitSet covered; // coverage goals hit so far, null when not tracked
+        boolean done;
+
+        Path(List<AtcStatement> statements, boolean trackCoverage) {
+            env = new HashMap<>();
+            pathCondition = new ArrayList<>();
+            inputTypes = new LinkedHashMap<>();
+            frames = new ArrayDeque<>();
+            frames.push(new Frame(statements, false));
+            covered = trackCoverage ? new BitSet() : null;
+        }
+
+        private Path(Path other) {
+            env = new HashMap<>(other.env);
+            pathCondition = new ArrayList<>(other.pathCondition);
+            inputTypes = new LinkedHashMap<>(other.inputTypes);
+            covered = other.covered != null ? (BitSet) other.covered.clone() : null;
+            frames = new ArrayDeque<>();
+            for (Frame frame : other.frames) {
+                frames.addLast(frame.copy());
+            }
+        }
+
+        Path copy() {
+            return new Path(this);
+        }
+
+        void assume(Constraint constraint) {
+            if (constraint != Constraint.TRUE) {
+                pathCondition.add(constraint);
+            }
+        }
+
+        void cover(int goal) {
+            if (covered != null && goal >= 0) {
+                covered.set(goal);
+            }
+        }
+    }
+
+    /**
+     * An expression interned into its own arena, so that evaluating its IDs in
+     * increasing order visits children before parents (no recursion).
+     */
+    private static final class CompiledExpr {
+        final ExprArena arena = new ExprArena();
+        final int root;
+
+        CompiledExpr(Expr expr) {
+            root = arena.add(expr);
+        }
+    }
+
+    // ===================================
+    // Exploration of one test method
+    // ===================================
+
+    private final class MethodRun implements AtcStatementVisitor<Void> {
+        private final String methodName;
+        private final Set<ConcreteInput> results = new LinkedHashSet<>();
+        // Goals covered by each result (union over the paths that produced it)
+        private final Map<ConcreteInput, BitSet> coverage = new HashMap<>();
+        private final CoverageGoals goals;
+        private final Map<Expr, CompiledExpr> compiled = new IdentityHashMap<>();
+        private int freshCount;
+
+        // Path being stepped and the worklist forks go to
+        private Path path;
+        private ArrayDeque<Path> worklist;
+
+        MethodRun(String methodName, CoverageGoals goals) {
+            this.methodName = methodName;
+            this.goals = goals;
+        }
+
+        void explore(Path start, ArrayDeque<Path> pending) {
+            path = start;
+            worklist = pending;
+            while (!path.done) {
+                Frame frame = path.frames.peek();
+                if (frame == null) {
+                    path.done = true;
+                    finish(path, false);
+                } else if (frame.next >= frame.statements.size()) {
+                    path.frames.pop();
+                    if (frame.returnsAtEnd) {
+                        path.done = true;
+                        pathsReturned++;
+                    }
+                } else {
+                    frame.statements.get(frame.next++).accept(this);
+                }
+            }
+        }
+
+        /**
+         * Solve a terminated path and record its input.
+         */
+        private void finish(Path finished, boolean violated) {
+            SolverResult result = solve(finished.pathCondition);
+            if (result.isSat()) {
+                record(toInput(finished, result.getModel(), violated), finished.covered);
+            } else if (result.isUnsat()) {
+                pathsInfeasible++;
+            } else {
+                pathsUndecided++;
+            }
+        }
+
+        private void record(ConcreteInput input, BitSet covered) {
+            results.add(input);
+            if (covered != null) {
+                coverage.computeIfAbsent(input, k -> new BitSet()).or(covered);
+            }
+        }
+
+        private boolean feasible(Path candidate) {
+            SolverResult result = solve(candidate.pathCondition);
+            if (result.isUnsat()) {
+                pathsInfeasible++;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Void visit(AtcSymbolicVarDecl stmt) {
+            path.env.put(stmt.getVarName(), declareInput(stmt.getVarName(), stmt.getTypeName()));
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcVarDecl stmt) {
+            String typeName = stmt.getTypeName();
+            String elementType = typeName.endsWith("[]") ? typeName.substring(0, typeName.length() - 2) : typeName;
+            path.env.put(stmt.getVarName(), evaluate(stmt.getInitExpr(), elementType));
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssignStmt stmt) {
+            path.env.put(stmt.getVarName(), evaluate(stmt.getValueExpr(), null));
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcMethodCallStmt stmt) {
+            CompiledExpr call = compile(stmt.getCallExpr());
+            ExprArena arena = call.arena;
+            String callee = arena.identifier(call.root);
+            if (AstHelper.isPureMethod(callee) || callee.equals("println") || callee.equals("print")) {
+                return null;
+            }
+            // The callee may write through array arguments: their elements become unknown inputs
+            for (int i = 0; i < arena.argumentCount(call.root); i++) {
+                int arg = arena.argument(call.root, i);
+                if (arena.kind(arg) != ExprArena.Kind.NAME) {
+                    continue;
+                }
+                String name = arena.identifier(arg);
+                Object value = path.env.get(name);
+                if (value instanceof Ref && ((Ref) value).elements != null) {
+                    Object[] elements = ((Ref) value).elements.clone();
+                    for (int e = 0; e < elements.length; e++) {
+                        elements[e] = fresh(callee, elements[e]);
+                    }
+                    path.env.put(name, new Ref(((Ref) value).isNull, elements));
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssumeStmt stmt) {
+            if (goals != null) {
+                path.cover(goals.preconditionGoal(stmt));
+            }
+            assumeModeledConjuncts(stmt.getCondition());
+            return null;
+        }
+
+        @Override
+        public Void visit(AtcAssertStmt stmt) {
+            Object condition = evaluate(stmt.getCondition(), null);
+            List<Expr> conjuncts = goals != null ? CoverageGoals.conjuncts(stmt.getCondition()) : null;
+            if (!(condition instanceof Constraint)) {
+                unmodeledConditions++;
+                coverHolds(stmt, conjuncts);
+                assumeModeledConjuncts(stmt.getCondition());
+                return null;
+            }
+            Constraint holds = (Constraint) condition;
+            Constraint violated = holds.not();
+            if (violated != Constraint.FALSE) {
+                Path violating = path.copy();
+                violating.assume(violated);
+                SolverResult result = solve(violating.pathCondition);
+                if (result.isSat() && !forcedByInputs(holds, result.getModel())) {
+                    violationsUnforced++;
+                } else if (result.isSat()) {
+                    assertionViolations++;
+                    coverFailures(violating, stmt, conjuncts, result.getModel());
+                    record(toInput(violating, result.getModel(), true), violating.covered);
+                } else if (!result.isUnsat()) {
+                    pathsUndecided++;
+                }
+            }
+            coverHolds(stmt, conjuncts);
+            path.assume(holds);
+            if (holds == Constraint.FALSE) {
+                path.done = true;
+            }
+            return null;
+        }
+
+        /**
+         * Whether the assert fails for every callee post-state once the inputs are fixed
+         * to the model's values: the current path plus the inputs plus holds is UNSAT.
+         */
+        private boolean forcedByInputs(Constraint holds, Map<String, Long> model) {
+            if (freshCount == 0) {
+                return true;
+            }
+            Path fixed = path.copy();
+            for (Map.Entry<String, String> input : path.inputTypes.entrySet()) {
+                fixed.assume(inputValue(input.getKey(), input.getValue(), model));
+            }
+            fixed.assume(holds);
+            return solve(fixed.pathCondition).isUnsat();
+        }
+
+        /**
+         * The constraint pinning an input to the value toInput reports for it.
+         */
+        private Constraint inputValue(String name, String typeName, Map<String, Long> model) {
+            String type = unbox(typeName);
+            if (type.equals("double") || type.equals("float")) {
+                return Constraint.TRUE;
+            }
+            String variable = isIntegral(type) || type.equals("boolean") ? name : name + "$null";
+            Long solved = model.get(variable);
+            long value = isIntegral(type) ? (solved != null ? solved : defaultValue())
+                : solved != null && solved == 1 ? 1 : 0;
+            return Constraint.equal(LinearExpr.variable(variable), LinearExpr.constant(value));
+        }
+
+        private void coverHolds(AtcAssertStmt stmt, List<Expr> conjuncts) {
+            for (int i = 0; conjuncts != null && i < conjuncts.size(); i++) {
+                path.cover(goals.postconditionGoal(stmt, i, true));
+            }
+        }
+
+        /**
+         * Mark the conjuncts of a violated assert that are false under the model.
+         */
+        private void coverFailures(Path violating, AtcAssertStmt stmt, List<Expr> conjuncts, Map<String, Long> model) {
+            for (int i = 0; conjuncts != null && i < conjuncts.size(); i++) {
+                Object value = evaluate(conjuncts.get(i), null);
+                if (value instanceof Constraint && !((Constraint) value).evaluate(model)) {
+                    violating.cover(goals.postconditionGoal(stmt, i, false));
+                }
+            }
+        }
+
+        @Override
+        public Void visit(AtcIfStmt stmt) {
+            Object condition = evaluate(stmt.getCondition(), null);
+            Frame thenFrame = new Frame(stmt.getThenStatements(), stmt.hasReturn());
+            int takenGoal = goals != null ? goals.branchGoal(stmt, true) : -1;
+            int notTakenGoal = goals != null ? goals.branchGoal(stmt, false) : -1;
+            if (!(condition instanceof Constraint)) {
+                unmodeledConditions++;
+                Path elsePath = path.copy();
+                elsePath.cover(notTakenGoal);
+                worklist.push(elsePath);
+                path.cover(takenGoal);
+                path.frames.push(thenFrame);
+                return null;
+            }
+            Constraint taken = (Constraint) condition;
+            if (taken == Constraint.TRUE) {
+                path.cover(takenGoal);
+                path.frames.push(thenFrame);
+                return null;
+            }
+            if (taken == Constraint.FALSE) {
+                path.cover(notTakenGoal);
+                return null;
+            }
+            Path elsePath = path.copy();
+            elsePath.assume(taken.not());
+            if (feasible(elsePath)) {
+                elsePath.cover(notTakenGoal);
+                worklist.push(elsePath);
+            }
+            path.assume(taken);
+            if (feasible(path)) {
+                path.cover(takenGoal);
+                path.frames.push(thenFrame);
+            } else {
+                path.done = true;
+            }
+            return null;
+        }
+
+        /**
+         * Add each modeled conjunct of an assumed condition to the path condition.
+         */
+        private void assumeModeledConjuncts(Expr condition) {
+            for (Expr conjunct : AstHelper.splitChain(condition, "AND")) {
+                Object value = evaluate(conjunct, null);
+                if (value instanceof Constraint) {
+                    path.assume((Constraint) value);
+                    if (value == Constraint.FALSE) {
+                        path.done = true;
+                        pathsInfeasible++;
+                        return;
+                    }
+                } else {
+                    unmodeledConditions++;
+                }
+            }
+        }
+
+        // ===================================
+        // Inputs
+        // ===================================
+
+        private Object declareInput(String name, String typeName) {
+            path.inputTypes.put(name, typeName);
+            String type = unbox(typeName);
+            if (isIntegral(type)) {
+                long[] range = typeRange(type);
+                if (range[0] > solver.getMinInt() || range[1] < solver.getMaxInt()) {
+                    path.assume(Constraint.range(name, Math.max(range[0], solver.getMinInt()),
+                        Math.min(range[1], solver.getMaxInt())));
+                }
+                return LinearExpr.variable(name);
+            }
+            if (type.equals("boolean")) {
+                path.assume(Constraint.range(name, 0, 1));
+                return Constraint.equal(LinearExpr.variable(name), LinearExpr.constant(1));
+            }
+            if (type.equals("double") || type.equals("float")) {
+                return null;
+            }
+            String nullFlag = name + "$null";
+            path.assume(Constraint.range(nullFlag, 0, 1));
+            return new Ref(Constraint.equal(LinearExpr.variable(nullFlag), LinearExpr.constant(1)), null);
+        }
+
+        /**
+         * A fresh unconstrained value of the same kind as the given one.
+         */
+        private Object fresh(String callee, Object like) {
+            String name = callee + "$" + freshCount++;
+            if (like instanceof LinearExpr) {
+                return LinearExpr.variable(name);
+            }
+            if (like instanceof Constraint) {
+                path.assume(Constraint.range(name, 0, 1));
+                return Constraint.equal(LinearExpr.variable(name), LinearExpr.constant(1));
+            }
+            return null;
+        }
+
+        private ConcreteInput toInput(Path source, Map<String, Long> model, boolean violated) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<String, String> input : source.inputTypes.entrySet()) {
+                values.put(input.getKey(), concreteValue(input.getKey(), input.getValue(), model));
+            }
+            return new ConcreteInput(methodName, source.inputTypes, values, violated);
+        }
+
+        private Object concreteValue(String name, String typeName, Map<String, Long> model) {
+            String type = unbox(typeName);
+            Long solved = model.get(name);
+            long value = solved != null ? solved : defaultValue();
+            switch (type) {
+                case "int":
+                    return (int) value;
+                case "long":
+                    return value;
+                case "short":
+                    return (short) value;
+                case "byte":
+                    return (byte) value;
+                case "char":
+                    return (char) value;
+                case "boolean":
+                    return solved != null && solved == 1;
+                case "double":
+                    return 0.0;
+                case "float":
+                    return 0.0f;
+                default:
+                    Long isNull = model.get(name + "$null");
+                    return isNull != null && isNull == 1 ? null : defaultObject(typeName);
+            }
+        }
+
+        // ===================================
+        // Expressions
+        // ===================================
+
+        private CompiledExpr compile(Expr expr) {
+            CompiledExpr result = compiled.get(expr);
+            if (result == null) {
+                result = new CompiledExpr(expr);
+                compiled.put(expr, result);
+            }
+            return result;
+        }
+
+        /**
+         * Symbolic value of an expression in the current path (null if not modeled).
+         * inputType is the type of the value being declared, for Symbolic.input("x") calls.
+         */
+        private Object evaluate(Expr expr, String inputType) {
+            if (expr == null) {
+                return null;
+            }
+            CompiledExpr compiledExpr = compile(expr);
+            ExprArena arena = compiledExpr.arena;
+            Object[] values = new Object[compiledExpr.root + 1];
+            for (int id = 0; id <= compiledExpr.root; id++) {
+                values[id] = evaluateNode(arena, id, values, inputType);
+            }
+            return values[compiledExpr.root];
+        }
+
+        private Object evaluateNode(ExprArena arena, int id, Object[] values, String inputType) {
+            switch (arena.kind(id)) {
+                case INTEGER:
+                    return LinearExpr.constant(arena.intValue(id));
+                case BOOLEAN:
+                    return arena.booleanValue(id) ? Constraint.TRUE : Constraint.FALSE;
+                case STRING:
+                case THIS:
+                case SET:
+                case MAP:
+                case TUPLE:
+                    return Ref.OBJECT;
+                case NAME:
+                    return lookup(arena.identifier(id));
+                case FIELD_ACCESS: {
+                    Object scope = values[arena.left(id)];
+                    if (arena.identifier(id).equals("length") && scope instanceof Ref && ((Ref) scope).elements != null) {
+                        return LinearExpr.constant(((Ref) scope).elements.length);
+                    }
+                    return null;
+                }
+                case UNARY:
+                    return unary(arena.operator(id), values[arena.left(id)]);
+                case BINARY:
+                    return binary(arena.operator(id), values[arena.left(id)], values[arena.right(id)]);
+                case METHOD_CALL: {
+                    int scope = arena.left(id);
+                    if (inputType != null && arena.identifier(id).equals("input") && scope != ExprArena.NONE
+                        && arena.kind(scope) == ExprArena.Kind.NAME && arena.identifier(scope).equals("Symbolic")
+                        && arena.argumentCount(id) == 1 && arena.kind(arena.argument(id, 0)) == ExprArena.Kind.STRING) {
+                        return declareInput(arena.identifier(arena.argument(id, 0)), inputType);
+                    }
+                    return null;
+                }
+                case OBJECT_CREATION: {
+                    if (!arena.identifier(id).endsWith("[]")) {
+                        return Ref.OBJECT;
+                    }
+                    Object[] elements = new Object[arena.argumentCount(id)];
+                    for (int i = 0; i < elements.length; i++) {
+                        elements[i] = values[arena.argument(id, i)];
+                    }
+                    return new Ref(Constraint.FALSE, elements);
+                }
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Value of a variable; also resolves array elements written as names ("xRef[0]").
+         */
+        private Object lookup(String name) {
+            if (name.equals("null")) {
+                return Ref.NULL;
+            }
+            if (path.env.containsKey(name)) {
+                return path.env.get(name);
+            }
+            int bracket = name.indexOf('[');
+            if (bracket > 0 && name.endsWith("]")) {
+                Object array = path.env.get(name.substring(0, bracket));
+                try {
+                    int index = Integer.parseInt(name.substring(bracket + 1, name.length() - 1).trim());
+                    if (array instanceof Ref && ((Ref) array).elements != null
+                        && index >= 0 && index < ((Ref) array).elements.length) {
+                        return ((Ref) array).elements[index];
+                    }
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static Object unary(String operator, Object operand) {
+        if (operator.equals("LOGICAL_COMPLEMENT")) {
+            return operand instanceof Constraint ? ((Constraint) operand).not() : null;
+        }
+        if (!(operand instanceof LinearExpr)) {
+            return null;
+        }
+        return operator.equals("MINUS") ? ((LinearExpr) operand).times(-1) : operand;
+    }
+
+    private static Object binary(String operator, Object left, Object right) {
+        switch (operator) {
+            case "AND":
+                if (left == Constraint.FALSE || right == Constraint.FALSE) {
+                    return Constraint.FALSE;
+                }
+                return left instanceof Constraint && right instanceof Constraint
+                    ? Constraint.and((Constraint) left, (Constraint) right) : null;
+            case "OR":
+                if (left == Constraint.TRUE || right == Constraint.TRUE) {
+                    return Constraint.TRUE;
+                }
+                return left instanceof Constraint && right instanceof Constraint
+                    ? Constraint.or((Constraint) left, (Constraint) right) : null;
+            case "EQUALS":
+                return equality(left, right);
+            case "NOT_EQUALS": {
+                Constraint equal = equality(left, right);
+                return equal != null ? equal.not() : null;
+            }
+            default:
+                break;
+        }
+        if (!(left instanceof LinearExpr) || !(right instanceof LinearExpr)) {
+            return null;
+        }
+        LinearExpr l = (LinearExpr) left;
+        LinearExpr r = (LinearExpr) right;
+        switch (operator) {
+            case "LESS_THAN":
+                return Constraint.less(l, r);
+            case "LESS_THAN_OR_EQUAL":
+                return Constraint.lessOrEqual(l, r);
+            case "GREATER_THAN":
+                return Constraint.greater(l, r);
+            case "GREATER_THAN_OR_EQUAL":
+                return Constraint.greaterOrEqual(l, r);
+            case "PLUS":
+                return l.plus(r);
+            case "MINUS":
+                return l.minus(r);
+            case "MULTIPLY":
+                if (l.isConstant()) {
+                    return r.times(l.getConstant());
+                }
+                return r.isConstant() ? l.times(r.getConstant()) : null;
+            case "DIVIDE":
+                return l.isConstant() && r.isConstant() && r.getConstant() != 0
+                    ? LinearExpr.constant(l.getConstant() / r.getConstant()) : null;
+            default:
+                return null;
+        }
+    }
+
+    private static Constraint equality(Object left, Object right) {
+        if (left instanceof LinearExpr && right instanceof LinearExpr) {
+            return Constraint.equal((LinearExpr) left, (LinearExpr) right);
+        }
+        if (left instanceof Constraint && right instanceof Constraint) {
+            Constraint l = (Constraint) left;
+            Constraint r = (Constraint) right;
+            return Constraint.or(Constraint.and(l, r), Constraint.and(l.not(), r.not()));
+        }
+        // Only comparisons against null are modeled for references
+        if (left instanceof Ref && right instanceof Ref) {
+            if (((Ref) left).isNull == Constraint.TRUE) {
+                return ((Ref) right).isNull;
+            }
+            if (((Ref) right).isNull == Constraint.TRUE) {
+                return ((Ref) left).isNull;
+            }
+        }
+        return null;
+    }
+
+    // ===================================
+    // Types
+    // ===================================
+
+    static String unbox(String typeName) {
+        switch (typeName) {
+            case "Integer": return "int";
+            case "Long": return "long";
+            case "Short": return "short";
+            case "Byte": return "byte";
+            case "Character": return "char";
+            case "Boolean": return "boolean";
+            case "Double": return "double";
+            case "Float": return "float";
+            default: return typeName;
+        }
+    }
+
+    private static boolean isIntegral(String type) {
+        return type.equals("int") || type.equals("long") || type.equals("short")
+            || type.equals("byte") || type.equals("char");
+    }
+
+    private static long[] typeRange(String type) {
+        switch (type) {
+            case "short": return new long[] {Short.MIN_VALUE, Short.MAX_VALUE};
+            case "byte": return new long[] {Byte.MIN_VALUE, Byte.MAX_VALUE};
+            case "char": return new long[] {Character.MIN_VALUE, Character.MAX_VALUE};
+            case "int": return new long[] {Integer.MIN_VALUE, Integer.MAX_VALUE};
+            default: return new long[] {Long.MIN_VALUE, Long.MAX_VALUE};
+        }
+    }
+
+    /**
+     * Non-null default for a reference input, matching the defaults the symbolic IR
+     * passes to Debug.makeSymbolicRef (empty collections).
+     */
+    static Object defaultObject(String typeName) {
+        String baseType = typeName.split("[<>]")[0].trim();
+        if (baseType.startsWith("java.util.")) {
+            baseType = baseType.substring("java.util.".length());
+        }
+        switch (baseType) {
+            case "String":
+                return "";
+            case "Set":
+                return new HashSet<Object>();
+            case "Map":
+                return new HashMap<Object, Object>();
+            case "List":
+            case "Collection":
+                return new ArrayList<Object>();
+            case "Queue":
+            case "Deque":
+                return new LinkedList<Object>();
+            default:
+                return ConcreteInput.NON_NULL;
+        }
+    }
+}
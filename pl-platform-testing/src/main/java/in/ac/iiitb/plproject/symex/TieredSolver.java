@@ -0,0 +1,199 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Tries a sequence of decision procedures, cheapest first: each constraint goes to the
+ * first tier that decides it (SAT or UNSAT), tiers answering UNKNOWN pass it on. The
+ * standard pipeline puts IntervalSolver in front, so the range checks most
+ * preconditions consist of never reach a full solver.
+ *
+ * Configuration, with the same keys as the generated .jpf files where they exist:
+ *   symbolic.minint / symbolic.maxint   integer range (default -100..100)
+ *   atc.solver.interval = false          skip the interval tier
+ *   atc.solver.full = linear | z3        full tier (default linear, the built-in solver);
+ *                                        with z3, the built-in solver stays as fallback
+ *   atc.solver.z3.command                command line of the SMT solver (default "z3 -in -smt2")
+ */
+public class TieredSolver implements ConstraintSolver {
+
+    public static final String MIN_INT_KEY = "symbolic.minint";
+    public static final String MAX_INT_KEY = "symbolic.maxint";
+    public static final String INTERVAL_KEY = "atc.solver.interval";
+    public static final String FULL_KEY = "atc.solver.full";
+    public static final String Z3_COMMAND_KEY = "atc.solver.z3.command";
+
+    private final List<ConstraintSolver> tiers;
+    private final List<TierStats> stats = new ArrayList<>();
+    private int undecided;
+
+    public TieredSolver(List<ConstraintSolver> tiers) {
+        if (tiers.isEmpty()) {
+            throw new IllegalArgumentException("TieredSolver needs at least one tier");
+        }
+        this.tiers = new ArrayList<>(tiers);
+        for (ConstraintSolver tier : tiers) {
+            stats.add(new TierStats(tier.getName()));
+        }
+    }
+
+    /**
+     * Interval tier, then the built-in bounded linear solver.
+     */
+    public static TieredSolver standard() {
+        return new TieredSolver(Arrays.<ConstraintSolver>asList(new IntervalSolver(), new BoundedLinearSolver()));
+    }
+
+    public static TieredSolver fromProperties(Properties config) {
+        long minInt = Long.parseLong(config.getProperty(MIN_INT_KEY, Long.toString(BoundedLinearSolver.DEFAULT_MIN_INT)).trim());
+        long maxInt = Long.parseLong(config.getProperty(MAX_INT_KEY, Long.toString(BoundedLinearSolver.DEFAULT_MAX_INT)).trim());
+        List<ConstraintSolver> tiers = new ArrayList<>();
+        if (Boolean.parseBoolean(config.getProperty(INTERVAL_KEY, "true").trim())) {
+            tiers.add(new IntervalSolver(minInt, maxInt));
+        }
+        String full = config.getProperty(FULL_KEY, "linear").trim();
+        if (full.equals("z3")) {
+            String command = config.getProperty(Z3_COMMAND_KEY);
+            List<String> commandLine = command != null
+                ? Arrays.asList(command.trim().split("\\s+")) : SmtLibSolver.DEFAULT_COMMAND;
+            tiers.add(new SmtLibSolver("z3", commandLine, minInt, maxInt, SmtLibSolver.DEFAULT_TIMEOUT_MILLIS));
+        } else if (!full.equals("linear")) {
+            throw new IllegalArgumentException("Unknown " + FULL_KEY + ": " + full);
+        }
+        tiers.add(new BoundedLinearSolver(minInt, maxInt, BoundedLinearSolver.DEFAULT_MAX_NODES));
+        return new TieredSolver(tiers);
+    }
+
+    @Override
+    public String getName() {
+        return "tiered";
+    }
+
+    @Override
+    public long getMinInt() {
+        return tiers.get(0).getMinInt();
+    }
+
+    @Override
+    public long getMaxInt() {
+        return tiers.get(0).getMaxInt();
+    }
+
+    public List<ConstraintSolver> getTiers() {
+        return Collections.unmodifiableList(tiers);
+    }
+
+    @Override
+    public SolverResult solve(Constraint constraint) {
+        for (int i = 0; i < tiers.size(); i++) {
+            TierStats tierStats = stats.get(i);
+            long start = System.nanoTime();
+            SolverResult result = tiers.get(i).solve(constraint);
+            tierStats.record(result, System.nanoTime() - start);
+            if (result.getStatus() != SolverResult.Status.UNKNOWN) {
+                return result;
+            }
+        }
+        synchronized (this) {
+            undecided++;
+        }
+        return SolverResult.UNKNOWN;
+    }
+
+    /**
+     * Statistics per tier, in tier order.
+     */
+    public List<TierStats> getStats() {
+        return Collections.unmodifiableList(stats);
+    }
+
+    public synchronized int getUndecided() {
+        return undecided;
+    }
+
+    public void resetStats() {
+        for (TierStats tierStats : stats) {
+            tierStats.reset();
+        }
+        synchronized (this) {
+            undecided = 0;
+        }
+    }
+
+    /**
+     * One line per tier.
+     */
+    public String formatStats() {
+        StringBuilder sb = new StringBuilder();
+        for (TierStats tierStats : stats) {
+            sb.append(tierStats).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Counters of one tier: queries it saw, and how many it decided (its hits).
+     */
+    public static final class TierStats {
+        private final String tierName;
+        private int queries;
+        private int sat;
+        private int unsat;
+        private long nanos;
+
+        TierStats(String tierName) {
+            this.tierName = tierName;
+        }
+
+        synchronized void record(SolverResult result, long elapsedNanos) {
+            queries++;
+            if (result.isSat()) {
+                sat++;
+            } else if (result.isUnsat()) {
+                unsat++;
+            }
+            nanos += elapsedNanos;
+        }
+
+        synchronized void reset() {
+            queries = 0;
+            sat = 0;
+            unsat = 0;
+            nanos = 0;
+        }
+
+        public String getTierName() {
+            return tierName;
+        }
+
+        public synchronized int getQueries() {
+            return queries;
+        }
+
+        public synchronized int getHits() {
+            return sat + unsat;
+        }
+
+        public synchronized int getSat() {
+            return sat;
+        }
+
+        public synchronized int getUnsat() {
+            return unsat;
+        }
+
+        public synchronized long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return tierName + ": " + queries + " queries, " + (sat + unsat)
+                + " hit(s) (" + sat + " sat, " + unsat + " unsat), " + (nanos / 1_000) + " us";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one job run by WarmWorkerPool. A job is cold when it was the first one on
+ * its worker JVM (classes not loaded, nothing JIT-compiled yet) and warm otherwise.
+ */
+public class WarmJobResult {
+
+    public enum Status { OK, FAILED, TIMED_OUT, ERROR }
+
+    private final String target;
+    private final Status status;
+    private final int worker;
+    private final boolean cold;
+    private final long latencyMicros;
+    private final long runMicros;
+    private final String error;
+    private final List<String> output;
+
+    public WarmJobResult(String target, Status status, int worker, boolean cold, long latencyMicros,
+                         long runMicros, String error, List<String> output) {
+        this.target = target;
+        this.status = status;
+        this.worker = worker;
+        this.cold = cold;
+        this.latencyMicros = latencyMicros;
+        this.runMicros = runMicros;
+        this.error = error;
+        this.output = Collections.unmodifiableList(output);
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Sequence number of the worker JVM that ran the job (recycled workers get new numbers).
+     */
+    public int getWorker() {
+        return worker;
+    }
+
+    public boolean isCold() {
+        return cold;
+    }
+
+    /**
+     * Round trip seen by the pool, without worker startup.
+     */
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    /**
+     * Time spent in the job handler, as measured inside the worker.
+     */
+    public long getRunMicros() {
+        return runMicros;
+    }
+
+    /**
+     * The Throwable text for FAILED, a reason for TIMED_OUT/ERROR, else empty.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public List<String> getOutput() {
+        return output;
+    }
+
+    @Override
+    public String toString() {
+        return target + ": " + status + " on worker " + worker + (cold ? " (cold)" : " (warm)") + ", "
+            + latencyMicros + " us" + (error.isEmpty() ? "" : ", " + error);
+    }
+}
@@ -0,0 +1,152 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Main class of a long-lived worker JVM started by WarmWorkerPool. Jobs arrive as
+ * lines on stdin and are run one at a time by a JobHandler; all targets of one worker
+ * share a single classloader over the job classpath, isolated from the worker's own
+ * classes, so classes stay loaded and JIT-compiled between jobs.
+ *
+ * Protocol, one line per message:
+ *   worker: READY                                  after startup
+ *   pool:   RUN &lt;id&gt; &lt;target&gt;                      run a job
+ *   worker: OUT &lt;id&gt; &lt;line&gt;                        output of the job (System.out/err)
+ *   worker: DONE &lt;id&gt; OK|FAILED &lt;us&gt; &lt;used&gt; &lt;max&gt; [error]   job finished; heap in bytes
+ *   pool:   QUIT                                   exit
+ *
+ * Usage: java ... WarmWorker &lt;handler class&gt; [job classpath]
+ */
+public final class WarmWorker {
+
+    public static final String READY = "READY";
+    public static final String RUN = "RUN";
+    public static final String OUT = "OUT";
+    public static final String DONE = "DONE";
+    public static final String QUIT = "QUIT";
+
+    /**
+     * Runs one job in the worker. Implementations need a public no-argument constructor.
+     */
+    public interface JobHandler {
+        void run(ClassLoader loader, String target) throws Exception;
+    }
+
+    /**
+     * Default handler: the target is "&lt;class&gt; [args...]"; calls its static main.
+     */
+    public static class MainHandler implements JobHandler {
+        @Override
+        public void run(ClassLoader loader, String target) throws Exception {
+            String[] parts = target.trim().split("\\s+");
+            Method main = loader.loadClass(parts[0]).getMethod("main", String[].class);
+            try {
+                main.invoke(null, (Object) Arrays.copyOfRange(parts, 1, parts.length));
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+            }
+        }
+    }
+
+    private WarmWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        PrintStream protocol = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        JobHandler handler = (JobHandler) Class.forName(args[0]).getDeclaredConstructor().newInstance();
+        ClassLoader loader = isolatedLoader(args.length > 1 ? args[1] : "");
+        JobOutput output = new JobOutput(protocol);
+        PrintStream jobStream = new PrintStream(output, true, "UTF-8");
+        System.setOut(jobStream);
+        System.setErr(jobStream);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        protocol.println(READY);
+        String line;
+        while ((line = reader.readLine()) != null && !line.equals(QUIT)) {
+            String[] parts = line.split(" ", 3);
+            if (parts.length < 2 || !parts[0].equals(RUN)) {
+                continue;
+            }
+            output.setJob(parts[1]);
+            String status = "OK";
+            String error = "";
+            long start = System.nanoTime();
+            try {
+                handler.run(loader, parts.length > 2 ? parts[2] : "");
+            } catch (Throwable t) {
+                status = "FAILED";
+                error = " " + t.toString().replace('\n', ' ');
+            }
+            long micros = (System.nanoTime() - start) / 1_000;
+            jobStream.flush();
+            output.flushLine();
+            Runtime runtime = Runtime.getRuntime();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            protocol.println(DONE + " " + parts[1] + " " + status + " " + micros + " " + used + " "
+                + runtime.maxMemory() + error);
+        }
+    }
+
+    /**
+     * Loader over the job classpath whose parent skips the application classpath.
+     */
+    private static ClassLoader isolatedLoader(String classpath) throws Exception {
+        List<URL> urls = new ArrayList<>();
+        for (String entry : classpath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                urls.add(new File(entry).toURI().toURL());
+            }
+        }
+        return new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    /**
+     * Turns job output into OUT lines of the current job.
+     */
+    private static final class JobOutput extends OutputStream {
+        private final PrintStream protocol;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private String job = "0";
+
+        JobOutput(PrintStream protocol) {
+            this.protocol = protocol;
+        }
+
+        synchronized void setJob(String job) {
+            this.job = job;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (b == '\n') {
+                flushLine();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+
+        synchronized void flushLine() {
+            if (line.size() > 0) {
+                protocol.println(OUT + " " + job + " " + new String(line.toByteArray(), StandardCharsets.UTF_8));
+                line.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package in.ac.iiitb.plproject.symex;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived worker JVMs (WarmWorker) that run symbolic-execution jobs over their
+ * stdin/stdout pipes, so JVM startup and JIT warm-up are paid once per worker instead
+ * of once per job. Workers are started on first use and kept between runAll calls.
+ *
+ * A worker is recycled (stopped and replaced on its next job) after maxJobs jobs, when
+ * its used heap after a job exceeds heapLimit of its maximum heap, or when a job times
+ * out. Statistics separate cold jobs (first on a fresh worker) from warm ones.
+ *
+ * Configuration:
+ *   atc.worker.count = N        worker JVMs (default: cores)
+ *   atc.worker.jobs = N         jobs per worker before recycling (default 50)
+ *   atc.worker.heap = MB        heap per worker (default 512)
+ *   atc.worker.heapLimit = F    recycle above this fraction of the heap after a job (default 0.8)
+ *   atc.worker.timeout = S      per-job timeout in seconds (default 600)
+ *
+ * SpfWrapper.run runs its per-method .jpf files on a pool from forJpf when
+ * atc.worker.enabled is set: each job calls the JPF main class with the .jpf path,
+ * loaded through the worker's isolated loader.
+ *   atc.worker.enabled = true   run the .jpf files on warm workers (default false)
+ *   atc.worker.main = class     JPF main class (default gov.nasa.jpf.JPF)
+ *   atc.worker.classpath = ...  classpath of JPF and SPF (default &lt;atc.jpf.home&gt;/build/jpf.jar)
+ */
+public class WarmWorkerPool implements AutoCloseable {
+
+    public static final String COUNT_KEY = "atc.worker.count";
+    public static final String JOBS_KEY = "atc.worker.jobs";
+    public static final String HEAP_KEY = "atc.worker.heap";
+    public static final String HEAP_LIMIT_KEY = "atc.worker.heapLimit";
+    public static final String TIMEOUT_KEY = "atc.worker.timeout";
+    public static final String ENABLED_KEY = "atc.worker.enabled";
+    public static final String MAIN_KEY = "atc.worker.main";
+    public static final String CLASSPATH_KEY = "atc.worker.classpath";
+
+    public static final String DEFAULT_JPF_MAIN = "gov.nasa.jpf.JPF";
+
+    public static final int DEFAULT_MAX_JOBS = 50;
+    public static final int DEFAULT_HEAP_MB = 512;
+    public static final double DEFAULT_HEAP_LIMIT = 0.8;
+    public static final long DEFAULT_TIMEOUT_SECONDS = 600;
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 60_000;
+    private static final long QUIT_GRACE_MILLIS = 2000;
+
+    private final List<String> command;
+    private final Worker[] slots;
+    private final int maxJobs;
+    private final double heapLimit;
+    private final long timeoutMillis;
+    private final AtomicInteger workerIds = new AtomicInteger();
+
+    private final Stats stats = new Stats();
+
+    /**
+     * @param handlerClass JobHandler class, on this JVM's classpath
+     * @param jobClasspath classpath of the job targets, loaded in each worker's isolated loader
+     */
+    public WarmWorkerPool(String handlerClass, String jobClasspath, int workers, int heapMb, int maxJobs,
+                          double heapLimit, long timeoutMillis) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("WarmWorkerPool needs at least one worker");
+        }
+        this.command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + heapMb + "m");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(WarmWorker.class.getName());
+        command.add(handlerClass);
+        command.add(jobClasspath);
+        this.slots = new Worker[workers];
+        this.maxJobs = maxJobs;
+        this.heapLimit = heapLimit;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public static WarmWorkerPool fromProperties(String handlerClass, String jobClasspath, Properties config) {
+        int workers = Integer.parseInt(config.getProperty(COUNT_KEY,
+            Integer.toString(Runtime.getRuntime().availableProcessors())).trim());
+        int heapMb = Integer.parseInt(config.getProperty(HEAP_KEY, Integer.toString(DEFAULT_HEAP_MB)).trim());
+        int maxJobs = Integer.parseInt(config.getProperty(JOBS_KEY, Integer.toString(DEFAULT_MAX_JOBS)).trim());
+        double heapLimit = Double.parseDouble(config.getProperty(HEAP_LIMIT_KEY, Double.toString(DEFAULT_HEAP_LIMIT)).trim());
+        long timeoutSeconds = Long.parseLong(config.getProperty(TIMEOUT_KEY, Long.toString(DEFAULT_TIMEOUT_SECONDS)).trim());
+        return new WarmWorkerPool(handlerClass, jobClasspath, workers, heapMb, maxJobs, heapLimit, timeoutSeconds * 1000);
+    }
+
+    /**
+     * Pool of WarmWorker.MainHandler workers over the JPF classpath.
+     */
+    public static WarmWorkerPool forJpf(Properties config) {
+        String home = config.getProperty(JpfProcessPool.HOME_KEY, "jpf-core").trim();
+        String classpath = config.getProperty(CLASSPATH_KEY, Paths.get(home, "build", "jpf.jar").toString()).trim();
+        return fromProperties(WarmWorker.MainHandler.class.getName(), classpath, config);
+    }
+
+    public int getWorkers() {
+        return slots.length;
+    }
+
+    /**
+     * Run every target on the workers; results are in input order.
+     */
+    public List<WarmJobResult> runAll(List<String> targets) throws InterruptedException {
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        for (int i = 0; i < targets.size(); i++) {
+            queue.add(i);
+        }
+        WarmJobResult[] results = new WarmJobResult[targets.size()];
+        int threads = Math.min(slots.length, Math.max(1, targets.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "warm-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int slot = t;
+                futures.add(executor.submit(() -> {
+                    Integer index;
+                    while ((index = queue.poll()) != null) {
+                        results[index] = runJob(slot, targets.get(index));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Warm worker thread failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        List<WarmJobResult> list = new ArrayList<>();
+        for (WarmJobResult result : results) {
+            list.add(result);
+        }
+        return list;
+    }
+
+    private WarmJobResult runJob(int slot, String target) throws InterruptedException {
+        Worker worker = slots[slot];
+        if (worker == null || !worker.isAlive()) {
+            if (worker != null) {
+                worker.stop();
+            }
+            try {
+                worker = new Worker(workerIds.incrementAndGet());
+                worker.start();
+            } catch (IOException e) {
+                slots[slot] = null;
+                return new WarmJobResult(target, WarmJobResult.Status.ERROR, 0, true, 0, 0,
+                    "worker did not start: " + e.getMessage(), new ArrayList<String>());
+            }
+            slots[slot] = worker;
+            stats.started(worker.startupNanos);
+        }
+
+        boolean cold = worker.jobs == 0;
+        WarmJobResult result = worker.run(target, cold, timeoutMillis);
+        stats.record(result);
+        if (result.getStatus() == WarmJobResult.Status.TIMED_OUT
+                || result.getStatus() == WarmJobResult.Status.ERROR
+                || worker.jobs >= maxJobs
+                || worker.heapUsed > heapLimit * worker.heapMax) {
+            worker.stop();
+            slots[slot] = null;
+            stats.recycled();
+        }
+        return result;
+    }
+
+    /**
+     * Stop all workers.
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                slots[i].stop();
+                slots[i] = null;
+            }
+        }
+    }
+
+    public String formatStats() {
+        return stats.toString();
+    }
+
+    public void resetStats() {
+        stats.reset();
+    }
+
+    public double getColdAverageMicros() {
+        return stats.average(true);
+    }
+
+    public double getWarmAverageMicros() {
+        return stats.average(false);
+    }
+
+    /**
+     * One worker JVM and the thread reading its stdout into a queue.
+     */
+    private final class Worker {
+        private final int id;
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private Process process;
+        private BufferedWriter in;
+        private long startupNanos;
+        private int jobs;
+        private long heapUsed;
+        private long heapMax = Long.MAX_VALUE;
+
+        Worker(int id) {
+            this.id = id;
+        }
+
+        void start() throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            Thread reader = new Thread(() -> {
+                try (BufferedReader out = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = out.readLine()) != null) {
+                        lines.add(line);
+                    }
+                } catch (IOException e) {
+                    // Worker stopped
+                }
+            }, "warm-worker-output-" + id);
+            reader.setDaemon(true);
+            reader.start();
+            String ready = lines.poll(STARTUP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (!WarmWorker.READY.equals(ready)) {
+                process.destroyForcibly();
+                throw new IOException("expected " + WarmWorker.READY + ", got " + ready);
+            }
+            startupNanos = System.nanoTime() - start;
+        }
+
+        boolean isAlive() {
+            return process != null && process.isAlive();
+        }
+
+        WarmJobResult run(String target, boolean cold, long timeoutMillis) throws InterruptedException {
+            String jobId = Integer.toString(++jobs);
+            List<String> output = new ArrayList<>();
+            long start = System.nanoTime();
+            try {
+                in.write(WarmWorker.RUN + " " + jobId + " " + target.replace('\n', ' '));
+                in.newLine();
+                in.flush();
+            } catch (IOException e) {
+                return new WarmJobResult(target, WarmJobResult.Status.ERROR, id, cold, 0, 0,
+                    "worker pipe closed: " + e.getMessage(), output);
+            }
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            String outPrefix = WarmWorker.OUT + " " + jobId + " ";
+            String donePrefix = WarmWorker.DONE + " " + jobId + " ";
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                String line = remaining > 0 ? lines.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                long latency = (System.nanoTime() - start) / 1_000;
+                if (line == null) {
+                    String reason = isAlive() ? "no result after " + timeoutMillis + " ms" : "worker exited";
+                    return new WarmJobResult(target, isAlive() ? WarmJobResult.Status.TIMED_OUT
+                        : WarmJobResult.Status.ERROR, id, cold, latency, 0, reason, output);
+                }
+                if (line.startsWith(outPrefix)) {
+                    output.add(line.substring(outPrefix.length()));
+                } else if (line.startsWith(donePrefix)) {
+                    String[] parts = line.substring(donePrefix.length()).split(" ", 5);
+                    heapUsed = Long.parseLong(parts[2]);
+                    heapMax = Long.parseLong(parts[3]);
+                    boolean ok = parts[0].equals("OK");
+                    return new WarmJobResult(target, ok ? WarmJobResult.Status.OK : WarmJobResult.Status.FAILED,
+                        id, cold, latency, Long.parseLong(parts[1]), parts.length > 4 ? parts[4] : "", output);
+                }
+            }
+        }
+
+        void stop() {
+            if (process == null) {
+                return;
+            }
+            try {
+                in.write(WarmWorker.QUIT);
+                in.newLine();
+                in.flush();
+                if (!process.waitFor(QUIT_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (IOException e) {
+                process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Cold/warm latency sums and worker lifecycle counters.
+     */
+    private static final class Stats {
+        private int started;
+        private int recycled;
+        private long startupNanos;
+        private int coldJobs;
+        private long coldMicros;
+        private int warmJobs;
+        private long warmMicros;
+        private int lost;
+
+        synchronized void started(long nanos) {
+            started++;
+            startupNanos += nanos;
+        }
+
+        synchronized void recycled() {
+            recycled++;
+        }
+
+        synchronized void record(WarmJobResult result) {
+            if (result.getStatus() != WarmJobResult.Status.OK && result.getStatus() != WarmJobResult.Status.FAILED) {
+                lost++;
+            } else if (result.isCold()) {
+                coldJobs++;
+                coldMicros += result.getLatencyMicros();
+            } else {
+                warmJobs++;
+                warmMicros += result.getLatencyMicros();
+            }
+        }
+
+        synchronized double average(boolean cold) {
+            int jobs = cold ? coldJobs : warmJobs;
+            return jobs == 0 ? 0.0 : (double) (cold ? coldMicros : warmMicros) / jobs;
+        }
+
+        synchronized void reset() {
+            started = 0;
+            recycled = 0;
+            startupNanos = 0;
+            coldJobs = 0;
+            coldMicros = 0;
+            warmJobs = 0;
+            warmMicros = 0;
+            lost = 0;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("Warm workers: %d started (avg startup %d us), %d recycled%n"
+                    + "  cold jobs: %d, avg %d us%n"
+                    + "  warm jobs: %d, avg %d us%n"
+                    + "  timed out or lost: %d%n",
+                started, started == 0 ? 0 : startupNanos / 1_000 / started, recycled,
+                coldJobs, (long) average(true), warmJobs, (long) average(false), lost);
+        }
+    }
+}